@@ -17,10 +17,13 @@ import android.text.TextUtils;
 import android.webkit.URLUtil;
 
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.kaltura.netkit.connect.executor.APIOkRequestsExecutor;
 import com.kaltura.netkit.connect.executor.RequestQueue;
 import com.kaltura.netkit.connect.request.RequestBuilder;
+import com.kaltura.netkit.connect.response.BaseResult;
 import com.kaltura.netkit.connect.response.ResponseElement;
+import com.kaltura.netkit.utils.ErrorElement;
 import com.kaltura.playkit.BuildConfig;
 import com.kaltura.playkit.MessageBus;
 import com.kaltura.playkit.PKError;
@@ -33,13 +36,11 @@ import com.kaltura.playkit.Player;
 import com.kaltura.playkit.PlayerEvent;
 import com.kaltura.playkit.plugins.ads.AdEvent;
 import com.kaltura.playkit.providers.api.phoenix.APIDefines;
+import com.kaltura.playkit.providers.api.phoenix.PhoenixParser;
 import com.kaltura.playkit.providers.api.phoenix.PhoenixRequestBuilder;
 import com.kaltura.playkit.providers.api.phoenix.services.BookmarkService;
 import com.kaltura.playkit.utils.Consts;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
 import java.util.Timer;
 import java.util.TimerTask;
 
@@ -492,8 +493,9 @@ public class PhoenixAnalyticsPlugin extends PKPlugin {
             if (response.getError() != null) { // in case of error from server side
                 sendGenericErrorEvent(response, eventType);
             } else {
-                if (response.isSuccess() && response.getError() == null && response.getResponse() != null && response.getResponse().contains("KalturaAPIException")) {
-                    sendAPIExceptionErrorEvent(response, eventType);
+                ErrorElement apiExceptionError = response.isSuccess() ? parseAPIExceptionError(response) : null;
+                if (apiExceptionError != null) {
+                    sendAPIExceptionErrorEvent(apiExceptionError, eventType);
                     messageBus.post(new PhoenixAnalyticsEvent.PhoenixAnalyticsReport(eventType.toString() + " Failed"));
                 } else {
                     messageBus.post(new PhoenixAnalyticsEvent.PhoenixAnalyticsReport(eventType.toString()));
@@ -552,28 +554,33 @@ public class PhoenixAnalyticsPlugin extends PKPlugin {
         }
     }
 
-    private void sendAPIExceptionErrorEvent(ResponseElement response, PhoenixActionType eventType) {
+    /**
+     * @return the error of an API exception response, null if the request succeeded.
+     */
+    private ErrorElement parseAPIExceptionError(ResponseElement response) {
+        if (response.getResponse() == null) {
+            return null;
+        }
+
         try {
-            JSONObject apiException = new JSONObject(response.getResponse());
-            if (apiException != null) {
-                if (apiException.has("result")) {
-                    JSONObject result = (JSONObject) apiException.get("result");
-                    if (result != null && result.has("error")) {
-                        JSONObject error = (JSONObject) result.get("error");
-                        if (error != null) {
-                            String errorCode = error.getString("code");
-                            String errorMessage = error.getString("message");
-
-                            if (TextUtils.equals(errorCode, CONCURRENCY_ERROR_CODE) || TextUtils.equals(errorCode, CONCURRENCY_ERROR_STRING) ) {
-                                sendConcurrencyErrorEvent(errorMessage);
-                            } else {
-                                messageBus.post(new PhoenixAnalyticsEvent.BookmarkErrorEvent(Integer.parseInt(errorCode), errorMessage));
-                            }
-                        }
-                    }
-                }
+            Object result = PhoenixParser.parse(response.getResponse());
+            return result instanceof BaseResult ? ((BaseResult) result).error : null;
+        } catch (JsonParseException ex) {
+            return null;
+        }
+    }
+
+    private void sendAPIExceptionErrorEvent(ErrorElement error, PhoenixActionType eventType) {
+        try {
+            String errorCode = error.getCode();
+            String errorMessage = error.getMessage();
+
+            if (TextUtils.equals(errorCode, CONCURRENCY_ERROR_CODE) || TextUtils.equals(errorCode, CONCURRENCY_ERROR_STRING) ) {
+                sendConcurrencyErrorEvent(errorMessage);
+            } else {
+                messageBus.post(new PhoenixAnalyticsEvent.BookmarkErrorEvent(Integer.parseInt(errorCode), errorMessage));
             }
-        } catch (JSONException | NumberFormatException ex ) {
+        } catch (NumberFormatException ex) {
             return;
         }
     }
@@ -0,0 +1,34 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers;
+
+/**
+ * Selects which requests a media load sends, in addition to the playback context request.
+ */
+
+public enum LoadProfile {
+    /**
+     * Only the data needed to play the media. Media metadata is not requested, and the media type of
+     * a Phoenix asset is known only if it can be told from the asset request parameters.
+     */
+    PlaybackOnly,
+    /**
+     * Playback data and the media name, description and thumbnails. OVP custom metadata and Phoenix asset
+     * tags and metas are not requested.
+     */
+    PlaybackAndBasicInfo,
+    /**
+     * All the media data, the default.
+     */
+    Full
+}
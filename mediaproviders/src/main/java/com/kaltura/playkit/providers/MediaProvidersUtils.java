@@ -2,13 +2,18 @@ package com.kaltura.playkit.providers;
 
 import com.kaltura.netkit.utils.ErrorElement;
 import com.kaltura.playkit.PKDrmParams;
+import com.kaltura.playkit.PKMediaEntry;
 import com.kaltura.playkit.PKMediaSource;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
+import com.kaltura.playkit.providers.api.KalturaAPIException;
 import com.kaltura.playkit.providers.api.base.model.KalturaDrmPlaybackPluginData;
+import com.kaltura.playkit.providers.base.LazyMetadataMap;
 
 import static com.kaltura.playkit.PKDrmParams.Scheme.PlayReadyCENC;
 import static com.kaltura.playkit.PKDrmParams.Scheme.Unknown;
@@ -73,4 +78,138 @@ public class MediaProvidersUtils {
     public static ErrorElement buildBadRequestErrorElement(String message) {
         return new ErrorElement(ErrorElement.BadRequestError.getName(), message, ErrorElement.ErrorCode.BadRequestErrorCode);
     }
+
+    public static ErrorElement buildSessionErrorElement(String message) {
+        return new ErrorElement(message, ErrorElement.SessionError.getCode()).setName(ErrorElement.SessionError.getName());
+    }
+
+    /**
+     * @param parsedResponse - parsed response, a single result or the results list of a multirequest
+     * @return the error of the first {@link KalturaAPIException} in the response, null if there is none.
+     */
+    public static ErrorElement getAPIExceptionError(Object parsedResponse) {
+        if (parsedResponse instanceof KalturaAPIException) {
+            return ((KalturaAPIException) parsedResponse).error;
+        }
+
+        if (parsedResponse instanceof List) {
+            for (Object result : (List) parsedResponse) {
+                if (result instanceof KalturaAPIException) {
+                    return ((KalturaAPIException) result).error;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a deep copy of the media entry, so a single resolved entry can be passed to several
+     * consumers which may modify it. Copies the fields the providers set on the entries they resolve,
+     * a {@link LazyMetadataMap} is copied without reading its source.
+     */
+    public static PKMediaEntry copyMediaEntry(PKMediaEntry mediaEntry) {
+        if (mediaEntry == null) {
+            return null;
+        }
+
+        List<PKMediaSource> sources = null;
+        if (mediaEntry.getSources() != null) {
+            sources = new ArrayList<>(mediaEntry.getSources().size());
+            for (PKMediaSource source : mediaEntry.getSources()) {
+                sources.add(copyMediaSource(source));
+            }
+        }
+
+        Map<String, String> metadata = mediaEntry.getMetadata();
+        if (metadata instanceof LazyMetadataMap) {
+            metadata = ((LazyMetadataMap) metadata).copy();
+        } else if (metadata != null) {
+            metadata = new HashMap<>(metadata);
+        }
+
+        PKMediaEntry copy = new PKMediaEntry()
+                .setId(mediaEntry.getId())
+                .setName(mediaEntry.getName())
+                .setDuration(mediaEntry.getDuration())
+                .setMediaType(mediaEntry.getMediaType())
+                .setSources(sources)
+                .setMetadata(metadata);
+        copy.setIsVRMediaType(mediaEntry.isVRMediaType());
+        if (mediaEntry.getExternalSubtitleList() != null) {
+            copy.setExternalSubtitleList(new ArrayList<>(mediaEntry.getExternalSubtitleList()));
+        }
+        return copy;
+    }
+
+    private static PKMediaSource copyMediaSource(PKMediaSource source) {
+        if (source == null) {
+            return null;
+        }
+
+        List<PKDrmParams> drmData = null;
+        if (source.getDrmData() != null) {
+            drmData = new ArrayList<>(source.getDrmData().size());
+            for (PKDrmParams drmParams : source.getDrmData()) {
+                drmData.add(drmParams != null ? new PKDrmParams(drmParams.getLicenseUri(), drmParams.getScheme()) : null);
+            }
+        }
+
+        return new PKMediaSource()
+                .setId(source.getId())
+                .setUrl(source.getUrl())
+                .setMediaFormat(source.getMediaFormat())
+                .setDrmData(drmData);
+    }
+
+    /**
+     * @return true if the sources (including DRM data) or the metadata of the entries are different.
+     */
+    public static boolean isMediaEntryChanged(PKMediaEntry mediaEntry, PKMediaEntry otherEntry) {
+        if (mediaEntry == null || otherEntry == null) {
+            return mediaEntry != otherEntry;
+        }
+
+        if (!equals(mediaEntry.getMetadata(), otherEntry.getMetadata())) {
+            return true;
+        }
+
+        List<PKMediaSource> sources = mediaEntry.getSources();
+        List<PKMediaSource> otherSources = otherEntry.getSources();
+        if (sources == null || otherSources == null) {
+            return sources != otherSources;
+        }
+        if (sources.size() != otherSources.size()) {
+            return true;
+        }
+
+        for (int i = 0; i < sources.size(); i++) {
+            PKMediaSource source = sources.get(i);
+            PKMediaSource otherSource = otherSources.get(i);
+            if (!equals(source.getId(), otherSource.getId()) || !equals(source.getUrl(), otherSource.getUrl()) ||
+                    source.getMediaFormat() != otherSource.getMediaFormat() || isDrmDataChanged(source.getDrmData(), otherSource.getDrmData())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDrmDataChanged(List<PKDrmParams> drmData, List<PKDrmParams> otherDrmData) {
+        int size = drmData != null ? drmData.size() : 0;
+        int otherSize = otherDrmData != null ? otherDrmData.size() : 0;
+        if (size != otherSize) {
+            return true;
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (!equals(drmData.get(i).getLicenseUri(), otherDrmData.get(i).getLicenseUri()) ||
+                    drmData.get(i).getScheme() != otherDrmData.get(i).getScheme()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean equals(Object object, Object other) {
+        return object == null ? other == null : object.equals(other);
+    }
 }
@@ -0,0 +1,338 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.Accessories;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.playkit.PKLog;
+import com.kaltura.playkit.PKMediaEntry;
+import com.kaltura.playkit.PKPlaylist;
+import com.kaltura.playkit.PKPlaylistMedia;
+import com.kaltura.playkit.providers.base.OnMediaLoadCompletion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the {@link PKMediaEntry} (sources included) of the playlist items that follow the current item, in background,
+ * so the next item can start playing without waiting for its playback request.
+ * The playlist medias returned by the playlist providers have no sources. The preloader loads each of the next items with
+ * a media provider created by the application, so the providers are configured the same as for regular playback.
+ * When the current index changes, loads of items that are no longer in the preload window are canceled and their entries dropped.
+ *
+ * usage:
+ * PlaylistPlaybackPreloader preloader = new PlaylistPlaybackPreloader((playlistMedia, index) ->
+ *         new KalturaOvpMediaProvider().setSessionProvider(sessionProvider).setEntryId(playlistMedia.getId()), 2);
+ * preloader.setPlaylist(playlist, 0);
+ * ...
+ * preloader.getMediaEntry(nextIndex, completion); // resolved entry, or the running preload of the item
+ * preloader.setCurrentIndex(nextIndex);
+ */
+
+public class PlaylistPlaybackPreloader {
+
+    private static final PKLog log = PKLog.get("PlaylistPlaybackPreloader");
+
+    public static final int DefaultPreloadCount = 1;
+    /** preloads of an item that failed this many times are not retried until the playlist is replaced */
+    public static final int MaxPreloadAttempts = 3;
+
+    public interface MediaProviderFactory {
+
+        /**
+         * Called on the thread that changed the playlist or the current index.
+         *
+         * @return a new provider for the playlist item, null if the item should not be preloaded.
+         */
+        @Nullable
+        MediaEntryProvider createProvider(@NonNull PKPlaylistMedia playlistMedia, int index);
+    }
+
+    public interface OnMediaPreloadListener {
+
+        /**
+         * Called on the thread of the load completion, for successful and failed preloads. Not called for canceled preloads.
+         * A failed preload is retried the next time the item enters the preload window, up to {@link #MaxPreloadAttempts} attempts.
+         */
+        void onMediaPreloaded(int index, @NonNull PKPlaylistMedia playlistMedia, @NonNull ResultElement<PKMediaEntry> result);
+    }
+
+    private final MediaProviderFactory providerFactory;
+    private final int preloadCount;
+    private final Map<Integer, Preload> preloads = new HashMap<>();
+    private final Map<Integer, Integer> failedAttempts = new HashMap<>();
+    private final Object syncObject = new Object();
+
+    private OnMediaPreloadListener preloadListener;
+    private List<PKPlaylistMedia> playlistMedias = new ArrayList<>();
+    private int currentIndex = -1;
+
+    private static class Preload {
+        final PKPlaylistMedia playlistMedia;
+        MediaEntryProvider provider;
+        ResultElement<PKMediaEntry> result;
+        final List<OnMediaLoadCompletion> completions = new ArrayList<>();
+
+        Preload(PKPlaylistMedia playlistMedia) {
+            this.playlistMedia = playlistMedia;
+        }
+    }
+
+    public PlaylistPlaybackPreloader(@NonNull MediaProviderFactory providerFactory) {
+        this(providerFactory, DefaultPreloadCount);
+    }
+
+    /**
+     * @param providerFactory - creates the media provider of each preloaded item
+     * @param preloadCount - number of items following the current item to preload
+     */
+    public PlaylistPlaybackPreloader(@NonNull MediaProviderFactory providerFactory, int preloadCount) {
+        this.providerFactory = providerFactory;
+        this.preloadCount = Math.max(0, preloadCount);
+    }
+
+    /**
+     * optional parameter.
+     *
+     * @param preloadListener - receives the preload results
+     * @return - instance of PlaylistPlaybackPreloader
+     */
+    public PlaylistPlaybackPreloader setPreloadListener(@Nullable OnMediaPreloadListener preloadListener) {
+        synchronized (syncObject) {
+            this.preloadListener = preloadListener;
+        }
+        return this;
+    }
+
+    /**
+     * Replaces the playlist, all the preloads of the previous playlist are canceled, and their completions are not called.
+     *
+     * @param playlist - the playlist, as returned by a playlist provider
+     * @param currentIndex - index of the item currently played, -1 to preload from the first item
+     */
+    public void setPlaylist(@Nullable PKPlaylist playlist, int currentIndex) {
+        List<Preload> canceledPreloads;
+        synchronized (syncObject) {
+            canceledPreloads = new ArrayList<>(preloads.values());
+            preloads.clear();
+            failedAttempts.clear();
+            playlistMedias = playlist != null && playlist.getMediaList() != null ? new ArrayList<>(playlist.getMediaList()) : new ArrayList<>();
+            this.currentIndex = currentIndex;
+        }
+
+        cancelPreloads(canceledPreloads);
+        startPreloads();
+    }
+
+    /**
+     * Moves the preload window to the items that follow the index. Preloads of items before the index or after the window
+     * are canceled and their entries dropped, items that entered the window start to preload.
+     * Loads requested by {@link #getMediaEntry(int, OnMediaLoadCompletion)} are not canceled.
+     *
+     * @param currentIndex - index of the item currently played
+     */
+    public void setCurrentIndex(int currentIndex) {
+        List<Preload> canceledPreloads = new ArrayList<>();
+        synchronized (syncObject) {
+            this.currentIndex = currentIndex;
+            Iterator<Map.Entry<Integer, Preload>> iterator = preloads.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, Preload> preload = iterator.next();
+                if (!isRetained(preload.getKey()) && preload.getValue().completions.isEmpty()) {
+                    canceledPreloads.add(preload.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+
+        cancelPreloads(canceledPreloads);
+        startPreloads();
+    }
+
+    public int getCurrentIndex() {
+        synchronized (syncObject) {
+            return currentIndex;
+        }
+    }
+
+    /**
+     * @return the preloaded entry of the item, null if the item was not resolved yet.
+     */
+    @Nullable
+    public PKMediaEntry getPreloadedMediaEntry(int index) {
+        synchronized (syncObject) {
+            Preload preload = preloads.get(index);
+            return preload != null && preload.result != null && preload.result.isSuccess() ? preload.result.getResponse() : null;
+        }
+    }
+
+    /**
+     * Gets the entry of a playlist item. A preloaded entry is passed right away, a running preload is joined,
+     * otherwise the item is loaded, whether it is in the preload window or not.
+     */
+    public void getMediaEntry(int index, @NonNull OnMediaLoadCompletion completion) {
+        ResultElement<PKMediaEntry> result = null;
+        Preload newPreload = null;
+        synchronized (syncObject) {
+            Preload preload = preloads.get(index);
+            if (preload != null && preload.result != null && preload.result.isSuccess()) {
+                result = preload.result;
+            } else if (preload != null && preload.result == null) {
+                preload.completions.add(completion);
+            } else if (index >= 0 && index < playlistMedias.size() && playlistMedias.get(index) != null) {
+                newPreload = new Preload(playlistMedias.get(index));
+                newPreload.completions.add(completion);
+                preloads.put(index, newPreload);
+            } else {
+                result = Accessories.buildResult(null, ErrorElement.BadRequestError.message(ErrorElement.BadRequestError + ": no playlist media at index " + index));
+            }
+        }
+
+        if (result != null) {
+            completion.onComplete(result);
+        } else if (newPreload != null && !startPreload(index, newPreload)) {
+            onPreloadCompleted(index, newPreload, Accessories.buildResult(null, ErrorElement.BadRequestError.message(ErrorElement.BadRequestError + ": no media provider for index " + index)));
+        }
+    }
+
+    /**
+     * Cancels all the running preloads and drops the preloaded entries. Completions of canceled loads are not called.
+     */
+    public void cancel() {
+        List<Preload> canceledPreloads;
+        synchronized (syncObject) {
+            canceledPreloads = new ArrayList<>(preloads.values());
+            preloads.clear();
+        }
+        cancelPreloads(canceledPreloads);
+    }
+
+    // the entry of the current item is kept as well, in case it is requested after the index was moved to it
+    private boolean isRetained(int index) {
+        return index >= currentIndex && index <= currentIndex + preloadCount;
+    }
+
+    // called while holding syncObject
+    private int getFailedAttempts(int index) {
+        Integer attempts = failedAttempts.get(index);
+        return attempts != null ? attempts : 0;
+    }
+
+    private void startPreloads() {
+        Map<Integer, Preload> newPreloads = new HashMap<>();
+        synchronized (syncObject) {
+            int lastIndex = Math.min(currentIndex + preloadCount, playlistMedias.size() - 1);
+            for (int index = Math.max(0, currentIndex + 1); index <= lastIndex; index++) {
+                Preload preload = preloads.get(index);
+                if ((preload != null && (preload.result == null || preload.result.isSuccess())) || playlistMedias.get(index) == null) {
+                    continue; // running or resolved
+                }
+                if (getFailedAttempts(index) >= MaxPreloadAttempts) {
+                    continue; // loaded only when requested by getMediaEntry
+                }
+                preload = new Preload(playlistMedias.get(index));
+                preloads.put(index, preload);
+                newPreloads.put(index, preload);
+            }
+        }
+
+        for (Map.Entry<Integer, Preload> preload : newPreloads.entrySet()) {
+            if (!startPreload(preload.getKey(), preload.getValue())) {
+                synchronized (syncObject) {
+                    if (preloads.get(preload.getKey()) == preload.getValue()) {
+                        preloads.remove(preload.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false if the factory did not provide a provider for the item.
+     */
+    private boolean startPreload(final int index, final Preload preload) {
+        MediaEntryProvider provider = providerFactory.createProvider(preload.playlistMedia, index);
+        if (provider == null) {
+            return false;
+        }
+
+        boolean isCanceled;
+        synchronized (syncObject) {
+            preload.provider = provider;
+            isCanceled = preloads.get(index) != preload;
+        }
+        if (isCanceled) {
+            return true;
+        }
+
+        log.v("preloading playlist item " + index + " [" + preload.playlistMedia.getId() + "]");
+        provider.load(response -> onPreloadCompleted(index, preload, response));
+
+        synchronized (syncObject) {
+            isCanceled = preloads.get(index) != preload;
+        }
+        if (isCanceled) {
+            provider.cancel(); // canceled while the load was started, no-op for a completed load
+        }
+        return true;
+    }
+
+    private void onPreloadCompleted(int index, Preload preload, ResultElement<PKMediaEntry> result) {
+        List<OnMediaLoadCompletion> completions;
+        OnMediaPreloadListener listener;
+        synchronized (syncObject) {
+            if (preloads.get(index) != preload) {
+                return; // canceled
+            }
+            preload.result = result;
+            completions = new ArrayList<>(preload.completions);
+            preload.completions.clear();
+            if (result.isSuccess()) {
+                failedAttempts.remove(index);
+            } else {
+                failedAttempts.put(index, getFailedAttempts(index) + 1);
+            }
+            if (!result.isSuccess() || !isRetained(index)) {
+                preloads.remove(index); // failed items are retried, items out of the window are not kept
+            }
+            listener = preloadListener;
+        }
+
+        log.v("playlist item " + index + " preload " + (result.isSuccess() ? "succeeded" : "failed: " + result.getError()));
+        for (OnMediaLoadCompletion completion : completions) {
+            completion.onComplete(result);
+        }
+        if (listener != null) {
+            listener.onMediaPreloaded(index, preload.playlistMedia, result);
+        }
+    }
+
+    private void cancelPreloads(List<Preload> canceledPreloads) {
+        for (Preload preload : canceledPreloads) {
+            MediaEntryProvider provider;
+            synchronized (syncObject) {
+                provider = preload.result == null ? preload.provider : null;
+            }
+            if (provider != null) {
+                provider.cancel();
+            }
+        }
+    }
+}
@@ -12,11 +12,38 @@
 
 package com.kaltura.playkit.providers;
 
+import androidx.annotation.NonNull;
+
+import com.kaltura.playkit.PKPlaylist;
+import com.kaltura.playkit.PKPlaylistMedia;
+import com.kaltura.playkit.providers.base.OnPlaylistItemsListener;
 import com.kaltura.playkit.providers.base.OnPlaylistLoadCompletion;
 
+import java.util.Collections;
+
 public interface PlaylistProvider {
 
     void load(OnPlaylistLoadCompletion completion);
 
+    /**
+     * Loads the playlist and passes its medias to the items listener while it loads, in windows, in the playlist order.
+     * The completion is called once all the medias were passed, with the playlist metadata and all the medias.
+     * Providers that can not load the playlist incrementally pass all the medias as a single window, right before the completion.
+     *
+     * @param itemsListener - receives the medias while the playlist loads
+     * @param completion - a callback for handling the result of data fetching flow.
+     */
+    default void load(@NonNull OnPlaylistItemsListener itemsListener, OnPlaylistLoadCompletion completion) {
+        load(response -> {
+            PKPlaylist playlist = response != null ? response.getResponse() : null;
+            if (playlist != null) {
+                itemsListener.onPlaylistItems(0, playlist.getMediaList() != null ? playlist.getMediaList() : Collections.<PKPlaylistMedia>emptyList());
+            }
+            if (completion != null) {
+                completion.onComplete(response);
+            }
+        });
+    }
+
     void cancel();
 }
@@ -0,0 +1,107 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Selects the media fields the providers request from the server.
+ * The OVP providers map the projection to the baseEntry "responseProfile" fields, the Phoenix providers map it to the
+ * asset "responseProfile" retrieved properties.
+ *
+ * {@link #Full} - all the fields the providers use, the default.
+ * {@link #Basic} - only the fields needed for playback and the media name. Descriptions, thumbnails, tags, metas and
+ * images are not requested, so they are missing from the media metadata.
+ * {@link #withFields(String...)} - the {@link #Basic} fields and the listed server field names.
+ *
+ * usage: provider.setResponseProjection(ResponseProjection.withFields("description", "images"));
+ */
+
+public class ResponseProjection {
+
+    public enum Profile {
+        Full,
+        Basic,
+        Custom
+    }
+
+    public static final ResponseProjection Full = new ResponseProjection(Profile.Full, Collections.<String>emptySet());
+    public static final ResponseProjection Basic = new ResponseProjection(Profile.Basic, Collections.<String>emptySet());
+
+    private final Profile profile;
+    private final Set<String> fields;
+
+    private ResponseProjection(Profile profile, Set<String> fields) {
+        this.profile = profile;
+        this.fields = fields;
+    }
+
+    /**
+     * @param fields - server field names to request in addition to the {@link #Basic} fields.
+     */
+    public static ResponseProjection withFields(@NonNull String... fields) {
+        Set<String> fieldsSet = new TreeSet<>();
+        for (String field : fields) {
+            if (!TextUtils.isEmpty(field)) {
+                fieldsSet.add(field.trim());
+            }
+        }
+        return new ResponseProjection(Profile.Custom, Collections.unmodifiableSet(fieldsSet));
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return the fields requested in addition to the {@link #Basic} fields.
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Builds the comma separated fields list of the projection.
+     *
+     * @param fullFields - fields of the {@link #Full} profile, null if the provider requests all fields by default
+     * @param basicFields - fields of the {@link #Basic} profile
+     * @return the fields list, null for all fields
+     *
+     * @hide
+     */
+    public String getFields(String fullFields, @NonNull String basicFields) {
+        if (profile == Profile.Full) {
+            return fullFields;
+        }
+        if (fields.isEmpty()) {
+            return basicFields;
+        }
+
+        Set<String> projectionFields = new LinkedHashSet<>(Arrays.asList(basicFields.split(",")));
+        projectionFields.addAll(fields);
+        return TextUtils.join(",", projectionFields);
+    }
+
+    @Override
+    public String toString() {
+        return fields.isEmpty() ? profile.name() : profile.name() + fields;
+    }
+}
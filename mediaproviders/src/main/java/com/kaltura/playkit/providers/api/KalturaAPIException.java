@@ -12,11 +12,39 @@
 
 package com.kaltura.playkit.providers.api;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.kaltura.netkit.connect.response.BaseResult;
+import com.kaltura.netkit.utils.ErrorElement;
 
 /**
+ * Parsed "KalturaAPIException" response object. Failed requests of a multirequest are parsed into this
+ * type, the exception details are available on {@link BaseResult#error}.
  * @hide
  */
 
 public class KalturaAPIException extends BaseResult {
+
+    public static final String ObjectType = "KalturaAPIException";
+
+    public KalturaAPIException() {
+    }
+
+    public KalturaAPIException(ErrorElement error) {
+        super(error);
+    }
+
+    /**
+     * @param exception - the exception response object
+     * @param errorName - name of the created error, identifies the API the exception came from
+     */
+    public static KalturaAPIException fromJson(JsonObject exception, String errorName) {
+        return new KalturaAPIException(new ErrorElement(getString(exception, "message"), getString(exception, "code"),
+                getString(exception, "objectType")).setName(errorName));
+    }
+
+    private static String getString(JsonObject object, String member) {
+        JsonElement element = object.get(member);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
 }
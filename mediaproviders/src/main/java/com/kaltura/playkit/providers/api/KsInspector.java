@@ -0,0 +1,206 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.api;
+
+import android.text.TextUtils;
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decodes a Kaltura Session token (KS) locally, without a server round trip.
+ * v1 tokens ("signature|partnerId;partnerId;expiry;type;random;userId;privileges;masterPartnerId;additionalData")
+ * expose all their fields. The fields of v2 tokens ("v2|partnerId|encrypted fields") are encrypted, so only the
+ * partner id is available and the expiry is unknown.
+ */
+public class KsInspector {
+
+    public static final int VersionUnknown = 0;
+    public static final int Version1 = 1;
+    public static final int Version2 = 2;
+
+    /** tolerated difference between the device clock and the server clock */
+    public static final long ClockSkewAllowanceMs = 60 * 1000;
+
+    private static final String V2Prefix = "v2|";
+
+    /**
+     * Decodes the base64 KS, throws {@link IllegalArgumentException} for invalid input.
+     */
+    interface Decoder {
+        byte[] decode(String ks, boolean urlSafe);
+    }
+
+    // android.util.Base64 is used since java.util.Base64 requires API 26, replaced by tests
+    static Decoder decoder = (ks, urlSafe) -> Base64.decode(ks, urlSafe ? Base64.URL_SAFE : Base64.DEFAULT);
+
+    private final int version;
+    private final int partnerId;
+    private final long expiry;
+    private final int type;
+    private final String userId;
+    private final Map<String, String> privileges;
+
+    private KsInspector(int version, int partnerId, long expiry, int type, String userId, Map<String, String> privileges) {
+        this.version = version;
+        this.partnerId = partnerId;
+        this.expiry = expiry;
+        this.type = type;
+        this.userId = userId;
+        this.privileges = privileges;
+    }
+
+    /**
+     * @return the decoded KS, or null if the KS is empty or is not a valid KS.
+     */
+    @Nullable
+    public static KsInspector inspect(String ks) {
+        if (TextUtils.isEmpty(ks)) {
+            return null;
+        }
+
+        String decoded = decode(ks);
+        if (decoded == null) {
+            return null;
+        }
+
+        try {
+            if (decoded.startsWith(V2Prefix)) {
+                int end = decoded.indexOf('|', V2Prefix.length());
+                String partnerId = end > 0 ? decoded.substring(V2Prefix.length(), end) : null;
+                return partnerId != null ? new KsInspector(Version2, Integer.parseInt(partnerId), 0, 0, null, Collections.<String, String>emptyMap()) : null;
+            }
+
+            int separator = decoded.indexOf('|');
+            if (separator < 0) {
+                return null;
+            }
+
+            String[] fields = decoded.substring(separator + 1).split(";", -1);
+            if (fields.length < 3) {
+                return null;
+            }
+
+            return new KsInspector(Version1,
+                    Integer.parseInt(fields[0]),
+                    Long.parseLong(fields[2]),
+                    fields.length > 3 && !TextUtils.isEmpty(fields[3]) ? Integer.parseInt(fields[3]) : 0,
+                    fields.length > 5 ? fields[5] : null,
+                    fields.length > 6 ? parsePrivileges(fields[6]) : Collections.<String, String>emptyMap());
+
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the KS expiry in ms since epoch, or 0 if the expiry can not be extracted from the KS.
+     */
+    public static long getExpiryTime(String ks) {
+        KsInspector inspector = inspect(ks);
+        return inspector != null ? inspector.getExpiry() * 1000 : 0;
+    }
+
+    /**
+     * @return true only if the KS expiry is known and has passed by more than {@link #ClockSkewAllowanceMs}.
+     */
+    public static boolean isExpired(String ks) {
+        long expiry = getExpiryTime(ks);
+        return expiry > 0 && expiry + ClockSkewAllowanceMs <= System.currentTimeMillis();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getPartnerId() {
+        return partnerId;
+    }
+
+    /**
+     * @return expiry in seconds since epoch, 0 if unknown.
+     */
+    public long getExpiry() {
+        return expiry;
+    }
+
+    /**
+     * @return session type (0 - user, 2 - admin), 0 if unknown.
+     */
+    public int getType() {
+        return type;
+    }
+
+    @Nullable
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return the privileges, mapped by name to value (empty value for privileges with no value).
+     */
+    @NonNull
+    public Map<String, String> getPrivileges() {
+        return privileges;
+    }
+
+    public boolean hasPrivilege(String name) {
+        return privileges.containsKey(name);
+    }
+
+    private static String decode(String ks) {
+        byte[] data;
+        try {
+            data = decoder.decode(ks, false);
+        } catch (IllegalArgumentException e) {
+            try {
+                data = decoder.decode(ks, true);
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+        if (data == null) {
+            return null;
+        }
+
+        try {
+            // v2 fields are binary, the single byte charset keeps the readable prefix intact
+            return new String(data, "ISO-8859-1");
+        } catch (UnsupportedEncodingException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> parsePrivileges(String privilegesField) {
+        if (TextUtils.isEmpty(privilegesField)) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> privileges = new LinkedHashMap<>();
+        for (String privilege : privilegesField.split(",")) {
+            int separator = privilege.indexOf(':');
+            if (separator < 0) {
+                privileges.put(privilege, "");
+            } else {
+                privileges.put(privilege.substring(0, separator), privilege.substring(separator + 1));
+            }
+        }
+        return Collections.unmodifiableMap(privileges);
+    }
+}
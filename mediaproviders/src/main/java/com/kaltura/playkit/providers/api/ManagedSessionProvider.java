@@ -0,0 +1,296 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.api;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.kaltura.netkit.connect.executor.APIOkRequestsExecutor;
+import com.kaltura.netkit.connect.executor.RequestQueue;
+import com.kaltura.netkit.connect.response.PrimitiveResult;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.netkit.utils.OnCompletion;
+import com.kaltura.netkit.utils.SessionProvider;
+import com.kaltura.playkit.PKLog;
+import com.kaltura.playkit.providers.base.ProviderExecutors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link SessionProvider} that maintains the session by itself.
+ * The session expiry is tracked and the session is renewed in background ahead of its expiry, so loads get a valid
+ * session token right away. Only when there is no valid session, {@link #getSessionToken(OnCompletion)} waits for
+ * the session to be renewed, concurrent calls share a single renewal.
+ * Implementations define how a session is renewed, see {@link #renewSession(int)}.
+ */
+public abstract class ManagedSessionProvider implements SessionProvider {
+
+    private static final PKLog log = PKLog.get("ManagedSessionProvider");
+
+    /** the session is renewed in background this long before it expires */
+    public static final long DefaultRefreshAheadMs = 10 * 60 * 1000;
+    /** validity of a session whose expiry is unknown */
+    public static final long DefaultSessionTtlMs = 60 * 60 * 1000;
+    /** a session that expires within this time is not passed to loads */
+    public static final long ExpiryMarginMs = 30 * 1000;
+
+    protected final String baseUrl;
+    protected final int partnerId;
+    protected RequestQueue requestsExecutor = APIOkRequestsExecutor.getSingleton();
+
+    private final Object syncObject = new Object();
+    private String ks;
+    private long expiry;
+    private long refreshAheadMs = DefaultRefreshAheadMs;
+    private boolean isRenewing;
+    // id of the latest renewal, results of renewals that were superseded are dropped
+    private int renewalId;
+    private List<OnCompletion<PrimitiveResult>> waiters = new ArrayList<>();
+    private ScheduledFuture<?> scheduledRefresh;
+
+    protected ManagedSessionProvider(String baseUrl, int partnerId) {
+        if (TextUtils.isEmpty(baseUrl)) {
+            throw new IllegalArgumentException("Missing baseUrl");
+        }
+
+        this.baseUrl = baseUrl;
+        this.partnerId = partnerId;
+    }
+
+    /**
+     * Renews the session. Implementations must end with {@link #onSessionRenewed(int, String, long)} or
+     * {@link #onSessionRenewFailed(int, ErrorElement)}. Never called while a previous renewal is in progress,
+     * unless the previous renewal was superseded by {@link #startNewSession(OnCompletion)}.
+     *
+     * @param renewalId - identifies the renewal, passed back with its result
+     */
+    protected abstract void renewSession(int renewalId);
+
+    @Override
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public int partnerId() {
+        return partnerId;
+    }
+
+    @Override
+    public void getSessionToken(OnCompletion<PrimitiveResult> completion) {
+        String sessionKs;
+        int renewal = 0;
+
+        synchronized (syncObject) {
+            long now = System.currentTimeMillis();
+            if (ks != null && expiry - ExpiryMarginMs > now) {
+                sessionKs = ks;
+                if (!isRenewing && expiry - refreshAheadMs <= now) {
+                    // the scheduled refresh was missed or failed, refresh without waiting
+                    isRenewing = true;
+                    renewal = ++renewalId;
+                }
+            } else {
+                waiters.add(completion);
+                if (isRenewing) {
+                    return;
+                }
+                isRenewing = true;
+                renewal = ++renewalId;
+                sessionKs = null;
+            }
+        }
+
+        if (renewal != 0) {
+            log.v("renewing session");
+            renewSession(renewal);
+        }
+        if (sessionKs != null && completion != null) {
+            completion.onComplete(new PrimitiveResult(sessionKs));
+        }
+    }
+
+    /**
+     * Sets a session which was created by the application. A renewal that is running is superseded by the session.
+     *
+     * @param ks - session token
+     * @param expiryMs - expiry time in ms since epoch, 0 to extract it from the KS (see {@link KsInspector}).
+     */
+    public void setSession(String ks, long expiryMs) {
+        int renewal;
+        synchronized (syncObject) {
+            renewal = ++renewalId;
+        }
+        onSessionRenewed(renewal, ks, expiryMs);
+    }
+
+    /**
+     * Drops the current session, the next {@link #getSessionToken(OnCompletion)} call renews the session.
+     * A renewal that is already running is not affected.
+     */
+    public void clearSession() {
+        synchronized (syncObject) {
+            ks = null;
+            expiry = 0;
+            cancelScheduledRefresh();
+        }
+    }
+
+    /**
+     * @param refreshAheadMs - how long before the session expiry the session is renewed.
+     */
+    public ManagedSessionProvider setRefreshAhead(long refreshAheadMs) {
+        this.refreshAheadMs = refreshAheadMs;
+        return this;
+    }
+
+    public ManagedSessionProvider setRequestExecutor(@NonNull RequestQueue executor) {
+        this.requestsExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Stops the background session refresh.
+     */
+    public void close() {
+        synchronized (syncObject) {
+            cancelScheduledRefresh();
+        }
+    }
+
+    /**
+     * Drops the current session and renews it right away, for example once the user credentials were changed.
+     * A renewal that is already running is superseded, its result is dropped and the loads that waited for it
+     * get the new session.
+     *
+     * @param completion - optional, called with the new session.
+     */
+    protected void startNewSession(@Nullable OnCompletion<PrimitiveResult> completion) {
+        int renewal;
+        synchronized (syncObject) {
+            ks = null;
+            expiry = 0;
+            cancelScheduledRefresh();
+            if (completion != null) {
+                waiters.add(completion);
+            }
+            isRenewing = true;
+            renewal = ++renewalId;
+        }
+        log.v("starting a new session");
+        renewSession(renewal);
+    }
+
+    /**
+     * @return true if the renewal was not superseded by a later renewal or by a session set by the application.
+     */
+    protected boolean isCurrentRenewal(int renewalId) {
+        synchronized (syncObject) {
+            return this.renewalId == renewalId;
+        }
+    }
+
+    @Nullable
+    protected String getCurrentKs() {
+        synchronized (syncObject) {
+            return ks;
+        }
+    }
+
+    /**
+     * @param renewalId - id of the renewal, see {@link #renewSession(int)}. Superseded renewals are ignored.
+     * @param ks - the renewed session token
+     * @param expiryMs - expiry time in ms since epoch, 0 to extract it from the KS (see {@link KsInspector}).
+     */
+    protected void onSessionRenewed(int renewalId, String ks, long expiryMs) {
+        List<OnCompletion<PrimitiveResult>> sessionWaiters;
+        synchronized (syncObject) {
+            if (this.renewalId != renewalId) {
+                log.v("dropping the session of a superseded renewal");
+                return;
+            }
+            this.ks = ks;
+            if (expiryMs <= 0) {
+                expiryMs = KsInspector.getExpiryTime(ks);
+            }
+            this.expiry = expiryMs > 0 ? expiryMs : System.currentTimeMillis() + DefaultSessionTtlMs;
+            isRenewing = false;
+            sessionWaiters = waiters;
+            waiters = new ArrayList<>();
+            scheduleRefresh();
+        }
+        log.v("session renewed");
+
+        for (OnCompletion<PrimitiveResult> waiter : sessionWaiters) {
+            if (waiter != null) {
+                waiter.onComplete(new PrimitiveResult(ks));
+            }
+        }
+    }
+
+    /**
+     * @param renewalId - id of the renewal, see {@link #renewSession(int)}. Superseded renewals are ignored.
+     */
+    protected void onSessionRenewFailed(int renewalId, ErrorElement error) {
+        List<OnCompletion<PrimitiveResult>> sessionWaiters;
+        synchronized (syncObject) {
+            if (this.renewalId != renewalId) {
+                log.v("dropping the failure of a superseded renewal");
+                return;
+            }
+            isRenewing = false;
+            sessionWaiters = waiters;
+            waiters = new ArrayList<>();
+        }
+        log.w("failed to renew session: " + error);
+
+        for (OnCompletion<PrimitiveResult> waiter : sessionWaiters) {
+            if (waiter != null) {
+                PrimitiveResult result = new PrimitiveResult((String) null);
+                result.error = error;
+                waiter.onComplete(result);
+            }
+        }
+    }
+
+    private void scheduleRefresh() {
+        cancelScheduledRefresh();
+
+        long delay = Math.max(0, expiry - refreshAheadMs - System.currentTimeMillis());
+        scheduledRefresh = ProviderExecutors.getScheduler().schedule(() -> {
+            int renewal;
+            synchronized (syncObject) {
+                scheduledRefresh = null;
+                if (isRenewing) {
+                    return;
+                }
+                isRenewing = true;
+                renewal = ++renewalId;
+            }
+            log.v("refreshing session ahead of expiry");
+            renewSession(renewal);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelScheduledRefresh() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.api.base;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.kaltura.netkit.connect.response.BaseResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the "objectType" value of a response object to the model class it is parsed into.
+ * The {@link TypeAdapter} of each type is created once, by the registry {@link Gson}, and reused by all parsing.
+ * Applications can register their own types in order to parse custom response objects.
+ *
+ * usage: PhoenixParser.getObjectTypeRegistry().register("KalturaCustomAsset", CustomAsset.class);
+ */
+
+public class ObjectTypeRegistry {
+
+    private final Gson gson;
+    private final Map<String, Class<? extends BaseResult>> types = new ConcurrentHashMap<>();
+    private final Map<String, TypeAdapter<? extends BaseResult>> adapters = new ConcurrentHashMap<>();
+
+    public ObjectTypeRegistry(@NonNull Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Registers a type by its class simple name, which matches the server objectType of the model classes.
+     */
+    public ObjectTypeRegistry register(@NonNull Class<? extends BaseResult> type) {
+        return register(type.getSimpleName(), type);
+    }
+
+    public ObjectTypeRegistry register(@NonNull String objectType, @NonNull Class<? extends BaseResult> type) {
+        types.put(objectType, type);
+        adapters.remove(objectType);
+        return this;
+    }
+
+    /**
+     * Registers a custom adapter for the objectType.
+     */
+    public <T extends BaseResult> ObjectTypeRegistry register(@NonNull String objectType, @NonNull Class<T> type, @NonNull TypeAdapter<T> adapter) {
+        types.put(objectType, type);
+        adapters.put(objectType, adapter);
+        return this;
+    }
+
+    @Nullable
+    public Class<? extends BaseResult> getType(String objectType) {
+        return objectType != null ? types.get(objectType) : null;
+    }
+
+    /**
+     * @return the adapter of the objectType, or null if the type was not registered.
+     */
+    @Nullable
+    public TypeAdapter<? extends BaseResult> getAdapter(String objectType) {
+        if (objectType == null) {
+            return null;
+        }
+
+        TypeAdapter<? extends BaseResult> adapter = adapters.get(objectType);
+        if (adapter == null) {
+            Class<? extends BaseResult> type = types.get(objectType);
+            if (type == null) {
+                return null;
+            }
+            adapter = gson.getAdapter(type);
+            adapters.put(objectType, adapter);
+        }
+        return adapter;
+    }
+
+    /**
+     * @return the Gson instance the registry adapters are created with. Has no {@link BaseResult} adapter registered,
+     * can be used to parse model objects directly.
+     */
+    @NonNull
+    public Gson getGson() {
+        return gson;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.api.base;
+
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.kaltura.netkit.connect.response.BaseResult;
+import com.kaltura.playkit.providers.base.ParallelChunks;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Single pass parser of provider responses.
+ * The response is read token by token, multirequest results are deserialized one element at a time
+ * with the {@link BaseResult} adapter registered on the provided {@link Gson}. A tree is built only for
+ * the element being deserialized, never for the whole response.
+ * When a decode executor is provided, the array elements are read into trees first and the trees are
+ * deserialized in parallel chunks, the results keep the array order.
+ *
+ * @hide
+ */
+
+public class ResponseStreamParser {
+
+    /**
+     * Receives the results of a multirequest response as soon as each of them is deserialized.
+     */
+    public interface ResultListener {
+
+        /**
+         * Called in the results order, unless the results are deserialized in parallel. Parallel results are
+         * passed on the decode threads, in no specific order.
+         *
+         * @param index - index of the result in the results array
+         */
+        void onResult(int index, BaseResult result);
+    }
+
+    /**
+     * Reads the next value of the reader.
+     *
+     * @return a list of {@link BaseResult} for an array, a {@link BaseResult} for an object and the
+     * string value for a primitive.
+     */
+    public static Object parseValue(JsonReader reader, Gson gson) throws JsonParseException {
+        return parseValue(reader, gson, null);
+    }
+
+    /**
+     * @param decodeExecutor - executor to deserialize array elements on in parallel, null to deserialize on the calling thread.
+     * @see #parseValue(JsonReader, Gson)
+     */
+    public static Object parseValue(JsonReader reader, Gson gson, @Nullable ExecutorService decodeExecutor) throws JsonParseException {
+        return parseValue(reader, gson, decodeExecutor, null);
+    }
+
+    /**
+     * @param decodeExecutor - executor to deserialize array elements on in parallel, null to deserialize on the calling thread.
+     * @param resultListener - receives each array element once it is deserialized, null if not needed.
+     * @see #parseValue(JsonReader, Gson)
+     */
+    public static Object parseValue(JsonReader reader, Gson gson, @Nullable ExecutorService decodeExecutor, @Nullable ResultListener resultListener) throws JsonParseException {
+        try {
+            switch (peek(reader)) {
+                case END_DOCUMENT:
+                    return null;
+                case BEGIN_ARRAY:
+                    return decodeExecutor != null ? parseArray(reader, gson, decodeExecutor, resultListener) : parseArray(reader, gson, resultListener);
+                case BEGIN_OBJECT:
+                    return gson.fromJson(reader, BaseResult.class);
+                case NULL:
+                    reader.nextNull();
+                    return null;
+                case BOOLEAN:
+                    return String.valueOf(reader.nextBoolean());
+                default:
+                    return reader.nextString();
+            }
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Reads a response that wraps its value with an envelope object, such as the phoenix
+     * {"executionTime":.., "result":..} response. The wrapped member is parsed with {@link #parseValue(JsonReader, Gson)}.
+     * If the object has no such member, the object itself is parsed as a single {@link BaseResult}.
+     *
+     * @param resultMember - name of the envelope member that holds the value
+     */
+    public static Object parseEnvelope(JsonReader reader, Gson gson, String resultMember) throws JsonParseException {
+        return parseEnvelope(reader, gson, resultMember, null);
+    }
+
+    /**
+     * @param decodeExecutor - executor to deserialize array elements on in parallel, null to deserialize on the calling thread.
+     * @see #parseEnvelope(JsonReader, Gson, String)
+     */
+    public static Object parseEnvelope(JsonReader reader, Gson gson, String resultMember, @Nullable ExecutorService decodeExecutor) throws JsonParseException {
+        return parseEnvelope(reader, gson, resultMember, decodeExecutor, null);
+    }
+
+    /**
+     * @param decodeExecutor - executor to deserialize array elements on in parallel, null to deserialize on the calling thread.
+     * @param resultListener - receives each array element once it is deserialized, null if not needed.
+     * @see #parseEnvelope(JsonReader, Gson, String)
+     */
+    public static Object parseEnvelope(JsonReader reader, Gson gson, String resultMember, @Nullable ExecutorService decodeExecutor,
+                                       @Nullable ResultListener resultListener) throws JsonParseException {
+        try {
+            if (peek(reader) != JsonToken.BEGIN_OBJECT) {
+                return parseValue(reader, gson, decodeExecutor, resultListener);
+            }
+
+            Object result = null;
+            boolean hasResult = false;
+            // envelope members are few and small (execution time etc.), they are kept in case there is no result member
+            JsonObject envelope = new JsonObject();
+            JsonParser parser = new JsonParser();
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (!hasResult && resultMember.equals(name)) {
+                    result = parseValue(reader, gson, decodeExecutor, resultListener);
+                    hasResult = true;
+                } else if (hasResult) {
+                    reader.skipValue();
+                } else {
+                    envelope.add(name, parser.parse(reader));
+                }
+            }
+            reader.endObject();
+
+            return hasResult ? result : gson.fromJson(envelope, BaseResult.class);
+
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * @return the next token, {@link JsonToken#END_DOCUMENT} for an empty response.
+     */
+    private static JsonToken peek(JsonReader reader) throws IOException {
+        try {
+            return reader.peek();
+        } catch (EOFException e) {
+            return JsonToken.END_DOCUMENT;
+        }
+    }
+
+    private static List<BaseResult> parseArray(JsonReader reader, Gson gson, ResultListener resultListener) throws IOException {
+        List<BaseResult> results = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            BaseResult result = gson.fromJson(reader, BaseResult.class);
+            if (resultListener != null) {
+                resultListener.onResult(results.size(), result);
+            }
+            results.add(result);
+        }
+        reader.endArray();
+        return results;
+    }
+
+    private static List<BaseResult> parseArray(JsonReader reader, final Gson gson, ExecutorService decodeExecutor, final ResultListener resultListener) throws IOException {
+        // reading is sequential, only the deserialization of the element trees is split
+        final List<JsonElement> elements = new ArrayList<>();
+        JsonParser parser = new JsonParser();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            elements.add(parser.parse(reader));
+        }
+        reader.endArray();
+
+        final BaseResult[] results = new BaseResult[elements.size()];
+        ParallelChunks.run(results.length, decodeExecutor, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = gson.fromJson(elements.get(i), BaseResult.class);
+                elements.set(i, null);
+                if (resultListener != null) {
+                    resultListener.onResult(i, results[i]);
+                }
+            }
+        });
+        return new ArrayList<>(Arrays.asList(results));
+    }
+}
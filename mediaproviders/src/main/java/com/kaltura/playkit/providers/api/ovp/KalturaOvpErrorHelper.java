@@ -25,6 +25,9 @@ import static com.kaltura.playkit.providers.MediaProvidersUtils.buildNotFoundlEr
 
 public class KalturaOvpErrorHelper {
 
+    /** API exception code of a KS that is malformed, expired or revoked */
+    public static final String INVALID_KS = "INVALID_KS";
+
     public static ErrorElement getErrorElement(String code, String message){
 
         final String NO_FILES_FOUND = "NoFilesFound";
@@ -55,4 +58,11 @@ public class KalturaOvpErrorHelper {
     public static ErrorElement getErrorElement(String code) {
         return getErrorElement(code, null);
     }
+
+    /**
+     * @return true if the error is an API exception of an invalid or expired KS.
+     */
+    public static boolean isSessionError(ErrorElement error) {
+        return error != null && INVALID_KS.equals(error.getCode());
+    }
 }
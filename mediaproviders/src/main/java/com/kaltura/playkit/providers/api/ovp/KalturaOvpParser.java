@@ -13,6 +13,7 @@
 package com.kaltura.playkit.providers.api.ovp;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -23,8 +24,24 @@ import com.google.gson.stream.JsonReader;
 import com.kaltura.netkit.connect.response.BaseResult;
 import com.kaltura.netkit.utils.GsonParser;
 import com.kaltura.netkit.utils.RuntimeTypeAdapterFactory;
+import com.kaltura.playkit.providers.api.base.ObjectTypeRegistry;
+import com.kaltura.playkit.providers.api.base.ResponseStreamParser;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaBaseEntryListResponse;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaEntryContextDataResult;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaLiveStreamEntry;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaMediaEntry;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaMetadata;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaMetadataListResponse;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaPlaybackContext;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaPlaybackSource;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaPlaylist;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaSessionInfo;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaStartWidgetSessionResponse;
 import com.kaltura.playkit.providers.api.ovp.model.OvpResultAdapter;
 
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+
 
 /**
  * @hide
@@ -32,20 +49,67 @@ import com.kaltura.playkit.providers.api.ovp.model.OvpResultAdapter;
 
 public class KalturaOvpParser {
 
+    private static final ObjectTypeRegistry objectTypeRegistry = new ObjectTypeRegistry(new Gson())
+            .register(KalturaBaseEntryListResponse.class)
+            .register(KalturaEntryContextDataResult.class)
+            .register(KalturaLiveStreamEntry.class)
+            .register(KalturaMediaEntry.class)
+            .register(KalturaMetadata.class)
+            .register(KalturaMetadataListResponse.class)
+            .register(KalturaPlaybackContext.class)
+            .register(KalturaPlaybackSource.class)
+            .register(KalturaPlaylist.class)
+            .register(KalturaSessionInfo.class)
+            .register(KalturaStartWidgetSessionResponse.class);
+
+    private static final Gson gson = new GsonBuilder().registerTypeHierarchyAdapter(BaseResult.class, new OvpResultAdapter()).create();
+
+    /**
+     * @return the registry the ovp response objects are parsed by. Custom response types can be registered on it.
+     */
+    @NonNull
+    public static ObjectTypeRegistry getObjectTypeRegistry() {
+        return objectTypeRegistry;
+    }
+
     public static Object parse(String response, Class... types) throws JsonSyntaxException {
         JsonParser parser = new JsonParser();
         JsonElement resultElement = parser.parse(response);
-        return GsonParser.parse(resultElement, new GsonBuilder().registerTypeHierarchyAdapter(BaseResult.class, new OvpResultAdapter()).create(), types);
+        return GsonParser.parse(resultElement, getGson(), types);
     }
 
+    /**
+     * Parses the response in a single pass, multirequest results are deserialized one by one as they are read.
+     */
     public static <T> T parse(JsonReader reader) throws JsonSyntaxException {
-        JsonParser parser = new JsonParser();
-        return parse(parser.parse(reader));
+        return (T) ResponseStreamParser.parseValue(reader, getGson());
     }
 
     public static <T> T parse(String response) throws JsonSyntaxException {
-        JsonParser parser = new JsonParser();
-        return parse(parser.parse(response));
+        JsonReader reader = new JsonReader(new StringReader(response));
+        reader.setLenient(true);
+        return parse(reader);
+    }
+
+    /**
+     * Parses the response, multirequest results are deserialized in parallel chunks on the decode executor.
+     *
+     * @param decodeExecutor - executor for the results deserialization, null parses on the calling thread.
+     */
+    public static <T> T parse(String response, @Nullable ExecutorService decodeExecutor) throws JsonSyntaxException {
+        JsonReader reader = new JsonReader(new StringReader(response));
+        reader.setLenient(true);
+        return parse(reader, decodeExecutor, null);
+    }
+
+    /**
+     * Parses the response in a single pass, each multirequest result is passed to the result listener once it is deserialized.
+     *
+     * @param decodeExecutor - executor for the results deserialization, null parses on the calling thread.
+     * @param resultListener - receives the results while the response is parsed, null if not needed.
+     */
+    public static <T> T parse(JsonReader reader, @Nullable ExecutorService decodeExecutor, @Nullable ResponseStreamParser.ResultListener resultListener) throws JsonSyntaxException {
+        return (T) ResponseStreamParser.parseValue(reader, getGson(), decodeExecutor, resultListener);
     }
 
     public static <T> T parse(JsonElement resultElement) throws JsonSyntaxException {
@@ -62,7 +126,7 @@ public class KalturaOvpParser {
 
     @NonNull
     public static Gson getGson() {
-        return new GsonBuilder().registerTypeHierarchyAdapter(BaseResult.class, new OvpResultAdapter()).create();
+        return gson;
     }
 
     public static Gson getRuntimeGson(Class clz) {
@@ -80,11 +144,10 @@ public class KalturaOvpParser {
                         .registerSubtype(BasePlaybackContext.KalturaAccessControlDrmPolicyAction.class, "KalturaAccessControlLimitDeliveryProfilesAction");*/
         }
 
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        if(adapterFactory != null){
-            gsonBuilder.registerTypeAdapterFactory(adapterFactory);
+        if(adapterFactory == null){
+            return objectTypeRegistry.getGson();
         }
-        return gsonBuilder.create();
+        return new GsonBuilder().registerTypeAdapterFactory(adapterFactory).create();
     }
 
     //public static void registerRuntimeAdapter()
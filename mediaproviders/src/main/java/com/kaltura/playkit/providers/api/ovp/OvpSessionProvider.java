@@ -0,0 +1,108 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.api.ovp;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.JsonParseException;
+import com.kaltura.netkit.connect.request.RequestBuilder;
+import com.kaltura.netkit.connect.response.BaseResult;
+import com.kaltura.netkit.connect.response.PrimitiveResult;
+import com.kaltura.netkit.connect.response.ResponseElement;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.netkit.utils.OnCompletion;
+import com.kaltura.playkit.providers.api.ManagedSessionProvider;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaStartWidgetSessionResponse;
+import com.kaltura.playkit.providers.api.ovp.services.OvpSessionService;
+import com.kaltura.playkit.providers.api.ovp.services.UserService;
+
+import static com.kaltura.playkit.providers.MediaProvidersUtils.buildLoadErrorElement;
+
+/**
+ * OVP {@link ManagedSessionProvider}.
+ * OVP sessions can not be refreshed, the session is renewed with user/loginByLoginId when the user credentials were
+ * provided, and with a widget session otherwise.
+ */
+public class OvpSessionProvider extends ManagedSessionProvider {
+
+    private String loginId;
+    private String password;
+
+    public OvpSessionProvider(String baseUrl, int partnerId) {
+        super(baseUrl, partnerId);
+    }
+
+    /**
+     * Sets the user credentials and logs in.
+     * A session renewal that is already running is superseded, loads that wait for a session get the user session.
+     *
+     * @param completion - optional, called with the session token once logged in.
+     */
+    public void login(@NonNull String loginId, @NonNull String password, @Nullable OnCompletion<PrimitiveResult> completion) {
+        synchronized (this) {
+            this.loginId = loginId;
+            this.password = password;
+        }
+        startNewSession(completion);
+    }
+
+    @Override
+    protected void renewSession(int renewalId) {
+        String apiBaseUrl = baseUrl + (baseUrl.endsWith("/") ? "" : "/") + OvpConfigs.ApiPrefix;
+
+        RequestBuilder<?> requestBuilder;
+        synchronized (this) {
+            requestBuilder = loginId != null && password != null ?
+                    UserService.loginByLoginId(apiBaseUrl, loginId, password, partnerId) :
+                    OvpSessionService.anonymousSession(apiBaseUrl, "_" + partnerId);
+        }
+
+        requestBuilder.completion(response -> onSessionResponse(response, renewalId));
+        requestsExecutor.queue(requestBuilder.build());
+    }
+
+    private void onSessionResponse(ResponseElement response, int renewalId) {
+        ErrorElement error = null;
+        String ks = null;
+
+        if (response != null && response.isSuccess()) {
+            try {
+                Object result = KalturaOvpParser.parse(response.getResponse());
+                if (result instanceof String) {
+                    ks = (String) result;
+                } else if (result instanceof KalturaStartWidgetSessionResponse) {
+                    ks = ((KalturaStartWidgetSessionResponse) result).getKs();
+                } else if (result instanceof BaseResult && ((BaseResult) result).error != null) {
+                    error = ((BaseResult) result).error;
+                }
+            } catch (JsonParseException ex) {
+                error = buildLoadErrorElement("failed parsing session response: " + ex.getMessage());
+            }
+        } else {
+            error = response != null && response.getError() != null ? response.getError() : buildLoadErrorElement("session request failed");
+        }
+
+        if (error == null && TextUtils.isEmpty(ks)) {
+            error = buildLoadErrorElement("session response is missing the ks");
+        }
+
+        if (error != null) {
+            onSessionRenewFailed(renewalId, error);
+        } else {
+            onSessionRenewed(renewalId, ks, 0);
+        }
+    }
+}
@@ -19,5 +19,7 @@ import com.kaltura.netkit.connect.response.BaseResult;
  */
 
 public class KalturaMetadata extends BaseResult {
+    public int id;
+    public int version;
     public String xml;
 }
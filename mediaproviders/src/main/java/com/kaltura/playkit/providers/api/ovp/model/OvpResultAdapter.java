@@ -12,19 +12,21 @@
 
 package com.kaltura.playkit.providers.api.ovp.model;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
 import com.kaltura.netkit.connect.response.BaseResult;
 import com.kaltura.netkit.connect.response.PrimitiveResult;
 import com.kaltura.netkit.utils.ErrorElement;
 
 import java.lang.reflect.Type;
 
+import com.kaltura.playkit.providers.api.KalturaAPIException;
+import com.kaltura.playkit.providers.api.base.ObjectTypeRegistry;
 import com.kaltura.playkit.providers.api.ovp.KalturaOvpParser;
 
 /**
@@ -44,28 +46,29 @@ public class OvpResultAdapter implements JsonDeserializer<BaseResult> {
             return new PrimitiveResult(json.getAsString());
         }
 
-
+        ObjectTypeRegistry registry = KalturaOvpParser.getObjectTypeRegistry();
         JsonObject result = json.getAsJsonObject();
-        BaseResult baseResult = null/*= new Gson().fromJson(json, typeOfT)*/;
+        BaseResult baseResult = null;
 
         if(result != null && result.has("objectType")){
             String objectType=  result.getAsJsonPrimitive("objectType").getAsString();
-            if(objectType.equals("KalturaAPIException")) {
-                baseResult = new BaseResult(new Gson().fromJson(result, ErrorElement.class));
+            if(objectType.equals(KalturaAPIException.ObjectType)) {
+                baseResult = KalturaAPIException.fromJson(result, "OVPError");
             } else {
+                TypeAdapter<? extends BaseResult> adapter = registry.getAdapter(objectType);
+                if (adapter == null) {
+                    throw new JsonParseException("Adaptor failed to parse result, unknown objectType " + objectType);
+                }
                 try {
-                    String clzName  = getClass().getPackage().getName()+"."+objectType;
-                    Class clz = Class.forName(clzName);
-
-                    baseResult = (BaseResult) KalturaOvpParser.getRuntimeGson(clz).fromJson(json, clz);
+                    baseResult = adapter.fromJsonTree(result);
 
-                } catch (ClassNotFoundException | JsonSyntaxException e) {
+                } catch (JsonSyntaxException e) {
                     e.printStackTrace();
                     throw new JsonParseException("Adaptor failed to parse result, "+e.getMessage());
                 }
             }
         } else {
-            baseResult = KalturaOvpParser.getRuntimeGson(typeOfT.getClass()).fromJson(json, typeOfT);
+            baseResult = registry.getGson().fromJson(json, typeOfT);
         }
         return baseResult;
     }
@@ -29,6 +29,11 @@ import static com.kaltura.playkit.utils.Consts.HTTP_METHOD_POST;
 
 public class BaseEntryService extends OvpService {
 
+    /** entry fields used by the media providers */
+    public static final String EntryFields = "id,name,description,thumbnailUrl,dataUrl,duration,msDuration,flavorParamsIds,mediaType,type,tags,dvrStatus,externalSourceType,referenceId";
+    /** entry fields needed for playback */
+    public static final String BasicEntryFields = "id,name,duration,msDuration,flavorParamsIds,mediaType,type,tags,dvrStatus,externalSourceType";
+
     /*public static RequestBuilder entryInfo(String baseUrl, String ks, int partnerId, String entryId) {
 
         MultiRequestBuilder multiRequestBuilder = (MultiRequestBuilder) OvpService.getMultirequest(baseUrl, ks, partnerId)
@@ -46,16 +51,23 @@ public class BaseEntryService extends OvpService {
     }*/
 
     public static OvpRequestBuilder list(String baseUrl, String ks, String entryId, String referenceId, boolean redirectFromEntryId) {
+        return list(baseUrl, ks, entryId, referenceId, redirectFromEntryId, EntryFields);
+    }
+
+    /**
+     * @param fields - comma separated entry fields to include in the response, see {@link #EntryFields}
+     */
+    public static OvpRequestBuilder list(String baseUrl, String ks, String entryId, String referenceId, boolean redirectFromEntryId, String fields) {
         return new OvpRequestBuilder()
                 .service("baseEntry")
                 .action("list")
                 .method(HTTP_METHOD_POST)
                 .url(baseUrl)
                 .tag("baseEntry-list")
-                .params(getEntryListReqParams(ks, entryId, referenceId, redirectFromEntryId));
+                .params(getEntryListReqParams(ks, entryId, referenceId, redirectFromEntryId, fields));
     }
 
-    private static JsonObject getEntryListReqParams(String ks, String entryId, String referenceId, boolean redirectFromEntryId) {
+    private static JsonObject getEntryListReqParams(String ks, String entryId, String referenceId, boolean redirectFromEntryId, String fields) {
 
         BaseEntryListParams baseEntryListParams = new BaseEntryListParams(ks);
 
@@ -68,7 +80,7 @@ public class BaseEntryService extends OvpService {
         } else if (!TextUtils.isEmpty(referenceId)) {
             baseEntryListParams.filter.referenceIdEqual = referenceId;
         }
-        baseEntryListParams.responseProfile.fields = "id,name,description,thumbnailUrl,dataUrl,duration,msDuration,flavorParamsIds,mediaType,type,tags,dvrStatus,externalSourceType,referenceId";
+        baseEntryListParams.responseProfile.fields = fields != null ? fields : EntryFields;
         baseEntryListParams.responseProfile.type = APIDefines.ResponseProfileType.IncludeFields;
 
         return new Gson().toJsonTree(baseEntryListParams).getAsJsonObject();
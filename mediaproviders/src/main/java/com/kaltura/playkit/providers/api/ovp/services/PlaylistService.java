@@ -25,6 +25,11 @@ import static com.kaltura.playkit.utils.Consts.HTTP_METHOD_POST;
  */
 public class PlaylistService extends OvpService {
 
+    /** playlist entries fields used by the playlist provider */
+    public static final String EntryFields = "id,referenceId,name,description,thumbnailUrl,dataUrl,msDuration,flavorParamsIds,mediaType,type,tags,dvrStatus,externalSourceType,searchText";
+    /** playlist entries fields needed for playback */
+    public static final String BasicEntryFields = "id,name,msDuration,flavorParamsIds,mediaType,type,tags,dvrStatus,externalSourceType";
+
     public static OvpRequestBuilder get(String baseUrl, String ks, String playlistId) {
 
         return new OvpRequestBuilder().service("playlist")
@@ -47,22 +52,29 @@ public class PlaylistService extends OvpService {
     }
 
     public static OvpRequestBuilder execute(String baseUrl, String ks, String playlistId, Integer pageSize, Integer pageIndex) {
+        return execute(baseUrl, ks, playlistId, pageSize, pageIndex, EntryFields);
+    }
+
+    /**
+     * @param fields - comma separated entry fields to include in the response, see {@link #EntryFields}
+     */
+    public static OvpRequestBuilder execute(String baseUrl, String ks, String playlistId, Integer pageSize, Integer pageIndex, String fields) {
 
         return new OvpRequestBuilder().service("playlist")
                 .action("execute")
                 .method(HTTP_METHOD_POST)
                 .url(baseUrl)
                 .tag("playlist-execute")
-                .params(getPlaylistExecuteParams(ks, playlistId, pageSize, pageIndex));
+                .params(getPlaylistExecuteParams(ks, playlistId, pageSize, pageIndex, fields));
     }
 
-    private static JsonObject getPlaylistExecuteParams(String ks, String playlistId, Integer pageSize, Integer pageIndex) {
+    private static JsonObject getPlaylistExecuteParams(String ks, String playlistId, Integer pageSize, Integer pageIndex, String fields) {
 
         PlaylistService.PlaylistParams playlistParams = new PlaylistService.PlaylistParams(ks, playlistId);
-        playlistParams.responseProfile.fields = "id,referenceId,name,description,thumbnailUrl,dataUrl,msDuration,flavorParamsIds,mediaType,type,tags,dvrStatus,externalSourceType,searchText";
+        playlistParams.responseProfile.fields = fields != null ? fields : EntryFields;
         playlistParams.responseProfile.type = APIDefines.ResponseProfileType.IncludeFields;
         KalturaFilterPager pager = null;
-        if (pageSize != null && pageIndex != null && pageIndex <= pageSize) {
+        if (pageSize != null && pageIndex != null && pageSize > 0 && pageIndex > 0) {
             playlistParams.pager = new KalturaFilterPager(pageSize,pageIndex);
         }
         return new Gson().toJsonTree(playlistParams).getAsJsonObject();
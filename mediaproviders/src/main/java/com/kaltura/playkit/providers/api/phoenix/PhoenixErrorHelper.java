@@ -24,6 +24,9 @@ public class PhoenixErrorHelper {
 
     public static final String ERROR_CODE_UNAVILABLE = "Unavailable";
     public static final String ERROR_MESSAGE_UNAVILABLE = "unknown error";
+    /** API exception codes of a KS that is malformed or expired */
+    public static final String ERROR_CODE_INVALID_KS = "500015";
+    public static final String ERROR_CODE_KS_EXPIRED = "500016";
 
     /**
      * in case specific error codes should be parsed to predefined errors.
@@ -47,6 +50,13 @@ public class PhoenixErrorHelper {
         return errorElement;
     }
 
+    /**
+     * @return true if the error is an API exception of an invalid or expired KS.
+     */
+    public static boolean isSessionError(ErrorElement error) {
+        return error != null && (ERROR_CODE_INVALID_KS.equals(error.getCode()) || ERROR_CODE_KS_EXPIRED.equals(error.getCode()));
+    }
+
     /**
      * parse phoenix specific errors to playkit errors.
      * errors with text code are messages that my be retrieved from the "getPlaybackContext" API.
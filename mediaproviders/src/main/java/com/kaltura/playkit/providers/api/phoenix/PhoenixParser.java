@@ -12,6 +12,10 @@
 
 package com.kaltura.playkit.providers.api.phoenix;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
@@ -19,16 +23,66 @@ import com.google.gson.JsonSyntaxException;
 import com.google.gson.stream.JsonReader;
 import com.kaltura.netkit.connect.response.BaseResult;
 import com.kaltura.netkit.utils.GsonParser;
+import com.kaltura.playkit.providers.api.base.ObjectTypeRegistry;
+import com.kaltura.playkit.providers.api.base.ResponseStreamParser;
+import com.kaltura.playkit.providers.api.phoenix.model.AssetResult;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaLicensedUrl;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaLiveAsset;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaLoginResponse;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaLoginSession;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaMediaAsset;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaMediaFile;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaOTTUser;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaPlaybackContext;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaPlaybackSource;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaProgramAsset;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaRecordingAsset;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaSession;
 import com.kaltura.playkit.providers.api.phoenix.model.OttResultAdapter;
 
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+
 /**
  * @hide
  */
 
 public class PhoenixParser {
 
+    private static final ObjectTypeRegistry objectTypeRegistry = new ObjectTypeRegistry(new Gson())
+            .register(AssetResult.class)
+            .register(KalturaLicensedUrl.class)
+            .register(KalturaLiveAsset.class)
+            .register(KalturaLoginResponse.class)
+            .register(KalturaLoginSession.class)
+            .register(KalturaMediaAsset.class)
+            .register(KalturaMediaFile.class)
+            .register(KalturaOTTUser.class)
+            .register(KalturaPlaybackContext.class)
+            .register(KalturaPlaybackSource.class)
+            .register(KalturaProgramAsset.class)
+            .register(KalturaRecordingAsset.class)
+            .register(KalturaSession.class);
+
+    private static final Gson gson = new GsonBuilder().registerTypeHierarchyAdapter(BaseResult.class, new OttResultAdapter()).create();
+
+    /**
+     * @return the registry the phoenix response objects are parsed by. Custom response types can be registered on it.
+     */
+    @NonNull
+    public static ObjectTypeRegistry getObjectTypeRegistry() {
+        return objectTypeRegistry;
+    }
+
+    @NonNull
+    public static Gson getGson() {
+        return gson;
+    }
+
     public static <T> T parseObject(String json, Class type) throws JsonSyntaxException {
-        return (T) new GsonBuilder().registerTypeHierarchyAdapter(type, new OttResultAdapter()).create().fromJson(json, type);
+        Gson parser = BaseResult.class.isAssignableFrom(type) ? getGson() :
+                new GsonBuilder().registerTypeHierarchyAdapter(type, new OttResultAdapter()).create();
+        return (T) parser.fromJson(json, type);
     }
 
     public static Object parse(String response, Class...types) throws JsonSyntaxException {
@@ -38,17 +92,41 @@ public class PhoenixParser {
         if(resultElement.isJsonObject() && resultElement.getAsJsonObject().has("result")) {
             resultElement = resultElement.getAsJsonObject().get("result");
         }
-        return GsonParser.parse(resultElement, new GsonBuilder().registerTypeHierarchyAdapter(BaseResult.class, new OttResultAdapter()).create(), types);
+        return GsonParser.parse(resultElement, getGson(), types);
     }
 
+    /**
+     * Parses the response in a single pass, multirequest results are deserialized one by one as they are read.
+     */
     public static <T> T parse(JsonReader reader) throws JsonSyntaxException {
-        JsonParser parser = new JsonParser();
-        return parse(parser.parse(reader));
+        return (T) ResponseStreamParser.parseEnvelope(reader, getGson(), "result");
     }
 
     public static <T> T parse(String response) throws JsonSyntaxException {
-        JsonParser parser = new JsonParser();
-        return parse(parser.parse(response));
+        JsonReader reader = new JsonReader(new StringReader(response));
+        reader.setLenient(true);
+        return parse(reader);
+    }
+
+    /**
+     * Parses the response, multirequest results are deserialized in parallel chunks on the decode executor.
+     *
+     * @param decodeExecutor - executor for the results deserialization, null parses on the calling thread.
+     */
+    public static <T> T parse(String response, @Nullable ExecutorService decodeExecutor) throws JsonSyntaxException {
+        JsonReader reader = new JsonReader(new StringReader(response));
+        reader.setLenient(true);
+        return parse(reader, decodeExecutor, null);
+    }
+
+    /**
+     * Parses the response in a single pass, each multirequest result is passed to the result listener once it is deserialized.
+     *
+     * @param decodeExecutor - executor for the results deserialization, null parses on the calling thread.
+     * @param resultListener - receives the results while the response is parsed, null if not needed.
+     */
+    public static <T> T parse(JsonReader reader, @Nullable ExecutorService decodeExecutor, @Nullable ResponseStreamParser.ResultListener resultListener) throws JsonSyntaxException {
+        return (T) ResponseStreamParser.parseEnvelope(reader, getGson(), "result", decodeExecutor, resultListener);
     }
 
     public static <T> T parse(JsonElement resultElement) throws JsonSyntaxException {
@@ -58,9 +136,9 @@ public class PhoenixParser {
         }
 
         if(resultElement.isJsonObject()){
-            return (T) GsonParser.parseObject(resultElement, BaseResult.class, new GsonBuilder().registerTypeHierarchyAdapter(BaseResult.class, new OttResultAdapter()).create());
+            return (T) GsonParser.parseObject(resultElement, BaseResult.class, getGson());
         } else if (resultElement.isJsonArray()){
-            return (T) GsonParser.parseArray(resultElement, new GsonBuilder().registerTypeHierarchyAdapter(BaseResult.class, new OttResultAdapter()).create(), BaseResult.class);
+            return (T) GsonParser.parseArray(resultElement, getGson(), BaseResult.class);
         } else if (resultElement.isJsonPrimitive()){
             return (T) resultElement.getAsJsonPrimitive().getAsString();
         }
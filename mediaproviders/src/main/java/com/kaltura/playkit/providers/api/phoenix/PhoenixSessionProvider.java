@@ -0,0 +1,163 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.api.phoenix;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.JsonParseException;
+import com.kaltura.netkit.connect.request.RequestBuilder;
+import com.kaltura.netkit.connect.response.BaseResult;
+import com.kaltura.netkit.connect.response.PrimitiveResult;
+import com.kaltura.netkit.connect.response.ResponseElement;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.netkit.utils.OnCompletion;
+import com.kaltura.playkit.providers.api.ManagedSessionProvider;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaLoginResponse;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaLoginSession;
+import com.kaltura.playkit.providers.api.phoenix.services.OttUserService;
+
+import static com.kaltura.playkit.providers.MediaProvidersUtils.buildLoadErrorElement;
+
+/**
+ * Phoenix {@link ManagedSessionProvider}.
+ * The session is renewed with ottUser/refreshSession when a refresh token is available, and with ottUser/login
+ * when the user credentials were provided. With no credentials, an anonymous session is used.
+ */
+public class PhoenixSessionProvider extends ManagedSessionProvider {
+
+    private String username;
+    private String password;
+    private String udid;
+    private String refreshToken;
+
+    public PhoenixSessionProvider(String baseUrl, int partnerId) {
+        super(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/", partnerId);
+    }
+
+    public PhoenixSessionProvider setUdid(@Nullable String udid) {
+        synchronized (this) {
+            this.udid = udid;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the user credentials and logs in.
+     * A session renewal that is already running is superseded, loads that wait for a session get the user session.
+     *
+     * @param completion - optional, called with the session token once logged in.
+     */
+    public void login(@NonNull String username, @NonNull String password, @Nullable OnCompletion<PrimitiveResult> completion) {
+        synchronized (this) {
+            this.username = username;
+            this.password = password;
+            this.refreshToken = null;
+        }
+        startNewSession(completion);
+    }
+
+    /**
+     * Sets a session which was created by the application.
+     *
+     * @param ks - session token
+     * @param refreshToken - refresh token of the session, null if the session can not be refreshed.
+     * @param expiryMs - expiry time in ms since epoch, 0 to extract it from the KS.
+     */
+    public void setSession(String ks, @Nullable String refreshToken, long expiryMs) {
+        synchronized (this) {
+            this.refreshToken = refreshToken;
+        }
+        setSession(ks, expiryMs);
+    }
+
+    @Override
+    protected void renewSession(int renewalId) {
+        String ks = getCurrentKs();
+        String sessionRefreshToken;
+        String sessionUsername;
+        String sessionPassword;
+        String sessionUdid;
+        synchronized (this) {
+            sessionRefreshToken = refreshToken;
+            sessionUsername = username;
+            sessionPassword = password;
+            sessionUdid = udid;
+        }
+
+        // plain checks rather than TextUtils, which is not available in unit tests
+        if (ks != null && sessionRefreshToken != null && !sessionRefreshToken.isEmpty()) {
+            queue(OttUserService.refreshSession(baseUrl, ks, sessionRefreshToken, sessionUdid), renewalId, true);
+        } else if (sessionUsername != null && sessionPassword != null) {
+            queue(OttUserService.userLogin(baseUrl, partnerId, sessionUsername, sessionPassword, sessionUdid), renewalId, false);
+        } else {
+            queue(OttUserService.anonymousLogin(baseUrl, partnerId, sessionUdid), renewalId, false);
+        }
+    }
+
+    private void queue(RequestBuilder<?> requestBuilder, final int renewalId, final boolean isRefresh) {
+        requestBuilder.completion(response -> onSessionResponse(response, renewalId, isRefresh));
+        requestsExecutor.queue(requestBuilder.build());
+    }
+
+    private void onSessionResponse(ResponseElement response, int renewalId, boolean isRefresh) {
+        ErrorElement error;
+        KalturaLoginSession loginSession = null;
+
+        if (response != null && response.isSuccess()) {
+            try {
+                BaseResult result = PhoenixParser.parse(response.getResponse());
+                if (result == null) {
+                    error = buildLoadErrorElement("empty session response");
+                } else if (result.error != null) {
+                    error = result.error;
+                } else {
+                    loginSession = result instanceof KalturaLoginResponse ? ((KalturaLoginResponse) result).getLoginSession() :
+                            result instanceof KalturaLoginSession ? (KalturaLoginSession) result : null;
+                    error = loginSession == null || TextUtils.isEmpty(loginSession.getKs()) ? buildLoadErrorElement("session response is missing the ks") : null;
+                }
+            } catch (JsonParseException ex) {
+                error = buildLoadErrorElement("failed parsing session response: " + ex.getMessage());
+            }
+        } else {
+            error = response != null && response.getError() != null ? response.getError() : buildLoadErrorElement("session request failed");
+        }
+
+        if (error != null) {
+            if (isRefresh) {
+                // refresh token may have expired, try creating a new session as part of the same renewal
+                synchronized (this) {
+                    if (!isCurrentRenewal(renewalId)) {
+                        return;
+                    }
+                    refreshToken = null;
+                }
+                renewSession(renewalId);
+                return;
+            }
+            onSessionRenewFailed(renewalId, error);
+            return;
+        }
+
+        synchronized (this) {
+            // the refresh token of a superseded renewal must not replace the one of the current session
+            if (!isCurrentRenewal(renewalId)) {
+                return;
+            }
+            refreshToken = loginSession.getRefreshToken();
+        }
+        onSessionRenewed(renewalId, loginSession.getKs(), loginSession.getExpiry() * 1000);
+    }
+}
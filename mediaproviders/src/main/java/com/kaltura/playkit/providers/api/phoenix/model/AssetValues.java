@@ -0,0 +1,270 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.api.phoenix.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compact form of the asset "tags" and "metas" objects. Only the keys and the decoded string values are kept,
+ * keys are interned since the same tag and meta names repeat on every asset of a list.
+ * Tags keep all the values of a key, metas keep a single value per key.
+ * Assets have few tags and metas, keys are looked up by a linear scan.
+ */
+
+public class AssetValues {
+
+    private static final String[] NoValues = new String[0];
+
+    private final String[] keys;
+    private final String[][] values;
+    private final boolean multiValue;
+
+    private AssetValues(String[] keys, String[][] values, boolean multiValue) {
+        this.keys = keys;
+        this.values = values;
+        this.multiValue = multiValue;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public String keyAt(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @return the last value of the key at the index, null if it has no values.
+     */
+    @Nullable
+    public String valueAt(int index) {
+        String[] keyValues = values[index];
+        return keyValues.length > 0 ? keyValues[keyValues.length - 1] : null;
+    }
+
+    public boolean hasValuesAt(int index) {
+        return values[index].length > 0;
+    }
+
+    public boolean has(String key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @return the last value of the key, null if the key has no values.
+     */
+    @Nullable
+    public String getValue(String key) {
+        int index = indexOf(key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    @NonNull
+    public List<String> getValues(String key) {
+        int index = indexOf(key);
+        return index >= 0 ? Collections.unmodifiableList(Arrays.asList(values[index])) : Collections.<String>emptyList();
+    }
+
+    /**
+     * Rebuilds the server json structure of the values, without the value object types.
+     */
+    @NonNull
+    public JsonObject toJsonObject() {
+        JsonObject json = new JsonObject();
+        for (int i = 0; i < keys.length; i++) {
+            if (multiValue) {
+                JsonArray objects = new JsonArray();
+                for (String value : values[i]) {
+                    objects.add(toValueObject(value));
+                }
+                JsonObject valuesArray = new JsonObject();
+                valuesArray.add("objects", objects);
+                json.add(keys[i], valuesArray);
+            } else {
+                json.add(keys[i], toValueObject(valueAt(i)));
+            }
+        }
+        return json;
+    }
+
+    private int indexOf(String key) {
+        if (key != null) {
+            for (int i = 0; i < keys.length; i++) {
+                if (key.equals(keys[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static JsonObject toValueObject(String value) {
+        JsonObject valueObject = new JsonObject();
+        valueObject.addProperty("value", value);
+        return valueObject;
+    }
+
+    /**
+     * Reads the asset "tags" object: {"key": {"objects": [{"value": ..}, ..]}, ..}
+     */
+    public static class TagsAdapter extends BaseAdapter {
+        public TagsAdapter() {
+            super(true);
+        }
+    }
+
+    /**
+     * Reads the asset "metas" object: {"key": {"value": ..}, ..}
+     */
+    public static class MetasAdapter extends BaseAdapter {
+        public MetasAdapter() {
+            super(false);
+        }
+    }
+
+    abstract static class BaseAdapter extends TypeAdapter<AssetValues> {
+
+        private final boolean multiValue;
+
+        BaseAdapter(boolean multiValue) {
+            this.multiValue = multiValue;
+        }
+
+        @Override
+        public AssetValues read(JsonReader in) throws IOException {
+            switch (in.peek()) {
+                case NULL:
+                    in.nextNull();
+                    return null;
+                case BEGIN_OBJECT:
+                    break;
+                default:
+                    in.skipValue();
+                    return null;
+            }
+
+            List<String> keys = new ArrayList<>();
+            List<String[]> values = new ArrayList<>();
+
+            in.beginObject();
+            while (in.hasNext()) {
+                keys.add(in.nextName().intern());
+                values.add(multiValue ? readValuesArrays(in) : new String[]{readValue(in)});
+            }
+            in.endObject();
+
+            return new AssetValues(keys.toArray(new String[0]), values.toArray(new String[0][]), multiValue);
+        }
+
+        @Override
+        public void write(JsonWriter out, AssetValues assetValues) throws IOException {
+            if (assetValues == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            for (int i = 0; i < assetValues.size(); i++) {
+                out.name(assetValues.keyAt(i));
+                if (multiValue) {
+                    out.beginObject().name("objects").beginArray();
+                    for (String value : assetValues.values[i]) {
+                        out.beginObject().name("value").value(value).endObject();
+                    }
+                    out.endArray().endObject();
+                } else {
+                    out.beginObject().name("value").value(assetValues.valueAt(i)).endObject();
+                }
+            }
+            out.endObject();
+        }
+
+        /**
+         * Reads the values of all the arrays members of the object.
+         */
+        private static String[] readValuesArrays(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                return NoValues;
+            }
+
+            List<String> values = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                in.nextName();
+                if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        if (values == null) {
+                            values = new ArrayList<>(1);
+                        }
+                        values.add(readValue(in));
+                    }
+                    in.endArray();
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+
+            return values != null ? values.toArray(new String[values.size()]) : NoValues;
+        }
+
+        /**
+         * Reads the "value" member of a value object, null if the object has no primitive value.
+         */
+        private static String readValue(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                return null;
+            }
+
+            String value = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!"value".equals(in.nextName())) {
+                    in.skipValue();
+                    continue;
+                }
+                switch (in.peek()) {
+                    case STRING:
+                    case NUMBER:
+                        value = in.nextString();
+                        break;
+                    case BOOLEAN:
+                        value = String.valueOf(in.nextBoolean());
+                        break;
+                    default:
+                        in.skipValue();
+                        value = null;
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.kaltura.netkit.connect.response.BaseResult;
 public class KalturaLoginSession extends BaseResult {
     String refreshToken;
     String ks;
+    long expiry;
 
     public String getRefreshToken() {
         return refreshToken;
@@ -29,4 +30,11 @@ public class KalturaLoginSession extends BaseResult {
     public String getKs() {
         return ks;
     }
+
+    /**
+     * @return session expiry in seconds since epoch, 0 if not provided.
+     */
+    public long getExpiry() {
+        return expiry;
+    }
 }
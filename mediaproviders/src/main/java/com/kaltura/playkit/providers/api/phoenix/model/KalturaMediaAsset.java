@@ -13,6 +13,7 @@
 package com.kaltura.playkit.providers.api.phoenix.model;
 
 import com.google.gson.JsonObject;
+import com.google.gson.annotations.JsonAdapter;
 import com.kaltura.netkit.connect.response.BaseResult;
 
 import java.util.List;
@@ -31,8 +32,10 @@ public class KalturaMediaAsset extends BaseResult {
     private String externalIds;
 
     private String name;
-    private JsonObject tags;
-    private JsonObject metas;
+    @JsonAdapter(AssetValues.TagsAdapter.class)
+    private AssetValues tags;
+    @JsonAdapter(AssetValues.MetasAdapter.class)
+    private AssetValues metas;
     private String objectType;
     private String description;
     
@@ -69,11 +72,27 @@ public class KalturaMediaAsset extends BaseResult {
         return name;
     }
 
+    /**
+     * @deprecated the tags are kept in compact form, the returned object is rebuilt on every call. Use {@link #getTagValues()}.
+     */
+    @Deprecated
     public JsonObject getTags() {
-        return tags;
+        return tags != null ? tags.toJsonObject() : null;
     }
 
+    /**
+     * @deprecated the metas are kept in compact form, the returned object is rebuilt on every call. Use {@link #getMetaValues()}.
+     */
+    @Deprecated
     public JsonObject getMetas() {
+        return metas != null ? metas.toJsonObject() : null;
+    }
+
+    public AssetValues getTagValues() {
+        return tags;
+    }
+
+    public AssetValues getMetaValues() {
         return metas;
     }
 
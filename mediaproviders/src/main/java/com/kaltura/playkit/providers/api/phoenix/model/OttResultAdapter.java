@@ -12,19 +12,25 @@
 
 package com.kaltura.playkit.providers.api.phoenix.model;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
 import com.kaltura.netkit.connect.response.BaseResult;
 import com.kaltura.netkit.utils.ErrorElement;
 import com.kaltura.playkit.PKLog;
+import com.kaltura.playkit.providers.api.KalturaAPIException;
+import com.kaltura.playkit.providers.api.base.ObjectTypeRegistry;
+import com.kaltura.playkit.providers.api.phoenix.PhoenixParser;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Enables parsing of {@link BaseResult} extending classes (such as {@link AssetResult} in a way
@@ -36,9 +42,16 @@ import java.lang.reflect.Type;
  * @hide
  */
 public class OttResultAdapter implements JsonDeserializer<BaseResult> {
+
+    private static final String OttError = "OTTError";
+
+    // result classes constructors that accept ErrorElement, mapped to null for classes that have none
+    private static final Map<Class<?>, Constructor<?>> errorConstructors = Collections.synchronizedMap(new HashMap<>());
+
     @Override
     public BaseResult deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
 
+        ObjectTypeRegistry registry = PhoenixParser.getObjectTypeRegistry();
         JsonObject result = json.getAsJsonObject();
         if(result.has("result")){
             result = result.getAsJsonObject("result");
@@ -48,48 +61,57 @@ public class OttResultAdapter implements JsonDeserializer<BaseResult> {
 
         if(result != null && result.has("error")){
 
-            ErrorElement error = new Gson().fromJson(result.get("error"), ErrorElement.class);
+            KalturaAPIException exception = KalturaAPIException.fromJson(result.getAsJsonObject("error"), OttError);
 
             // trying to find constructor that excepts ErrorElement in order to return an object of type "typeOfT" even on error.
-            try {
-                Constructor<? extends Type> constructor = typeOfT.getClass().getConstructor(ErrorElement.class);
-
-                if (constructor != null) {
-                    baseResult = (BaseResult) constructor.newInstance(error);
+            Constructor<?> constructor = typeOfT instanceof Class ? getErrorConstructor((Class<?>) typeOfT) : null;
+            if (constructor != null) {
+                try {
+                    baseResult = (BaseResult) constructor.newInstance(exception.error);
+                } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
+                    // do nothing - next code section will handle this
                 }
-            } catch (NoSuchMethodException e) {
-                // do nothing
-            } catch (IllegalAccessException e) {
-                // do nothing
-            } catch (InstantiationException e) {
-                // do nothing
-            } catch (InvocationTargetException e) {
-                // do nothing - next code section will handle this
             }
 
             if (baseResult == null) {
-                baseResult = new BaseResult(error);
+                baseResult = exception;
             }
 
         } else if(result != null && result.has("objectType")){
 
             String objectType=  result.getAsJsonPrimitive("objectType").getAsString();
-            if(objectType.equals("KalturaAPIException")) {
-                baseResult = new BaseResult(new Gson().fromJson(result, ErrorElement.class));
+            if(objectType.equals(KalturaAPIException.ObjectType)) {
+                baseResult = KalturaAPIException.fromJson(result, OttError);
             } else {
-                try {
-                    String clzName = getClass().getPackage().getName() + "." + objectType;
-                    Class clz = Class.forName(clzName);
-                    baseResult = (BaseResult) new Gson().fromJson(result, clz);
-                } catch (ClassNotFoundException e) {
-                    PKLog.e("OttResultAdapter","can't find class "+objectType+ " in the provided package\n ");
-                    e.printStackTrace();
+                TypeAdapter<? extends BaseResult> adapter = registry.getAdapter(objectType);
+                if (adapter != null) {
+                    baseResult = adapter.fromJsonTree(result);
+                } else {
+                    PKLog.e("OttResultAdapter","can't find class "+objectType+ " in the object types registry\n ");
                 }
             }
         } else {
-            baseResult = new Gson().fromJson(result, typeOfT);
+            baseResult = registry.getGson().fromJson(result, typeOfT);
         }
 
         return baseResult;
     }
+
+    private static Constructor<?> getErrorConstructor(Class<?> clz) {
+        if (errorConstructors.containsKey(clz)) {
+            return errorConstructors.get(clz);
+        }
+
+        Constructor<?> constructor = null;
+        // BaseResult itself is replaced by the typed KalturaAPIException result
+        if (BaseResult.class.isAssignableFrom(clz) && clz != BaseResult.class) {
+            try {
+                constructor = clz.getConstructor(ErrorElement.class);
+            } catch (NoSuchMethodException e) {
+                // do nothing
+            }
+        }
+        errorConstructors.put(clz, constructor);
+        return constructor;
+    }
 }
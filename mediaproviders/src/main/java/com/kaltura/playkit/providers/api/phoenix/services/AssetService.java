@@ -30,12 +30,30 @@ import static com.kaltura.playkit.utils.Consts.HTTP_METHOD_POST;
 
 public class AssetService extends PhoenixService {
 
+    /** asset properties needed for playback, of all the asset types */
+    public static final String BasicAssetProperties = "objectType,id,type,name,entryId,externalIds,startDate,endDate,mediaFiles," +
+            "epgId,epgChannelId,relatedMediaId,linearAssetId,enableCatchUp,enableCdvr,enableStartOver,enableTrickPlay,crid,recordingId,recordingType";
+
     public static PhoenixRequestBuilder get(String baseUrl, String ks, String assetId, APIDefines.AssetReferenceType referenceType) {
+        return get(baseUrl, ks, assetId, referenceType, null);
+    }
+
+    /**
+     * @param retrievedProperties - comma separated asset properties to include in the response, null for all properties
+     */
+    public static PhoenixRequestBuilder get(String baseUrl, String ks, String assetId, APIDefines.AssetReferenceType referenceType, String retrievedProperties) {
         JsonObject params = new JsonObject();
         params.addProperty("ks", ks);
         params.addProperty("id", assetId);
         params.addProperty("assetReferenceType", referenceType.value);
 
+        if (!TextUtils.isEmpty(retrievedProperties)) {
+            JsonObject responseProfile = new JsonObject();
+            responseProfile.addProperty("objectType", "KalturaOnDemandResponseProfile");
+            responseProfile.addProperty("retrievedProperties", retrievedProperties);
+            params.add("responseProfile", responseProfile);
+        }
+
         return new PhoenixRequestBuilder()
                 .service("asset")
                 .action("get")
@@ -0,0 +1,150 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.kaltura.netkit.utils.OnCompletion;
+import com.kaltura.playkit.PKLog;
+import com.kaltura.playkit.providers.api.KsInspector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process wide registry of the anonymous sessions created by the providers, per server and partner.
+ * Loads with no KS used to add an anonymous session creation request to every multirequest. With this registry
+ * only one load creates the session (as part of its multirequest) and reports it, the following loads reuse it
+ * until it is about to expire. Loads that start while the session is being created wait for it.
+ */
+
+public class AnonymousSessions {
+
+    private static final PKLog log = PKLog.get("AnonymousSessions");
+
+    /** validity of a session whose expiry is unknown */
+    public static final long DefaultSessionTtlMs = 60 * 60 * 1000;
+    /** a session is renewed this long before it expires */
+    public static final long RenewMarginMs = 5 * 60 * 1000;
+
+    private static final Map<String, Session> sessions = new HashMap<>();
+
+    private static class Session {
+        String ks;
+        long expiresAt;
+        Object creator;
+        List<OnCompletion<String>> waiters = new ArrayList<>();
+
+        boolean isValid() {
+            return ks != null && expiresAt - RenewMarginMs > SystemClock.elapsedRealtime();
+        }
+    }
+
+    /**
+     * Gets the anonymous session of the partner.
+     *
+     * @param owner - the load requesting the session
+     * @param completion - called with a valid session KS, or with null in case the load should create the session
+     *                   itself and report it with {@link #update(String, int, Object, String, long)}.
+     *                   May be called on a different thread, once a session that is being created by another load is reported.
+     */
+    public static void acquire(String baseUrl, int partnerId, @NonNull Object owner, @NonNull OnCompletion<String> completion) {
+        String ks;
+        synchronized (sessions) {
+            Session session = getSession(baseUrl, partnerId);
+            if (session.isValid()) {
+                ks = session.ks;
+            } else if (session.creator != null && session.creator != owner) {
+                session.waiters.add(completion);
+                return;
+            } else {
+                session.creator = owner;
+                ks = null;
+            }
+        }
+        completion.onComplete(ks);
+    }
+
+    /**
+     * Reports the anonymous session created by a load, and passes it to the waiting loads.
+     *
+     * @param ks - session KS, null if the session creation failed.
+     * @param expiry - session expiry time in ms since epoch, 0 to extract it from the KS.
+     */
+    public static void update(String baseUrl, int partnerId, @NonNull Object owner, @Nullable String ks, long expiry) {
+        List<OnCompletion<String>> waiters = null;
+        synchronized (sessions) {
+            Session session = getSession(baseUrl, partnerId);
+            if (ks != null && !ks.isEmpty()) {
+                if (expiry <= 0) {
+                    expiry = KsInspector.getExpiryTime(ks);
+                }
+                long timeToLive = expiry > 0 ? expiry - System.currentTimeMillis() : DefaultSessionTtlMs;
+                session.ks = ks;
+                session.expiresAt = SystemClock.elapsedRealtime() + timeToLive;
+                log.v("anonymous session updated for partner " + partnerId);
+            }
+            if (session.creator == owner) {
+                session.creator = null;
+                waiters = session.waiters;
+                session.waiters = new ArrayList<>();
+            }
+        }
+
+        if (waiters != null) {
+            String sessionKs = ks != null && !ks.isEmpty() ? ks : null;
+            for (OnCompletion<String> waiter : waiters) {
+                waiter.onComplete(sessionKs); // in case of failure each waiting load creates its own session
+            }
+        }
+    }
+
+    /**
+     * Releases the loads waiting for a session that the owner did not report.
+     */
+    public static void release(String baseUrl, int partnerId, @NonNull Object owner) {
+        update(baseUrl, partnerId, owner, null, 0);
+    }
+
+    /**
+     * Drops the session, in case it was rejected by the server.
+     */
+    public static void invalidate(String baseUrl, int partnerId, String ks) {
+        synchronized (sessions) {
+            Session session = sessions.get(getKey(baseUrl, partnerId));
+            if (session != null && session.ks != null && session.ks.equals(ks)) {
+                session.ks = null;
+                session.expiresAt = 0;
+            }
+        }
+    }
+
+    private static Session getSession(String baseUrl, int partnerId) {
+        String key = getKey(baseUrl, partnerId);
+        Session session = sessions.get(key);
+        if (session == null) {
+            session = new Session();
+            sessions.put(key, session);
+        }
+        return session;
+    }
+
+    private static String getKey(String baseUrl, int partnerId) {
+        return baseUrl + "|" + partnerId;
+    }
+}
@@ -0,0 +1,484 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.internal.bind.JsonTreeReader;
+import com.google.gson.stream.JsonReader;
+import com.kaltura.netkit.connect.executor.RequestQueue;
+import com.kaltura.netkit.connect.request.RequestBuilder;
+import com.kaltura.netkit.connect.response.ResponseElement;
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.Accessories;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.netkit.utils.OnCompletion;
+import com.kaltura.netkit.utils.SessionProvider;
+import com.kaltura.playkit.PKLog;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.Callable;
+
+/**
+ * Non blocking counterpart of {@link BECallableLoader}.
+ * The load flow (session token fetching, request queueing, response parsing and completion) is chained
+ * through callbacks, no thread is parked while the request is executed by the {@link RequestQueue}.
+ * The loader is done once {@link #notifyCompletion()} is called, either by the implementing loader
+ * after the completion callback was passed, or on cancellation.
+ *
+ * @param <T> - type of the load result
+ */
+
+public abstract class BEAsyncLoader<T> implements Callable<Void> {
+
+    private static final PKLog log = PKLog.get("BEAsyncLoader");
+
+    protected final Object syncObject = new Object();
+
+    protected final String loadId;
+    protected OnCompletion<ResultElement<T>> completion;
+
+    protected String loadReq;
+    protected String requestKey;
+
+    protected ResponseDiskCache responseDiskCache;
+    protected boolean revalidateCachedResponse;
+    protected boolean isCachedResponse;
+    protected boolean isRefreshing;
+
+    /** the shared anonymous session KS the request was sent with, see {@link AnonymousSessions} */
+    protected String anonymousKs;
+    private boolean isAnonymousSessionCreator;
+    protected RequestQueue requestQueue;
+    protected SessionProvider sessionProvider;
+
+    protected volatile boolean isCanceled = false;
+    private volatile boolean isDone = false;
+
+    private Runnable doneListener;
+
+    volatile InFlightLoads.Flight<T> flight;
+    private volatile boolean isDetached = false;
+
+
+    protected BEAsyncLoader(String tag, RequestQueue requestsExecutor, SessionProvider sessionProvider, OnCompletion<ResultElement<T>> completion) {
+        this.loadId = tag + "@" + Integer.toHexString(System.identityHashCode(this)) + ":" + System.currentTimeMillis();
+        this.completion = completion;
+        this.requestQueue = requestsExecutor;
+        this.sessionProvider = sessionProvider;
+    }
+
+    /**
+     * Builds the remote request and passes it to the {@link #requestQueue}.
+     * Implementations should not wait for the response, the response handling should end with {@link #notifyCompletion()}.
+     *
+     * @param ks - session token provided by the {@link SessionProvider}
+     */
+    protected abstract void requestRemote(String ks);
+
+    protected abstract ErrorElement validateKs(String ks);
+
+    /**
+     * Starts the load flow. Returns as soon as the session token was requested.
+     */
+    public void start() {
+        if (isCanceled()) {
+            notifyCompletion();
+            return;
+        }
+
+        log.v(loadId + ": start: get ks");
+
+        sessionProvider.getSessionToken(response -> {
+            if (isCanceled()) {
+                notifyCompletion();
+                return;
+            }
+
+            ErrorElement error = response.error != null ? response.error : validateKs(response.getResult());
+            if (error == null) {
+                requestKey = getRequestKey(response.getResult());
+                if (requestKey != null) {
+                    ResultElement<T> cachedResult = getCachedResult(requestKey);
+                    if (cachedResult != null) {
+                        OnCompletion<ResultElement<T>> refreshCompletion = cachedResult instanceof ProviderResult && ((ProviderResult<T>) cachedResult).isStale() ?
+                                getRefreshCompletion(cachedResult) : null;
+
+                        log.v(loadId + ": load completed from cache");
+                        if (completion != null) {
+                            completion.onComplete(cachedResult);
+                        }
+
+                        if (refreshCompletion == null) {
+                            notifyCompletion();
+                            return;
+                        }
+
+                        // stale result was passed, the load continues in order to refresh it
+                        log.v(loadId + ": refreshing stale result");
+                        completion = refreshCompletion;
+                        isRefreshing = true;
+                    }
+
+                    if (InFlightLoads.join(requestKey, this)) {
+                        return; // result will be passed once the in flight load is completed
+                    }
+                }
+
+                if (requestKey != null && responseDiskCache != null && !isRefreshing) {
+                    requestCachedOrRemote(response.getResult());
+                    return;
+                }
+
+                requestRemote(response.getResult());
+                log.v(loadId + ": remote request passed for execution");
+
+            } else {
+                log.w(loadId + ": got error on ks fetching");
+                if (completion != null) {
+                    completion.onComplete(Accessories.<T>buildResult(null, error));
+                }
+                notifyCompletion();
+            }
+        });
+    }
+
+    /**
+     * Identifies the remote request of this load. Loads with the same key that run at the same time share
+     * a single remote request.
+     *
+     * @param ks - session token provided by the {@link SessionProvider}
+     * @return the request key or null if the load should not be shared.
+     */
+    protected String getRequestKey(String ks) {
+        return null;
+    }
+
+    /**
+     * Enables completing the load without a remote request. Called on the thread that provided the session token.
+     * A stale {@link ProviderResult} completes the load and then the load continues to refresh the result,
+     * see {@link #getRefreshCompletion(ResultElement)}.
+     *
+     * @param requestKey - the key of the load request, see {@link #getRequestKey(String)}
+     * @return a result for the load or null if there is no cached result.
+     */
+    protected ResultElement<T> getCachedResult(String requestKey) {
+        return null;
+    }
+
+    /**
+     * Gets the shared anonymous session for a load with no KS.
+     *
+     * @param completion - called with the session KS, or with null if the request should create the session.
+     *                   A created session should be reported with {@link #onAnonymousSessionCreated(String, long)}.
+     */
+    protected void getAnonymousSession(final OnCompletion<String> completion) {
+        AnonymousSessions.acquire(sessionProvider.baseUrl(), sessionProvider.partnerId(), this, ks -> {
+            synchronized (syncObject) {
+                anonymousKs = ks;
+                isAnonymousSessionCreator = ks == null;
+            }
+            completion.onComplete(ks);
+        });
+    }
+
+    /**
+     * @param ks - anonymous session KS that was created by the request.
+     * @param expiry - session expiry in ms since epoch, 0 if unknown.
+     */
+    protected void onAnonymousSessionCreated(String ks, long expiry) {
+        AnonymousSessions.update(sessionProvider.baseUrl(), sessionProvider.partnerId(), this, ks, expiry);
+    }
+
+    /**
+     * Drops the shared anonymous session used by the load if the load failed because of the session,
+     * see {@link #isSessionError(ErrorElement)}. Other errors keep the session for the following loads.
+     *
+     * @param error - the load error, null if the load succeeded.
+     */
+    protected void invalidateAnonymousSession(ErrorElement error) {
+        if (anonymousKs != null && error != null && isSessionError(error)) {
+            log.d(loadId + ": anonymous session rejected, " + error);
+            AnonymousSessions.invalidate(sessionProvider.baseUrl(), sessionProvider.partnerId(), anonymousKs);
+        }
+    }
+
+    /**
+     * @return true if the error means the KS the request was sent with is invalid or expired.
+     */
+    protected boolean isSessionError(ErrorElement error) {
+        return false;
+    }
+
+    /**
+     * Enables refreshing a stale cached result. Called right before the stale result is passed to the load completion.
+     *
+     * @param staleResult - the result that will be passed
+     * @return completion for the refreshed result, or null if the stale result should not be refreshed.
+     */
+    protected OnCompletion<ResultElement<T>> getRefreshCompletion(ResultElement<T> staleResult) {
+        return null;
+    }
+
+    /**
+     * Sets a persistent cache for the raw responses of this loader.
+     *
+     * @param responseDiskCache - response cache, null if responses should not be cached.
+     * @param revalidate - if true, once a load completes from the cache, the response is requested
+     *                   in background and the cache is updated.
+     */
+    public void setResponseDiskCache(ResponseDiskCache responseDiskCache, boolean revalidate) {
+        this.responseDiskCache = responseDiskCache;
+        this.revalidateCachedResponse = revalidate;
+    }
+
+    private void requestCachedOrRemote(final String ks) {
+        responseDiskCache.get(requestKey, cachedResponse -> {
+            if (isCanceled()) {
+                return;
+            }
+
+            if (cachedResponse == null) {
+                requestRemote(ks);
+                log.v(loadId + ": no cached response, remote request passed for execution");
+                return;
+            }
+
+            log.v(loadId + ": got cached response");
+            isCachedResponse = true;
+            onCachedResponse(ks, Accessories.buildResponse(cachedResponse, null));
+
+            if (revalidateCachedResponse) {
+                revalidateCachedResponse(ks);
+            }
+        });
+    }
+
+    private void revalidateCachedResponse(final String ks) {
+        RequestBuilder<?> requestBuilder = getRemoteRequest(ks);
+        if (requestBuilder == null) {
+            return;
+        }
+
+        final ResponseDiskCache responseDiskCache = this.responseDiskCache;
+        final String requestKey = this.requestKey;
+        requestBuilder.completion(response -> {
+            if (isCacheableResponse(response)) {
+                log.v(loadId + ": cached response revalidated");
+                responseDiskCache.put(requestKey, response.getResponse(), ks);
+            }
+        });
+        requestQueue.queue(requestBuilder.build());
+    }
+
+    /**
+     * Queues the load request and passes its response to the handler.
+     * If the request queue is a {@link StreamingRequestQueue} and the response string is not needed (see {@link #canStreamResponse()}),
+     * the handler is called once the response starts downloading and the parser reads the body while it downloads.
+     * A streamed response has no response string, it can only be read through the parser.
+     *
+     * @return the request id
+     */
+    protected String queueRequest(RequestBuilder<?> requestBuilder, final BodyParser bodyParser, final ResponseHandler handler) {
+        if (requestQueue instanceof StreamingRequestQueue && canStreamResponse()) {
+            return ((StreamingRequestQueue) requestQueue).queue(requestBuilder.build(), (body, error) ->
+                    handleResponse(handler, Accessories.buildResponse(null, error), () -> bodyParser.parse(newJsonReader(body))));
+        }
+
+        requestBuilder.completion(response -> handleResponse(handler, response, () -> bodyParser.parse(newJsonReader(response))));
+        return requestQueue.queue(requestBuilder.build());
+    }
+
+    private void handleResponse(ResponseHandler handler, ResponseElement response, ResponseParser parser) {
+        try {
+            handler.onResponse(response, parser);
+        } catch (RuntimeException e) {
+            log.e(loadId + ": response handling failed", e);
+            // loads that joined this load request should not wait for a result that will never be passed
+            InFlightLoads.Flight<T> flight = this.flight;
+            if (flight != null) {
+                flight.onLoaderDone(this, ErrorElement.LoadError.message("response handling failed: " + e.getMessage()));
+            }
+            notifyCompletion();
+            throw e;
+        }
+    }
+
+    private static JsonReader newJsonReader(ResponseElement response) {
+        if (response instanceof ParsedResponse) {
+            // split by a MultiRequestBatcher, the body is read from its parsed tree
+            return new JsonTreeReader(((ParsedResponse) response).getBody());
+        }
+        return newJsonReader(new StringReader(response.getResponse()));
+    }
+
+    private static JsonReader newJsonReader(Reader reader) {
+        JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.setLenient(true);
+        return jsonReader;
+    }
+
+    /**
+     * @return true if the load response can be consumed as a stream. Responses that are cached need the response string.
+     */
+    protected boolean canStreamResponse() {
+        return responseDiskCache == null;
+    }
+
+    /**
+     * Stores a valid remote response in the response cache, if one was set.
+     */
+    protected void cacheResponse(String ks, ResponseElement response) {
+        if (responseDiskCache != null && requestKey != null && !isCachedResponse) {
+            responseDiskCache.put(requestKey, response.getResponse(), ks);
+        }
+    }
+
+    /**
+     * Handles a response that was read from the response cache. Should be handled the same as a remote response.
+     */
+    protected void onCachedResponse(String ks, ResponseElement response) {
+        requestRemote(ks);
+    }
+
+    /**
+     * @return the request {@link #requestRemote(String)} sends, used for cached responses revalidation.
+     */
+    protected RequestBuilder<?> getRemoteRequest(String ks) {
+        return null;
+    }
+
+    protected boolean isCacheableResponse(ResponseElement response) {
+        return response != null && response.isSuccess();
+    }
+
+    /**
+     * Copies the result for an additional load that shared this load remote request.
+     * Loaders that share their requests should return a result that can be modified independently.
+     */
+    protected ResultElement<T> copyResult(ResultElement<T> result) {
+        return result;
+    }
+
+    /**
+     * Parses a response body into the API result objects.
+     */
+    protected interface BodyParser {
+        Object parse(JsonReader reader) throws JsonParseException;
+    }
+
+    /**
+     * Parses the body of the response it was passed with.
+     */
+    protected interface ResponseParser {
+        Object parse() throws JsonParseException;
+    }
+
+    protected interface ResponseHandler {
+        /**
+         * @param response - the request response
+         * @param parser - parses the response body, should be used only for a successful response.
+         */
+        void onResponse(ResponseElement response, ResponseParser parser);
+    }
+
+    @Override
+    public Void call() {
+        start();
+        return null;
+    }
+
+    public void cancel() {
+        InFlightLoads.Flight<T> flight = this.flight;
+        if (flight != null && flight.detach(this)) {
+            log.i(loadId + ": cancel: request is kept for other loads waiting for the same response");
+            isDetached = true;
+            return;
+        }
+
+        cancelRequest();
+    }
+
+    void cancelRequest() {
+        isCanceled = true;
+
+        synchronized (syncObject) {
+            if (loadReq != null) {
+                log.i(loadId + ": canceling request execution [" + loadReq + "]");
+                requestQueue.cancelRequest(loadReq);
+                loadReq = "CANCELED#" + loadReq;
+            } else {
+                log.i(loadId + ": cancel: request completed ");
+            }
+        }
+
+        notifyCompletion();
+    }
+
+    public boolean isCanceled() {
+        return isCanceled;
+    }
+
+    /**
+     * @return true if the load was canceled by its owner. The remote request may still run for other
+     * loads that share it.
+     */
+    public boolean isDetached() {
+        return isDetached;
+    }
+
+    public boolean isDone() {
+        return isDone;
+    }
+
+    /**
+     * Marks the load as done. Safe to be called more than once.
+     */
+    protected void notifyCompletion() {
+        Runnable listener;
+        synchronized (syncObject) {
+            if (isDone) {
+                return;
+            }
+            isDone = true;
+            listener = doneListener;
+            doneListener = null;
+        }
+
+        log.v(loadId + ": load done");
+        InFlightLoads.Flight<T> flight = this.flight;
+        if (flight != null) {
+            flight.onLoaderDone(this, ErrorElement.LoadError.message("load ended with no result"));
+        }
+        if (isAnonymousSessionCreator) {
+            // releases loads waiting for a session this load did not report
+            AnonymousSessions.release(sessionProvider.baseUrl(), sessionProvider.partnerId(), this);
+        }
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    void setDoneListener(Runnable doneListener) {
+        boolean alreadyDone;
+        synchronized (syncObject) {
+            alreadyDone = isDone;
+            if (!alreadyDone) {
+                this.doneListener = doneListener;
+            }
+        }
+        if (alreadyDone && doneListener != null) {
+            doneListener.run();
+        }
+    }
+}
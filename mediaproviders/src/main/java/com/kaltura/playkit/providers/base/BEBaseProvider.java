@@ -14,6 +14,7 @@ package com.kaltura.playkit.providers.base;
 
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.kaltura.netkit.connect.executor.APIOkRequestsExecutor;
 import com.kaltura.netkit.connect.executor.RequestQueue;
@@ -25,75 +26,72 @@ import com.kaltura.netkit.utils.SessionProvider;
 import com.kaltura.playkit.PKLog;
 import com.kaltura.playkit.PKMediaEntry;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 import com.kaltura.playkit.player.PKHttpClientManager;
 
+import static com.kaltura.playkit.providers.MediaProvidersUtils.buildBadRequestErrorElement;
+
 public abstract class BEBaseProvider<OutputType> {
 
-    public static final int MaxThreads = 3;
-    private ExecutorService loadExecutor;
+    /**
+     * @deprecated the providers share the load executor of {@link ProviderExecutors}, see {@link ProviderExecutors#LoadPoolSize}.
+     */
+    @Deprecated
+    public static final int MaxThreads = ProviderExecutors.LoadPoolSize;
+    private final ExecutorService loadExecutor;
     protected RequestQueue requestsExecutor;
     protected SessionProvider sessionProvider;
-    private LoaderFuture<OutputType> currentLoad;
+    private LoadHandle<OutputType> currentLoad;
+    private final Set<LoadHandle<OutputType>> concurrentLoads = new LinkedHashSet<>();
+    private final Map<String, LoadHandle<OutputType>> keyedLoads = new HashMap<>();
     protected final Object syncObject = new Object();
+    private boolean closed;
 
     protected String tag = "BEBaseProvider";
 
-    private static class LoaderFuture<OutputType> {
-
-        OnCompletion<ResultElement<OutputType>> loadCompletion;
-        Future<Void> submittedTask;
-
-        LoaderFuture(@NonNull Future<Void> task, OnCompletion<ResultElement<OutputType>> completion) {
-            this.submittedTask = task;
-            this.loadCompletion = completion;
-        }
-
-        boolean isDone() {
-            return submittedTask.isDone();
-        }
-
-        boolean isCancelled() {
-            return submittedTask.isCancelled();
-        }
-
-        public boolean cancel(boolean allowInterruption) {
-            if (submittedTask != null && !submittedTask.isDone() && !submittedTask.isCancelled()) {
-                submittedTask.cancel(allowInterruption);
-                return true;
-            }
-            return false;
-        }
-    }
-
     protected BEBaseProvider(String tag) {
         if ("okhttp".equals(PKHttpClientManager.getHttpProvider())) {
             APIOkRequestsExecutor.setClientBuilder(PKHttpClientManager.newClientBuilder()); // share connection-pool with netkit
         }
 
         this.requestsExecutor = APIOkRequestsExecutor.getSingleton();
-        loadExecutor = Executors.newFixedThreadPool(MaxThreads);//TODO - once multi load execution will be supported will be changed to newFixedThreadExecutor or alike
+        loadExecutor = ProviderExecutors.getLoadExecutor();
         this.tag = tag;
     }
 
     protected abstract ErrorElement validateParams();
 
+    /**
+     * Creates the loader for a single load operation.
+     * Loaders extending {@link BEAsyncLoader} are started directly on the calling thread and do not occupy
+     * a thread of the load executor, other loaders are submitted to the load executor.
+     * Loaders should keep their own copy of the request parameters, so that changes to the provider
+     * parameters will not affect loads that are already running.
+     *
+     * @param completion - a callback for handling the result of data fetching flow.
+     * @return the loader
+     */
     protected abstract Callable<Void> createNewLoader(OnCompletion<ResultElement<OutputType>> completion);
 
     /**
      * Activates the providers data fetching process.
      * According to previously provided arguments, a request is built and passed to the remote server.
      * Fetching flow can ended with {@link PKMediaEntry} object if succeeded or with {@link ErrorElement} if failed.
+     * A load that is still running when a new load is activated will be canceled.
      *
      * @param completion - a callback for handling the result of data fetching flow.
      */
     public void load(final OnCompletion<ResultElement<OutputType>> completion) {
 
-        ErrorElement error = validateParams();
+        ErrorElement error = isClosed() ? buildBadRequestErrorElement(ErrorElement.BadRequestError + ": provider was closed") : validateParams();
         if (error != null) {
             if (completion != null) {
                 completion.onComplete(Accessories.<OutputType>buildResult(null, error));
@@ -102,18 +100,121 @@ public abstract class BEBaseProvider<OutputType> {
         }
 
         //!- in case load action is in progress and new load is activated, prev request will be canceled
-        if (currentLoad != null && currentLoad.cancel(true)) {
-            if (currentLoad.loadCompletion != null) {
-                currentLoad.loadCompletion.onComplete(Accessories.<OutputType>buildResult(null, ErrorElement.CanceledRequest));
-            }
+        LoadHandle<OutputType> prevLoad;
+        synchronized (syncObject) {
+            prevLoad = currentLoad;
         }
+        cancelReplacedLoad(prevLoad);
+
+        Callable<Void> loader = createNewLoader(completion);
+        LoadHandle<OutputType> handle = createHandle(null, loader, completion);
         synchronized (syncObject) {
-            currentLoad = new LoaderFuture<>(loadExecutor.submit(createNewLoader(completion)), completion);
+            currentLoad = handle;
             PKLog.v(tag, "new loader started " + currentLoad.toString());
         }
+
+        startHandle(handle, loader);
+    }
+
+    /**
+     * Activates a load that runs side by side with any other load of this provider.
+     * The load uses a snapshot of the current provider parameters, so the parameters can be changed
+     * and another load can be started right away.
+     *
+     * @param loadKey - optional. A running load that was started with the same key will be canceled and replaced.
+     *                Loads with no key never replace each other.
+     * @param completion - a callback for handling the result of data fetching flow.
+     * @return handle to the load, or null if the load could not be started (error is passed to the completion).
+     */
+    @Nullable
+    public LoadHandle<OutputType> loadConcurrently(@Nullable String loadKey, final OnCompletion<ResultElement<OutputType>> completion) {
+        ErrorElement error = isClosed() ? buildBadRequestErrorElement(ErrorElement.BadRequestError + ": provider was closed") : validateParams();
+        if (error != null) {
+            if (completion != null) {
+                completion.onComplete(Accessories.<OutputType>buildResult(null, error));
+            }
+            return null;
+        }
+
+        return startConcurrentLoad(loadKey, createNewLoader(completion), completion);
     }
 
+    /**
+     * Starts an already created loader as a concurrent load. Parameters validation is the responsibility of the caller.
+     *
+     * @param loadKey - optional key, a running load with the same key will be canceled.
+     * @param loader - the loader to run
+     * @param completion - the loader completion
+     * @return handle to the load
+     */
+    protected LoadHandle<OutputType> startConcurrentLoad(@Nullable String loadKey, @NonNull Callable<Void> loader, OnCompletion<ResultElement<OutputType>> completion) {
+        LoadHandle<OutputType> handle = createHandle(loadKey, loader, completion);
+        LoadHandle<OutputType> replacedLoad = null;
+
+        synchronized (syncObject) {
+            pruneDoneLoads();
+            if (loadKey != null) {
+                replacedLoad = keyedLoads.put(loadKey, handle);
+            }
+            concurrentLoads.add(handle);
+            PKLog.v(tag, "new concurrent loader started " + handle.toString() + (loadKey != null ? " key = " + loadKey : ""));
+        }
+
+        cancelReplacedLoad(replacedLoad);
+        startHandle(handle, loader);
+        return handle;
+    }
+
+    private LoadHandle<OutputType> createHandle(@Nullable String loadKey, Callable<Void> loader, OnCompletion<ResultElement<OutputType>> completion) {
+        if (loader instanceof BEAsyncLoader) {
+            return new LoadHandle<>(loadKey, (BEAsyncLoader<?>) loader, completion);
+        }
+        return new LoadHandle<>(loadKey, loadExecutor.submit(loader), completion);
+    }
+
+    private void startHandle(final LoadHandle<OutputType> handle, Callable<Void> loader) {
+        if (loader instanceof BEAsyncLoader) {
+            BEAsyncLoader<?> asyncLoader = (BEAsyncLoader<?>) loader;
+            asyncLoader.setDoneListener(() -> onLoadDone(handle));
+            asyncLoader.start();
+        }
+    }
+
+    private void cancelReplacedLoad(LoadHandle<OutputType> load) {
+        if (load != null && load.cancel(true)) {
+            if (load.loadCompletion != null) {
+                load.loadCompletion.onComplete(Accessories.<OutputType>buildResult(null, ErrorElement.CanceledRequest));
+            }
+        }
+    }
+
+    private void onLoadDone(LoadHandle<OutputType> handle) {
+        synchronized (syncObject) {
+            concurrentLoads.remove(handle);
+            if (handle.getLoadKey() != null && keyedLoads.get(handle.getLoadKey()) == handle) {
+                keyedLoads.remove(handle.getLoadKey());
+            }
+        }
+    }
+
+    // loads executed on the load executor do not report when done, those are removed lazily.
+    private void pruneDoneLoads() {
+        List<LoadHandle<OutputType>> doneLoads = new ArrayList<>();
+        for (LoadHandle<OutputType> load : concurrentLoads) {
+            if (load.isDone() || load.isCancelled()) {
+                doneLoads.add(load);
+            }
+        }
+        for (LoadHandle<OutputType> load : doneLoads) {
+            onLoadDone(load);
+        }
+    }
+
+    /**
+     * Cancels the running loads of the provider, including loads started by {@link #loadConcurrently(String, OnCompletion)}.
+     */
     public void cancel() {
+        List<LoadHandle<OutputType>> runningLoads;
         synchronized (syncObject) {
             if (currentLoad != null && !currentLoad.isDone() && !currentLoad.isCancelled()) {
                 PKLog.v(tag, "has running load operation, canceling current load operation - " + currentLoad.toString());
@@ -121,6 +222,31 @@ public abstract class BEBaseProvider<OutputType> {
             } else {
                 //for DEBUG: PKLog.v(tag, (currentLoad != null ? currentLoad.toString() : "") + ": no need to cancel operation," + (currentLoad == null ? "operation is null" : (currentLoad.isDone() ? "operation done" : "operation canceled")));
             }
+            runningLoads = new ArrayList<>(concurrentLoads);
+            concurrentLoads.clear();
+            keyedLoads.clear();
+        }
+
+        for (LoadHandle<OutputType> load : runningLoads) {
+            load.cancel(true);
+        }
+    }
+
+    /**
+     * Cancels any running load and releases the provider. The provider can not be used for loading after close.
+     * The shared load executor is not affected.
+     */
+    public void close() {
+        cancel();
+        synchronized (syncObject) {
+            closed = true;
+            currentLoad = null;
+        }
+    }
+
+    public boolean isClosed() {
+        synchronized (syncObject) {
+            return closed;
         }
     }
 }
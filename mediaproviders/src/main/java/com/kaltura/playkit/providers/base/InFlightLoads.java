@@ -0,0 +1,217 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.Accessories;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.netkit.utils.OnCompletion;
+import com.kaltura.playkit.PKLog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process wide registry of the loads that are currently waiting for a remote response.
+ * Loaders that resolve to the same request key (see {@link BEAsyncLoader#getRequestKey(String)}) while
+ * an identical load is in flight, are attached to that load instead of sending their own request.
+ * Every attached loader gets its own copy of the result (see {@link BEAsyncLoader#copyResult(ResultElement)}).
+ */
+
+class InFlightLoads {
+
+    private static final PKLog log = PKLog.get("InFlightLoads");
+
+    private static final Map<String, Flight<?>> flights = new HashMap<>();
+
+    /**
+     * Attaches the loader to an in flight load with the same key, or registers the loader as the
+     * owner of a new flight.
+     *
+     * @return true if the loader was attached to an existing load and should not send its own request.
+     */
+    static <T> boolean join(String requestKey, BEAsyncLoader<T> loader) {
+        synchronized (flights) {
+            // loads with the same request key are loads of the same type
+            @SuppressWarnings("unchecked")
+            Flight<T> flight = (Flight<T>) flights.get(requestKey);
+            if (flight != null) {
+                flight.waiters.add(new Waiter<>(loader, loader.completion));
+                loader.flight = flight;
+                log.v(loader.loadId + ": attached to in flight load " + flight.leader.loadId);
+                return true;
+            }
+
+            flight = new Flight<>(requestKey, loader);
+            flights.put(requestKey, flight);
+            loader.flight = flight;
+            loader.completion = flight;
+            return false;
+        }
+    }
+
+    private static class Waiter<T> {
+        final BEAsyncLoader<T> loader;
+        final OnCompletion<ResultElement<T>> completion;
+        boolean detached;
+
+        Waiter(BEAsyncLoader<T> loader, OnCompletion<ResultElement<T>> completion) {
+            this.loader = loader;
+            this.completion = completion;
+        }
+    }
+
+    static class Flight<T> implements OnCompletion<ResultElement<T>> {
+
+        private final String requestKey;
+        private final BEAsyncLoader<T> leader;
+        private final List<Waiter<T>> waiters = new ArrayList<>();
+        private boolean completed;
+
+        Flight(String requestKey, BEAsyncLoader<T> leader) {
+            this.requestKey = requestKey;
+            this.leader = leader;
+            waiters.add(new Waiter<>(leader, leader.completion));
+        }
+
+        /**
+         * Detaches a canceled loader from the flight.
+         *
+         * @return true if the loader is the flight owner and the request should keep running for
+         * the other attached loaders.
+         */
+        boolean detach(BEAsyncLoader<?> loader) {
+            boolean keepRequest;
+            BEAsyncLoader<T> leaderToCancel = null;
+
+            synchronized (flights) {
+                Iterator<Waiter<T>> iterator = waiters.iterator();
+                while (iterator.hasNext()) {
+                    Waiter<T> waiter = iterator.next();
+                    if (waiter.loader == loader) {
+                        if (loader == leader) {
+                            waiter.detached = true;
+                        } else {
+                            iterator.remove();
+                        }
+                        break;
+                    }
+                }
+
+                boolean hasWaiters = hasActiveWaiters();
+                keepRequest = loader == leader && hasWaiters && !completed;
+                if (!hasWaiters) {
+                    remove();
+                    if (loader != leader && isLeaderDetached()) {
+                        // nobody is waiting for the response any more
+                        leaderToCancel = leader;
+                    }
+                }
+            }
+
+            if (leaderToCancel != null) {
+                leaderToCancel.cancelRequest();
+            }
+            return keepRequest;
+        }
+
+        @Override
+        public void onComplete(ResultElement<T> result) {
+            List<Waiter<T>> receivers = complete();
+            if (receivers != null) {
+                passResult(receivers, result);
+            }
+        }
+
+        /**
+         * Fails every loader attached to the flight, the owner included. No-op if the flight was already completed.
+         */
+        private void fail(ErrorElement error) {
+            List<Waiter<T>> receivers = complete();
+            if (receivers != null) {
+                log.w(leader.loadId + ": in flight load failed, " + error);
+                passResult(receivers, Accessories.<T>buildResult(null, error));
+            }
+        }
+
+        /**
+         * Called when the loader is done or failed, makes sure the flight does not outlive its owner.
+         *
+         * @param error - passed to the attached loaders if the owner is done with no result passed to the flight.
+         */
+        void onLoaderDone(BEAsyncLoader<?> loader, ErrorElement error) {
+            if (loader == leader) {
+                fail(error);
+            }
+        }
+
+        /**
+         * @return the loaders to pass the result to, null if the flight was already completed.
+         */
+        private List<Waiter<T>> complete() {
+            synchronized (flights) {
+                if (completed) {
+                    return null;
+                }
+                completed = true;
+                remove();
+                return new ArrayList<>(waiters);
+            }
+        }
+
+        private void passResult(List<Waiter<T>> receivers, ResultElement<T> result) {
+            boolean first = true;
+            for (Waiter<T> waiter : receivers) {
+                if (waiter.detached || (waiter.loader != leader && waiter.loader.isCanceled())) {
+                    continue;
+                }
+
+                try {
+                    if (waiter.completion != null) {
+                        waiter.completion.onComplete(first ? result : leader.copyResult(result));
+                    }
+                } catch (RuntimeException e) {
+                    // one failing completion should not keep the result from the other loads
+                    log.e(waiter.loader.loadId + ": load completion failed", e);
+                } finally {
+                    first = false;
+                    if (waiter.loader != leader) {
+                        waiter.loader.notifyCompletion();
+                    }
+                }
+            }
+        }
+
+        private boolean hasActiveWaiters() {
+            for (Waiter<T> waiter : waiters) {
+                if (!waiter.detached) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isLeaderDetached() {
+            return waiters.get(0).detached; // the owner is always the first waiter
+        }
+
+        private void remove() {
+            if (flights.get(requestKey) == this) {
+                flights.remove(requestKey);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Media metadata map that keeps the parsed response objects the metadata is taken from, and reads values out of
+ * them only when they are accessed. A key lookup reads only that key from the source, the whole map is built on
+ * the first operation that needs all the entries (iteration, size, equals etc.). A key lookup and the built map
+ * always see the same value.
+ * Values that are put in the map are kept as is and take precedence over the source values.
+ * When a keys whitelist is provided, source values of other keys are never read. The whitelist does not apply to
+ * the values that are put in the map, such as the entry id and name.
+ *
+ * @hide
+ */
+
+public class LazyMetadataMap extends AbstractMap<String, String> {
+
+    /**
+     * Reads metadata values out of the parsed response objects.
+     */
+    public interface Source {
+
+        /**
+         * Adds the value of the key to the map, the same value {@link #populate(Map, Set)} adds for the key.
+         * Nothing is added if the source has no such key.
+         *
+         * @param keys - the keys whitelist the map was created with, null if all keys are read.
+         */
+        void read(@NonNull String key, @NonNull Map<String, String> metadata, @Nullable Set<String> keys);
+
+        /**
+         * Adds all the source values to the map.
+         *
+         * @param keys - keys to add, null to add all keys.
+         */
+        void populate(@NonNull Map<String, String> metadata, @Nullable Set<String> keys);
+    }
+
+    private Source source;
+    private final Set<String> keys;
+    private Map<String, String> values = new HashMap<>();
+    /** values read from the source by key lookups, keys that were looked up and are missing in the source are not mapped */
+    private Map<String, String> sourceValues;
+    private Set<String> readKeys;
+
+    /**
+     * @param source - source of the metadata values
+     * @param keys - keys to read from the source, null to read all keys
+     */
+    public LazyMetadataMap(@NonNull Source source, @Nullable Set<String> keys) {
+        this.source = source;
+        this.keys = keys;
+    }
+
+    @Override
+    public synchronized String get(Object key) {
+        if (source == null || values.containsKey(key)) {
+            return values.get(key);
+        }
+        return readSourceValue(key) ? sourceValues.get(key) : null;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        if (source == null || values.containsKey(key)) {
+            return values.containsKey(key);
+        }
+        return readSourceValue(key);
+    }
+
+    /**
+     * While the map is lazy the source is not read, so the returned previous value is only
+     * a value that was put before.
+     */
+    @Override
+    public synchronized String put(String key, String value) {
+        if (sourceValues != null) {
+            sourceValues.remove(key);
+        }
+        return values.put(key, value);
+    }
+
+    @Override
+    public synchronized String remove(Object key) {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        source = null;
+        sourceValues = null;
+        readKeys = null;
+        values.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        return materialize().size();
+    }
+
+    @NonNull
+    @Override
+    public synchronized Set<Entry<String, String>> entrySet() {
+        return materialize().entrySet();
+    }
+
+    /**
+     * @return true if the source values were not read into the map yet.
+     */
+    public synchronized boolean isLazy() {
+        return source != null;
+    }
+
+    /**
+     * Copies the map. While the map is lazy the source is not read, the copy shares the source with this map.
+     * Sources only read the parsed response objects, so they can be shared.
+     */
+    @NonNull
+    public synchronized Map<String, String> copy() {
+        if (source == null) {
+            return new HashMap<>(values);
+        }
+
+        LazyMetadataMap copy = new LazyMetadataMap(source, keys);
+        copy.values = new HashMap<>(values);
+        if (readKeys != null) {
+            copy.sourceValues = new HashMap<>(sourceValues);
+            copy.readKeys = new HashSet<>(readKeys);
+        }
+        return copy;
+    }
+
+    /**
+     * @return true if the source has the key.
+     */
+    private boolean readSourceValue(Object key) {
+        if (!(key instanceof String) || (keys != null && !keys.contains(key))) {
+            return false;
+        }
+
+        if (readKeys == null) {
+            readKeys = new HashSet<>();
+            sourceValues = new HashMap<>();
+        }
+        if (readKeys.add((String) key)) {
+            source.read((String) key, sourceValues, keys);
+        }
+        return sourceValues.containsKey(key);
+    }
+
+    private Map<String, String> materialize() {
+        if (source != null) {
+            Map<String, String> metadata = new HashMap<>();
+            source.populate(metadata, keys);
+            metadata.putAll(values);
+            values = metadata;
+            source = null;
+            sourceValues = null;
+            readKeys = null;
+        }
+        return values;
+    }
+}
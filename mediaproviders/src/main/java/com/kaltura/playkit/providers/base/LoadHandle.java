@@ -0,0 +1,88 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.OnCompletion;
+
+import java.util.concurrent.Future;
+
+/**
+ * A handle to a single load operation started by a {@link BEBaseProvider}.
+ * Enables checking the load state and canceling this specific load, without affecting other loads
+ * of the same provider.
+ */
+
+public class LoadHandle<OutputType> {
+
+    private final String loadKey;
+    final OnCompletion<ResultElement<OutputType>> loadCompletion;
+    private Future<Void> submittedTask;
+    private BEAsyncLoader<?> asyncLoader;
+
+    LoadHandle(@Nullable String loadKey, @NonNull Future<Void> task, OnCompletion<ResultElement<OutputType>> completion) {
+        this.loadKey = loadKey;
+        this.submittedTask = task;
+        this.loadCompletion = completion;
+    }
+
+    LoadHandle(@Nullable String loadKey, @NonNull BEAsyncLoader<?> loader, OnCompletion<ResultElement<OutputType>> completion) {
+        this.loadKey = loadKey;
+        this.asyncLoader = loader;
+        this.loadCompletion = completion;
+    }
+
+    /**
+     * @return the key the load was started with, null for loads that were not keyed.
+     */
+    @Nullable
+    public String getLoadKey() {
+        return loadKey;
+    }
+
+    public boolean isDone() {
+        return asyncLoader != null ? asyncLoader.isDone() : submittedTask.isDone();
+    }
+
+    public boolean isCancelled() {
+        return asyncLoader != null ? asyncLoader.isCanceled() || asyncLoader.isDetached() : submittedTask.isCancelled();
+    }
+
+    /**
+     * Cancels the load. The load completion will not be called after cancellation.
+     *
+     * @return true if the load was running and got canceled.
+     */
+    public boolean cancel() {
+        return cancel(true);
+    }
+
+    boolean cancel(boolean allowInterruption) {
+        if (asyncLoader != null) {
+            if (!asyncLoader.isDone() && !asyncLoader.isCanceled() && !asyncLoader.isDetached()) {
+                asyncLoader.cancel();
+                return true;
+            }
+            return false;
+        }
+
+        if (submittedTask != null && !submittedTask.isDone() && !submittedTask.isCancelled()) {
+            submittedTask.cancel(allowInterruption);
+            return true;
+        }
+        return false;
+    }
+}
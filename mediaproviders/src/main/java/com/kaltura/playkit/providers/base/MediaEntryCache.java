@@ -0,0 +1,171 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+
+import com.kaltura.playkit.PKLog;
+import com.kaltura.playkit.PKMediaEntry;
+import com.kaltura.playkit.providers.api.KsInspector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.kaltura.playkit.providers.MediaProvidersUtils.copyMediaEntry;
+
+/**
+ * Bounded in memory cache of resolved {@link PKMediaEntry} objects.
+ * Entries are kept in LRU order and are fresh for the configured max age, or less if the KS that was used to
+ * resolve them expires earlier (playback urls carry the KS). Entries that are no longer fresh are kept as stale entries
+ * for the configured max stale time (and never after the KS expiry), for loads that allow stale results.
+ * A single cache instance can be shared by several providers, entries are keyed by the loaders request parameters.
+ * Entries are copied when stored and when retrieved, so cached entries are never modified by the application.
+ * Copying does not read lazily built metadata (see {@link LazyMetadataMap}), it is read only if the application accesses it.
+ */
+
+public class MediaEntryCache {
+
+    private static final PKLog log = PKLog.get("MediaEntryCache");
+
+    public static final int DefaultMaxEntries = 20;
+    public static final long DefaultMaxAgeMs = 10 * 60 * 1000;
+    public static final long DefaultMaxStaleMs = 60 * 60 * 1000;
+    /** entries are dropped this long before the KS expires, to leave time for playback to start */
+    public static final long KsExpiryMarginMs = 60 * 1000;
+
+    private final long maxAgeMs;
+    private final long maxStaleMs;
+    private final LinkedHashMap<String, CachedEntry> entries;
+
+    public MediaEntryCache() {
+        this(DefaultMaxEntries, DefaultMaxAgeMs, DefaultMaxStaleMs);
+    }
+
+    public MediaEntryCache(int maxEntries, long maxAgeMs) {
+        this(maxEntries, maxAgeMs, DefaultMaxStaleMs);
+    }
+
+    /**
+     * @param maxEntries - max number of cached entries, least recently used entries are evicted first.
+     * @param maxAgeMs - max time an entry is fresh. Should not exceed the validity of the playback urls.
+     * @param maxStaleMs - max time an entry is kept after it is no longer fresh.
+     */
+    public MediaEntryCache(final int maxEntries, long maxAgeMs, long maxStaleMs) {
+        this.maxAgeMs = maxAgeMs;
+        this.maxStaleMs = maxStaleMs;
+        this.entries = new LinkedHashMap<String, CachedEntry>(maxEntries, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return a copy of the cached entry, or null if no fresh entry is cached for the key.
+     */
+    @Nullable
+    public PKMediaEntry get(String key) {
+        ProviderResult<PKMediaEntry> result = get(key, false);
+        return result != null ? result.getResponse() : null;
+    }
+
+    /**
+     * @param allowStale - if true, an entry that is no longer fresh is also returned.
+     * @return result with a copy of the cached entry, or null if no usable entry is cached for the key.
+     */
+    @Nullable
+    public ProviderResult<PKMediaEntry> get(String key, boolean allowStale) {
+        CachedEntry cachedEntry;
+        boolean isStale;
+        synchronized (entries) {
+            cachedEntry = entries.get(key);
+            if (cachedEntry == null) {
+                return null;
+            }
+            long now = elapsedRealtime();
+            if (cachedEntry.usableUntil <= now) {
+                entries.remove(key);
+                return null;
+            }
+            isStale = cachedEntry.freshUntil <= now;
+            if (isStale && !allowStale) {
+                return null;
+            }
+        }
+        return new ProviderResult<>(copyMediaEntry(cachedEntry.mediaEntry), null, isStale);
+    }
+
+    /**
+     * Caches a copy of the entry.
+     *
+     * @param key - request key
+     * @param mediaEntry - resolved entry
+     * @param ks - the KS the entry was resolved with, limits the entry validity.
+     */
+    public void put(String key, PKMediaEntry mediaEntry, @Nullable String ks) {
+        if (key == null || mediaEntry == null) {
+            return;
+        }
+
+        long timeToLive = maxAgeMs;
+        long timeToStale = maxAgeMs + maxStaleMs;
+        long ksExpiry = KsInspector.getExpiryTime(ks);
+        if (ksExpiry > 0) {
+            long ksTimeToLive = ksExpiry - System.currentTimeMillis() - KsExpiryMarginMs;
+            timeToLive = Math.min(timeToLive, ksTimeToLive);
+            timeToStale = Math.min(timeToStale, ksTimeToLive);
+        }
+        if (timeToLive <= 0) {
+            log.v("KS is about to expire, entry is not cached");
+            return;
+        }
+
+        long now = elapsedRealtime();
+        CachedEntry cachedEntry = new CachedEntry(copyMediaEntry(mediaEntry), now + timeToLive, now + timeToStale);
+        synchronized (entries) {
+            entries.put(key, cachedEntry);
+        }
+    }
+
+    public void remove(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    // overridden by tests
+    long elapsedRealtime() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    private static class CachedEntry {
+        final PKMediaEntry mediaEntry;
+        final long freshUntil;
+        final long usableUntil;
+
+        CachedEntry(PKMediaEntry mediaEntry, long freshUntil, long usableUntil) {
+            this.mediaEntry = mediaEntry;
+            this.freshUntil = freshUntil;
+            this.usableUntil = usableUntil;
+        }
+    }
+}
@@ -0,0 +1,508 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.kaltura.netkit.connect.executor.APIOkRequestsExecutor;
+import com.kaltura.netkit.connect.executor.RequestQueue;
+import com.kaltura.netkit.connect.request.RequestBuilder;
+import com.kaltura.netkit.connect.request.RequestConfiguration;
+import com.kaltura.netkit.connect.request.RequestElement;
+import com.kaltura.netkit.connect.response.ResponseElement;
+import com.kaltura.netkit.utils.NetworkErrorEventListener;
+import com.kaltura.playkit.PKLog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link RequestQueue} that combines multirequests queued within a short window into a single multirequest.
+ * Requests are combined only if they are sent to the same url with the same multirequest parameters (ks, partnerId etc.),
+ * the same headers and the same {@link RequestConfiguration}, which the combined request is sent with.
+ * The sub requests of each request are renumbered, and its "{N:result..}" references are shifted accordingly.
+ * The combined response is split back, each request completion gets a response that holds its own results only,
+ * in the same structure as if it was sent by itself. If the combined request fails or its response can not be
+ * split, each request is sent by itself, so a failure of one request never fails the others.
+ * Requests that are not multirequests are passed to the wrapped {@link RequestQueue} as is.
+ *
+ * A single batcher instance should be shared by the providers whose loads should be combined.
+ * Loads are not streamed through a batcher. The combined response is parsed once, and each request gets its parsed
+ * results, which loaders read without parsing them again.
+ *
+ * usage: provider.setRequestExecutor(batcher);
+ */
+
+public class MultiRequestBatcher implements RequestQueue {
+
+    private static final PKLog log = PKLog.get("MultiRequestBatcher");
+
+    public static final long DefaultWindowMs = 20;
+    public static final int DefaultMaxBatchRequests = 50;
+
+    private static final String MultiRequestService = "/service/multirequest";
+    private static final Pattern ResultReference = Pattern.compile("\\{(\\d+):result");
+
+    private final RequestQueue requestQueue;
+    private final long windowMs;
+    private final int maxBatchRequests;
+
+    private final Object lock = new Object();
+    private final Map<String, Batch> openBatches = new HashMap<>();
+    private final Map<String, Pending> pendings = new HashMap<>();
+    private final AtomicInteger requestsCounter = new AtomicInteger();
+
+    public MultiRequestBatcher() {
+        this(APIOkRequestsExecutor.getSingleton(), DefaultWindowMs, DefaultMaxBatchRequests);
+    }
+
+    /**
+     * @param requestQueue - executes the combined requests and the requests that are not combined
+     * @param windowMs - time to wait for more requests once a request was queued
+     * @param maxBatchRequests - max sub requests of a combined request, a batch is sent as soon as it reaches the limit
+     */
+    public MultiRequestBatcher(@NonNull RequestQueue requestQueue, long windowMs, int maxBatchRequests) {
+        this.requestQueue = requestQueue;
+        this.windowMs = windowMs;
+        this.maxBatchRequests = maxBatchRequests;
+    }
+
+    @Override
+    public String queue(RequestElement request) {
+        Pending pending = toPending(request);
+        if (pending == null) {
+            return requestQueue.queue(request);
+        }
+
+        Batch batchToSend = null;
+        synchronized (lock) {
+            pendings.put(pending.id, pending);
+
+            Batch batch = openBatches.get(pending.batchKey);
+            if (batch != null && batch.requestsCount + pending.requests.size() > maxBatchRequests) {
+                openBatches.remove(pending.batchKey);
+                batch.cancelTimer();
+                batchToSend = batch;
+                batch = null;
+            }
+
+            if (batch == null) {
+                batch = new Batch(pending.batchKey, pending.params);
+                openBatches.put(pending.batchKey, batch);
+                final Batch scheduledBatch = batch;
+                batch.timer = ProviderExecutors.getScheduler().schedule(() -> sendOpenBatch(scheduledBatch), windowMs, TimeUnit.MILLISECONDS);
+            }
+            batch.add(pending);
+        }
+
+        if (batchToSend != null) {
+            send(batchToSend);
+        }
+        return pending.id;
+    }
+
+    @Override
+    public String queue(RequestElement request, int retryCount) {
+        return requestQueue.queue(request, retryCount);
+    }
+
+    @Override
+    public ResponseElement execute(RequestElement request) {
+        return requestQueue.execute(request);
+    }
+
+    @Override
+    public void cancelRequest(String reqId) {
+        String requestToCancel = null;
+        synchronized (lock) {
+            Pending pending = reqId != null ? pendings.remove(reqId) : null;
+            if (pending == null) {
+                requestToCancel = reqId;
+            } else {
+                pending.isCanceled = true;
+                Batch batch = pending.batch;
+                if (pending.requestId != null) {
+                    // sent by itself
+                    requestToCancel = pending.requestId;
+                } else if (batch.requestId != null && batch.isCanceled()) {
+                    requestToCancel = batch.requestId;
+                } else if (batch.requestId == null && batch.isCanceled() && openBatches.get(batch.key) == batch) {
+                    openBatches.remove(batch.key);
+                    batch.cancelTimer();
+                }
+            }
+        }
+
+        if (requestToCancel != null) {
+            requestQueue.cancelRequest(requestToCancel);
+        }
+    }
+
+    @Override
+    public void clearRequests() {
+        synchronized (lock) {
+            for (Pending pending : pendings.values()) {
+                pending.isCanceled = true;
+            }
+            for (Batch batch : openBatches.values()) {
+                batch.cancelTimer();
+            }
+            pendings.clear();
+            openBatches.clear();
+        }
+        requestQueue.clearRequests();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        synchronized (lock) {
+            if (!pendings.isEmpty()) {
+                return false;
+            }
+        }
+        return requestQueue.isEmpty();
+    }
+
+    @Override
+    public void setRequestConfiguration(RequestConfiguration config) {
+        requestQueue.setRequestConfiguration(config);
+    }
+
+    @Override
+    public void setNetworkErrorEventListener(NetworkErrorEventListener networkErrorEventListener) {
+        requestQueue.setNetworkErrorEventListener(networkErrorEventListener);
+    }
+
+    /**
+     * @return the pending state of a multirequest, null if the request should not be combined.
+     */
+    private Pending toPending(RequestElement request) {
+        String url = request.getUrl();
+        if (url == null || !url.contains(MultiRequestService) || request.getBody() == null) {
+            return null;
+        }
+
+        JsonObject body;
+        try {
+            JsonElement bodyElement = new JsonParser().parse(request.getBody());
+            if (!bodyElement.isJsonObject()) {
+                return null;
+            }
+            body = bodyElement.getAsJsonObject();
+        } catch (JsonParseException e) {
+            return null;
+        }
+
+        // sub requests are the numbered members, all other members are the multirequest params
+        TreeMap<Integer, JsonObject> requests = new TreeMap<>();
+        TreeMap<String, JsonElement> params = new TreeMap<>();
+        for (Map.Entry<String, JsonElement> member : body.entrySet()) {
+            Integer index = toIndex(member.getKey());
+            if (index == null) {
+                params.put(member.getKey(), member.getValue());
+            } else if (member.getValue().isJsonObject()) {
+                requests.put(index, member.getValue().getAsJsonObject());
+            } else {
+                return null;
+            }
+        }
+        if (requests.isEmpty() || requests.firstKey() != 1 || requests.lastKey() != requests.size()) {
+            return null;
+        }
+
+        String batchKey = request.getMethod() + " " + url + " " + params + " " + toKey(request.getHeaders()) + " " + toKey(request.config());
+        String id = "batched-" + requestsCounter.incrementAndGet() + "#" + request.getTag();
+        return new Pending(id, batchKey, request, params, new ArrayList<>(requests.values()));
+    }
+
+    private static String toKey(Map<String, String> headers) {
+        return headers != null ? new TreeMap<>(headers).toString() : "{}";
+    }
+
+    private static String toKey(RequestConfiguration config) {
+        if (config == null) {
+            return "default";
+        }
+        return config.getConnectTimeout() + "/" + config.getReadTimeout() + "/" + config.getWriteTimeout() + "/" + config.getMaxRetries();
+    }
+
+    private static Integer toIndex(String key) {
+        if (key.isEmpty() || key.length() > 6) {
+            return null;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (!Character.isDigit(key.charAt(i))) {
+                return null;
+            }
+        }
+        return Integer.valueOf(key);
+    }
+
+    private void sendOpenBatch(Batch batch) {
+        synchronized (lock) {
+            if (openBatches.get(batch.key) != batch) {
+                return; // already sent or canceled
+            }
+            openBatches.remove(batch.key);
+        }
+        send(batch);
+    }
+
+    private void send(final Batch batch) {
+        final List<Pending> batchPendings;
+        synchronized (lock) {
+            batchPendings = batch.getActivePendings();
+            if (batchPendings.isEmpty()) {
+                return;
+            }
+            if (batchPendings.size() == 1) {
+                sendSeparately(batchPendings);
+                return;
+            }
+        }
+
+        JsonObject params = new JsonObject();
+        for (Map.Entry<String, JsonElement> param : batch.params.entrySet()) {
+            params.add(param.getKey(), param.getValue());
+        }
+
+        int offset = 0;
+        for (Pending pending : batchPendings) {
+            pending.offset = offset;
+            for (int i = 0; i < pending.requests.size(); i++) {
+                params.add(String.valueOf(offset + i + 1), shiftReferences(pending.requests.get(i), offset));
+            }
+            offset += pending.requests.size();
+        }
+        final int requestsCount = offset;
+
+        // all requests of the batch have the same method, url, headers and configuration, see toPending()
+        RequestElement firstRequest = batchPendings.get(0).request;
+        RequestBuilder<?> requestBuilder = new RequestBuilder<>()
+                .method(firstRequest.getMethod())
+                .url(firstRequest.getUrl())
+                .tag("batched-multireq")
+                .params(params)
+                .completion(response -> onBatchResponse(batchPendings, requestsCount, response));
+        if (firstRequest.getHeaders() != null) {
+            requestBuilder.headers(new HashMap<>(firstRequest.getHeaders()));
+        }
+        if (firstRequest.config() != null) {
+            requestBuilder.setConfiguration(firstRequest.config());
+        }
+
+        log.d("sending " + batchPendings.size() + " requests as a single multirequest of " + requestsCount + " requests");
+
+        synchronized (lock) {
+            batch.requestId = requestQueue.queue(requestBuilder.build());
+        }
+    }
+
+    private void onBatchResponse(List<Pending> batchPendings, int requestsCount, ResponseElement response) {
+        JsonElement root = null;
+        JsonArray results = null;
+        if (response != null && response.isSuccess() && response.getResponse() != null) {
+            try {
+                root = new JsonParser().parse(response.getResponse());
+                results = getResults(root);
+            } catch (JsonParseException e) {
+                log.w("failed to parse multirequest response: " + e.getMessage());
+            }
+        }
+
+        if (results == null || results.size() != requestsCount) {
+            log.w("multirequest failed, sending its requests separately");
+            synchronized (lock) {
+                sendSeparately(batchPendings);
+            }
+            return;
+        }
+
+        for (Pending pending : batchPendings) {
+            synchronized (lock) {
+                if (pending.isCanceled) {
+                    continue;
+                }
+                pendings.remove(pending.id);
+            }
+
+            JsonArray pendingResults = new JsonArray();
+            for (int i = 0; i < pending.requests.size(); i++) {
+                pendingResults.add(results.get(pending.offset + i));
+            }
+
+            JsonElement pendingBody;
+            if (root.isJsonObject()) {
+                // phoenix envelope: {"executionTime":.., "result":[..]}
+                JsonObject envelope = new JsonObject();
+                for (Map.Entry<String, JsonElement> member : root.getAsJsonObject().entrySet()) {
+                    envelope.add(member.getKey(), "result".equals(member.getKey()) ? pendingResults : member.getValue());
+                }
+                pendingBody = envelope;
+            } else {
+                pendingBody = pendingResults;
+            }
+            pending.request.onComplete(new ParsedResponse(pendingBody, response.getRequestId()));
+        }
+    }
+
+    /**
+     * @return the results array of a multirequest response, null if the response has no results array.
+     */
+    private static JsonArray getResults(JsonElement root) {
+        if (root.isJsonArray()) {
+            return root.getAsJsonArray();
+        }
+        if (root.isJsonObject()) {
+            JsonElement result = root.getAsJsonObject().get("result");
+            if (result != null && result.isJsonArray()) {
+                return result.getAsJsonArray();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sends each request with its original body. Should be called holding the lock.
+     */
+    private void sendSeparately(List<Pending> batchPendings) {
+        for (Pending pending : batchPendings) {
+            if (!pending.isCanceled) {
+                pending.requestId = requestQueue.queue(pending.request);
+            }
+        }
+    }
+
+    /**
+     * @return a copy of the element with the "{N:result..}" references shifted by the offset.
+     */
+    private static JsonElement shiftReferences(JsonElement element, int offset) {
+        if (offset == 0) {
+            return element;
+        }
+
+        if (element.isJsonObject()) {
+            JsonObject shifted = new JsonObject();
+            for (Map.Entry<String, JsonElement> member : element.getAsJsonObject().entrySet()) {
+                shifted.add(member.getKey(), shiftReferences(member.getValue(), offset));
+            }
+            return shifted;
+        }
+
+        if (element.isJsonArray()) {
+            JsonArray shifted = new JsonArray();
+            for (JsonElement item : element.getAsJsonArray()) {
+                shifted.add(shiftReferences(item, offset));
+            }
+            return shifted;
+        }
+
+        if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isString()) {
+            String value = element.getAsString();
+            if (value.indexOf('{') < 0) {
+                return element;
+            }
+            Matcher matcher = ResultReference.matcher(value);
+            StringBuffer shifted = new StringBuffer();
+            while (matcher.find()) {
+                matcher.appendReplacement(shifted, "{" + (Integer.parseInt(matcher.group(1)) + offset) + ":result");
+            }
+            matcher.appendTail(shifted);
+            return new JsonPrimitive(shifted.toString());
+        }
+
+        return element;
+    }
+
+    private static class Pending {
+        final String id;
+        final String batchKey;
+        final RequestElement request;
+        final TreeMap<String, JsonElement> params;
+        final List<JsonObject> requests;
+
+        Batch batch;
+        int offset;
+        String requestId; // set if the request was sent by itself
+        boolean isCanceled;
+
+        Pending(String id, String batchKey, RequestElement request, TreeMap<String, JsonElement> params, List<JsonObject> requests) {
+            this.id = id;
+            this.batchKey = batchKey;
+            this.request = request;
+            this.params = params;
+            this.requests = requests;
+        }
+    }
+
+    private static class Batch {
+        final String key;
+        final TreeMap<String, JsonElement> params;
+        final List<Pending> pendings = new ArrayList<>();
+
+        int requestsCount;
+        ScheduledFuture<?> timer;
+        String requestId; // set once the combined request was sent
+
+        Batch(String key, TreeMap<String, JsonElement> params) {
+            this.key = key;
+            this.params = params;
+        }
+
+        void add(Pending pending) {
+            pending.batch = this;
+            pendings.add(pending);
+            requestsCount += pending.requests.size();
+        }
+
+        List<Pending> getActivePendings() {
+            List<Pending> active = new ArrayList<>(pendings.size());
+            for (Pending pending : pendings) {
+                if (!pending.isCanceled) {
+                    active.add(pending);
+                }
+            }
+            return active;
+        }
+
+        boolean isCanceled() {
+            for (Pending pending : pendings) {
+                if (!pending.isCanceled) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void cancelTimer() {
+            if (timer != null) {
+                timer.cancel(false);
+                timer = null;
+            }
+        }
+    }
+}
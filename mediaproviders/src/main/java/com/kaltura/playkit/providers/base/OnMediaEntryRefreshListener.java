@@ -0,0 +1,25 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import com.kaltura.playkit.PKMediaEntry;
+
+/**
+ * Notified when a load that completed with a stale cached media entry was refreshed, and the refreshed
+ * entry sources, DRM data or metadata are different from the stale entry.
+ */
+
+public interface OnMediaEntryRefreshListener {
+
+    void onMediaEntryRefreshed(PKMediaEntry mediaEntry);
+}
@@ -0,0 +1,34 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+
+import com.kaltura.playkit.PKPlaylistMedia;
+
+import java.util.List;
+
+/**
+ * Receives the playlist medias while the playlist loads, see {@link com.kaltura.playkit.providers.PlaylistProvider#load(OnPlaylistItemsListener, OnPlaylistLoadCompletion)}.
+ * Windows are passed in the playlist order, one at a time, on the loading threads. The load completion is called
+ * after the last window, with the playlist metadata and all the medias.
+ */
+
+public interface OnPlaylistItemsListener {
+
+    /**
+     * @param fromIndex - playlist index of the first media of the window
+     * @param medias - the window medias, in the playlist order. Medias that failed to load are null, providers that
+     *               report the items errors pass them with the completion result, see {@link PlaylistLoadResult#getItemErrors()}.
+     */
+    void onPlaylistItems(int fromIndex, @NonNull List<PKPlaylistMedia> medias);
+}
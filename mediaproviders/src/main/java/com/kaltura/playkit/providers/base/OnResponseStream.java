@@ -0,0 +1,36 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.Nullable;
+
+import com.kaltura.netkit.utils.ErrorElement;
+
+import java.io.Reader;
+
+/**
+ * Receives a response body while it is downloaded, see {@link StreamingRequestQueue}.
+ */
+
+public interface OnResponseStream {
+
+    /**
+     * Called once the response headers arrived. The body reader is closed once this method returns,
+     * so the body should be consumed before returning. Called once per request, an exception thrown
+     * while handling the body is logged and not reported back to the callback.
+     *
+     * @param body - the response body, null if the request failed
+     * @param error - the request failure, null on success
+     */
+    void onResponseStream(@Nullable Reader body, @Nullable ErrorElement error);
+}
@@ -0,0 +1,92 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a task over the index range [0, count) split into chunks of {@link #ChunkSize} indexes.
+ * The chunks run in parallel on the provided executor, the first chunk runs on the calling thread.
+ * The call returns once all the chunks are done, so results written by the task into
+ * per index slots are assembled in index order.
+ *
+ * @hide
+ */
+
+public class ParallelChunks {
+
+    public static final int ChunkSize = 16;
+
+    public interface ChunkTask {
+
+        /**
+         * Handles the indexes from (inclusive) to (exclusive).
+         * Chunks run concurrently, the task should write only to the slots of its own indexes.
+         */
+        void run(int from, int to);
+    }
+
+    /**
+     * @param count - number of indexes
+     * @param executor - executor to run the chunks on, null runs all the chunks on the calling thread
+     * @throws CancellationException if the calling thread is interrupted while waiting for the chunks
+     */
+    public static void run(int count, @Nullable ExecutorService executor, @NonNull final ChunkTask task) {
+        if (executor == null || count <= ChunkSize) {
+            task.run(0, count);
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(count / ChunkSize);
+        for (int from = ChunkSize; from < count; from += ChunkSize) {
+            final int chunkFrom = from;
+            final int chunkTo = Math.min(from + ChunkSize, count);
+            futures.add(executor.submit(() -> task.run(chunkFrom, chunkTo)));
+        }
+
+        try {
+            task.run(0, ChunkSize);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted while waiting for chunks");
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+
+        } finally {
+            // no-op for completed chunks, stops the rest on failure
+            for (Future<?> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.JsonElement;
+import com.kaltura.netkit.connect.response.ResponseElement;
+import com.kaltura.netkit.utils.ErrorElement;
+
+/**
+ * A successful response whose body was already parsed, passed by {@link MultiRequestBatcher} for each split response.
+ * Loaders read the parsed body directly (see {@link BEAsyncLoader#queueRequest}), the response string is built
+ * only if it is asked for.
+ */
+class ParsedResponse implements ResponseElement {
+
+    private final JsonElement body;
+    private final String requestId;
+    private String response;
+
+    ParsedResponse(@NonNull JsonElement body, String requestId) {
+        this.body = body;
+        this.requestId = requestId;
+    }
+
+    @NonNull
+    JsonElement getBody() {
+        return body;
+    }
+
+    @Override
+    public int getCode() {
+        return 200;
+    }
+
+    @Override
+    public synchronized String getResponse() {
+        if (response == null) {
+            response = body.toString();
+        }
+        return response;
+    }
+
+    @Override
+    public boolean isSuccess() {
+        return true;
+    }
+
+    @Override
+    public String getRequestId() {
+        return requestId;
+    }
+
+    @Override
+    public ErrorElement getError() {
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.playkit.PKPlaylist;
+import com.kaltura.playkit.PKPlaylistMedia;
+
+import java.util.List;
+
+/**
+ * Passes the load completion and the incremental playlist medias of a single load to the provider loader.
+ *
+ * @hide
+ */
+
+public class PlaylistItemsCompletion implements OnPlaylistLoadCompletion, OnPlaylistItemsListener {
+
+    private final OnPlaylistItemsListener itemsListener;
+    private final OnPlaylistLoadCompletion completion;
+
+    public PlaylistItemsCompletion(@NonNull OnPlaylistItemsListener itemsListener, OnPlaylistLoadCompletion completion) {
+        this.itemsListener = itemsListener;
+        this.completion = completion;
+    }
+
+    @Override
+    public void onPlaylistItems(int fromIndex, @NonNull List<PKPlaylistMedia> medias) {
+        itemsListener.onPlaylistItems(fromIndex, medias);
+    }
+
+    @Override
+    public void onComplete(ResultElement<PKPlaylist> response) {
+        if (completion != null) {
+            completion.onComplete(response);
+        }
+    }
+}
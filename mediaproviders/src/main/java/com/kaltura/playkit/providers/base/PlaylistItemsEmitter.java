@@ -0,0 +1,128 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.kaltura.playkit.PKPlaylistMedia;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the playlist medias as they are built, possibly out of order and on several threads, and passes them
+ * to an {@link OnPlaylistItemsListener} in windows of up to {@link #WindowSize} medias, in the playlist order.
+ * A window is passed once all its medias, and all the medias before it, were set. The last window may be smaller.
+ * The listener is not called while synchronized on the emitter, windows are still passed one at a time and in order.
+ *
+ * @hide
+ */
+
+public class PlaylistItemsEmitter {
+
+    public static final int WindowSize = 20;
+
+    private final OnPlaylistItemsListener listener;
+    private final PKPlaylistMedia[] medias;
+    private final boolean[] isSet;
+    private final ArrayDeque<Window> readyWindows = new ArrayDeque<>();
+    private final Object emitLock = new Object();
+    private int nextIndex;
+
+    private static class Window {
+        final int fromIndex;
+        final List<PKPlaylistMedia> medias;
+
+        Window(int fromIndex, List<PKPlaylistMedia> medias) {
+            this.fromIndex = fromIndex;
+            this.medias = medias;
+        }
+    }
+
+    /**
+     * @param count - number of medias of the playlist
+     */
+    public PlaylistItemsEmitter(@NonNull OnPlaylistItemsListener listener, int count) {
+        this.listener = listener;
+        this.medias = new PKPlaylistMedia[count];
+        this.isSet = new boolean[count];
+    }
+
+    /**
+     * Sets the media of the index, a media can be set only once.
+     *
+     * @param media - the media, null if it failed to load
+     */
+    public void set(int index, @Nullable PKPlaylistMedia media) {
+        synchronized (this) {
+            if (index < 0 || index >= medias.length || isSet[index]) {
+                return;
+            }
+            medias[index] = media;
+            isSet[index] = true;
+            if (!collectReadyWindows()) {
+                return;
+            }
+        }
+        emitReadyWindows();
+    }
+
+    public synchronized boolean isSet(int index) {
+        return index >= 0 && index < medias.length && isSet[index];
+    }
+
+    @Nullable
+    public synchronized PKPlaylistMedia get(int index) {
+        return isSet(index) ? medias[index] : null;
+    }
+
+    /**
+     * Queues the windows that became ready. Called while synchronized on the emitter.
+     *
+     * @return true if a window was queued.
+     */
+    private boolean collectReadyWindows() {
+        int readyEnd = nextIndex;
+        while (readyEnd < medias.length && isSet[readyEnd]) {
+            readyEnd++;
+        }
+
+        boolean collected = false;
+        while (readyEnd - nextIndex >= WindowSize || (readyEnd == medias.length && readyEnd > nextIndex)) {
+            int windowEnd = Math.min(readyEnd, nextIndex + WindowSize);
+            List<PKPlaylistMedia> window = new ArrayList<>(Arrays.asList(medias).subList(nextIndex, windowEnd));
+            readyWindows.add(new Window(nextIndex, Collections.unmodifiableList(window)));
+            nextIndex = windowEnd;
+            collected = true;
+        }
+        return collected;
+    }
+
+    private synchronized Window pollReadyWindow() {
+        return readyWindows.poll();
+    }
+
+    // the queued windows are passed in order by one thread at a time. Once this returns, the windows queued
+    // by the calling thread were passed, either by this thread or by the thread that was passing windows before it.
+    private void emitReadyWindows() {
+        synchronized (emitLock) {
+            Window window;
+            while ((window = pollReadyWindow()) != null) {
+                listener.onPlaylistItems(window.fromIndex, window.medias);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.playkit.PKPlaylist;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Playlist load result that also carries the errors of the playlist items that failed to load.
+ * A failed item is passed as a null media, its error tells it apart from an item with no playable media,
+ * so the item can be requested again.
+ *
+ * usage: if (result instanceof PlaylistLoadResult) { ErrorElement error = ((PlaylistLoadResult) result).getItemError(index); }
+ */
+
+public class PlaylistLoadResult implements ResultElement<PKPlaylist> {
+
+    private final PKPlaylist response;
+    private final ErrorElement error;
+    private final Map<Integer, ErrorElement> itemErrors;
+
+    public PlaylistLoadResult(PKPlaylist response, ErrorElement error, @Nullable Map<Integer, ErrorElement> itemErrors) {
+        this.response = response;
+        this.error = error;
+        this.itemErrors = itemErrors != null ? Collections.unmodifiableMap(itemErrors) : Collections.<Integer, ErrorElement>emptyMap();
+    }
+
+    @Override
+    public PKPlaylist getResponse() {
+        return response;
+    }
+
+    @Override
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public ErrorElement getError() {
+        return error;
+    }
+
+    /**
+     * @return the errors of the failed items, mapped by the item playlist index. Empty if all the items loaded.
+     */
+    @NonNull
+    public Map<Integer, ErrorElement> getItemErrors() {
+        return itemErrors;
+    }
+
+    /**
+     * @return the error of the item, null if the item loaded.
+     */
+    @Nullable
+    public ErrorElement getItemError(int index) {
+        return itemErrors.get(index);
+    }
+}
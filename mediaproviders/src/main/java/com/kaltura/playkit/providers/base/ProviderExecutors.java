@@ -0,0 +1,110 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process wide registry of the executors used by the providers.
+ * All {@link BEBaseProvider} instances share the same bounded pool, so the number of provider threads
+ * stays flat no matter how many providers are created. Idle threads are released after {@link #KeepAliveSeconds}.
+ */
+
+public class ProviderExecutors {
+
+    public static final int LoadPoolSize = 3;
+    public static final int KeepAliveSeconds = 30;
+    // the thread waiting for the decoded chunks decodes a chunk too
+    public static final int DecodePoolSize = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private static ExecutorService loadExecutor;
+    private static ExecutorService decodeExecutor;
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * @return the shared executor for provider load operations.
+     */
+    @NonNull
+    public static synchronized ExecutorService getLoadExecutor() {
+        if (loadExecutor == null) {
+            loadExecutor = newBoundedPool("pk-provider-load", LoadPoolSize);
+        }
+        return loadExecutor;
+    }
+
+    /**
+     * @return the shared executor for parallel decoding of large responses, see {@link ParallelChunks}.
+     */
+    @NonNull
+    public static synchronized ExecutorService getDecodeExecutor() {
+        if (decodeExecutor == null) {
+            decodeExecutor = newBoundedPool("pk-provider-decode", DecodePoolSize);
+        }
+        return decodeExecutor;
+    }
+
+    /**
+     * @return the shared scheduler for background provider tasks, such as session refresh.
+     */
+    @NonNull
+    public static synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new BackgroundThreadFactory("pk-provider-scheduler"));
+            executor.setKeepAliveTime(KeepAliveSeconds, TimeUnit.SECONDS);
+            executor.allowCoreThreadTimeOut(true);
+            scheduler = executor;
+        }
+        return scheduler;
+    }
+
+    static ExecutorService newBoundedPool(String name, int size) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, KeepAliveSeconds, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new BackgroundThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Creates named daemon threads running in background priority.
+     */
+    static class BackgroundThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        BackgroundThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, name + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
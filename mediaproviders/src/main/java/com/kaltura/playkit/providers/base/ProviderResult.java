@@ -0,0 +1,56 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.ErrorElement;
+
+/**
+ * Load result that also indicates whether the response is fresh or was taken from a cache entry
+ * that is no longer fresh and is being refreshed.
+ */
+
+public class ProviderResult<T> implements ResultElement<T> {
+
+    private final T response;
+    private final ErrorElement error;
+    private final boolean isStale;
+
+    public ProviderResult(T response, ErrorElement error, boolean isStale) {
+        this.response = response;
+        this.error = error;
+        this.isStale = isStale;
+    }
+
+    @Override
+    public T getResponse() {
+        return response;
+    }
+
+    @Override
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public ErrorElement getError() {
+        return error;
+    }
+
+    /**
+     * @return true if the response is a cached response which is still usable but is no longer fresh.
+     */
+    public boolean isStale() {
+        return isStale;
+    }
+}
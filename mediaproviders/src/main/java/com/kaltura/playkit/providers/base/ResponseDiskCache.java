@@ -0,0 +1,235 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.kaltura.netkit.utils.OnCompletion;
+import com.kaltura.playkit.PKLog;
+import com.kaltura.playkit.providers.api.KsInspector;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Persistent cache of raw provider responses, used to resolve recently played media on a cold start
+ * without waiting for the remote server.
+ * Every response is kept in its own file, named by the hash of the request key. The first line of the file holds
+ * the response expiry time. Files are written to a temporary file and renamed, so a partially written
+ * response is never read. Once the cache directory exceeds its max size, least recently used files are deleted.
+ * All disk access is done on a single background thread, results are passed to the provided callbacks on that thread.
+ */
+
+public class ResponseDiskCache {
+
+    private static final PKLog log = PKLog.get("ResponseDiskCache");
+
+    public static final long DefaultMaxSizeBytes = 2 * 1024 * 1024;
+    public static final long DefaultMaxAgeMs = 60 * 60 * 1000;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final String TmpSuffix = ".tmp";
+
+    private final File cacheDir;
+    private final long maxSizeBytes;
+    private final long maxAgeMs;
+    private final ExecutorService diskExecutor = ProviderExecutors.newBoundedPool("pk-provider-disk", 1);
+
+    public ResponseDiskCache(@NonNull File cacheDir) {
+        this(cacheDir, DefaultMaxSizeBytes, DefaultMaxAgeMs);
+    }
+
+    /**
+     * @param cacheDir - directory owned by this cache, for example a sub directory of the application cache dir.
+     * @param maxSizeBytes - max total size of the cached responses.
+     * @param maxAgeMs - max time a response is valid, should not exceed the validity of the playback urls it contains.
+     */
+    public ResponseDiskCache(@NonNull File cacheDir, long maxSizeBytes, long maxAgeMs) {
+        this.cacheDir = cacheDir;
+        this.maxSizeBytes = maxSizeBytes;
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    /**
+     * Reads the cached response of the request.
+     *
+     * @param requestKey - request key
+     * @param completion - called with the cached response, or with null if there is no valid cached response.
+     */
+    public void get(final String requestKey, @NonNull final OnCompletion<String> completion) {
+        diskExecutor.execute(() -> completion.onComplete(read(requestKey)));
+    }
+
+    /**
+     * Stores the response of the request.
+     *
+     * @param requestKey - request key
+     * @param response - raw response
+     * @param ks - the ks the request was sent with, the response is not kept once the ks is expired.
+     */
+    public void put(final String requestKey, final String response, @Nullable String ks) {
+        long timeToLive = maxAgeMs;
+        long ksExpiry = KsInspector.getExpiryTime(ks);
+        if (ksExpiry > 0) {
+            timeToLive = Math.min(timeToLive, ksExpiry - System.currentTimeMillis() - MediaEntryCache.KsExpiryMarginMs);
+        }
+        if (requestKey == null || response == null || timeToLive <= 0) {
+            return;
+        }
+
+        final long expiresAt = System.currentTimeMillis() + timeToLive;
+        diskExecutor.execute(() -> {
+            write(requestKey, response, expiresAt);
+            trimToSize();
+        });
+    }
+
+    public void remove(final String requestKey) {
+        diskExecutor.execute(() -> delete(getFile(requestKey)));
+    }
+
+    public void clear() {
+        diskExecutor.execute(() -> {
+            File[] files = cacheDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    delete(file);
+                }
+            }
+        });
+    }
+
+    @Nullable
+    private String read(String requestKey) {
+        File file = getFile(requestKey);
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF8))) {
+            long expiresAt = Long.parseLong(reader.readLine());
+            if (expiresAt > System.currentTimeMillis()) {
+                StringBuilder response = new StringBuilder((int) file.length());
+                char[] buffer = new char[8 * 1024];
+                int count;
+                while ((count = reader.read(buffer)) != -1) {
+                    response.append(buffer, 0, count);
+                }
+
+                file.setLastModified(System.currentTimeMillis()); // keeps LRU order for eviction
+                return response.toString();
+            }
+
+        } catch (IOException | NumberFormatException | NullPointerException e) {
+            log.w("failed to read cached response: " + e.getMessage());
+        }
+
+        // expired or unreadable, deleted once the reader is closed
+        delete(file);
+        return null;
+    }
+
+    private void write(String requestKey, String response, long expiresAt) {
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            log.w("failed to create cache directory " + cacheDir);
+            return;
+        }
+
+        File file = getFile(requestKey);
+        File tmpFile = new File(cacheDir, file.getName() + TmpSuffix);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmpFile), UTF8))) {
+            writer.write(Long.toString(expiresAt));
+            writer.write('\n');
+            writer.write(response);
+        } catch (IOException e) {
+            log.w("failed to write response to cache: " + e.getMessage());
+            delete(tmpFile);
+            return;
+        }
+
+        if (!tmpFile.renameTo(file)) {
+            log.w("failed to store cached response");
+            delete(tmpFile);
+        }
+    }
+
+    private void trimToSize() {
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        if (size <= maxSizeBytes) {
+            return;
+        }
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                long diff = file1.lastModified() - file2.lastModified();
+                return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+            }
+        });
+        for (File file : files) {
+            if (size <= maxSizeBytes) {
+                break;
+            }
+            if (file.getName().endsWith(TmpSuffix)) {
+                continue;
+            }
+            size -= file.length();
+            delete(file);
+        }
+    }
+
+    private File getFile(String requestKey) {
+        return new File(cacheDir, hash(requestKey));
+    }
+
+    private static void delete(File file) {
+        if (file.exists() && !file.delete()) {
+            log.w("failed to delete " + file);
+        }
+    }
+
+    private static String hash(String requestKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(requestKey.getBytes(UTF8));
+            StringBuilder name = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                name.append(String.format("%02x", b));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(requestKey.hashCode());
+        }
+    }
+}
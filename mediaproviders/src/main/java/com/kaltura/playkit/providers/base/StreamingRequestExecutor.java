@@ -0,0 +1,210 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+
+import com.kaltura.netkit.connect.executor.APIOkRequestsExecutor;
+import com.kaltura.netkit.connect.executor.RequestQueue;
+import com.kaltura.netkit.connect.request.RequestConfiguration;
+import com.kaltura.netkit.connect.request.RequestElement;
+import com.kaltura.netkit.connect.response.ResponseElement;
+import com.kaltura.netkit.utils.NetworkErrorEventListener;
+import com.kaltura.playkit.PKLog;
+import com.kaltura.playkit.player.PKHttpClientManager;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static com.kaltura.playkit.providers.MediaProvidersUtils.buildLoadErrorElement;
+
+/**
+ * {@link StreamingRequestQueue} implementation over OkHttp. Streamed requests are executed by an OkHttp client that
+ * shares the player connection pool, all other requests are passed to the wrapped {@link RequestQueue}.
+ * Streamed requests use the timeouts of the request configuration, and requests that failed to connect are retried
+ * up to the configured number of retries.
+ *
+ * usage: provider.setRequestExecutor(new StreamingRequestExecutor());
+ */
+
+public class StreamingRequestExecutor implements StreamingRequestQueue {
+
+    private static final PKLog log = PKLog.get("StreamingRequestExecutor");
+
+    private static final MediaType JsonMediaType = MediaType.parse("application/json");
+
+    private final RequestQueue requestQueue;
+    private final OkHttpClient httpClient;
+    private final Map<String, Call> calls = new ConcurrentHashMap<>();
+    private final AtomicInteger requestsCounter = new AtomicInteger();
+    private volatile RequestConfiguration defaultConfiguration = new RequestConfiguration();
+
+    public StreamingRequestExecutor() {
+        this(APIOkRequestsExecutor.getSingleton(), PKHttpClientManager.newClientBuilder().build());
+    }
+
+    /**
+     * @param requestQueue - executes the requests that are not streamed
+     * @param httpClient - executes the streamed requests
+     */
+    public StreamingRequestExecutor(@NonNull RequestQueue requestQueue, @NonNull OkHttpClient httpClient) {
+        this.requestQueue = requestQueue;
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public String queue(@NonNull RequestElement request, @NonNull final OnResponseStream onResponseStream) {
+        final String requestId = "stream-" + requestsCounter.incrementAndGet() + "#" + request.getTag();
+
+        RequestConfiguration config = request.config() != null ? request.config() : defaultConfiguration;
+        OkHttpClient client = httpClient.newBuilder()
+                .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
+                .writeTimeout(config.getWriteTimeout(), TimeUnit.MILLISECONDS)
+                .build();
+
+        Call call = client.newCall(buildRequest(request));
+        calls.put(requestId, call);
+        enqueue(requestId, call, config.getMaxRetries(), onResponseStream);
+
+        return requestId;
+    }
+
+    private void enqueue(final String requestId, Call call, final int retriesLeft, final OnResponseStream onResponseStream) {
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                if (call.isCanceled()) {
+                    calls.remove(requestId, call);
+                    log.v("request canceled [" + requestId + "]");
+                    return;
+                }
+
+                if (retriesLeft > 0) {
+                    Call retryCall = call.clone();
+                    // a request that was canceled meanwhile is no longer registered
+                    if (calls.replace(requestId, call, retryCall)) {
+                        log.d("request failed, retrying [" + requestId + "]: " + e.getMessage());
+                        enqueue(requestId, retryCall, retriesLeft - 1, onResponseStream);
+                    }
+                    return;
+                }
+
+                calls.remove(requestId, call);
+                onResponseStream.onResponseStream(null, buildLoadErrorElement("request failed: " + e.getMessage()));
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                calls.remove(requestId, call);
+                try (ResponseBody body = response.body()) {
+                    if (call.isCanceled()) {
+                        return;
+                    }
+                    if (!response.isSuccessful() || body == null) {
+                        onResponseStream.onResponseStream(null, buildLoadErrorElement("request failed with status " + response.code()));
+                        return;
+                    }
+                    try {
+                        onResponseStream.onResponseStream(body.charStream(), null);
+                    } catch (RuntimeException e) {
+                        // the stream was already passed, the handler is responsible for failing its load
+                        log.e("failed handling response stream [" + requestId + "]", e);
+                    }
+                }
+            }
+        });
+    }
+
+    private Request buildRequest(RequestElement request) {
+        Request.Builder builder = new Request.Builder().url(request.getUrl());
+
+        Map<String, String> headers = request.getHeaders();
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                builder.addHeader(header.getKey(), header.getValue());
+            }
+        }
+
+        String body = request.getBody();
+        String method = request.getMethod() != null ? request.getMethod() : (body != null ? "POST" : "GET");
+        if ("GET".equalsIgnoreCase(method)) {
+            builder.get();
+        } else {
+            builder.method(method, RequestBody.create(body != null ? body : "", JsonMediaType));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void setRequestConfiguration(RequestConfiguration config) {
+        defaultConfiguration = config != null ? config : new RequestConfiguration();
+        requestQueue.setRequestConfiguration(config);
+    }
+
+    @Override
+    public String queue(RequestElement request) {
+        return requestQueue.queue(request);
+    }
+
+    @Override
+    public String queue(RequestElement request, int retryCount) {
+        return requestQueue.queue(request, retryCount);
+    }
+
+    @Override
+    public ResponseElement execute(RequestElement request) {
+        return requestQueue.execute(request);
+    }
+
+    @Override
+    public void cancelRequest(String reqId) {
+        Call call = reqId != null ? calls.remove(reqId) : null;
+        if (call != null) {
+            call.cancel();
+        } else {
+            requestQueue.cancelRequest(reqId);
+        }
+    }
+
+    @Override
+    public void clearRequests() {
+        for (Call call : calls.values()) {
+            call.cancel();
+        }
+        calls.clear();
+        requestQueue.clearRequests();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return calls.isEmpty() && requestQueue.isEmpty();
+    }
+
+    @Override
+    public void setNetworkErrorEventListener(NetworkErrorEventListener networkErrorEventListener) {
+        requestQueue.setNetworkErrorEventListener(networkErrorEventListener);
+    }
+}
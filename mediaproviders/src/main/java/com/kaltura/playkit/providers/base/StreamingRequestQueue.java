@@ -0,0 +1,35 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.base;
+
+import androidx.annotation.NonNull;
+
+import com.kaltura.netkit.connect.executor.RequestQueue;
+import com.kaltura.netkit.connect.request.RequestElement;
+
+/**
+ * A {@link RequestQueue} that can pass the response body as a stream instead of a string.
+ * Loaders parse a streamed response while it downloads, so the response is never held in memory as a whole.
+ * Responses of requests queued with {@link #queue(RequestElement)} are passed as strings, same as any {@link RequestQueue}.
+ */
+
+public interface StreamingRequestQueue extends RequestQueue {
+
+    /**
+     * Queues the request for execution. The request completion is not called, the response is passed
+     * to the stream callback instead. Canceled requests are not reported.
+     *
+     * @return the request id, can be used for cancellation with {@link #cancelRequest(String)}
+     */
+    String queue(@NonNull RequestElement request, @NonNull OnResponseStream onResponseStream);
+}
@@ -0,0 +1,88 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.ott;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.kaltura.playkit.providers.api.phoenix.model.AssetValues;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaMediaAsset;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaThumbnail;
+import com.kaltura.playkit.providers.base.LazyMetadataMap;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the tags, metas and images of a media asset as metadata values.
+ * Keys are resolved in the same precedence the metadata map was always built with: images over metas over tags.
+ * A key lookup reads only that key, the same way the whole map is built.
+ */
+
+class AssetMetadataSource implements LazyMetadataMap.Source {
+
+    private final AssetValues tags;
+    private final AssetValues metas;
+    private final List<KalturaThumbnail> images;
+
+    AssetMetadataSource(@NonNull KalturaMediaAsset kalturaMediaAsset) {
+        this.tags = kalturaMediaAsset.getTagValues();
+        this.metas = kalturaMediaAsset.getMetaValues();
+        this.images = kalturaMediaAsset.getImages();
+    }
+
+    @Override
+    public void read(@NonNull String key, @NonNull Map<String, String> metadata, @Nullable Set<String> keys) {
+        populate(metadata, Collections.singleton(key));
+    }
+
+    @Override
+    public void populate(@NonNull Map<String, String> metadata, @Nullable Set<String> keys) {
+        if (tags != null) {
+            for (int i = 0; i < tags.size(); i++) {
+                if (tags.hasValuesAt(i) && (keys == null || keys.contains(tags.keyAt(i)))) {
+                    metadata.put(tags.keyAt(i), tags.valueAt(i));
+                }
+            }
+        }
+
+        if (metas != null) {
+            for (int i = 0; i < metas.size(); i++) {
+                if (keys == null || keys.contains(metas.keyAt(i))) {
+                    metadata.put(metas.keyAt(i), metas.valueAt(i));
+                }
+            }
+        }
+
+        if (images != null) {
+            for (KalturaThumbnail image : images) {
+                String imageKey = getImageKey(image);
+                if (imageKey != null && (keys == null || keys.contains(imageKey))) {
+                    metadata.put(imageKey, image.getUrl());
+                }
+            }
+        }
+    }
+
+    private static String getImageKey(KalturaThumbnail image) {
+        if (image == null || image.getUrl() == null) {
+            return null;
+        }
+        if (image.getWidth() != null && image.getHeight() != null) {
+            return image.getWidth() + "X" + image.getHeight();
+        }
+        return image.getRatio();
+    }
+}
@@ -10,6 +10,8 @@ import com.kaltura.playkit.providers.api.phoenix.APIDefines.KalturaUrlType;
 import com.kaltura.playkit.providers.api.phoenix.APIDefines.KalturaStreamerType;
 import com.kaltura.playkit.providers.api.phoenix.APIDefines.PlaybackContextType;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -124,6 +126,27 @@ public class OTTMediaAsset extends BaseMediaAsset {
         return this;
     }
 
+    /**
+     * @return a copy of this asset. Lists and maps are copied, so changes to this asset
+     * will not affect the copy.
+     */
+    OTTMediaAsset copy() {
+        OTTMediaAsset copy = new OTTMediaAsset();
+        copy.setKs(getKs());
+        copy.setReferrer(getReferrer());
+        copy.assetId = assetId;
+        copy.assetType = assetType;
+        copy.assetReferenceType = assetReferenceType;
+        copy.contextType = contextType;
+        copy.urlType = urlType;
+        copy.streamerType = streamerType;
+        copy.formats = formats != null ? new ArrayList<>(formats) : null;
+        copy.mediaFileIds = mediaFileIds != null ? new ArrayList<>(mediaFileIds) : null;
+        copy.protocol = protocol;
+        copy.adapterData = adapterData != null ? new HashMap<>(adapterData) : null;
+        return copy;
+    }
+
     public String getAssetId() {
         return assetId;
     }
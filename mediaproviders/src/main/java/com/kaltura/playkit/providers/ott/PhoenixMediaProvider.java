@@ -16,6 +16,7 @@ import android.net.Uri;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
 
 import com.google.gson.JsonParseException;
@@ -40,15 +41,23 @@ import java.lang.annotation.RetentionPolicy;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
+import com.kaltura.playkit.providers.LoadProfile;
 import com.kaltura.playkit.providers.MediaEntryProvider;
+import com.kaltura.playkit.providers.ResponseProjection;
+import com.kaltura.playkit.providers.api.KsInspector;
 import com.kaltura.playkit.providers.api.SimpleSessionProvider;
 import com.kaltura.playkit.providers.api.base.model.KalturaDrmPlaybackPluginData;
 import com.kaltura.playkit.providers.api.phoenix.APIDefines;
+import com.kaltura.playkit.providers.api.phoenix.PhoenixErrorHelper;
 import com.kaltura.playkit.providers.api.phoenix.PhoenixParser;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaLoginSession;
 import com.kaltura.playkit.providers.api.phoenix.model.KalturaMediaAsset;
 import com.kaltura.playkit.providers.api.phoenix.model.KalturaPlaybackContext;
 import com.kaltura.playkit.providers.api.phoenix.model.KalturaPlaybackSource;
@@ -56,10 +65,15 @@ import com.kaltura.playkit.providers.api.phoenix.services.AssetService;
 import com.kaltura.playkit.providers.api.phoenix.services.OttUserService;
 import com.kaltura.playkit.providers.api.phoenix.services.PhoenixService;
 import com.kaltura.playkit.providers.base.BEBaseProvider;
-import com.kaltura.playkit.providers.base.BECallableLoader;
+import com.kaltura.playkit.providers.base.BEAsyncLoader;
 import com.kaltura.playkit.providers.base.BEResponseListener;
 import com.kaltura.playkit.providers.base.FormatsHelper;
+import com.kaltura.playkit.providers.base.LoadHandle;
+import com.kaltura.playkit.providers.base.MediaEntryCache;
+import com.kaltura.playkit.providers.base.OnMediaEntryRefreshListener;
 import com.kaltura.playkit.providers.base.OnMediaLoadCompletion;
+import com.kaltura.playkit.providers.base.ProviderResult;
+import com.kaltura.playkit.providers.base.ResponseDiskCache;
 import com.kaltura.playkit.providers.ott.PhoenixProviderUtils.MediaTypeConverter;
 
 import com.kaltura.playkit.utils.Consts;
@@ -68,6 +82,10 @@ import static com.kaltura.playkit.providers.MediaProvidersUtils.buildBadRequestE
 import static com.kaltura.playkit.providers.MediaProvidersUtils.buildGeneralErrorElement;
 import static com.kaltura.playkit.providers.MediaProvidersUtils.buildLoadErrorElement;
 import static com.kaltura.playkit.providers.MediaProvidersUtils.buildNotFoundlErrorElement;
+import static com.kaltura.playkit.providers.MediaProvidersUtils.buildSessionErrorElement;
+import static com.kaltura.playkit.providers.MediaProvidersUtils.copyMediaEntry;
+import static com.kaltura.playkit.providers.MediaProvidersUtils.getAPIExceptionError;
+import static com.kaltura.playkit.providers.MediaProvidersUtils.isMediaEntryChanged;
 import static com.kaltura.playkit.providers.MediaProvidersUtils.isDRMSchemeValid;
 import static com.kaltura.playkit.providers.MediaProvidersUtils.updateDrmParams;
 import static com.kaltura.playkit.providers.ott.PhoenixProviderUtils.createOttMetadata;
@@ -75,7 +93,6 @@ import static com.kaltura.playkit.providers.ott.PhoenixProviderUtils.is360Suppor
 import static com.kaltura.playkit.providers.ott.PhoenixProviderUtils.isAPIExceptionResponse;
 import static com.kaltura.playkit.providers.ott.PhoenixProviderUtils.isLiveMediaEntry;
 import static com.kaltura.playkit.providers.ott.PhoenixProviderUtils.isDvrLiveMediaEntry;
-import static com.kaltura.playkit.providers.ott.PhoenixProviderUtils.parseAPIExceptionError;
 import static com.kaltura.playkit.providers.ott.PhoenixProviderUtils.parseErrorRersponse;
 import static com.kaltura.playkit.providers.ott.PhoenixProviderUtils.updateErrorElement;
 
@@ -102,10 +119,22 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
 
     private static final boolean EnableEmptyKs = true;
 
+    /** asset properties of {@link LoadProfile#PlaybackAndBasicInfo} loads */
+    private static final ResponseProjection BasicInfoProjection = ResponseProjection.withFields("description", "images");
+
     private OTTMediaAsset mediaAsset;
 
     private BEResponseListener responseListener;
 
+    private MediaEntryCache mediaEntryCache;
+    private ResponseDiskCache responseDiskCache;
+    private boolean revalidateCachedResponse;
+    private boolean staleWhileRevalidate;
+    private OnMediaEntryRefreshListener refreshListener;
+    private Set<String> metadataKeys;
+    private ResponseProjection responseProjection = ResponseProjection.Full;
+    private LoadProfile loadProfile = LoadProfile.Full;
+
     public PhoenixMediaProvider() {
         super(log.tag);
         this.mediaAsset = new OTTMediaAsset();
@@ -278,8 +307,102 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
         return this;
     }
 
+    /**
+     * OPTIONAL
+     * Caches the resolved media entries, a load of a cached entry completes right away with no remote request.
+     * The same cache can be set on several providers.
+     *
+     * @param mediaEntryCache - cache to use, null disables caching.
+     * @return - instance of PhoenixMediaProvider
+     */
+    public PhoenixMediaProvider setMediaEntryCache(@Nullable MediaEntryCache mediaEntryCache) {
+        this.mediaEntryCache = mediaEntryCache;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Persists the raw responses of the media loads, a load of a recently resolved media completes from the disk
+     * with no remote request, also after the application was restarted.
+     *
+     * @param responseDiskCache - cache to use, null disables caching.
+     * @param revalidate - if true, a load that completed from the cache also fetches the response in background to update the cache.
+     * @return - instance of PhoenixMediaProvider
+     */
+    public PhoenixMediaProvider setResponseDiskCache(@Nullable ResponseDiskCache responseDiskCache, boolean revalidate) {
+        this.responseDiskCache = responseDiskCache;
+        this.revalidateCachedResponse = revalidate;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Requires a {@link MediaEntryCache}, see {@link #setMediaEntryCache(MediaEntryCache)}.
+     * When enabled, a load of a cached entry that is no longer fresh completes right away with the stale entry
+     * (see {@link ProviderResult#isStale()}), and the entry is then refreshed in background.
+     *
+     * @param enabled - enables stale results
+     * @param refreshListener - notified if the refreshed entry sources, DRM data or metadata are different from the stale entry.
+     * @return - instance of PhoenixMediaProvider
+     */
+    public PhoenixMediaProvider setStaleWhileRevalidate(boolean enabled, @Nullable OnMediaEntryRefreshListener refreshListener) {
+        this.staleWhileRevalidate = enabled;
+        this.refreshListener = refreshListener;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Limits the asset tags, metas and images added to the media metadata to the provided keys, other keys are never read from the response.
+     * Metadata values are read from the response only when they are accessed.
+     *
+     * @param metadataKeys - keys to add, null adds all keys.
+     * @return - instance of PhoenixMediaProvider
+     */
+    public PhoenixMediaProvider setMetadataKeys(@Nullable Collection<String> metadataKeys) {
+        this.metadataKeys = metadataKeys != null ? Collections.unmodifiableSet(new TreeSet<>(metadataKeys)) : null;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Selects the media fields requested from the server, see {@link ResponseProjection}.
+     * Defaults to {@link ResponseProjection#Full}.
+     *
+     * @param responseProjection - fields projection
+     * @return - instance of PhoenixMediaProvider
+     */
+    public PhoenixMediaProvider setResponseProjection(@NonNull ResponseProjection responseProjection) {
+        this.responseProjection = responseProjection;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Selects the requests sent by the media load, see {@link LoadProfile}.
+     * Defaults to {@link LoadProfile#Full}.
+     *
+     * @param loadProfile - load profile
+     * @return - instance of PhoenixMediaProvider
+     */
+    public PhoenixMediaProvider setLoadProfile(@NonNull LoadProfile loadProfile) {
+        this.loadProfile = loadProfile;
+        return this;
+    }
+
     protected Loader createNewLoader(OnCompletion<ResultElement<PKMediaEntry>> completion) {
-        return new Loader(requestsExecutor, sessionProvider, mediaAsset, completion);
+        return newLoader(mediaAsset.copy(), completion);
+    }
+
+    private Loader newLoader(OTTMediaAsset mediaAsset, OnCompletion<ResultElement<PKMediaEntry>> completion) {
+        Loader loader = new Loader(requestsExecutor, sessionProvider, mediaAsset, mediaEntryCache, completion);
+        loader.setResponseDiskCache(responseDiskCache, revalidateCachedResponse);
+        loader.staleWhileRevalidate = staleWhileRevalidate;
+        loader.refreshListener = refreshListener;
+        loader.metadataKeys = metadataKeys;
+        loader.responseProjection = responseProjection;
+        loader.loadProfile = loadProfile;
+        return loader;
     }
 
     /**
@@ -289,8 +412,17 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
      */
     @Override
     protected ErrorElement validateParams() {
+        return validateMediaAsset(this.mediaAsset);
+    }
+
+    /**
+     * Checks the mandatory parameters of the asset and sets the defaults of the missing optional ones.
+     *
+     * @return - error in case of at least 1 invalid mandatory parameter.
+     */
+    static ErrorElement validateMediaAsset(OTTMediaAsset mediaAsset) {
 
-        if (TextUtils.isEmpty(this.mediaAsset.assetId)) {
+        if (TextUtils.isEmpty(mediaAsset.assetId)) {
             return buildBadRequestErrorElement("Missing required parameter [assetId]");
         }
 
@@ -336,23 +468,87 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
         load((OnCompletion<ResultElement<PKMediaEntry>>)completion);
     }
 
-    class Loader extends BECallableLoader {
+    /**
+     * Loads the provided asset side by side with any other load of this provider.
+     * The provider base url, partner and session provider are used, the asset parameters
+     * are taken from the provided asset and not from the provider.
+     *
+     * @param mediaAsset - the asset to load, the asset is copied and can be reused once this method returns.
+     * @param loadKey - optional. A running load that was started with the same key will be canceled and replaced.
+     * @param completion - a callback for handling the result of data fetching flow.
+     * @return handle to the load, or null in case the asset is not valid (error is passed to the completion).
+     */
+    @Nullable
+    public LoadHandle<PKMediaEntry> load(@NonNull OTTMediaAsset mediaAsset, @Nullable String loadKey, OnMediaLoadCompletion completion) {
+        OTTMediaAsset assetCopy = mediaAsset.copy();
+        ErrorElement error = isClosed() ? buildBadRequestErrorElement(ErrorElement.BadRequestError + ": provider was closed") : validateMediaAsset(assetCopy);
+        if (error != null) {
+            if (completion != null) {
+                completion.onComplete(Accessories.<PKMediaEntry>buildResult(null, error));
+            }
+            return null;
+        }
 
-        private OTTMediaAsset mediaAsset;
+        return startConcurrentLoad(loadKey, newLoader(assetCopy, completion), completion);
+    }
 
+    class Loader extends BEAsyncLoader<PKMediaEntry> {
 
-        public Loader(RequestQueue requestsExecutor, SessionProvider sessionProvider, OTTMediaAsset mediaAsset, OnCompletion<ResultElement<PKMediaEntry>> completion) {
+        private OTTMediaAsset mediaAsset;
+        private MediaEntryCache mediaEntryCache;
+        private boolean staleWhileRevalidate;
+        private OnMediaEntryRefreshListener refreshListener;
+        private Set<String> metadataKeys;
+        private ResponseProjection responseProjection = ResponseProjection.Full;
+        private LoadProfile loadProfile = LoadProfile.Full;
+
+        public Loader(RequestQueue requestsExecutor, SessionProvider sessionProvider, OTTMediaAsset mediaAsset, MediaEntryCache mediaEntryCache, OnCompletion<ResultElement<PKMediaEntry>> completion) {
             super(log.tag + "#Loader", requestsExecutor, sessionProvider, completion);
 
             this.mediaAsset = mediaAsset;
+            this.mediaEntryCache = mediaEntryCache;
 
             log.v(loadId + ": construct new Loader");
         }
 
         @Override
-        protected ErrorElement validateKs(String ks) { // enable anonymous session creation
-            return EnableEmptyKs || !TextUtils.isEmpty(ks) ? null :
-                    buildBadRequestErrorElement(ErrorElement.BadRequestError + ": SessionProvider should provide a valid KS token");
+        protected ErrorElement validateKs(String ks) {
+            if (TextUtils.isEmpty(ks)) { // enable anonymous session creation
+                return EnableEmptyKs ? null : buildBadRequestErrorElement(ErrorElement.BadRequestError + ": SessionProvider should provide a valid KS token");
+            }
+            return KsInspector.isExpired(ks) ? buildSessionErrorElement("SessionProvider provided an expired KS token") : null;
+        }
+
+        @Override
+        protected boolean isSessionError(ErrorElement error) {
+            return PhoenixErrorHelper.isSessionError(error);
+        }
+
+        @Override
+        protected String getRequestKey(String ks) {
+            return TextUtils.join("|", new Object[]{sessionProvider.baseUrl(), sessionProvider.partnerId(), ks, mediaAsset.assetId,
+                    mediaAsset.assetType, mediaAsset.assetReferenceType, mediaAsset.contextType, mediaAsset.urlType, mediaAsset.streamerType,
+                    mediaAsset.formats, mediaAsset.mediaFileIds, mediaAsset.protocol, mediaAsset.adapterData, mediaAsset.getReferrer(), metadataKeys, responseProjection, loadProfile});
+        }
+
+        @Override
+        protected ResultElement<PKMediaEntry> getCachedResult(String requestKey) {
+            return mediaEntryCache != null ? mediaEntryCache.get(requestKey, staleWhileRevalidate) : null;
+        }
+
+        @Override
+        protected OnCompletion<ResultElement<PKMediaEntry>> getRefreshCompletion(ResultElement<PKMediaEntry> staleResult) {
+            final PKMediaEntry staleEntry = copyMediaEntry(staleResult.getResponse());
+            return result -> {
+                if (result.isSuccess() && refreshListener != null && isMediaEntryChanged(staleEntry, result.getResponse())) {
+                    refreshListener.onMediaEntryRefreshed(result.getResponse());
+                }
+            };
+        }
+
+        @Override
+        protected ResultElement<PKMediaEntry> copyResult(ResultElement<PKMediaEntry> result) {
+            return result.isSuccess() ? Accessories.buildResult(copyMediaEntry(result.getResponse()), null) : result;
         }
 
         private RequestBuilder getPlaybackContextRequest(String baseUrl, String ks, OTTMediaAsset mediaAsset) {
@@ -390,7 +586,16 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
         }
 
         private RequestBuilder getMediaAssetRequest(String baseUrl, String ks, OTTMediaAsset mediaAsset) {
-            return AssetService.get(baseUrl, ks, mediaAsset.assetId, mediaAsset.assetReferenceType);
+            return AssetService.get(baseUrl, ks, mediaAsset.assetId, mediaAsset.assetReferenceType,
+                    getAssetProjection().getFields(null, AssetService.BasicAssetProperties));
+        }
+
+        private boolean isAssetRequested() {
+            return loadProfile != LoadProfile.PlaybackOnly && mediaAsset.assetReferenceType != null;
+        }
+
+        private ResponseProjection getAssetProjection() {
+            return loadProfile == LoadProfile.PlaybackAndBasicInfo && responseProjection == ResponseProjection.Full ? BasicInfoProjection : responseProjection;
         }
 
         private RequestBuilder getRemoteRequest(String baseUrl, String ks, OTTMediaAsset mediaAsset) {
@@ -409,7 +614,7 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
 
             builder.add(getPlaybackContextRequest(baseUrl, multiReqKs, mediaAsset));
 
-            if (mediaAsset.assetReferenceType != null) {
+            if (isAssetRequested()) {
                 builder.add(getMediaAssetRequest(baseUrl, multiReqKs, mediaAsset));
             }
 
@@ -420,35 +625,58 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
          * Builds and passes to the executor, the Asset info fetching request.
          *
          * @param ks - ks
-         * @throws InterruptedException - {@link InterruptedException}
          */
         @Override
-        protected void requestRemote(String ks) throws InterruptedException {
-            final RequestBuilder requestBuilder = getRemoteRequest(getApiBaseUrl(), ks, mediaAsset)
-                    .completion(response -> {
-                        log.v(loadId + ": got response to [" + loadReq + "]");
-                        loadReq = null;
+        protected void requestRemote(final String ks) {
+            if (TextUtils.isEmpty(ks)) {
+                getAnonymousSession(anonymousKs -> {
+                    if (!isCanceled()) {
+                        queueRemoteRequest(ks, anonymousKs);
+                    }
+                });
+                return;
+            }
 
-                        try {
-                            onAssetGetResponse(response);
+            queueRemoteRequest(ks, ks);
+        }
 
-                        } catch (InterruptedException e) {
-                            interrupted();
-                        }
-                    });
+        /**
+         * @param ks - ks provided by the session provider
+         * @param requestKs - the ks to send the request with, empty to add an anonymous login to the request.
+         */
+        private void queueRemoteRequest(final String ks, String requestKs) {
+            final RequestBuilder requestBuilder = getRemoteRequest(requestKs);
 
             synchronized (syncObject) {
-                loadReq = requestQueue.queue(requestBuilder.build());
+                loadReq = queueRequest(requestBuilder, PhoenixParser::parse, (response, parser) -> {
+                    log.v(loadId + ": got response to [" + loadReq + "]");
+                    loadReq = null;
+
+                    onAssetGetResponse(ks, response, parser);
+                });
                 log.d(loadId + ": request queued for execution [" + loadReq + "]");
             }
+        }
 
-            if (!isCanceled()) {
-                log.v(loadId + " set waitCompletion");
-                waitCompletion();
-            } else {
-                log.v(loadId + " was canceled.");
-            }
-            log.v(loadId + ": requestRemote wait released");
+        @Override
+        protected RequestBuilder<?> getRemoteRequest(String ks) {
+            return getRemoteRequest(getApiBaseUrl(), ks, mediaAsset);
+        }
+
+        @Override
+        protected void onCachedResponse(String ks, ResponseElement response) {
+            onAssetGetResponse(ks, response, () -> PhoenixParser.parse(response.getResponse()));
+        }
+
+        @Override
+        protected boolean canStreamResponse() {
+            // the response listener gets the response string
+            return super.canStreamResponse() && responseListener == null;
+        }
+
+        @Override
+        protected boolean isCacheableResponse(ResponseElement response) {
+            return response != null && response.isSuccess() && !PhoenixProviderUtils.isErrorResponse(response) && !isAPIExceptionResponse(response);
         }
 
         private String getApiBaseUrl() {
@@ -459,10 +687,11 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
         /**
          * Parse and create a {@link PKMediaEntry} object from the API response.
          *
+         * @param ks - the ks the request was sent with
          * @param response - server response
-         * @throws InterruptedException - {@link InterruptedException}
+         * @param parser - parses the response body, the body of a streamed response is read while it downloads
          */
-        private void onAssetGetResponse(final ResponseElement response) throws InterruptedException {
+        private void onAssetGetResponse(String ks, final ResponseElement response, ResponseParser parser) {
             ErrorElement error;
             PKMediaEntry mediaEntry = null;
 
@@ -507,7 +736,7 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
                     BaseResult playbackContextResult = null;
                     BaseResult assetGetResult = null;
 
-                    Object parsedResponsesObject = PhoenixParser.parse(response.getResponse());
+                    Object parsedResponsesObject = parser.parse();
                     List<BaseResult> parsedResponses = new ArrayList<>();
                     if (parsedResponsesObject instanceof List) {
                         parsedResponses = (List<BaseResult>) parsedResponsesObject;
@@ -517,52 +746,61 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
                         loginResult = (BaseResult) parsedResponsesObject;
                     }
 
-                    if (parsedResponses.size() > 2) {
-                        // position size -1 is asset get result size - 2 is playbackContext size - 3 is the login data
-                        loginResult = parsedResponses.get(parsedResponses.size() - 3);
+                    // position size -1 is asset get result (if requested), followed by the playbackContext and the login data
+                    int assetResultsCount = isAssetRequested() ? 1 : 0;
+                    boolean hasLoginResult = parsedResponses.size() > 1 + assetResultsCount;
+
+                    if (hasLoginResult) {
+                        loginResult = parsedResponses.get(parsedResponses.size() - 2 - assetResultsCount);
+                    }
+
+                    if (parsedResponses.size() > assetResultsCount) {
+                        playbackContextResult = parsedResponses.get(parsedResponses.size() - 1 - assetResultsCount);
+                        assetGetResult = assetResultsCount > 0 ? parsedResponses.get(parsedResponses.size() - 1) : null;
                     }
 
-                    if (parsedResponses.size() > 1) {
-                        // position size -1 is asset get result size - 2 is playbackContext size - 3 is the login data
-                        playbackContextResult = parsedResponses.get(parsedResponses.size() - 2);
-                        assetGetResult = parsedResponses.get(parsedResponses.size() - 1);
+                    // a cached response holds a session that may have been replaced or expired since
+                    if (hasLoginResult && loginResult instanceof KalturaLoginSession && loginResult.error == null && !isCachedResponse) {
+                        KalturaLoginSession loginSession = (KalturaLoginSession) loginResult;
+                        onAnonymousSessionCreated(loginSession.getKs(), loginSession.getExpiry() * 1000);
                     }
 
-                    if ((parsedResponses.size() > 2 && (loginResult == null || loginResult.error != null)) || playbackContextResult == null || assetGetResult == null || playbackContextResult.error != null || assetGetResult.error != null) {
+                    ErrorElement apiExceptionError = getAPIExceptionError(parsedResponsesObject);
+                    if (apiExceptionError != null) {
+                        error = apiExceptionError;
+                    } else if ((hasLoginResult && (loginResult == null || loginResult.error != null)) || playbackContextResult == null || playbackContextResult.error != null ||
+                            (assetResultsCount > 0 && (assetGetResult == null || assetGetResult.error != null))) {
                         error = updateErrorElement(response, loginResult, playbackContextResult, assetGetResult);
                     } else {
                         KalturaPlaybackContext kalturaPlaybackContext = (KalturaPlaybackContext) playbackContextResult;
                         KalturaMediaAsset kalturaMediaAsset = (KalturaMediaAsset) assetGetResult;
 
-                        Map<String, String> metadata = createOttMetadata(kalturaMediaAsset, mediaAsset);
+                        Map<String, String> metadata = kalturaMediaAsset != null ? createOttMetadata(kalturaMediaAsset, mediaAsset, metadataKeys) : createOttMetadata(mediaAsset);
                         boolean is360Content = is360Supported(metadata);
                         boolean isMulticastContent = (mediaAsset.streamerType == APIDefines.KalturaStreamerType.Multicast);
 
                         error = kalturaPlaybackContext.hasError(); // check for error or unauthorized content
-
-                        if (error != null) {
-                            if (!isCanceled() && completion != null) {
-                                completion.onComplete(Accessories.buildResult(null, error));
+                        if (error == null) {
+                            mediaEntry = ProviderParser.getMedia(mediaAsset.assetId,
+                                    mediaAsset.formats != null ? mediaAsset.formats : mediaAsset.mediaFileIds,
+                                    kalturaPlaybackContext.getSources(), is360Content, isMulticastContent);
+                            mediaEntry.setMetadata(metadata);
+                            if (kalturaMediaAsset != null) {
+                                mediaEntry.setName(kalturaMediaAsset.getName());
+                            }
+                            if (isDvrLiveMediaEntry(kalturaMediaAsset, mediaAsset)) {
+                                mediaEntry.setMediaType(PKMediaEntry.MediaEntryType.DvrLive);
+                            } else if (isLiveMediaEntry(kalturaMediaAsset)) {
+                                mediaEntry.setMediaType(PKMediaEntry.MediaEntryType.Live);
+                            } else if (kalturaMediaAsset == null) {
+                                mediaEntry.setMediaType(PKMediaEntry.MediaEntryType.Unknown); // can't be told without the asset
+                            } else {
+                                mediaEntry.setMediaType(PKMediaEntry.MediaEntryType.Vod);
                             }
-                            notifyCompletion();
-                            return;
-                        }
-
-                        mediaEntry = ProviderParser.getMedia(mediaAsset.assetId,
-                                mediaAsset.formats != null ? mediaAsset.formats : mediaAsset.mediaFileIds,
-                                kalturaPlaybackContext.getSources(), is360Content, isMulticastContent);
-                        mediaEntry.setMetadata(metadata);
-                        mediaEntry.setName(kalturaMediaAsset.getName());
-                        if (isDvrLiveMediaEntry(kalturaMediaAsset, mediaAsset)) {
-                            mediaEntry.setMediaType(PKMediaEntry.MediaEntryType.DvrLive);
-                        } else if (isLiveMediaEntry(kalturaMediaAsset)) {
-                            mediaEntry.setMediaType(PKMediaEntry.MediaEntryType.Live);
-                        } else {
-                            mediaEntry.setMediaType(PKMediaEntry.MediaEntryType.Vod);
-                        }
 
-                        if (mediaEntry.getSources().size() == 0) { // makes sure there are sources available for play
-                            error = buildNotFoundlErrorElement("Content can't be played due to lack of sources");
+                            if (mediaEntry.getSources().size() == 0) { // makes sure there are sources available for play
+                                error = buildNotFoundlErrorElement("Content can't be played due to lack of sources");
+                            }
                         }
                     }
                 } catch (JsonParseException | InvalidParameterException ex) {
@@ -576,6 +814,15 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
 
             log.i(loadId + ": load operation " + (isCanceled() ? "canceled" : "finished with " + (error == null ? "success" : "failure")));
 
+            if (error != null) {
+                invalidateAnonymousSession(error);
+            } else if (!isCachedResponse) {
+                cacheResponse(ks, response);
+                if (mediaEntryCache != null) {
+                    mediaEntryCache.put(requestKey, mediaEntry, ks);
+                }
+            }
+
             if (!isCanceled() && completion != null) {
                 completion.onComplete(Accessories.buildResult(mediaEntry, error));
             }
@@ -592,22 +839,11 @@ public class PhoenixMediaProvider extends BEBaseProvider<PKMediaEntry> implement
                 if (errorResponse == null) {
                     errorResponse = buildGeneralErrorElement("multirequest response is null");
                 }
+                invalidateAnonymousSession(errorResponse);
                 if (!isCanceled() && completion != null) {
                     completion.onComplete(Accessories.buildResult(null, errorResponse));
-                    notifyCompletion();
-                }
-                return false;
-            }
-
-            if (isAPIExceptionResponse(response)) {
-                ErrorElement apiExceptionError = parseAPIExceptionError(response);
-                if (apiExceptionError == null) {
-                    apiExceptionError = buildGeneralErrorElement("multirequest KalturaAPIException");
-                }
-                if (!isCanceled() && completion != null) {
-                    completion.onComplete(Accessories.buildResult(null, apiExceptionError));
-                    notifyCompletion();
                 }
+                notifyCompletion();
                 return false;
             }
             return true;
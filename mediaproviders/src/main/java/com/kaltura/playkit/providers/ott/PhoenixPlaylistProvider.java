@@ -15,6 +15,7 @@ package com.kaltura.playkit.providers.ott;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.google.gson.JsonParseException;
 import com.kaltura.netkit.connect.executor.APIOkRequestsExecutor;
@@ -37,8 +38,13 @@ import com.kaltura.playkit.PKPlaylistMedia;
 
 import com.kaltura.playkit.providers.PlaylistMetadata;
 import com.kaltura.playkit.providers.PlaylistProvider;
+import com.kaltura.playkit.providers.ResponseProjection;
+import com.kaltura.playkit.providers.api.KalturaAPIException;
+import com.kaltura.playkit.providers.api.KsInspector;
 import com.kaltura.playkit.providers.api.SimpleSessionProvider;
+import com.kaltura.playkit.providers.api.base.ResponseStreamParser;
 import com.kaltura.playkit.providers.api.phoenix.APIDefines;
+import com.kaltura.playkit.providers.api.phoenix.PhoenixErrorHelper;
 import com.kaltura.playkit.providers.api.phoenix.PhoenixParser;
 import com.kaltura.playkit.providers.api.phoenix.model.KalturaLoginSession;
 import com.kaltura.playkit.providers.api.phoenix.model.KalturaMediaAsset;
@@ -46,17 +52,31 @@ import com.kaltura.playkit.providers.api.phoenix.services.AssetService;
 import com.kaltura.playkit.providers.api.phoenix.services.OttUserService;
 import com.kaltura.playkit.providers.api.phoenix.services.PhoenixService;
 import com.kaltura.playkit.providers.base.BEBaseProvider;
-import com.kaltura.playkit.providers.base.BECallableLoader;
+import com.kaltura.playkit.providers.base.ProviderExecutors;
+import com.kaltura.playkit.providers.base.BEAsyncLoader;
 import com.kaltura.playkit.providers.base.BEResponseListener;
+import com.kaltura.playkit.providers.base.OnPlaylistItemsListener;
 import com.kaltura.playkit.providers.base.OnPlaylistLoadCompletion;
+import com.kaltura.playkit.providers.base.ParallelChunks;
+import com.kaltura.playkit.providers.base.PlaylistItemsCompletion;
+import com.kaltura.playkit.providers.base.PlaylistItemsEmitter;
+import com.kaltura.playkit.providers.base.PlaylistLoadResult;
 import com.kaltura.playkit.utils.Consts;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
 
 import static com.kaltura.netkit.utils.ErrorElement.GeneralError;
+import static com.kaltura.playkit.providers.MediaProvidersUtils.buildSessionErrorElement;
 import static com.kaltura.playkit.providers.ott.PhoenixProviderUtils.createOttMetadata;
 import static com.kaltura.playkit.providers.ott.PhoenixProviderUtils.is360Supported;
 import static com.kaltura.playkit.providers.ott.PhoenixProviderUtils.isLiveMediaEntry;
@@ -79,12 +99,24 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
 
     private static final boolean EnableEmptyKs = true;
 
+    public static final int DefaultMaxParallelChunks = 3;
+
     private PKPlaylistRequest playlist;
 
     private BEResponseListener responseListener;
 
     private String referrer;
 
+    private Set<String> metadataKeys;
+
+    private ResponseProjection responseProjection = ResponseProjection.Full;
+
+    private boolean parallelDecoding;
+
+    private int maxChunkRequests;
+
+    private int maxParallelChunks = DefaultMaxParallelChunks;
+
     private class PKPlaylistRequest {
 
         public PlaylistMetadata playlistMetadata;
@@ -92,6 +124,11 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
         public List<OTTMediaAsset> mediaAssets;
 
         public PKPlaylistRequest() { }
+
+        PKPlaylistRequest(PKPlaylistRequest playlistRequest) {
+            this.playlistMetadata = playlistRequest.playlistMetadata;
+            this.mediaAssets = playlistRequest.mediaAssets != null ? new ArrayList<>(playlistRequest.mediaAssets) : null;
+        }
     }
 
     public PhoenixPlaylistProvider() {
@@ -158,6 +195,64 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
         return this;
     }
 
+    /**
+     * OPTIONAL
+     * Limits the asset tags, metas and images added to the media metadata to the provided keys, other keys are never read from the response.
+     * Metadata values are read from the response only when they are accessed.
+     *
+     * @param metadataKeys - keys to add, null adds all keys.
+     * @return - instance of PhoenixPlaylistProvider
+     */
+    public PhoenixPlaylistProvider setMetadataKeys(@Nullable Collection<String> metadataKeys) {
+        this.metadataKeys = metadataKeys != null ? Collections.unmodifiableSet(new TreeSet<>(metadataKeys)) : null;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Selects the media fields requested from the server, see {@link ResponseProjection}.
+     * Defaults to {@link ResponseProjection#Full}.
+     *
+     * @param responseProjection - fields projection
+     * @return - instance of PhoenixPlaylistProvider
+     */
+    public PhoenixPlaylistProvider setResponseProjection(@NonNull ResponseProjection responseProjection) {
+        this.responseProjection = responseProjection;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Decodes the assets results and builds the playlist medias in parallel chunks on the shared decode pool,
+     * instead of one by one on the loader thread. Worth enabling for playlists of many assets.
+     * The medias keep the order of the requested assets.
+     *
+     * @param parallelDecoding - true to decode in parallel, defaults to false
+     * @return - instance of PhoenixPlaylistProvider
+     */
+    public PhoenixPlaylistProvider setParallelDecoding(boolean parallelDecoding) {
+        this.parallelDecoding = parallelDecoding;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Splits the assets requests of a large playlist into multirequests of up to maxChunkRequests requests.
+     * Up to maxParallelChunks multirequests are executed at the same time, the playlist keeps the order of the requested assets.
+     * Assets of a multirequest that failed are passed as null medias, the load fails only if all the assets failed.
+     * The errors of the failed assets are available on the {@link PlaylistLoadResult} passed to the load completion.
+     * When there is no KS, each multirequest creates its own anonymous session.
+     *
+     * @param maxChunkRequests - max asset requests per multirequest, 0 sends all the requests in a single multirequest (default)
+     * @param maxParallelChunks - max multirequests executed at the same time, defaults to {@link #DefaultMaxParallelChunks}
+     * @return - instance of PhoenixPlaylistProvider
+     */
+    public PhoenixPlaylistProvider setRequestChunking(int maxChunkRequests, int maxParallelChunks) {
+        this.maxChunkRequests = Math.max(0, maxChunkRequests);
+        this.maxParallelChunks = Math.max(1, maxParallelChunks);
+        return this;
+    }
+
     /**
      * Checks for non empty value on the mandatory parameters.
      *
@@ -175,7 +270,16 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
 
     @Override
     protected Loader createNewLoader(OnCompletion<ResultElement<PKPlaylist>> completion) {
-        return new Loader(requestsExecutor, sessionProvider, playlist, completion);
+        Loader loader = new Loader(requestsExecutor, sessionProvider, playlist, completion);
+        loader.metadataKeys = metadataKeys;
+        loader.responseProjection = responseProjection;
+        loader.parallelDecoding = parallelDecoding;
+        loader.maxChunkRequests = maxChunkRequests;
+        loader.maxParallelChunks = maxParallelChunks;
+        if (completion instanceof OnPlaylistItemsListener) {
+            loader.itemsEmitter = new PlaylistItemsEmitter((OnPlaylistItemsListener) completion, loader.playlistRequest.mediaAssets.size());
+        }
+        return loader;
     }
 
     @Override
@@ -183,25 +287,52 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
         load((OnCompletion<ResultElement<PKPlaylist>>)completion);
     }
 
-    class Loader extends BECallableLoader {
+    /**
+     * Loads the playlist and passes its medias to the items listener as soon as their results are parsed.
+     * Medias are passed as they are read from the response when the request executor streams responses
+     * (see {@link com.kaltura.playkit.providers.base.StreamingRequestExecutor}), and per multirequest when
+     * the requests are split, see {@link #setRequestChunking(int, int)}.
+     * Medias keep the order of the requested assets, failed assets are passed as null and their errors are
+     * available on the {@link PlaylistLoadResult} passed to the completion.
+     */
+    @Override
+    public void load(@NonNull OnPlaylistItemsListener itemsListener, OnPlaylistLoadCompletion completion) {
+        load(new PlaylistItemsCompletion(itemsListener, completion));
+    }
+
+    class Loader extends BEAsyncLoader<PKPlaylist> {
 
-        private PKPlaylistRequest playlistRequest;
+        private final PKPlaylistRequest playlistRequest;
+        private Set<String> metadataKeys;
+        private ResponseProjection responseProjection = ResponseProjection.Full;
+        private boolean parallelDecoding;
+        private int maxChunkRequests;
+        private int maxParallelChunks = DefaultMaxParallelChunks;
+        private ChunkedRequest chunkedRequest;
+        private PlaylistItemsEmitter itemsEmitter;
 
         public Loader(RequestQueue requestsExecutor, SessionProvider sessionProvider, PKPlaylistRequest playlistRequest, OnCompletion<ResultElement<PKPlaylist>> completion) {
             super(log.tag + "#Loader", requestsExecutor, sessionProvider, completion);
 
-            this.playlistRequest = playlistRequest;
+            // the provider request may be changed while the load runs
+            this.playlistRequest = new PKPlaylistRequest(playlistRequest);
 
             log.v(loadId + ": construct new Loader");
         }
 
         @Override
-        protected ErrorElement validateKs(String ks) { // enable anonymous session creation
-            return EnableEmptyKs || !TextUtils.isEmpty(ks) ? null :
-                    ErrorElement.BadRequestError.message(ErrorElement.BadRequestError + ": SessionProvider should provide a valid KS token");
+        protected ErrorElement validateKs(String ks) {
+            if (TextUtils.isEmpty(ks)) { // enable anonymous session creation
+                return EnableEmptyKs ? null : ErrorElement.BadRequestError.message(ErrorElement.BadRequestError + ": SessionProvider should provide a valid KS token");
+            }
+            return KsInspector.isExpired(ks) ? buildSessionErrorElement("SessionProvider provided an expired KS token") : null;
         }
 
         private RequestBuilder getRemoteRequest(String baseUrl, String ks, String referrer, PKPlaylistRequest playlistRequest) {
+            return getRemoteRequest(baseUrl, ks, playlistRequest.mediaAssets);
+        }
+
+        private RequestBuilder getRemoteRequest(String baseUrl, String ks, List<OTTMediaAsset> mediaAssets) {
 
             String multiReqKs;
 
@@ -215,10 +346,11 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
                 multiReqKs = ks;
             }
 
-            for (OTTMediaAsset mediaAsset : playlistRequest.mediaAssets) {
+            for (OTTMediaAsset mediaAsset : mediaAssets) {
                 String requestKS = TextUtils.isEmpty(mediaAsset.getKs()) ? multiReqKs : mediaAsset.getKs();
                 APIDefines.AssetReferenceType assetReferenceType = mediaAsset.assetReferenceType != null ? mediaAsset.assetReferenceType : APIDefines.AssetReferenceType.Media;
-                builder.add((RequestBuilder) AssetService.get(baseUrl, requestKS, mediaAsset.assetId, assetReferenceType));
+                builder.add((RequestBuilder) AssetService.get(baseUrl, requestKS, mediaAsset.assetId, assetReferenceType,
+                        responseProjection.getFields(null, AssetService.BasicAssetProperties)));
             }
             return builder;
         }
@@ -227,34 +359,62 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
          * Builds and passes to the executor, the Asset info fetching request.
          *
          * @param ks - ks
-         * @throws InterruptedException - {@link InterruptedException}
          */
         @Override
-        protected void requestRemote(String ks) throws InterruptedException {
-            final RequestBuilder requestBuilder = getRemoteRequest(getApiBaseUrl(), ks, referrer, playlistRequest)
-                    .completion(response -> {
-                        log.v(loadId + ": got response to [" + loadReq + "]");
-                        loadReq = null;
-
-                        try {
-                            onAssetGetResponse(response, ks);
-                        } catch (InterruptedException e) {
-                            interrupted();
-                        }
-                    });
+        protected void requestRemote(String ks) {
+            if (maxChunkRequests > 0 && playlistRequest.mediaAssets.size() > maxChunkRequests) {
+                ChunkedRequest chunkedRequest = new ChunkedRequest(ks);
+                synchronized (syncObject) {
+                    this.chunkedRequest = chunkedRequest;
+                }
+                chunkedRequest.start();
+                return;
+            }
+
+            final RequestBuilder requestBuilder = getRemoteRequest(getApiBaseUrl(), ks, referrer, playlistRequest);
+            final ResponseStreamParser.ResultListener resultListener = getResultListener(TextUtils.isEmpty(ks) ? 1 : 0, 0);
 
             synchronized (syncObject) {
-                loadReq = requestQueue.queue(requestBuilder.build());
+                loadReq = queueRequest(requestBuilder, reader -> PhoenixParser.parse(reader, getDecodeExecutor(), resultListener), (response, parser) -> {
+                    log.v(loadId + ": got response to [" + loadReq + "]");
+                    loadReq = null;
+
+                    onAssetGetResponse(response, parser, ks);
+                });
                 log.d(loadId + ": request queued for execution [" + loadReq + "]");
             }
+        }
 
-            if (!isCanceled()) {
-                log.v(loadId + " set waitCompletion");
-                waitCompletion();
-            } else {
-                log.v(loadId + " was canceled.");
+        @Override
+        protected boolean isSessionError(ErrorElement error) {
+            return PhoenixErrorHelper.isSessionError(error);
+        }
+
+        @Override
+        protected boolean canStreamResponse() {
+            // the response listener gets the response string
+            return super.canStreamResponse() && responseListener == null;
+        }
+
+        private ExecutorService getDecodeExecutor() {
+            return parallelDecoding ? ProviderExecutors.getDecodeExecutor() : null;
+        }
+
+        /**
+         * @param loginResults - number of results that precede the assets results
+         * @param firstIndex - playlist index of the first asset of the response
+         * @return listener that builds and passes the playlist medias while the response is parsed, null if there is no items listener.
+         */
+        private ResponseStreamParser.ResultListener getResultListener(final int loginResults, final int firstIndex) {
+            if (itemsEmitter == null) {
+                return null;
             }
-            log.v(loadId + ": requestRemote wait released");
+            return (index, result) -> {
+                if (index >= loginResults && !isCanceled()) {
+                    int mediaIndex = firstIndex + index - loginResults;
+                    itemsEmitter.set(mediaIndex, buildPlaylistMedia(mediaIndex, result));
+                }
+            };
         }
 
         private String getApiBaseUrl() {
@@ -266,13 +426,11 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
          * Parse and create a {@link PKPlaylist} object from the API response.
          *
          * @param response - server response
-         * @throws InterruptedException - {@link InterruptedException}
+         * @param parser - parses the response body
          */
-        private void onAssetGetResponse(final ResponseElement response, String ks) throws InterruptedException {
+        private void onAssetGetResponse(final ResponseElement response, ResponseParser parser, String ks) {
             ErrorElement error = null;
-            List<KalturaMediaAsset> kalturaMediaAssets = null;
-            List<Map<String, String>> assetsMetadtaList = null;
-            PKPlaylist pkPlaylist = null;
+            List<BaseResult> assetResults = null;
 
             if (isCanceled()) {
                 log.v(loadId + ": i am canceled, exit response parsing ");
@@ -284,13 +442,11 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
             }
 
             if (response.isSuccess()) {
-                KalturaMediaAsset asset = null;
-
                 try {
                     log.d(loadId + ": parsing response  [" + Loader.this.toString() + "]");
                     BaseResult loginResult = null;
 
-                    Object parsedResponsesObject = PhoenixParser.parse(response.getResponse());
+                    Object parsedResponsesObject = parser.parse();
                     List<BaseResult> parsedResponses = new ArrayList<>();
                     if (parsedResponsesObject instanceof List) {
                         parsedResponses = (List<BaseResult>) parsedResponsesObject;
@@ -307,6 +463,7 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
                     if (loginResult != null && loginResult.error != null) {
                         error = loginResult.error;
                         completion.onComplete(Accessories.buildResult(null, error));
+                        notifyCompletion();
                         return;
                     } else {
                         boolean allErrors = true;
@@ -318,6 +475,7 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
                         }
                         if (allErrors) {
                             completion.onComplete(Accessories.buildResult(null, parsedResponses.get(0).error));
+                            notifyCompletion();
                             return;
                         }
                     }
@@ -327,25 +485,12 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
                         mediaAssetsStartIndex = 1;
                     }
 
-                    kalturaMediaAssets = new ArrayList<>();
-                    assetsMetadtaList = new ArrayList<>();
-                    for (int playlistMediaIndex = 0; mediaAssetsStartIndex < parsedResponses.size(); mediaAssetsStartIndex++) {
-                        if (parsedResponses.get(mediaAssetsStartIndex).error == null) {
-                            KalturaMediaAsset kalturaMediaAsset = (KalturaMediaAsset) parsedResponses.get(mediaAssetsStartIndex);
-                            OTTMediaAsset ottMediaAsset = (playlistRequest != null && playlistRequest.mediaAssets != null && playlistMediaIndex < playlistRequest.mediaAssets.size()) ? playlistRequest.mediaAssets.get(playlistMediaIndex++) : null;
-                            Map<String, String> metadata = createOttMetadata(kalturaMediaAsset, ottMediaAsset);
-                            metadata.put("is360Content", String.valueOf(is360Supported(metadata)));
-                            assetsMetadtaList.add(metadata);
-                            kalturaMediaAssets.add(kalturaMediaAsset);
-                        } else {
-                            kalturaMediaAssets.add(null);
-                            assetsMetadtaList.add(null);
-                        }
-                    }
+                    assetResults = parsedResponses.subList(mediaAssetsStartIndex, parsedResponses.size());
 
-                    if (kalturaMediaAssets.isEmpty()) { // makes sure there are sources available for play
+                    if (assetResults.isEmpty()) { // makes sure there are sources available for play
                         error = ErrorElement.LoadError.message("failed to get responses on load requests no medias available");
                         completion.onComplete(Accessories.buildResult(null, error));
+                        notifyCompletion();
                         return;
                     }
 
@@ -361,45 +506,123 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
             log.i(loadId + ": load operation " + (isCanceled() ? "canceled" : "finished with " + (error == null ? "success" : "failure")));
 
             if (!isCanceled() && completion != null) {
-                pkPlaylist = getPKPlaylist(ks, kalturaMediaAssets, assetsMetadtaList);
-                completion.onComplete(Accessories.buildResult(pkPlaylist, error));
+                PKPlaylist pkPlaylist = error == null ? getPKPlaylist(ks, buildPlaylistMedias(assetResults)) : null;
+                completion.onComplete(new PlaylistLoadResult(pkPlaylist, error, error == null ? getItemErrors(assetResults) : null));
             }
 
             log.v(loadId + " playlist load finished, callback passed...notifyCompletion");
             notifyCompletion();
         }
 
-        private PKPlaylist getPKPlaylist(String playlistKs, List<KalturaMediaAsset> entriesList, List<Map<String, String>> assetsMetadtaList) {
-            if (entriesList == null || assetsMetadtaList == null) {
-                return null;
+        /**
+         * Completes the load with the merged results of all the chunks, see {@link ChunkedRequest}.
+         *
+         * @param assetResults - results of the requested assets, in the requested order
+         */
+        private void onAssetResults(List<BaseResult> assetResults, String ks) {
+            if (isCanceled()) {
+                log.v(loadId + ": i am canceled, exit response parsing ");
+                return;
+            }
+
+            ErrorElement error = null;
+            PKPlaylist pkPlaylist = null;
+
+            BaseResult firstSuccess = null;
+            for (BaseResult baseResult : assetResults) {
+                if (baseResult.error == null) {
+                    firstSuccess = baseResult;
+                    break;
+                }
+            }
+
+            if (firstSuccess == null) {
+                error = assetResults.get(0).error;
+            } else {
+                pkPlaylist = getPKPlaylist(ks, buildPlaylistMedias(assetResults));
+            }
+
+            log.i(loadId + ": load operation " + (isCanceled() ? "canceled" : "finished with " + (error == null ? "success" : "failure")));
+
+            if (!isCanceled() && completion != null) {
+                completion.onComplete(new PlaylistLoadResult(pkPlaylist, error, error == null ? getItemErrors(assetResults) : null));
             }
 
-            List<PKPlaylistMedia> mediaList = new ArrayList<>();
+            log.v(loadId + " playlist load finished, callback passed...notifyCompletion");
+            notifyCompletion();
+        }
 
-            int listIndex = 0;
-            for (KalturaMediaAsset kalturaMediaEntry : entriesList) {
-                if (kalturaMediaEntry == null || kalturaMediaEntry.getMediaFiles() == null || kalturaMediaEntry.getMediaFiles().isEmpty()) {
-                    mediaList.add(null);
-                    listIndex++;
-                    continue;
+        /**
+         * @return the errors of the failed assets results, mapped by the result index.
+         */
+        private Map<Integer, ErrorElement> getItemErrors(List<BaseResult> assetResults) {
+            Map<Integer, ErrorElement> itemErrors = new TreeMap<>();
+            for (int i = 0; i < assetResults.size(); i++) {
+                BaseResult assetResult = assetResults.get(i);
+                if (assetResult == null) {
+                    itemErrors.put(i, ErrorElement.LoadError);
+                } else if (assetResult.error != null) {
+                    itemErrors.put(i, assetResult.error);
                 }
+            }
+            return itemErrors;
+        }
 
-                String thumbnailUrl = (kalturaMediaEntry.getImages() != null && !kalturaMediaEntry.getImages().isEmpty()) ? kalturaMediaEntry.getImages().get(0).getUrl() : "";
-
-                if (kalturaMediaEntry.getMediaFiles().get(0) != null) {
-                    mediaList.add(new PKPlaylistMedia().
-                            setId(String.valueOf(kalturaMediaEntry.getId())).
-                            setName(kalturaMediaEntry.getName()).
-                            setDescription(kalturaMediaEntry.getDescription()).
-                            setType(getMediaEntryType(listIndex, kalturaMediaEntry)).
-                            setMsDuration(kalturaMediaEntry.getMediaFiles().get(0).getDuration() * Consts.MILLISECONDS_MULTIPLIER).
-                            setThumbnailUrl(thumbnailUrl).
-                            setTags(assetsMetadtaList.get(listIndex).get("tags")).
-                            setMetadata(assetsMetadtaList.get(listIndex)));
+        /**
+         * Builds the playlist medias of the assets results, in the results order.
+         * Medias that were already built while the response was parsed are reused, the rest are passed to the items listener.
+         */
+        private List<PKPlaylistMedia> buildPlaylistMedias(final List<BaseResult> assetResults) {
+            final PKPlaylistMedia[] medias = new PKPlaylistMedia[assetResults.size()];
+            ParallelChunks.run(medias.length, getDecodeExecutor(), (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    if (itemsEmitter != null && itemsEmitter.isSet(i)) {
+                        medias[i] = itemsEmitter.get(i);
+                        continue;
+                    }
+                    medias[i] = buildPlaylistMedia(i, assetResults.get(i));
+                    if (itemsEmitter != null && !isCanceled()) {
+                        itemsEmitter.set(i, medias[i]);
+                    }
                 }
-                listIndex++;
+            });
+            return new ArrayList<>(Arrays.asList(medias));
+        }
+
+        /**
+         * Builds the playlist media of the asset result of the index.
+         * The result is matched with the requested asset of the same index.
+         *
+         * @return the media, null for a failed result or an asset with no media files.
+         */
+        private PKPlaylistMedia buildPlaylistMedia(int index, BaseResult assetResult) {
+            if (!(assetResult instanceof KalturaMediaAsset) || assetResult.error != null) {
+                return null;
+            }
+
+            KalturaMediaAsset kalturaMediaAsset = (KalturaMediaAsset) assetResult;
+            if (kalturaMediaAsset.getMediaFiles() == null || kalturaMediaAsset.getMediaFiles().isEmpty() || kalturaMediaAsset.getMediaFiles().get(0) == null) {
+                return null;
             }
 
+            OTTMediaAsset ottMediaAsset = (playlistRequest != null && playlistRequest.mediaAssets != null && index < playlistRequest.mediaAssets.size()) ? playlistRequest.mediaAssets.get(index) : null;
+            Map<String, String> metadata = createOttMetadata(kalturaMediaAsset, ottMediaAsset, metadataKeys);
+            metadata.put("is360Content", String.valueOf(is360Supported(metadata)));
+
+            String thumbnailUrl = (kalturaMediaAsset.getImages() != null && !kalturaMediaAsset.getImages().isEmpty()) ? kalturaMediaAsset.getImages().get(0).getUrl() : "";
+
+            return new PKPlaylistMedia().
+                    setId(String.valueOf(kalturaMediaAsset.getId())).
+                    setName(kalturaMediaAsset.getName()).
+                    setDescription(kalturaMediaAsset.getDescription()).
+                    setType(getMediaEntryType(index, kalturaMediaAsset)).
+                    setMsDuration(kalturaMediaAsset.getMediaFiles().get(0).getDuration() * Consts.MILLISECONDS_MULTIPLIER).
+                    setThumbnailUrl(thumbnailUrl).
+                    setTags(metadata.get("tags")).
+                    setMetadata(metadata);
+        }
+
+        private PKPlaylist getPKPlaylist(String playlistKs, List<PKPlaylistMedia> mediaList) {
             if (playlistRequest.playlistMetadata == null) {
                 playlistRequest.playlistMetadata = new PlaylistMetadata();
             }
@@ -426,10 +649,218 @@ public class PhoenixPlaylistProvider extends BEBaseProvider<PKPlaylist> implemen
         }
 
         private boolean isDvrLiveMedia(int index) {
-            if (playlist != null && playlist.mediaAssets != null && !playlist.mediaAssets.isEmpty() && index >= 0 && index < playlist.mediaAssets.size() && playlist.mediaAssets.get(index) != null) {
-                return playlist.mediaAssets.get(index).assetType == APIDefines.KalturaAssetType.Epg && playlist.mediaAssets.get(index).contextType == APIDefines.PlaybackContextType.StartOver;
+            List<OTTMediaAsset> mediaAssets = playlistRequest.mediaAssets;
+            if (mediaAssets != null && index >= 0 && index < mediaAssets.size() && mediaAssets.get(index) != null) {
+                return mediaAssets.get(index).assetType == APIDefines.KalturaAssetType.Epg && mediaAssets.get(index).contextType == APIDefines.PlaybackContextType.StartOver;
             }
             return false;
         }
+
+        @Override
+        public void cancel() {
+            super.cancel();
+
+            ChunkedRequest chunkedRequest;
+            synchronized (syncObject) {
+                chunkedRequest = this.chunkedRequest;
+            }
+            if (chunkedRequest != null && isCanceled()) {
+                chunkedRequest.cancel();
+            }
+        }
+        /**
+         * Sends the assets requests in chunks of up to {@link #maxChunkRequests} requests, at most {@link #maxParallelChunks}
+         * chunks at a time, and merges the chunks results in the requested order.
+         * The results of a failed chunk are replaced by its error, the other chunks are not affected.
+         * All the chunks of a load with no KS are sent with one anonymous session. If there is no shared session, the first
+         * chunk creates it and the other chunks are sent once it completes, if the session was not created the next chunk creates it.
+         */
+        private class ChunkedRequest {
+
+            private final String ks;
+            private final List<OTTMediaAsset> mediaAssets;
+            private final BaseResult[] results;
+            private final String[] requestIds;
+            private final boolean[] completedChunks;
+            private String requestKs;
+            private int nextChunk;
+            private int pendingChunks;
+
+            ChunkedRequest(String ks) {
+                this.ks = ks;
+                this.requestKs = ks;
+                this.mediaAssets = playlistRequest.mediaAssets;
+                this.results = new BaseResult[mediaAssets.size()];
+                this.pendingChunks = (mediaAssets.size() + maxChunkRequests - 1) / maxChunkRequests;
+                this.requestIds = new String[pendingChunks];
+                this.completedChunks = new boolean[pendingChunks];
+            }
+
+            void start() {
+                log.d(loadId + ": sending " + mediaAssets.size() + " asset requests in " + pendingChunks + " chunks");
+                if (!TextUtils.isEmpty(ks)) {
+                    sendChunks();
+                    return;
+                }
+
+                getAnonymousSession(anonymousKs -> {
+                    if (isCanceled()) {
+                        return;
+                    }
+                    if (anonymousKs == null) {
+                        sendNextChunk(); // creates the session
+                        return;
+                    }
+                    synchronized (syncObject) {
+                        requestKs = anonymousKs;
+                    }
+                    sendChunks();
+                });
+            }
+
+            void cancel() {
+                List<String> canceledRequests = new ArrayList<>();
+                synchronized (syncObject) {
+                    for (int i = 0; i < requestIds.length; i++) {
+                        if (requestIds[i] != null) {
+                            canceledRequests.add(requestIds[i]);
+                            requestIds[i] = null;
+                        }
+                    }
+                }
+                for (String requestId : canceledRequests) {
+                    log.i(loadId + ": canceling chunk request execution [" + requestId + "]");
+                    requestQueue.cancelRequest(requestId);
+                }
+            }
+
+            private void sendChunks() {
+                for (int i = 0; i < maxParallelChunks; i++) {
+                    if (!sendNextChunk()) {
+                        break;
+                    }
+                }
+            }
+
+            /**
+             * @return false if there are no more chunks to send.
+             */
+            private boolean sendNextChunk() {
+                final int chunk;
+                final String chunkKs;
+                synchronized (syncObject) {
+                    if (isCanceled() || nextChunk >= requestIds.length) {
+                        return false;
+                    }
+                    chunk = nextChunk++;
+                    chunkKs = requestKs;
+                }
+
+                final int chunkStart = chunk * maxChunkRequests;
+                final int chunkEnd = Math.min(chunkStart + maxChunkRequests, mediaAssets.size());
+                final int loginResults = TextUtils.isEmpty(chunkKs) ? 1 : 0;
+                final RequestBuilder requestBuilder = getRemoteRequest(getApiBaseUrl(), chunkKs, mediaAssets.subList(chunkStart, chunkEnd));
+                final ResponseStreamParser.ResultListener resultListener = getResultListener(loginResults, chunkStart);
+
+                String requestId = queueRequest(requestBuilder, reader -> PhoenixParser.parse(reader, getDecodeExecutor(), resultListener),
+                        (response, parser) -> onChunkResponse(chunk, chunkStart, chunkEnd, loginResults, response, parser));
+                synchronized (syncObject) {
+                    if (!completedChunks[chunk] && !isCanceled()) {
+                        requestIds[chunk] = requestId;
+                        log.d(loadId + ": chunk request queued for execution [" + requestId + "]");
+                        return true;
+                    }
+                }
+                if (isCanceled()) {
+                    requestQueue.cancelRequest(requestId);
+                }
+                return true;
+            }
+
+            /**
+             * @param loginResults - 1 if the chunk request creates the anonymous session, 0 otherwise
+             */
+            private void onChunkResponse(int chunk, final int chunkStart, int chunkEnd, int loginResults, ResponseElement response, ResponseParser parser) {
+                if (isCanceled()) {
+                    return;
+                }
+
+                if (responseListener != null) {
+                    responseListener.onResponse(response);
+                }
+
+                List<BaseResult> chunkResults = null;
+                ErrorElement chunkError = null;
+                String createdKs = null;
+                if (response.isSuccess()) {
+                    try {
+                        Object parsedResponse = parser.parse();
+                        if (parsedResponse instanceof List && ((List<?>) parsedResponse).size() == loginResults + chunkEnd - chunkStart) {
+                            @SuppressWarnings("unchecked")
+                            List<BaseResult> parsedResponses = (List<BaseResult>) parsedResponse;
+                            BaseResult loginResult = loginResults > 0 ? parsedResponses.get(0) : null;
+                            if (loginResult != null && loginResult.error != null) {
+                                chunkError = loginResult.error;
+                            } else {
+                                chunkResults = parsedResponses.subList(loginResults, parsedResponses.size());
+                            }
+                            if (loginResult instanceof KalturaLoginSession && loginResult.error == null) {
+                                KalturaLoginSession loginSession = (KalturaLoginSession) loginResult;
+                                createdKs = loginSession.getKs();
+                                onAnonymousSessionCreated(createdKs, loginSession.getExpiry() * 1000);
+                            }
+                        } else if (parsedResponse instanceof BaseResult && ((BaseResult) parsedResponse).error != null) {
+                            chunkError = ((BaseResult) parsedResponse).error;
+                        } else {
+                            chunkError = GeneralError.message("responses list doesn't contain the expected responses number");
+                        }
+                    } catch (JsonParseException ex) {
+                        chunkError = ErrorElement.LoadError.message("failed parsing remote response: " + ex.getMessage());
+                    }
+                } else {
+                    chunkError = response.getError() != null ? response.getError() : ErrorElement.LoadError;
+                }
+
+                if (chunkError != null) {
+                    log.w(loadId + ": assets chunk [" + chunkStart + ", " + chunkEnd + ") failed: " + chunkError.getMessage());
+                    invalidateAnonymousSession(chunkError);
+                }
+
+                final BaseResult[] chunkAssetResults = new BaseResult[chunkEnd - chunkStart];
+                for (int i = 0; i < chunkAssetResults.length; i++) {
+                    chunkAssetResults[i] = chunkResults != null ? chunkResults.get(i) : new KalturaAPIException(chunkError);
+                }
+
+                if (itemsEmitter != null) {
+                    // items that were not passed while the chunk was parsed
+                    ParallelChunks.run(chunkAssetResults.length, getDecodeExecutor(), (from, to) -> {
+                        for (int i = from; i < to && !isCanceled(); i++) {
+                            if (!itemsEmitter.isSet(chunkStart + i)) {
+                                itemsEmitter.set(chunkStart + i, buildPlaylistMedia(chunkStart + i, chunkAssetResults[i]));
+                            }
+                        }
+                    });
+                }
+
+                boolean isLastChunk;
+                synchronized (syncObject) {
+                    System.arraycopy(chunkAssetResults, 0, results, chunkStart, chunkAssetResults.length);
+                    completedChunks[chunk] = true;
+                    requestIds[chunk] = null;
+                    isLastChunk = --pendingChunks == 0;
+                    if (createdKs != null) {
+                        requestKs = createdKs;
+                    }
+                }
+
+                if (isLastChunk) {
+                    onAssetResults(Arrays.asList(results), ks);
+                } else if (createdKs != null) {
+                    sendChunks(); // the session is ready, the other chunks use it
+                } else {
+                    sendNextChunk();
+                }
+            }
+        }
     }
 }
@@ -3,10 +3,8 @@ package com.kaltura.playkit.providers.ott;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.kaltura.netkit.connect.response.BaseResult;
 import com.kaltura.netkit.connect.response.ResponseElement;
 import com.kaltura.netkit.utils.ErrorElement;
@@ -19,14 +17,11 @@ import com.kaltura.playkit.providers.api.phoenix.model.KalturaMediaAsset;
 import com.kaltura.playkit.providers.api.phoenix.model.KalturaProgramAsset;
 import com.kaltura.playkit.providers.api.phoenix.model.KalturaRecordingAsset;
 import com.kaltura.playkit.providers.api.phoenix.model.KalturaRecordingType;
-import com.kaltura.playkit.providers.api.phoenix.model.KalturaThumbnail;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.kaltura.playkit.providers.base.LazyMetadataMap;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class PhoenixProviderUtils {
     private static final PKLog log = PKLog.get("PhoenixProviderUtils");
@@ -40,6 +35,11 @@ public class PhoenixProviderUtils {
     public static final String MESSAGE = "message";
     public static final String RESULT = "result";
 
+    /**
+     * Scans the raw response for API exceptions. Parsed responses report their exceptions as
+     * {@link com.kaltura.playkit.providers.api.KalturaAPIException} results, this check is meant for responses
+     * that are stored without being parsed, such as revalidated cache responses.
+     */
     static boolean isAPIExceptionResponse(ResponseElement response) {
         return response == null || (response.isSuccess() && response.getError() == null && response.getResponse() != null && response.getResponse().contains(KALTURA_API_EXCEPTION));
     }
@@ -55,126 +55,28 @@ public class PhoenixProviderUtils {
         return null;
     }
 
-    static ErrorElement parseAPIExceptionError(ResponseElement response) {
-
-        if (response != null) {
-
-            try {
-                JSONObject apiException = new JSONObject(response.getResponse());
-
-                if (apiException.has(RESULT)) {
-                    String ottError = "OTTError";
-                    if (apiException.get(RESULT) instanceof JSONObject) {
-
-                        JSONObject result = (JSONObject) apiException.get(RESULT);
-                        if (result != null && result.has(ERROR)) {
-                            JSONObject error = (JSONObject) result.get(ERROR);
-                            Map<String, String> errorMap = getAPIExceptionData(error);
-                            if (errorMap != null) {
-                                return new ErrorElement(errorMap.get(MESSAGE), errorMap.get(CODE), errorMap.get(OBJECT_TYPE)).setName(ottError);
-                            }
-                        }
-                    } else if (apiException.get(RESULT) instanceof JSONArray) {
-
-                        JSONArray result = (JSONArray) apiException.get(RESULT);
-                        for(int idx = 0 ; idx < result.length() ; idx++) {
-                            JSONObject error = (JSONObject) result.get(idx);
-                            if (error != null && error.has(ERROR)) {
-                                JSONObject resultIndexJsonObjectError = (JSONObject) error.get(ERROR);
-                                Map<String, String> errorMap = getAPIExceptionData(resultIndexJsonObjectError);
-                                if (errorMap != null) {
-                                    return new ErrorElement(errorMap.get(MESSAGE), errorMap.get(CODE), errorMap.get(OBJECT_TYPE)).setName(ottError);
-                                }
-                            }
-                        }
-                    }
-
-                }
-            } catch (JSONException | NumberFormatException ex) {
-                log.e("parseAPIExceptionError Exception = " + ex.getMessage());
-            }
-        }
-
-        return null;
-    }
-
-    static Map<String,String> getAPIExceptionData(JSONObject error) {
-
-        try {
-
-            if (error != null) {
-
-                Map<String,String> errorMap = new HashMap<>();
-
-                if (error.has(OBJECT_TYPE)) {
-                    String objectType = error.getString(OBJECT_TYPE);
-                    errorMap.put(OBJECT_TYPE, objectType);
-                }
-
-                if (error.has(CODE)) {
-                    String errorCode = error.getString(CODE);
-                    errorMap.put(CODE, errorCode);
-                }
-
-                if (error.has(MESSAGE)) {
-                    String errorMessage = error.getString(MESSAGE);
-                    errorMap.put(MESSAGE, errorMessage);
-                }
-
-                //log.d("Error objectType = " + objectType + " errorCode = " + errorCode + "errorMessage = " + errorMessage);
-                return errorMap;
-            }
-        } catch (JSONException | NumberFormatException ex) {
-            log.e("getAPIExceptionData Exception = " + ex.getMessage());
-        }
-
-        return null;
-    }
-
     static boolean is360Supported(Map<String, String> metadata) {
         return ("360".equals(metadata.get("tags")));
     }
 
     @NonNull
     static Map<String, String> createOttMetadata(KalturaMediaAsset kalturaMediaAsset, OTTMediaAsset ottMediaAsset) {
+        return createOttMetadata(kalturaMediaAsset, ottMediaAsset, null);
+    }
+
+    /**
+     * The asset tags, metas and images are read only when accessed, see {@link LazyMetadataMap}.
+     *
+     * @param metadataKeys - tags, metas and images keys to add, null to add all keys
+     */
+    @NonNull
+    static Map<String, String> createOttMetadata(KalturaMediaAsset kalturaMediaAsset, OTTMediaAsset ottMediaAsset, @Nullable Set<String> metadataKeys) {
         String metadataEpgId = null;
-        Map<String, String> metadata = new HashMap<>();
         if (kalturaMediaAsset == null) {
-            return metadata;
-        }
-
-        JsonObject tags = kalturaMediaAsset.getTags();
-        if (tags != null) {
-            for (Map.Entry<String, JsonElement> entry : tags.entrySet()) {
-                for (Map.Entry<String, JsonElement> object : entry.getValue().getAsJsonObject().entrySet()) {
-                    if (object.getValue().isJsonArray()) {
-                        JsonArray objectsArray = object.getValue().getAsJsonArray();
-                        for (int i = 0; i < objectsArray.size(); i++) {
-                            metadata.put(entry.getKey(), safeGetValue(objectsArray.get(i)));
-                        }
-                    }
-                }
-            }
-        }
-
-        JsonObject metas = kalturaMediaAsset.getMetas();
-        if (metas != null) {
-            for (Map.Entry<String, JsonElement> entry : metas.entrySet()) {
-                metadata.put(entry.getKey(), safeGetValue(entry.getValue()));
-            }
+            return new HashMap<>();
         }
 
-        if (kalturaMediaAsset.getImages() != null) {
-            for (KalturaThumbnail image : kalturaMediaAsset.getImages()) {
-                if (image != null && image.getUrl() != null) {
-                    if (image.getWidth() != null && image.getHeight() != null) {
-                        metadata.put(image.getWidth() + "X" + image.getHeight(), image.getUrl());
-                    } else if (image.getRatio() != null) {
-                        metadata.put(image.getRatio(), image.getUrl());
-                    }
-                }
-            }
-        }
+        Map<String, String> metadata = new LazyMetadataMap(new AssetMetadataSource(kalturaMediaAsset), metadataKeys);
 
         metadata.put("assetIds", String.valueOf(kalturaMediaAsset.getId()));
 
@@ -225,13 +127,22 @@ public class PhoenixProviderUtils {
         return metadata;
     }
 
-    static String safeGetValue(JsonElement value) {
-        if (value == null || value.isJsonNull() || !value.isJsonObject()) {
-            return null;
+    /**
+     * Metadata of a load that did not request the asset, has only the values known from the request.
+     */
+    @NonNull
+    static Map<String, String> createOttMetadata(@NonNull OTTMediaAsset ottMediaAsset) {
+        Map<String, String> metadata = new HashMap<>();
+        if (ottMediaAsset.assetId != null) {
+            metadata.put("assetIds", ottMediaAsset.assetId);
         }
-
-        final JsonElement valueElement = value.getAsJsonObject().get("value");
-        return (valueElement != null && !valueElement.isJsonNull()) ? valueElement.getAsString() : null;
+        if (ottMediaAsset.assetType != null) {
+            metadata.put("assetType", ottMediaAsset.assetType.value);
+        }
+        if (ottMediaAsset.contextType != null) {
+            metadata.put("contextType", ottMediaAsset.contextType.value);
+        }
+        return metadata;
     }
 
     static ErrorElement updateErrorElement(ResponseElement response, BaseResult loginResult, BaseResult playbackContextResult, BaseResult assetGetResult) {
@@ -0,0 +1,57 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.ovp;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.kaltura.playkit.providers.api.ovp.model.KalturaMetadata;
+import com.kaltura.playkit.providers.base.LazyMetadataMap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the custom metadata xml of an entry as metadata values, values of later metadata objects override earlier ones.
+ * A key lookup extracts the whitelisted keys, same as building the whole map, so the extraction results are cached
+ * by {@link MetadataXmlExtractor} and the following lookups and the built map reuse them.
+ */
+
+class CustomMetadataSource implements LazyMetadataMap.Source {
+
+    private final List<KalturaMetadata> metadataObjects;
+
+    CustomMetadataSource(@NonNull List<KalturaMetadata> metadataObjects) {
+        this.metadataObjects = metadataObjects;
+    }
+
+    @Override
+    public void read(@NonNull String key, @NonNull Map<String, String> metadata, @Nullable Set<String> keys) {
+        Map<String, String> values = new HashMap<>();
+        populate(values, keys);
+        if (values.containsKey(key)) {
+            metadata.put(key, values.get(key));
+        }
+    }
+
+    @Override
+    public void populate(@NonNull Map<String, String> metadata, @Nullable Set<String> keys) {
+        for (KalturaMetadata metadataItem : metadataObjects) {
+            if (metadataItem != null) {
+                MetadataXmlExtractor.extract(metadataItem, keys, metadata);
+            }
+        }
+    }
+}
@@ -3,8 +3,9 @@ package com.kaltura.playkit.providers.ovp;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
 import com.kaltura.netkit.connect.executor.APIOkRequestsExecutor;
 import com.kaltura.netkit.connect.executor.RequestQueue;
 import com.kaltura.netkit.connect.request.MultiRequestBuilder;
@@ -21,7 +22,10 @@ import com.kaltura.playkit.PKMediaEntry;
 import com.kaltura.playkit.PKMediaFormat;
 import com.kaltura.playkit.PKMediaSource;
 import com.kaltura.playkit.player.PKExternalSubtitle;
+import com.kaltura.playkit.providers.LoadProfile;
 import com.kaltura.playkit.providers.MediaEntryProvider;
+import com.kaltura.playkit.providers.ResponseProjection;
+import com.kaltura.playkit.providers.api.KsInspector;
 import com.kaltura.playkit.providers.api.SimpleSessionProvider;
 import com.kaltura.playkit.providers.api.base.model.KalturaDrmPlaybackPluginData;
 import com.kaltura.playkit.providers.api.ovp.KalturaOvpErrorHelper;
@@ -36,32 +40,44 @@ import com.kaltura.playkit.providers.api.ovp.model.KalturaMediaEntry;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaMetadataListResponse;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaPlaybackContext;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaPlaybackSource;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaStartWidgetSessionResponse;
 import com.kaltura.playkit.providers.api.ovp.services.BaseEntryService;
 import com.kaltura.playkit.providers.api.ovp.services.MetaDataService;
 import com.kaltura.playkit.providers.api.ovp.services.OvpService;
 import com.kaltura.playkit.providers.api.ovp.services.OvpSessionService;
 import com.kaltura.playkit.providers.base.BEBaseProvider;
-import com.kaltura.playkit.providers.base.BECallableLoader;
+import com.kaltura.playkit.providers.base.BEAsyncLoader;
 import com.kaltura.playkit.providers.base.FormatsHelper;
+import com.kaltura.playkit.providers.base.MediaEntryCache;
+import com.kaltura.playkit.providers.base.OnMediaEntryRefreshListener;
 import com.kaltura.playkit.providers.base.OnMediaLoadCompletion;
+import com.kaltura.playkit.providers.base.ProviderResult;
+import com.kaltura.playkit.providers.base.ResponseDiskCache;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import static com.kaltura.playkit.providers.MediaProvidersUtils.buildBadRequestErrorElement;
 import static com.kaltura.playkit.providers.MediaProvidersUtils.buildGeneralErrorElement;
 import static com.kaltura.playkit.providers.MediaProvidersUtils.buildLoadErrorElement;
+import static com.kaltura.playkit.providers.MediaProvidersUtils.buildSessionErrorElement;
+import static com.kaltura.playkit.providers.MediaProvidersUtils.copyMediaEntry;
+import static com.kaltura.playkit.providers.MediaProvidersUtils.getAPIExceptionError;
+import static com.kaltura.playkit.providers.MediaProvidersUtils.isMediaEntryChanged;
 import static com.kaltura.playkit.providers.MediaProvidersUtils.isDRMSchemeValid;
 import static com.kaltura.playkit.providers.MediaProvidersUtils.updateDrmParams;
 import static com.kaltura.playkit.providers.ovp.KalturaOvpProviderUtils.createExternalSubtitles;
 import static com.kaltura.playkit.providers.ovp.KalturaOvpProviderUtils.getDefaultWidgetId;
 import static com.kaltura.playkit.providers.ovp.KalturaOvpProviderUtils.initPKMediaEntry;
 import static com.kaltura.playkit.providers.ovp.KalturaOvpProviderUtils.isAPIExceptionResponse;
-import static com.kaltura.playkit.providers.ovp.KalturaOvpProviderUtils.parseAPIExceptionError;
 import static com.kaltura.playkit.providers.ovp.KalturaOvpProviderUtils.parseErrorRersponse;
 import static com.kaltura.playkit.providers.ovp.KalturaOvpProviderUtils.parseMetadata;
 import static com.kaltura.playkit.providers.ovp.KalturaOvpProviderUtils.populateMetadata;
@@ -78,6 +94,14 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
     private String referrer;
     private boolean redirectFromEntryId = true;
     private boolean useApiCaptions;
+    private MediaEntryCache mediaEntryCache;
+    private ResponseDiskCache responseDiskCache;
+    private boolean revalidateCachedResponse;
+    private boolean staleWhileRevalidate;
+    private OnMediaEntryRefreshListener refreshListener;
+    private Set<String> metadataKeys;
+    private ResponseProjection responseProjection = ResponseProjection.Full;
+    private LoadProfile loadProfile = LoadProfile.Full;
 
     private int maxBitrate;
     private Map<String, Object> flavorsFilter;
@@ -175,9 +199,99 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
         return this;
     }
 
+    /**
+     * OPTIONAL
+     * Caches the resolved media entries, a load of a cached entry completes right away with no remote request.
+     * The same cache can be set on several providers.
+     *
+     * @param mediaEntryCache - cache to use, null disables caching.
+     * @return - instance of KalturaOvpMediaProvider
+     */
+    public KalturaOvpMediaProvider setMediaEntryCache(@Nullable MediaEntryCache mediaEntryCache) {
+        this.mediaEntryCache = mediaEntryCache;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Persists the raw responses of the media loads, a load of a recently resolved media completes from the disk
+     * with no remote request, also after the application was restarted.
+     *
+     * @param responseDiskCache - cache to use, null disables caching.
+     * @param revalidate - if true, a load that completed from the cache also fetches the response in background to update the cache.
+     * @return - instance of KalturaOvpMediaProvider
+     */
+    public KalturaOvpMediaProvider setResponseDiskCache(@Nullable ResponseDiskCache responseDiskCache, boolean revalidate) {
+        this.responseDiskCache = responseDiskCache;
+        this.revalidateCachedResponse = revalidate;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Requires a {@link MediaEntryCache}, see {@link #setMediaEntryCache(MediaEntryCache)}.
+     * When enabled, a load of a cached entry that is no longer fresh completes right away with the stale entry
+     * (see {@link ProviderResult#isStale()}), and the entry is then refreshed in background.
+     *
+     * @param enabled - enables stale results
+     * @param refreshListener - notified if the refreshed entry sources, DRM data or metadata are different from the stale entry.
+     * @return - instance of KalturaOvpMediaProvider
+     */
+    public KalturaOvpMediaProvider setStaleWhileRevalidate(boolean enabled, @Nullable OnMediaEntryRefreshListener refreshListener) {
+        this.staleWhileRevalidate = enabled;
+        this.refreshListener = refreshListener;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Limits the custom metadata added to the media entry metadata to the provided keys.
+     * The metadata xml is parsed only until all the keys were found.
+     *
+     * @param metadataKeys - custom metadata keys to extract, null extracts all keys.
+     * @return - instance of KalturaOvpMediaProvider
+     */
+    public KalturaOvpMediaProvider setMetadataKeys(@Nullable Collection<String> metadataKeys) {
+        this.metadataKeys = metadataKeys != null ? Collections.unmodifiableSet(new TreeSet<>(metadataKeys)) : null;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Selects the media fields requested from the server, see {@link ResponseProjection}.
+     * Defaults to {@link ResponseProjection#Full}.
+     *
+     * @param responseProjection - fields projection
+     * @return - instance of KalturaOvpMediaProvider
+     */
+    public KalturaOvpMediaProvider setResponseProjection(@NonNull ResponseProjection responseProjection) {
+        this.responseProjection = responseProjection;
+        return this;
+    }
+
+    /**
+     * OPTIONAL
+     * Selects the requests sent by the media load, see {@link LoadProfile}.
+     * Defaults to {@link LoadProfile#Full}.
+     *
+     * @param loadProfile - load profile
+     * @return - instance of KalturaOvpMediaProvider
+     */
+    public KalturaOvpMediaProvider setLoadProfile(@NonNull LoadProfile loadProfile) {
+        this.loadProfile = loadProfile;
+        return this;
+    }
+
     @Override
     protected Loader createNewLoader(OnCompletion<ResultElement<PKMediaEntry>> completion) {
-        return new Loader(requestsExecutor, sessionProvider, entryId, referenceId, uiConfId, referrer, redirectFromEntryId, completion);
+        Loader loader = new Loader(requestsExecutor, sessionProvider, entryId, referenceId, uiConfId, referrer, redirectFromEntryId, useApiCaptions, mediaEntryCache, completion);
+        loader.setResponseDiskCache(responseDiskCache, revalidateCachedResponse);
+        loader.staleWhileRevalidate = staleWhileRevalidate;
+        loader.refreshListener = refreshListener;
+        loader.metadataKeys = metadataKeys;
+        loader.responseProjection = responseProjection;
+        loader.loadProfile = loadProfile;
+        return loader;
     }
 
     @Override
@@ -192,15 +306,23 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
         load((OnCompletion<ResultElement<PKMediaEntry>>)completion);
     }
 
-    class Loader extends BECallableLoader {
+    class Loader extends BEAsyncLoader<PKMediaEntry> {
 
         private String entryId;
         private String referenceId;
         private boolean redirectFromEntryId = true;
         private String uiConfId;
         private String referrer;
-
-        Loader(RequestQueue requestsExecutor, SessionProvider sessionProvider, String entryId, String referenceId, String uiConfId, String referrer, boolean redirectFromEntryId, OnCompletion<ResultElement<PKMediaEntry>> completion) {
+        private boolean useApiCaptions;
+        private MediaEntryCache mediaEntryCache;
+        private boolean staleWhileRevalidate;
+        private OnMediaEntryRefreshListener refreshListener;
+        private Set<String> metadataKeys;
+        private ResponseProjection responseProjection = ResponseProjection.Full;
+        private LoadProfile loadProfile = LoadProfile.Full;
+
+        Loader(RequestQueue requestsExecutor, SessionProvider sessionProvider, String entryId, String referenceId, String uiConfId, String referrer, boolean redirectFromEntryId, boolean useApiCaptions,
+               MediaEntryCache mediaEntryCache, OnCompletion<ResultElement<PKMediaEntry>> completion) {
             super(log.tag + "#Loader", requestsExecutor, sessionProvider, completion);
 
             this.entryId = entryId;
@@ -208,6 +330,8 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
             this.redirectFromEntryId = redirectFromEntryId;
             this.uiConfId = uiConfId;
             this.referrer = referrer;
+            this.useApiCaptions = useApiCaptions;
+            this.mediaEntryCache = mediaEntryCache;
 
             log.v(loadId + ": construct new Loader");
         }
@@ -220,10 +344,43 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
                 } else {
                     return buildBadRequestErrorElement(ErrorElement.BadRequestError + ": SessionProvider should provide a valid KS token");
                 }
+            } else if (KsInspector.isExpired(ks)) {
+                return buildSessionErrorElement("SessionProvider provided an expired KS token");
             }
             return null;
         }
 
+        @Override
+        protected boolean isSessionError(ErrorElement error) {
+            return KalturaOvpErrorHelper.isSessionError(error);
+        }
+
+        @Override
+        protected String getRequestKey(String ks) {
+            return TextUtils.join("|", new Object[]{sessionProvider.baseUrl(), sessionProvider.partnerId(), ks, entryId, referenceId,
+                    redirectFromEntryId, uiConfId, referrer, useApiCaptions, metadataKeys, responseProjection, loadProfile});
+        }
+
+        @Override
+        protected ResultElement<PKMediaEntry> getCachedResult(String requestKey) {
+            return mediaEntryCache != null ? mediaEntryCache.get(requestKey, staleWhileRevalidate) : null;
+        }
+
+        @Override
+        protected OnCompletion<ResultElement<PKMediaEntry>> getRefreshCompletion(ResultElement<PKMediaEntry> staleResult) {
+            final PKMediaEntry staleEntry = copyMediaEntry(staleResult.getResponse());
+            return result -> {
+                if (result.isSuccess() && refreshListener != null && isMediaEntryChanged(staleEntry, result.getResponse())) {
+                    refreshListener.onMediaEntryRefreshed(result.getResponse());
+                }
+            };
+        }
+
+        @Override
+        protected ResultElement<PKMediaEntry> copyResult(ResultElement<PKMediaEntry> result) {
+            return result.isSuccess() ? Accessories.buildResult(copyMediaEntry(result.getResponse()), null) : result;
+        }
+
         private RequestBuilder getEntryInfo(String baseUrl, String ks, int partnerId) {
             MultiRequestBuilder multiRequestBuilder = (MultiRequestBuilder) OvpService.getMultirequest(baseUrl, ks, partnerId)
                     .tag("entry-info-multireq");
@@ -238,9 +395,22 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
                 baseEntryServiceEntryId = "{2:result:objects:0:id}";
             }
 
-            return multiRequestBuilder.add(BaseEntryService.list(baseUrl, ks, entryId, referenceId, redirectFromEntryId),
-                    BaseEntryService.getPlaybackContext(baseUrl, ks, baseEntryServiceEntryId, referrer),
-                    MetaDataService.list(baseUrl, ks, baseEntryServiceEntryId));
+            multiRequestBuilder.add(BaseEntryService.list(baseUrl, ks, entryId, referenceId, redirectFromEntryId,
+                    getEntryProjection().getFields(BaseEntryService.EntryFields, BaseEntryService.BasicEntryFields)),
+                    BaseEntryService.getPlaybackContext(baseUrl, ks, baseEntryServiceEntryId, referrer));
+
+            if (isMetadataRequested()) {
+                multiRequestBuilder.add(MetaDataService.list(baseUrl, ks, baseEntryServiceEntryId));
+            }
+            return multiRequestBuilder;
+        }
+
+        private boolean isMetadataRequested() {
+            return loadProfile == LoadProfile.Full;
+        }
+
+        private ResponseProjection getEntryProjection() {
+            return loadProfile == LoadProfile.PlaybackOnly && responseProjection == ResponseProjection.Full ? ResponseProjection.Basic : responseProjection;
         }
 
         /**
@@ -249,27 +419,50 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
          * @param ks - Kaltura KS
          */
         @Override
-        protected void requestRemote(final String ks) throws InterruptedException {
-            final RequestBuilder entryRequest = getEntryInfo(getApiBaseUrl(), ks, sessionProvider.partnerId())
-                    .completion(response -> {
-                        log.v(loadId + ": got response to [" + loadReq + "]" + " isCanceled = " + isCanceled);
-                        loadReq = null;
-
-                        try {
-                            onEntryInfoMultiResponse(ks, response, (OnMediaLoadCompletion) completion);
-                        } catch (InterruptedException e) {
-                            interrupted();
-                        }
-                    });
+        protected void requestRemote(final String ks) {
+            if (TextUtils.isEmpty(ks)) {
+                getAnonymousSession(anonymousKs -> {
+                    if (!isCanceled()) {
+                        queueRemoteRequest(ks, anonymousKs);
+                    }
+                });
+                return;
+            }
+
+            queueRemoteRequest(ks, ks);
+        }
+
+        /**
+         * @param ks - Kaltura KS provided by the session provider
+         * @param requestKs - the KS to send the request with, empty to create an anonymous session as part of the request.
+         */
+        private void queueRemoteRequest(final String ks, String requestKs) {
+            final RequestBuilder<?> entryRequest = getRemoteRequest(requestKs);
 
             synchronized (syncObject) {
-                loadReq = requestQueue.queue(entryRequest.build());
+                loadReq = queueRequest(entryRequest, KalturaOvpParser::parse, (response, parser) -> {
+                    log.v(loadId + ": got response to [" + loadReq + "]" + " isCanceled = " + isCanceled);
+                    loadReq = null;
+
+                    onEntryInfoMultiResponse(ks, response, parser, completion);
+                });
                 log.d(loadId + ": request queued for execution [" + loadReq + "]");
             }
+        }
 
-            if (!isCanceled()) {
-                waitCompletion();
-            }
+        @Override
+        protected RequestBuilder<?> getRemoteRequest(String ks) {
+            return getEntryInfo(getApiBaseUrl(), ks, sessionProvider.partnerId());
+        }
+
+        @Override
+        protected void onCachedResponse(String ks, ResponseElement response) {
+            onEntryInfoMultiResponse(ks, response, () -> KalturaOvpParser.parse(response.getResponse()), completion);
+        }
+
+        @Override
+        protected boolean isCacheableResponse(ResponseElement response) {
+            return response != null && response.isSuccess() && !KalturaOvpProviderUtils.isErrorResponse(response) && !isAPIExceptionResponse(response);
         }
 
         private String getApiBaseUrl() {
@@ -282,9 +475,10 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
          *
          * @param ks - Kaltura KS
          * @param response - Server response
+         * @param parser - parses the response body, the body of a streamed response is read while it downloads
          * @param completion - A callback to pass the constructed {@link PKMediaEntry} object on.
          */
-        private void onEntryInfoMultiResponse(String ks, ResponseElement response, OnMediaLoadCompletion completion) throws InterruptedException {
+        private void onEntryInfoMultiResponse(String ks, ResponseElement response, ResponseParser parser, OnCompletion<ResultElement<PKMediaEntry>> completion) {
             ErrorElement error = null;
             PKMediaEntry mediaEntry = null;
 
@@ -304,19 +498,30 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
 
                 /* in this option, in case of error response, the type of the parsed response will be BaseResult, and not the expected object type,
                    since we parse the type dynamically from the result and we get "KalturaAPIException" objectType */
-                    List<BaseResult> responses = KalturaOvpParser.parse(response.getResponse());//, TextUtils.isEmpty(sessionProvider.getSessionToken()) ? 1 : 0, KalturaBaseEntryListResponse.class, KalturaEntryContextDataResult.class);
+                    Object parsedResponses = parser.parse();//, TextUtils.isEmpty(sessionProvider.getSessionToken()) ? 1 : 0, KalturaBaseEntryListResponse.class, KalturaEntryContextDataResult.class);
                     /* in this option, responses types will always be as expected, and in case of an error, the error can be reached from the typed object, since
                      * all response objects should extend BaseResult */
                     //  List<BaseResult> responses = (List<BaseResult>) KalturaOvpParser.parse(response.getResponse(), KalturaBaseEntryListResponse.class, KalturaEntryContextDataResult.class);
-                    if (responses.size() == 0) {
+                    List<BaseResult> responses = parsedResponses instanceof List ? (List<BaseResult>) parsedResponses : Collections.emptyList();
+                    ErrorElement apiExceptionError = getAPIExceptionError(parsedResponses);
+                    if (apiExceptionError != null) {
+                        error = apiExceptionError;
+
+                    } else if (responses.size() == 0) {
                         error = buildLoadErrorElement("failed to get responses on load requests");
 
                     } else {
-                        // indexes should match the order of requests sent to the server.
-                        int entryListResponseIdx = responses.size() > 3 ? 1 : 0;
+                        // indexes should match the order of requests sent to the server, an anonymous session request may precede the entry requests.
+                        int entryRequestsCount = isMetadataRequested() ? 3 : 2;
+                        int entryListResponseIdx = responses.size() > entryRequestsCount ? 1 : 0;
                         int playbackResponseIdx = entryListResponseIdx + 1;
                         int metadataResponseIdx = playbackResponseIdx + 1;
 
+                        // a cached response holds a session that may have been replaced or expired since
+                        if (entryListResponseIdx > 0 && responses.get(0) instanceof KalturaStartWidgetSessionResponse && !isCachedResponse) {
+                            onAnonymousSessionCreated(((KalturaStartWidgetSessionResponse) responses.get(0)).getKs(), 0);
+                        }
+
                         if (responses.get(entryListResponseIdx).error != null) {
                             error = responses.get(entryListResponseIdx).error.addMessage("baseEntry/list request failed");
                         }
@@ -326,11 +531,11 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
 
                         if (error == null) {
                             KalturaPlaybackContext kalturaPlaybackContext = (KalturaPlaybackContext) responses.get(playbackResponseIdx);
-                            KalturaMetadataListResponse metadataList = (KalturaMetadataListResponse) responses.get(metadataResponseIdx);
+                            KalturaMetadataListResponse metadataList = isMetadataRequested() ? (KalturaMetadataListResponse) responses.get(metadataResponseIdx) : null;
 
                             if ((error = kalturaPlaybackContext.hasError()) == null) { // check for error or unauthorized content
                                 mediaEntry = ProviderParser.getMediaEntry(sessionProvider.baseUrl(), ks, sessionProvider.partnerId() + "", uiConfId, useApiCaptions,
-                                        ((KalturaBaseEntryListResponse) responses.get(entryListResponseIdx)).objects.get(0), kalturaPlaybackContext, metadataList);
+                                        ((KalturaBaseEntryListResponse) responses.get(entryListResponseIdx)).objects.get(0), kalturaPlaybackContext, metadataList, metadataKeys);
 
                                 boolean isYouTubeMedia = mediaEntry.getMetadata() != null && TextUtils.equals(KalturaExternalMediaSourceType.YOUTUBE.type, mediaEntry.getMetadata().get("externalSourceType"));
                                 if (mediaEntry.getSources().size() == 0 && !isYouTubeMedia) { // makes sure there are sources available for play or Youtube media
@@ -339,7 +544,7 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
                             }
                         }
                     }
-                } catch (JsonSyntaxException | InvalidParameterException ex) {
+                } catch (JsonParseException | InvalidParameterException ex) {
                     error = buildLoadErrorElement("failed to create PKMediaEntry: " + ex.getMessage());
                 } catch (IndexOutOfBoundsException ex) {
                     error = buildGeneralErrorElement("responses list doesn't contain the expected responses number: " + ex.getMessage());
@@ -351,6 +556,15 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
 
             log.v(loadId + ": load operation " + (isCanceled() ? "canceled" : "finished with " + (error == null ? "success" : "failure: " + error)));
 
+            if (error != null) {
+                invalidateAnonymousSession(error);
+            } else if (!isCachedResponse) {
+                cacheResponse(ks, response);
+                if (mediaEntryCache != null) {
+                    mediaEntryCache.put(requestKey, mediaEntry, ks);
+                }
+            }
+
             if (!isCanceled() && completion != null) {
                 completion.onComplete(Accessories.buildResult(mediaEntry, error));
             }
@@ -358,13 +572,14 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
             notifyCompletion();
         }
 
-        private boolean isValidResponse(ResponseElement response, OnMediaLoadCompletion completion) {
+        private boolean isValidResponse(ResponseElement response, OnCompletion<ResultElement<PKMediaEntry>> completion) {
 
             if (KalturaOvpProviderUtils.isErrorResponse(response)) {
                 ErrorElement errorResponse = parseErrorRersponse(response);
                 if (errorResponse == null) {
                     errorResponse = buildGeneralErrorElement("multirequest response is null");
                 }
+                invalidateAnonymousSession(errorResponse);
                 if (!isCanceled() && completion != null) {
                     completion.onComplete(Accessories.buildResult(null, errorResponse));
                 }
@@ -372,20 +587,6 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
                 notifyCompletion();
                 return false;
             }
-
-            if (isAPIExceptionResponse(response)) {
-                ErrorElement apiExceptionError = parseAPIExceptionError(response);
-                if (apiExceptionError == null) {
-                    apiExceptionError = buildGeneralErrorElement("multirequest KalturaAPIException");
-                }
-
-                if (!isCanceled() && completion != null) {
-                    completion.onComplete(Accessories.buildResult(null, apiExceptionError));
-                }
-
-                notifyCompletion();
-                return false;
-            }
             return true;
         }
     }
@@ -402,7 +603,7 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
          * source - if none meets the restriction, source should not be added to the mediaEntrys sources.)
          */
         public static PKMediaEntry getMediaEntry(String baseUrl, String ks, String partnerId, String uiConfId, boolean useApiCaptions, KalturaMediaEntry entry,
-                                                 KalturaPlaybackContext playbackContext, KalturaMetadataListResponse metadataList) throws InvalidParameterException {
+                                                 KalturaPlaybackContext playbackContext, KalturaMetadataListResponse metadataList, Set<String> metadataKeys) throws InvalidParameterException {
 
             ArrayList<KalturaPlaybackSource> kalturaSources = playbackContext.getSources();
             List<PKMediaSource> sources;
@@ -414,7 +615,7 @@ public class KalturaOvpMediaProvider extends BEBaseProvider<PKMediaEntry> implem
                 sources = new ArrayList<>();
             }
 
-            Map<String, String> metadata = parseMetadata(metadataList, Integer.parseInt(partnerId));
+            Map<String, String> metadata = parseMetadata(metadataList, Integer.parseInt(partnerId), metadataKeys);
             populateMetadata(metadata, entry);
             PKMediaEntry mediaEntry = initPKMediaEntry(entry.getTags());
 
@@ -0,0 +1,289 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.ovp;
+
+import androidx.annotation.NonNull;
+
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.Accessories;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.playkit.PKLog;
+import com.kaltura.playkit.PKPlaylist;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaPlaylist;
+import com.kaltura.playkit.providers.base.LoadHandle;
+import com.kaltura.playkit.providers.base.OnPlaylistLoadCompletion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paging cursor over an OVP playlist, created by {@link KalturaOvpPlaylistProvider#createPager(int, int)}.
+ * The playlist info (playlist.get) is fetched only with the first page, following pages request only the page entries
+ * (playlist.execute) and loads with no KS share the anonymous session.
+ * Once a page is passed to the application the next page is prefetched, so it is ready by the time the user scrolls to it.
+ * The last loaded pages are kept in memory, up to the configured number of pages, least recently used pages are dropped first.
+ * Page indexes start at 1, as in the Kaltura pager.
+ *
+ * usage:
+ * KalturaOvpPlaylistPager pager = playlistProvider.createPager(20);
+ * pager.loadNextPage(completion); // page 1, page 2 is prefetched
+ * pager.loadNextPage(completion); // page 2 from memory, page 3 is prefetched
+ */
+
+public class KalturaOvpPlaylistPager {
+
+    private static final PKLog log = PKLog.get("KalturaOvpPlaylistPager");
+
+    public static final int DefaultMaxCachedPages = 3;
+    /** the displayed page and the prefetched page */
+    public static final int MinCachedPages = 2;
+
+    private final KalturaOvpPlaylistProvider provider;
+    private final String playlistId;
+    private final int pageSize;
+    private final LinkedHashMap<Integer, PKPlaylist> pages;
+    private final Map<Integer, PageLoad> pageLoads = new HashMap<>();
+    private final Object syncObject = new Object();
+
+    private KalturaPlaylist playlistInfo;
+    private int pageIndex;
+    private int lastPageIndex = -1;
+    private boolean prefetch = true;
+
+    private static class PageLoad {
+        LoadHandle<PKPlaylist> loadHandle;
+        final List<OnPlaylistLoadCompletion> completions = new ArrayList<>();
+    }
+
+    KalturaOvpPlaylistPager(@NonNull KalturaOvpPlaylistProvider provider, String playlistId, int pageSize, int maxCachedPages) {
+        this.provider = provider;
+        this.playlistId = playlistId;
+        this.pageSize = pageSize;
+        final int maxPages = Math.max(MinCachedPages, maxCachedPages);
+        this.pages = new LinkedHashMap<Integer, PKPlaylist>(maxPages, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, PKPlaylist> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    /**
+     * optional parameter.
+     *
+     * @param prefetch - true to prefetch the next page once a page is passed to the application, defaults to true
+     * @return - instance of KalturaOvpPlaylistPager
+     */
+    public KalturaOvpPlaylistPager setPrefetch(boolean prefetch) {
+        synchronized (syncObject) {
+            this.prefetch = prefetch;
+        }
+        return this;
+    }
+
+    public String getPlaylistId() {
+        return playlistId;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return the index of the last page passed by {@link #loadNextPage(OnPlaylistLoadCompletion)}, 0 before the first page.
+     */
+    public int getPageIndex() {
+        synchronized (syncObject) {
+            return pageIndex;
+        }
+    }
+
+    /**
+     * @return false once a page with less than page size entries was loaded.
+     */
+    public boolean hasNextPage() {
+        synchronized (syncObject) {
+            return lastPageIndex < 0 || pageIndex < lastPageIndex;
+        }
+    }
+
+    /**
+     * Loads the page that follows the last page passed by this method, and moves the cursor to it.
+     * A page past the last page completes with an empty media list.
+     */
+    public void loadNextPage(OnPlaylistLoadCompletion completion) {
+        int nextPageIndex;
+        synchronized (syncObject) {
+            nextPageIndex = ++pageIndex;
+        }
+        loadPage(nextPageIndex, completion);
+    }
+
+    /**
+     * Loads a page, from memory if it was already loaded or prefetched.
+     * A page that is being prefetched is passed once its load completes, no additional request is sent.
+     *
+     * @param pageIndex - page index, starts at 1
+     */
+    public void loadPage(int pageIndex, OnPlaylistLoadCompletion completion) {
+        if (pageIndex < 1) {
+            if (completion != null) {
+                completion.onComplete(Accessories.buildResult(null, ErrorElement.BadRequestError.message(ErrorElement.BadRequestError + ": page index starts at 1")));
+            }
+            return;
+        }
+
+        PKPlaylist page;
+        PageLoad newPageLoad = null;
+        synchronized (syncObject) {
+            page = pages.get(pageIndex);
+            if (page == null) {
+                newPageLoad = addPageLoad(pageIndex, completion);
+            }
+        }
+
+        if (page == null) {
+            startPageLoad(pageIndex, newPageLoad);
+            return;
+        }
+
+        log.v("page " + pageIndex + " of playlist " + playlistId + " loaded from memory");
+        if (completion != null) {
+            completion.onComplete(Accessories.buildResult(page, null));
+        }
+        prefetchPage(pageIndex + 1);
+    }
+
+    /**
+     * Cancels the running page loads and drops the pages kept in memory. The cursor position is kept.
+     * Completions of canceled loads are not called.
+     */
+    public void cancel() {
+        List<PageLoad> canceledLoads;
+        synchronized (syncObject) {
+            canceledLoads = new ArrayList<>(pageLoads.values());
+            pageLoads.clear();
+            pages.clear();
+        }
+
+        for (PageLoad pageLoad : canceledLoads) {
+            if (pageLoad.loadHandle != null) {
+                pageLoad.loadHandle.cancel();
+            }
+        }
+    }
+
+    KalturaPlaylist getPlaylistInfo() {
+        synchronized (syncObject) {
+            return playlistInfo;
+        }
+    }
+
+    void setPlaylistInfo(KalturaPlaylist playlistInfo) {
+        synchronized (syncObject) {
+            this.playlistInfo = playlistInfo;
+        }
+    }
+
+    private void prefetchPage(int pageIndex) {
+        PageLoad newPageLoad;
+        synchronized (syncObject) {
+            if (!prefetch || (lastPageIndex > 0 && pageIndex > lastPageIndex) || pages.containsKey(pageIndex)) {
+                return;
+            }
+            newPageLoad = addPageLoad(pageIndex, null);
+        }
+
+        if (newPageLoad != null) {
+            log.v("prefetching page " + pageIndex + " of playlist " + playlistId);
+            startPageLoad(pageIndex, newPageLoad);
+        }
+    }
+
+    /**
+     * Attaches the completion to the running load of the page, or registers a new load. Called while holding syncObject.
+     *
+     * @return the new page load that should be started, null if the page is already being loaded.
+     */
+    private PageLoad addPageLoad(int pageIndex, OnPlaylistLoadCompletion completion) {
+        PageLoad pageLoad = pageLoads.get(pageIndex);
+        if (pageLoad != null && pageLoad.loadHandle != null && pageLoad.loadHandle.isCancelled()) {
+            pageLoads.remove(pageIndex); // canceled by the provider
+            pageLoad = null;
+        }
+
+        if (pageLoad != null) {
+            if (completion != null) {
+                pageLoad.completions.add(completion);
+            }
+            return null;
+        }
+
+        pageLoad = new PageLoad();
+        if (completion != null) {
+            pageLoad.completions.add(completion);
+        }
+        pageLoads.put(pageIndex, pageLoad);
+        return pageLoad;
+    }
+
+    private void startPageLoad(final int pageIndex, final PageLoad pageLoad) {
+        if (pageLoad == null) {
+            return;
+        }
+
+        // the load may complete before the handle is returned
+        LoadHandle<PKPlaylist> loadHandle = provider.loadPage(this, pageIndex, result -> onPageLoaded(pageIndex, pageLoad, result));
+        boolean isCanceled;
+        synchronized (syncObject) {
+            pageLoad.loadHandle = loadHandle;
+            isCanceled = pageLoads.get(pageIndex) != pageLoad;
+        }
+        if (isCanceled && loadHandle != null) {
+            loadHandle.cancel(); // pager was canceled while the load was started, no-op for a completed load
+        }
+    }
+
+    private void onPageLoaded(int pageIndex, PageLoad pageLoad, ResultElement<PKPlaylist> result) {
+        List<OnPlaylistLoadCompletion> completions;
+        synchronized (syncObject) {
+            if (pageLoads.get(pageIndex) != pageLoad) {
+                return; // canceled
+            }
+            pageLoads.remove(pageIndex);
+
+            PKPlaylist page = result.isSuccess() ? result.getResponse() : null;
+            if (page != null) {
+                pages.put(pageIndex, page);
+                int entriesCount = page.getMediaList() != null ? page.getMediaList().size() : 0;
+                if (entriesCount < pageSize && (lastPageIndex < 0 || pageIndex < lastPageIndex)) {
+                    lastPageIndex = pageIndex;
+                }
+            }
+            completions = new ArrayList<>(pageLoad.completions);
+        }
+
+        log.v("page " + pageIndex + " of playlist " + playlistId + " load " + (result.isSuccess() ? "succeeded" : "failed"));
+        for (OnPlaylistLoadCompletion completion : completions) {
+            completion.onComplete(result);
+        }
+
+        // a prefetched page does not trigger another prefetch, only a page that was passed to the application
+        if (result.isSuccess() && !completions.isEmpty()) {
+            prefetchPage(pageIndex + 1);
+        }
+    }
+}
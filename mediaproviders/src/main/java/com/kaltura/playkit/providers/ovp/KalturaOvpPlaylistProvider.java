@@ -2,6 +2,10 @@ package com.kaltura.playkit.providers.ovp;
 
 import android.text.TextUtils;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.JsonParseException;
 import com.kaltura.netkit.connect.executor.APIOkRequestsExecutor;
 import com.kaltura.netkit.connect.executor.RequestQueue;
 import com.kaltura.netkit.connect.request.MultiRequestBuilder;
@@ -20,7 +24,11 @@ import com.kaltura.playkit.PKPlaylist;
 import com.kaltura.playkit.PKPlaylistMedia;
 import com.kaltura.playkit.providers.PlaylistMetadata;
 import com.kaltura.playkit.providers.PlaylistProvider;
+import com.kaltura.playkit.providers.ResponseProjection;
+import com.kaltura.playkit.providers.api.KsInspector;
 import com.kaltura.playkit.providers.api.SimpleSessionProvider;
+import com.kaltura.playkit.providers.api.base.ResponseStreamParser;
+import com.kaltura.playkit.providers.api.ovp.KalturaOvpErrorHelper;
 import com.kaltura.playkit.providers.api.ovp.KalturaOvpParser;
 import com.kaltura.playkit.providers.api.ovp.OvpConfigs;
 
@@ -28,19 +36,33 @@ import com.kaltura.playkit.providers.api.ovp.model.KalturaBaseEntryListResponse;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaMediaEntry;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaMetadataListResponse;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaPlaylist;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaStartWidgetSessionResponse;
 import com.kaltura.playkit.providers.api.ovp.services.BaseEntryService;
 import com.kaltura.playkit.providers.api.ovp.services.MetaDataService;
 import com.kaltura.playkit.providers.api.ovp.services.OvpService;
 import com.kaltura.playkit.providers.api.ovp.services.OvpSessionService;
 import com.kaltura.playkit.providers.api.ovp.services.PlaylistService;
 import com.kaltura.playkit.providers.base.BEBaseProvider;
-import com.kaltura.playkit.providers.base.BECallableLoader;
+import com.kaltura.playkit.providers.base.LoadHandle;
+import com.kaltura.playkit.providers.base.ProviderExecutors;
+import com.kaltura.playkit.providers.base.BEAsyncLoader;
+import com.kaltura.playkit.providers.base.OnPlaylistItemsListener;
 import com.kaltura.playkit.providers.base.OnPlaylistLoadCompletion;
+import com.kaltura.playkit.providers.base.ParallelChunks;
+import com.kaltura.playkit.providers.base.PlaylistItemsCompletion;
+import com.kaltura.playkit.providers.base.PlaylistItemsEmitter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
 
+import static com.kaltura.playkit.providers.MediaProvidersUtils.buildSessionErrorElement;
 import static com.kaltura.playkit.providers.ovp.KalturaOvpProviderUtils.getDefaultWidgetId;
 import static com.kaltura.playkit.providers.ovp.KalturaOvpProviderUtils.getMediaEntryType;
 import static com.kaltura.playkit.providers.ovp.KalturaOvpProviderUtils.parseMetadata;
@@ -56,6 +78,9 @@ public class KalturaOvpPlaylistProvider extends BEBaseProvider<PKPlaylist> imple
     private PlaylistMetadata playlistMetadata;
     private Integer pageSize;
     private Integer pageIndex;
+    private Set<String> metadataKeys;
+    private ResponseProjection responseProjection = ResponseProjection.Full;
+    private boolean parallelDecoding;
 
 
     public KalturaOvpPlaylistProvider() {
@@ -129,14 +154,109 @@ public class KalturaOvpPlaylistProvider extends BEBaseProvider<PKPlaylist> imple
         return this;
     }
 
+    /**
+     * optional parameter.
+     * Limits the custom metadata added to the playlist media metadata to the provided keys.
+     * The metadata xml is parsed only when the metadata is accessed, and only until all the keys were found.
+     *
+     * @param metadataKeys - custom metadata keys to extract, null extracts all keys.
+     * @return - instance of KalturaOvpPlaylistProvider
+     */
+    public KalturaOvpPlaylistProvider setMetadataKeys(@Nullable Collection<String> metadataKeys) {
+        this.metadataKeys = metadataKeys != null ? Collections.unmodifiableSet(new TreeSet<>(metadataKeys)) : null;
+        return this;
+    }
+
+    /**
+     * optional parameter.
+     * Selects the media fields requested from the server, see {@link ResponseProjection}.
+     * Defaults to {@link ResponseProjection#Full}.
+     *
+     * @param responseProjection - fields projection
+     * @return - instance of KalturaOvpPlaylistProvider
+     */
+    public KalturaOvpPlaylistProvider setResponseProjection(@NonNull ResponseProjection responseProjection) {
+        this.responseProjection = responseProjection;
+        return this;
+    }
+
+    /**
+     * optional parameter.
+     * Decodes the entries results of a playlist loaded by media assets, and builds its medias, in parallel chunks
+     * on the shared decode pool instead of one by one on the loader thread. Worth enabling for playlists of many entries.
+     * The medias keep the order of the requested assets.
+     *
+     * @param parallelDecoding - true to decode in parallel, defaults to false
+     * @return - instance of KalturaOvpPlaylistProvider
+     */
+    public KalturaOvpPlaylistProvider setParallelDecoding(boolean parallelDecoding) {
+        this.parallelDecoding = parallelDecoding;
+        return this;
+    }
+
+    /**
+     * Creates a paging cursor over the playlist set by {@link #setPlaylistId(String)}, with up to
+     * {@link KalturaOvpPlaylistPager#DefaultMaxCachedPages} pages kept in memory.
+     * The pager loads pages with the provider parameters at the time of each page load.
+     *
+     * @param pageSize - number of entries per page
+     * @return - pager of the playlist
+     */
+    public KalturaOvpPlaylistPager createPager(int pageSize) {
+        return createPager(pageSize, KalturaOvpPlaylistPager.DefaultMaxCachedPages);
+    }
+
+    /**
+     * @param pageSize - number of entries per page
+     * @param maxCachedPages - max number of pages kept in memory, at least {@link KalturaOvpPlaylistPager#MinCachedPages}
+     * @return - pager of the playlist
+     */
+    public KalturaOvpPlaylistPager createPager(int pageSize, int maxCachedPages) {
+        return new KalturaOvpPlaylistPager(this, playlistId, pageSize, maxCachedPages);
+    }
+
+    /**
+     * Loads a single page of a pager, side by side with the other loads of the provider.
+     *
+     * @return handle to the load, null if the load could not be started (error is passed to the completion).
+     */
+    LoadHandle<PKPlaylist> loadPage(@NonNull KalturaOvpPlaylistPager pager, int pageIndex, OnCompletion<ResultElement<PKPlaylist>> completion) {
+        ErrorElement error = null;
+        if (isClosed()) {
+            error = ErrorElement.BadRequestError.message(ErrorElement.BadRequestError + ": provider was closed");
+        } else if (TextUtils.isEmpty(pager.getPlaylistId()) || pager.getPageSize() <= 0) {
+            error = ErrorElement.BadRequestError.message(ErrorElement.BadRequestError + ": Missing required parameters, playlistId, pageSize");
+        }
+        if (error != null) {
+            if (completion != null) {
+                completion.onComplete(Accessories.buildResult(null, error));
+            }
+            return null;
+        }
+
+        Loader loader = new Loader(requestsExecutor, sessionProvider, pager.getPlaylistId(), pager.getPageSize(), pageIndex, completion);
+        loader.metadataKeys = metadataKeys;
+        loader.responseProjection = responseProjection;
+        loader.parallelDecoding = parallelDecoding;
+        loader.pager = pager;
+        return startConcurrentLoad(null, loader, completion);
+    }
 
     @Override
     protected Loader createNewLoader(OnCompletion<ResultElement<PKPlaylist>> completion) {
+        Loader loader;
         if (playlistId != null) {
-            return new Loader(requestsExecutor, sessionProvider, playlistId, pageSize, pageIndex, completion);
+            loader = new Loader(requestsExecutor, sessionProvider, playlistId, pageSize, pageIndex, completion);
         } else {
-            return new Loader(requestsExecutor, sessionProvider, mediaAssets, completion);
+            loader = new Loader(requestsExecutor, sessionProvider, mediaAssets, completion);
+        }
+        loader.metadataKeys = metadataKeys;
+        loader.responseProjection = responseProjection;
+        loader.parallelDecoding = parallelDecoding;
+        if (completion instanceof OnPlaylistItemsListener) {
+            loader.itemsListener = (OnPlaylistItemsListener) completion;
         }
+        return loader;
     }
 
     @Override
@@ -151,12 +271,30 @@ public class KalturaOvpPlaylistProvider extends BEBaseProvider<PKPlaylist> imple
         load((OnCompletion<ResultElement<PKPlaylist>>)completion);
     }
 
-    class Loader extends BECallableLoader {
+    /**
+     * Loads the playlist and passes its medias to the items listener as soon as their results are parsed.
+     * The medias of a playlist loaded by media assets are passed as they are read from the response when the
+     * request executor streams responses (see {@link com.kaltura.playkit.providers.base.StreamingRequestExecutor}).
+     * The medias of a playlist loaded by id are passed once the whole response was parsed.
+     * Medias keep the playlist order, failed entries are passed as null.
+     */
+    @Override
+    public void load(@NonNull OnPlaylistItemsListener itemsListener, OnPlaylistLoadCompletion completion) {
+        load(new PlaylistItemsCompletion(itemsListener, completion));
+    }
+
+    class Loader extends BEAsyncLoader<PKPlaylist> {
 
         private String playlistId;
         private List<OVPMediaAsset> mediaAssets;
         private Integer pageSize;
         private Integer pageIndex;
+        private Set<String> metadataKeys;
+        private ResponseProjection responseProjection = ResponseProjection.Full;
+        private boolean parallelDecoding;
+        private OnPlaylistItemsListener itemsListener;
+        private PlaylistItemsEmitter itemsEmitter;
+        private KalturaOvpPlaylistPager pager;
 
         Loader(RequestQueue requestsExecutor, SessionProvider sessionProvider, String playlistId, Integer pageSize, Integer pageIndex, OnCompletion<ResultElement<PKPlaylist>> completion) {
             super(log.tag + "#Loader", requestsExecutor, sessionProvider, completion);
@@ -184,10 +322,17 @@ public class KalturaOvpPlaylistProvider extends BEBaseProvider<PKPlaylist> imple
                 } else {
                     return ErrorElement.BadRequestError.message(ErrorElement.BadRequestError + ": SessionProvider should provide a valid KS token");
                 }
+            } else if (KsInspector.isExpired(ks)) {
+                return buildSessionErrorElement("SessionProvider provided an expired KS token");
             }
             return null;
         }
 
+        @Override
+        protected boolean isSessionError(ErrorElement error) {
+            return KalturaOvpErrorHelper.isSessionError(error);
+        }
+
         private RequestBuilder getPlaylistInfo(String baseUrl, String ks, int partnerId) {
             MultiRequestBuilder multiRequestBuilder = (MultiRequestBuilder) OvpService.getMultirequest(baseUrl, ks, partnerId)
                     .tag("entry-info-multireq");
@@ -200,7 +345,30 @@ public class KalturaOvpPlaylistProvider extends BEBaseProvider<PKPlaylist> imple
             }
 
             return multiRequestBuilder.add(PlaylistService.get(baseUrl, ks, playlistId),
-                    PlaylistService.execute(baseUrl, ks, playlistId, pageSize, pageIndex));
+                    PlaylistService.execute(baseUrl, ks, playlistId, pageSize, pageIndex,
+                            responseProjection.getFields(PlaylistService.EntryFields, PlaylistService.BasicEntryFields)));
+        }
+
+        /**
+         * @param requestKs - the KS to send the request with, empty to create an anonymous session as part of the request.
+         * @param requestPlaylistInfo - true to request the playlist info along with the page entries
+         */
+        private RequestBuilder getPlaylistPage(String baseUrl, String requestKs, int partnerId, boolean requestPlaylistInfo) {
+            MultiRequestBuilder multiRequestBuilder = (MultiRequestBuilder) OvpService.getMultirequest(baseUrl, requestKs, partnerId)
+                    .tag("playlist-page-multireq");
+
+            String ks = requestKs;
+            if (TextUtils.isEmpty(requestKs)) {
+                multiRequestBuilder.add(OvpSessionService.anonymousSession(baseUrl, getDefaultWidgetId(partnerId)));
+
+                ks = "{1:result:ks}";
+            }
+
+            if (requestPlaylistInfo) {
+                multiRequestBuilder.add(PlaylistService.get(baseUrl, ks, playlistId));
+            }
+            return multiRequestBuilder.add(PlaylistService.execute(baseUrl, ks, playlistId, pageSize, pageIndex,
+                    responseProjection.getFields(PlaylistService.EntryFields, PlaylistService.BasicEntryFields)));
         }
 
         private RequestBuilder getPlaylistInfoByEntryIdList(String baseUrl, String ks, int partnerId) {
@@ -217,7 +385,8 @@ public class KalturaOvpPlaylistProvider extends BEBaseProvider<PKPlaylist> imple
             for (OVPMediaAsset ovpMediaAsset : mediaAssets) {
                 String requestKS = TextUtils.isEmpty(ovpMediaAsset.getKs()) ? ks : ovpMediaAsset.getKs();
                 boolean redirectFromEntryId = ovpMediaAsset.redirectFromEntryId != null ? ovpMediaAsset.redirectFromEntryId : true;
-                multiRequestBuilder.add(BaseEntryService.list(baseUrl, requestKS, ovpMediaAsset.entryId, ovpMediaAsset.referenceId, redirectFromEntryId), MetaDataService.list(baseUrl, requestKS, ovpMediaAsset.entryId));
+                multiRequestBuilder.add(BaseEntryService.list(baseUrl, requestKS, ovpMediaAsset.entryId, ovpMediaAsset.referenceId, redirectFromEntryId,
+                        responseProjection.getFields(BaseEntryService.EntryFields, BaseEntryService.BasicEntryFields)), MetaDataService.list(baseUrl, requestKS, ovpMediaAsset.entryId));
             }
 
             return multiRequestBuilder;
@@ -229,174 +398,315 @@ public class KalturaOvpPlaylistProvider extends BEBaseProvider<PKPlaylist> imple
          * @param ks - Kaltura KS
          */
         @Override
-        protected void requestRemote(final String ks) throws InterruptedException {
-            if (!TextUtils.isEmpty(playlistId)) {
+        protected void requestRemote(final String ks) {
+            if (pager != null) {
+                handleByPlaylistPage(ks);
+            } else if (!TextUtils.isEmpty(playlistId)) {
                 handleByPlaylistIdResponse(ks);
             } else if (mediaAssets != null && !mediaAssets.isEmpty()) {
                 handleByPlaylistAssets(ks);
             }
         }
 
-        private void handleByPlaylistIdResponse(String ks) throws InterruptedException {
+        private void handleByPlaylistIdResponse(String ks) {
             final RequestBuilder entryRequest = getPlaylistInfo(getApiBaseUrl(), ks, sessionProvider.partnerId())
                     .completion(response -> {
-                        PKPlaylist playlistResult = null;
-                        ErrorElement error = null;
+                        onPlaylistIdResponse(ks, response);
+                        notifyCompletion();
+                    });
 
-                        if (isErrorInResponse(response, error)) {
-                            return;
-                        }
+            synchronized (syncObject) {
+                loadReq = requestQueue.queue(entryRequest.build());
+                log.d(loadId + ": request queued for execution [" + loadReq + "]");
+            }
+        }
 
-                        log.v(loadId + ": got response to [" + loadReq + "]" + " isCanceled = " + isCanceled);
-                        loadReq = null;
+        private void handleByPlaylistPage(final String ks) {
+            if (TextUtils.isEmpty(ks)) {
+                getAnonymousSession(anonymousKs -> {
+                    if (!isCanceled()) {
+                        queuePageRequest(ks, anonymousKs);
+                    } else {
+                        notifyCompletion();
+                    }
+                });
+                return;
+            }
 
-                        List<BaseResult> responses = KalturaOvpParser.parse(response.getResponse());
-                        if (responses == null || responses.size() == 0) {
-                            error = ErrorElement.LoadError.message("failed to get responses on load requests");
-                            completion.onComplete(Accessories.buildResult(null, error));
-                            return;
-                        }
+            queuePageRequest(ks, ks);
+        }
 
-                        for (int i = 0 ; i < responses.size() - 1 ; i++) {
-                            if (responses.get(i).error != null) {
-                                completion.onComplete(Accessories.buildResult(null, responses.get(i).error));
-                                return;
-                            }
-                        }
+        /**
+         * @param ks - Kaltura KS provided by the session provider
+         * @param requestKs - the KS to send the request with, empty to create an anonymous session as part of the request.
+         */
+        private void queuePageRequest(final String ks, final String requestKs) {
+            final boolean requestPlaylistInfo = pager.getPlaylistInfo() == null;
+            final RequestBuilder pageRequest = getPlaylistPage(getApiBaseUrl(), requestKs, sessionProvider.partnerId(), requestPlaylistInfo)
+                    .completion(response -> {
+                        onPlaylistPageResponse(TextUtils.isEmpty(ks) ? requestKs : ks, TextUtils.isEmpty(requestKs), requestPlaylistInfo, response);
+                        notifyCompletion();
+                    });
 
-                        int playlistListIndex = responses.size() > 2 ? 1 : 0;
-                        int entriesListIndex = playlistListIndex + 1;
-
-                        if (!TextUtils.isEmpty(ks) && responses.size() == entriesListIndex || responses.size() == (entriesListIndex + 1)) {
-                            KalturaPlaylist kalturaPlaylist = (KalturaPlaylist) responses.get(playlistListIndex);
-                            List<KalturaMediaEntry> entriesList = (List<KalturaMediaEntry>) responses.get(entriesListIndex);
-                            playlistResult = getPKPlaylist(ks, kalturaPlaylist, entriesList);
-                            if (completion != null) {
-                                completion.onComplete(Accessories.buildResult(playlistResult, null));
-                            }
-                        } else {
-                            if (!isCanceled() && completion != null) {
-                                completion.onComplete(Accessories.buildResult(null, ErrorElement.LoadError.message("failed to get responses on load requests")));
-                            }
+            synchronized (syncObject) {
+                loadReq = requestQueue.queue(pageRequest.build());
+                log.d(loadId + ": request queued for execution [" + loadReq + "]");
+            }
+        }
+
+        private void onPlaylistPageResponse(String ks, boolean sessionRequested, boolean playlistInfoRequested, ResponseElement response) {
+            if (isErrorInResponse(response, null)) {
+                return;
+            }
+
+            log.v(loadId + ": got response to [" + loadReq + "]" + " isCanceled = " + isCanceled);
+            loadReq = null;
+
+            ErrorElement error = null;
+            PKPlaylist playlistResult = null;
+            try {
+                List<BaseResult> responses = KalturaOvpParser.parse(response.getResponse());
+                // indexes should match the order of requests sent to the server
+                int playlistInfoIndex = sessionRequested ? 1 : 0;
+                int entriesListIndex = playlistInfoIndex + (playlistInfoRequested ? 1 : 0);
+
+                if (responses == null || responses.size() != entriesListIndex + 1) {
+                    error = ErrorElement.LoadError.message("failed to get responses on load requests");
+                } else {
+                    for (int i = 0; i < entriesListIndex && error == null; i++) {
+                        error = responses.get(i).error;
+                    }
+                    Object entriesList = responses.get(entriesListIndex);
+                    if (error == null && !(entriesList instanceof List)) {
+                        error = entriesList instanceof BaseResult && ((BaseResult) entriesList).error != null ?
+                                ((BaseResult) entriesList).error : ErrorElement.LoadError.message("failed to get the playlist entries");
+                    }
+
+                    if (error == null) {
+                        if (sessionRequested && responses.get(0) instanceof KalturaStartWidgetSessionResponse) {
+                            ks = ((KalturaStartWidgetSessionResponse) responses.get(0)).getKs();
+                            onAnonymousSessionCreated(ks, 0);
                         }
-                    });
+                        if (playlistInfoRequested) {
+                            pager.setPlaylistInfo((KalturaPlaylist) responses.get(playlistInfoIndex));
+                        }
+                        playlistResult = getPKPlaylist(ks, pager.getPlaylistInfo(), (List<KalturaMediaEntry>) entriesList);
+                    }
+                }
+            } catch (JsonParseException | ClassCastException ex) {
+                error = ErrorElement.LoadError.message("failed to parse playlist page: " + ex.getMessage());
+            }
+
+            invalidateAnonymousSession(error);
+            log.v(loadId + ": page " + pageIndex + " load " + (isCanceled() ? "canceled" : "finished with " + (error == null ? "success" : "failure: " + error)));
+            if (!isCanceled() && completion != null) {
+                completion.onComplete(Accessories.buildResult(playlistResult, error));
+            }
+        }
+
+        private void handleByPlaylistAssets(String ks) {
+            final RequestBuilder entryRequest = getPlaylistInfoByEntryIdList(getApiBaseUrl(), ks, sessionProvider.partnerId());
+            if (itemsListener != null) {
+                itemsEmitter = new PlaylistItemsEmitter(itemsListener, mediaAssets.size());
+            }
+            final ResponseStreamParser.ResultListener resultListener = getResultListener(TextUtils.isEmpty(ks) ? 1 : 0);
 
             synchronized (syncObject) {
-                loadReq = requestQueue.queue(entryRequest.build());
+                loadReq = queueRequest(entryRequest, reader -> KalturaOvpParser.parse(reader, getDecodeExecutor(), resultListener), (response, parser) -> {
+                    onPlaylistAssetsResponse(ks, response, parser);
+                    notifyCompletion();
+                });
                 log.d(loadId + ": request queued for execution [" + loadReq + "]");
             }
+        }
 
-            if (!isCanceled()) {
-                waitCompletion();
+        /**
+         * @param sessionResults - number of results that precede the entries results
+         * @return listener that builds and passes the playlist medias while the response is parsed, null if there is no items listener.
+         */
+        private ResponseStreamParser.ResultListener getResultListener(final int sessionResults) {
+            if (itemsEmitter == null) {
+                return null;
             }
+
+            // each entry has an entry result and a metadata result, the media is built once both were parsed
+            final BaseResult[] assetResults = new BaseResult[mediaAssets.size() * 2];
+            return (index, result) -> {
+                int resultIndex = index - sessionResults;
+                if (resultIndex < 0 || resultIndex >= assetResults.length || isCanceled()) {
+                    return;
+                }
+
+                BaseResult pairResult;
+                synchronized (assetResults) {
+                    assetResults[resultIndex] = result;
+                    pairResult = assetResults[resultIndex ^ 1];
+                }
+                if (pairResult != null) {
+                    itemsEmitter.set(resultIndex / 2, resultIndex % 2 == 0 ? buildPlaylistMedia(result, pairResult) : buildPlaylistMedia(pairResult, result));
+                }
+            };
         }
 
-        private void handleByPlaylistAssets(String ks) throws InterruptedException {
-            final RequestBuilder entryRequest = getPlaylistInfoByEntryIdList(getApiBaseUrl(), ks, sessionProvider.partnerId())
-                    .completion(response -> {
-                        PKPlaylist playlistResult;
-                        ErrorElement error = null;
+        private void onPlaylistIdResponse(String ks, ResponseElement response) {
+            PKPlaylist playlistResult = null;
+            ErrorElement error = null;
 
-                        if (isErrorInResponse(response, error)) {
-                            return;
-                        }
+            if (isErrorInResponse(response, error)) {
+                return;
+            }
 
-                        log.v(loadId + ": got response to [" + loadReq + "]" + " isCanceled = " + isCanceled);
-                        loadReq = null;
+            log.v(loadId + ": got response to [" + loadReq + "]" + " isCanceled = " + isCanceled);
+            loadReq = null;
 
-                        List<BaseResult> responses = KalturaOvpParser.parse(response.getResponse());
-                        if (responses == null || responses.size() == 0) {
-                            error = ErrorElement.LoadError.message("failed to get responses on load requests");
-                            completion.onComplete(Accessories.buildResult(null, error));
-                            return;
-                        }
+            List<BaseResult> responses = KalturaOvpParser.parse(response.getResponse());
+            if (responses == null || responses.size() == 0) {
+                error = ErrorElement.LoadError.message("failed to get responses on load requests");
+                completion.onComplete(Accessories.buildResult(null, error));
+                return;
+            }
 
-                        if (TextUtils.isEmpty(ks) && responses.get(0).error != null) {
-                            completion.onComplete(Accessories.buildResult(null, responses.get(0).error));
-                            return;
-                        } else {
-                            boolean allErrors = true;
-                            for (BaseResult baseResult : responses) {
-                                if (baseResult.error == null) {
-                                    allErrors = false;
-                                    break;
-                                }
-                            }
-                            if (allErrors) {
-                                completion.onComplete(Accessories.buildResult(null, responses.get(0).error));
-                                return;
-                            }
-                        }
+            for (int i = 0 ; i < responses.size() - 1 ; i++) {
+                if (responses.get(i).error != null) {
+                    completion.onComplete(Accessories.buildResult(null, responses.get(i).error));
+                    return;
+                }
+            }
+
+            int playlistListIndex = responses.size() > 2 ? 1 : 0;
+            int entriesListIndex = playlistListIndex + 1;
+
+            if (!TextUtils.isEmpty(ks) && responses.size() == entriesListIndex || responses.size() == (entriesListIndex + 1)) {
+                KalturaPlaylist kalturaPlaylist = (KalturaPlaylist) responses.get(playlistListIndex);
+                List<KalturaMediaEntry> entriesList = (List<KalturaMediaEntry>) responses.get(entriesListIndex);
+                playlistResult = getPKPlaylist(ks, kalturaPlaylist, entriesList);
+                if (itemsListener != null && !isCanceled()) {
+                    List<PKPlaylistMedia> mediaList = playlistResult.getMediaList();
+                    PlaylistItemsEmitter emitter = new PlaylistItemsEmitter(itemsListener, mediaList.size());
+                    for (int i = 0; i < mediaList.size(); i++) {
+                        emitter.set(i, mediaList.get(i));
+                    }
+                }
+                if (completion != null) {
+                    completion.onComplete(Accessories.buildResult(playlistResult, null));
+                }
+            } else {
+                if (!isCanceled() && completion != null) {
+                    completion.onComplete(Accessories.buildResult(null, ErrorElement.LoadError.message("failed to get responses on load requests")));
+                }
+            }
+        }
+
+        private void onPlaylistAssetsResponse(String ks, ResponseElement response, ResponseParser parser) {
+            PKPlaylist playlistResult;
+            ErrorElement error = null;
+
+            if (isErrorInResponse(response, error)) {
+                return;
+            }
+
+            log.v(loadId + ": got response to [" + loadReq + "]" + " isCanceled = " + isCanceled);
+            loadReq = null;
+
+            List<BaseResult> responses = null;
+            try {
+                Object parsedResponse = parser.parse();
+                if (parsedResponse instanceof List) {
+                    responses = (List<BaseResult>) parsedResponse;
+                }
+            } catch (JsonParseException ex) {
+                log.e(loadId + ": failed parsing remote response: " + ex.getMessage());
+            }
+            if (responses == null || responses.size() == 0) {
+                error = ErrorElement.LoadError.message("failed to get responses on load requests");
+                completion.onComplete(Accessories.buildResult(null, error));
+                return;
+            }
+
+            if (TextUtils.isEmpty(ks) && responses.get(0).error != null) {
+                completion.onComplete(Accessories.buildResult(null, responses.get(0).error));
+                return;
+            } else {
+                boolean allErrors = true;
+                for (BaseResult baseResult : responses) {
+                    if (baseResult.error == null) {
+                        allErrors = false;
+                        break;
+                    }
+                }
+                if (allErrors) {
+                    completion.onComplete(Accessories.buildResult(null, responses.get(0).error));
+                    return;
+                }
+            }
 
-                        if (!TextUtils.isEmpty(ks) && responses.size() == mediaAssets.size() * 2 || responses.size() == (mediaAssets.size() * 2 + 1)) {
-                            List<KalturaMediaEntry> entriesList = new ArrayList<>();
-                            List<Map<String,String>> metadataList = new ArrayList<>();
-                            int playlistListIndex = TextUtils.isEmpty(ks) ? 1 : 0;
-                            for( ; playlistListIndex < responses.size() ; playlistListIndex++) {
-                                if (responses.get(playlistListIndex).error != null) {
-                                    entriesList.add(null);
-                                    continue;
-                                }
-
-                                if (responses.get(playlistListIndex) instanceof KalturaBaseEntryListResponse) {
-                                    entriesList.add(((KalturaBaseEntryListResponse) responses.get(playlistListIndex)).objects.get(0));
-                                }
-                                if (responses.get(playlistListIndex) instanceof KalturaMetadataListResponse) {
-                                    metadataList.add(parseMetadata((KalturaMetadataListResponse) responses.get(playlistListIndex), sessionProvider.partnerId()));
-                                }
-                            }
-
-                            int listIndex = 0;
-                            List<PKPlaylistMedia> mediaList = new ArrayList<>();
-                            for (KalturaMediaEntry kalturaMediaEntry : entriesList) {
-                                if (kalturaMediaEntry == null) {
-                                    mediaList.add(null);
-                                    listIndex++;
-                                    continue;
-                                }
-                                Map<String,String> mediaMetadata = metadataList.get(listIndex);
-                                mediaList.add(new PKPlaylistMedia().
-                                        setId(kalturaMediaEntry.getId()).
-                                        setName(kalturaMediaEntry.getName()).
-                                        setDescription(kalturaMediaEntry.getDescription()).
-                                        setType(getMediaEntryType(kalturaMediaEntry)).
-                                        setDataUrl(kalturaMediaEntry.getDataUrl()).
-                                        setMsDuration(kalturaMediaEntry.getMsDuration()).
-                                        setThumbnailUrl(kalturaMediaEntry.getThumbnailUrl()).
-                                        setFlavorParamsIds(kalturaMediaEntry.getFlavorParamsIds()).
-                                        setMetadata(mediaMetadata).
-                                        setTags(kalturaMediaEntry.getTags()));
-                            }
-
-                            if (playlistMetadata == null) {
-                                playlistMetadata = new PlaylistMetadata();
-                            }
-                            playlistResult = new PKPlaylist().
-                                    setKs(ks).
-                                    setId(playlistMetadata.getId()).
-                                    setName(playlistMetadata.getName()).
-                                    setDescription(playlistMetadata.getDescription()).
-                                    setThumbnailUrl(playlistMetadata.getThumbnailUrl()).
-                                    setMediaList(mediaList);
-
-                            if (completion != null) {
-                                completion.onComplete(Accessories.buildResult(playlistResult, null));
-                            }
-                        } else {
-                            if (!isCanceled() && completion != null) {
-                                completion.onComplete(Accessories.buildResult(null, ErrorElement.LoadError.message("failed to get responses on load requests")));
-                            }
+            if (!TextUtils.isEmpty(ks) && responses.size() == mediaAssets.size() * 2 || responses.size() == (mediaAssets.size() * 2 + 1)) {
+                // each entry has an entry result followed by a metadata result
+                final List<BaseResult> assetResults = responses.subList(TextUtils.isEmpty(ks) ? 1 : 0, responses.size());
+                final PKPlaylistMedia[] medias = new PKPlaylistMedia[assetResults.size() / 2];
+                ParallelChunks.run(medias.length, getDecodeExecutor(), (from, to) -> {
+                    for (int listIndex = from; listIndex < to; listIndex++) {
+                        if (itemsEmitter != null && itemsEmitter.isSet(listIndex)) {
+                            medias[listIndex] = itemsEmitter.get(listIndex);
+                            continue;
                         }
-                    });
+                        medias[listIndex] = buildPlaylistMedia(assetResults.get(listIndex * 2), assetResults.get(listIndex * 2 + 1));
+                        if (itemsEmitter != null && !isCanceled()) {
+                            itemsEmitter.set(listIndex, medias[listIndex]);
+                        }
+                    }
+                });
+                List<PKPlaylistMedia> mediaList = new ArrayList<>(Arrays.asList(medias));
 
-            synchronized (syncObject) {
-                loadReq = requestQueue.queue(entryRequest.build());
-                log.d(loadId + ": request queued for execution [" + loadReq + "]");
+                if (playlistMetadata == null) {
+                    playlistMetadata = new PlaylistMetadata();
+                }
+                playlistResult = new PKPlaylist().
+                        setKs(ks).
+                        setId(playlistMetadata.getId()).
+                        setName(playlistMetadata.getName()).
+                        setDescription(playlistMetadata.getDescription()).
+                        setThumbnailUrl(playlistMetadata.getThumbnailUrl()).
+                        setMediaList(mediaList);
+
+                if (completion != null) {
+                    completion.onComplete(Accessories.buildResult(playlistResult, null));
+                }
+            } else {
+                if (!isCanceled() && completion != null) {
+                    completion.onComplete(Accessories.buildResult(null, ErrorElement.LoadError.message("failed to get responses on load requests")));
+                }
             }
+        }
 
-            if (!isCanceled()) {
-                waitCompletion();
+        /**
+         * @return the playlist media of an entry, null if the entry result failed.
+         */
+        private PKPlaylistMedia buildPlaylistMedia(BaseResult entryResult, BaseResult metadataResult) {
+            if (!(entryResult instanceof KalturaBaseEntryListResponse) || entryResult.error != null) {
+                return null;
+            }
+            List<KalturaMediaEntry> entries = ((KalturaBaseEntryListResponse) entryResult).objects;
+            if (entries == null || entries.isEmpty() || entries.get(0) == null) {
+                return null;
             }
+
+            KalturaMediaEntry kalturaMediaEntry = entries.get(0);
+            KalturaMetadataListResponse metadataList = metadataResult instanceof KalturaMetadataListResponse && metadataResult.error == null ?
+                    (KalturaMetadataListResponse) metadataResult : null;
+            Map<String,String> mediaMetadata = parseMetadata(metadataList, sessionProvider.partnerId(), metadataKeys);
+
+            return new PKPlaylistMedia().
+                    setId(kalturaMediaEntry.getId()).
+                    setName(kalturaMediaEntry.getName()).
+                    setDescription(kalturaMediaEntry.getDescription()).
+                    setType(getMediaEntryType(kalturaMediaEntry)).
+                    setDataUrl(kalturaMediaEntry.getDataUrl()).
+                    setMsDuration(kalturaMediaEntry.getMsDuration()).
+                    setThumbnailUrl(kalturaMediaEntry.getThumbnailUrl()).
+                    setFlavorParamsIds(kalturaMediaEntry.getFlavorParamsIds()).
+                    setMetadata(mediaMetadata).
+                    setTags(kalturaMediaEntry.getTags());
         }
 
         private boolean isErrorInResponse(ResponseElement response, ErrorElement error) {
@@ -413,6 +723,10 @@ public class KalturaOvpPlaylistProvider extends BEBaseProvider<PKPlaylist> imple
             return false;
         }
 
+        private ExecutorService getDecodeExecutor() {
+            return parallelDecoding ? ProviderExecutors.getDecodeExecutor() : null;
+        }
+
         private String getApiBaseUrl() {
             String sep = sessionProvider.baseUrl().endsWith("/") ? "" : "/";
             return sessionProvider.baseUrl() + sep + OvpConfigs.ApiPrefix;
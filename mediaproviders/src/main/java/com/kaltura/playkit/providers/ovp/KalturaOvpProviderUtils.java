@@ -4,6 +4,7 @@ import android.net.UrlQuerySanitizer;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.kaltura.netkit.connect.response.ResponseElement;
 import com.kaltura.netkit.utils.ErrorElement;
@@ -18,25 +19,17 @@ import com.kaltura.playkit.providers.api.ovp.model.KalturaCaptionType;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaEntryContextDataResult;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaFlavorAsset;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaMediaEntry;
-import com.kaltura.playkit.providers.api.ovp.model.KalturaMetadata;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaMetadataListResponse;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaPlaybackCaption;
 import com.kaltura.playkit.providers.api.ovp.model.KalturaPlaybackContext;
 import com.kaltura.playkit.providers.base.FormatsHelper;
+import com.kaltura.playkit.providers.base.LazyMetadataMap;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.xmlpull.v1.XmlPullParser;
-import org.xmlpull.v1.XmlPullParserException;
-import org.xmlpull.v1.XmlPullParserFactory;
-
-import java.io.IOException;
-import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 public class KalturaOvpProviderUtils {
@@ -49,59 +42,18 @@ public class KalturaOvpProviderUtils {
     public static final String MESSAGE = "message";
 
     static void extractMetadata(String xml, Map<String, String> metadataMap) {
-
-        XmlPullParserFactory xmlPullfactory;
-        try {
-            xmlPullfactory = XmlPullParserFactory.newInstance();
-            xmlPullfactory.setNamespaceAware(true);
-
-            XmlPullParser xmlPullParser = xmlPullfactory.newPullParser();
-            xmlPullParser.setInput(new StringReader(xml));
-            int eventType = xmlPullParser.getEventType();
-
-            boolean metadataParseStarted = false;
-            String key = "";
-            String value = "";
-
-            while (eventType != XmlPullParser.END_DOCUMENT) {
-
-                if(eventType == XmlPullParser.START_DOCUMENT) {
-                    log.d("extractMetadata Start document");
-                } else if(eventType == XmlPullParser.START_TAG) {
-                    if ("metadata".equals(xmlPullParser.getName())) {
-                        metadataParseStarted = true;
-                    } else {
-                        key = xmlPullParser.getName();
-                    }
-                } else if(eventType == XmlPullParser.END_TAG) {
-
-                    if ("metadata".equals(xmlPullParser.getName())) {
-                        metadataParseStarted = false;
-                    } else {
-                        if (metadataParseStarted) {
-                            log.d( "extractMetadata key/val = " + key + "/" + value);
-                            if (!TextUtils.isEmpty(key)) {
-                                metadataMap.put(key, value);
-                            }
-                            key = "";
-                            value = "";
-                        }
-                    }
-                } else if(eventType == XmlPullParser.TEXT) {
-                    value = xmlPullParser.getText();
-                }
-                eventType = xmlPullParser.next();
-            }
-            log.d("extractMetadata End document");
-        } catch (XmlPullParserException | IOException e) {
-            log.e("extractMetadata: XML parsing failed", e);
-        }
+        MetadataXmlExtractor.extract(xml, null, metadataMap);
     }
 
     static String getDefaultWidgetId(int partnerId) {
         return "_" + partnerId;
     }
 
+    /**
+     * Scans the raw response for API exceptions. Parsed responses report their exceptions as
+     * {@link com.kaltura.playkit.providers.api.KalturaAPIException} results, this check is meant for responses
+     * that are stored without being parsed, such as revalidated cache responses.
+     */
     static boolean isAPIExceptionResponse(ResponseElement response) {
         return response == null|| (response.isSuccess() && response.getError() == null && response.getResponse() != null && response.getResponse().contains(KALTURA_API_EXCEPTION));
     }
@@ -118,72 +70,6 @@ public class KalturaOvpProviderUtils {
         return null;
     }
 
-    static ErrorElement parseAPIExceptionError(ResponseElement response) {
-
-        if (response != null) {
-            String responseStr = response.getResponse();
-            try {
-                String ovpError = "OVPError";
-                if (responseStr != null && responseStr.startsWith("{") && responseStr.endsWith("}")) {
-
-                    JSONObject error = new JSONObject(response.getResponse());
-                    if (error != null) {
-                        Map<String, String> errorMap = getAPIExceptionData(error);
-                        if (errorMap != null) {
-                            return new ErrorElement(errorMap.get(MESSAGE), errorMap.get(CODE), errorMap.get(OBJECT_TYPE)).setName(ovpError);
-                        }
-                    }
-
-                } else if (responseStr != null && responseStr.startsWith("[") && responseStr.endsWith("]")) {
-                    JSONArray result = new JSONArray(response.getResponse());
-                    for (int idx = 0; idx < result.length(); idx++) {
-                        JSONObject error = (JSONObject) result.get(idx);
-                        Map<String, String> errorMap = getAPIExceptionData(error);
-                        if (errorMap != null && KALTURA_API_EXCEPTION.equals(errorMap.get(OBJECT_TYPE))) {
-                            return new ErrorElement(errorMap.get(MESSAGE), errorMap.get(CODE), errorMap.get(OBJECT_TYPE)).setName(ovpError);
-                        }
-                    }
-                }
-            } catch (JSONException | NumberFormatException ex) {
-                log.e("parseAPIExceptionError Exception = " + ex.getMessage());
-            }
-        }
-        return null;
-    }
-
-    static Map<String,String> getAPIExceptionData(JSONObject error) {
-
-        try {
-
-            if (error != null) {
-
-                Map<String,String> errorMap = new HashMap<>();
-
-                if (error.has(OBJECT_TYPE)) {
-                    String objectType = error.getString(OBJECT_TYPE);
-                    errorMap.put(OBJECT_TYPE, objectType);
-                }
-
-                if (error.has(CODE)) {
-                    String errorCode = error.getString(CODE);
-                    errorMap.put(CODE, errorCode);
-                }
-
-                if (error.has(MESSAGE)) {
-                    String errorMessage = error.getString(MESSAGE);
-                    errorMap.put(MESSAGE, errorMessage);
-                }
-
-                //log.d("Error objectType = " + objectType + " errorCode = " + errorCode + "errorMessage = " + errorMessage);
-                return errorMap;
-            }
-        } catch (JSONException | NumberFormatException ex) {
-            log.e("getAPIExceptionData Exception = " + ex.getMessage());
-        }
-
-        return null;
-    }
-
     static List<PKExternalSubtitle> createExternalSubtitles(KalturaPlaybackContext playbackContext, String ks) {
         List<PKExternalSubtitle> subtitleList = new ArrayList<>();
         List<KalturaPlaybackCaption> playbackCaptionList = playbackContext.getPlaybackCaptions();
@@ -279,17 +165,25 @@ public class KalturaOvpProviderUtils {
     }
 
     static Map<String, String> parseMetadata(KalturaMetadataListResponse metadataList, int partnerId) {
-        Map<String, String> metadata = new HashMap<>();
+        return parseMetadata(metadataList, partnerId, null);
+    }
+
+    /**
+     * The custom metadata xml is parsed only when the metadata is accessed, see {@link LazyMetadataMap}.
+     *
+     * @param metadataKeys - custom metadata keys to extract, null to extract all keys
+     */
+    static Map<String, String> parseMetadata(KalturaMetadataListResponse metadataList, int partnerId, @Nullable Set<String> metadataKeys) {
+        Map<String, String> metadata;
+        if (metadataList != null && metadataList.objects != null && metadataList.objects.size() > 0) {
+            metadata = new LazyMetadataMap(new CustomMetadataSource(metadataList.objects), metadataKeys);
+        } else {
+            metadata = new HashMap<>();
+        }
 
         if (partnerId > 0) {
             metadata.put("kavaPartnerId", String.valueOf(partnerId));
         }
-        
-        if (metadataList != null && metadataList.objects != null && metadataList.objects.size() > 0) {
-            for (KalturaMetadata metadataItem : metadataList.objects) {
-                extractMetadata(metadataItem.xml, metadata);
-            }
-        }
         return metadata;
     }
 
@@ -0,0 +1,185 @@
+/*
+ * ============================================================================
+ * Copyright (C) 2017 Kaltura Inc.
+ *
+ * Licensed under the AGPLv3 license, unless a different license for a
+ * particular library is specified in the applicable library path.
+ *
+ * You may obtain a copy of the License at
+ * https://www.gnu.org/licenses/agpl-3.0.html
+ * ============================================================================
+ */
+
+package com.kaltura.playkit.providers.ovp;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.kaltura.playkit.PKLog;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaMetadata;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Extracts the key/value pairs of OVP custom metadata xml.
+ * Each thread reuses a single pull parser. When a keys whitelist is provided, only the whitelisted keys are extracted.
+ * The whole xml is always parsed, so the last value of a repeated key is used.
+ * Results of metadata objects with an id are cached by id, version and keys whitelist.
+ */
+
+class MetadataXmlExtractor {
+
+    private static final PKLog log = PKLog.get("MetadataXmlExtractor");
+
+    static final int CacheSize = 50;
+
+    private static final String MetadataTag = "metadata";
+
+    private static XmlPullParserFactory parserFactory;
+
+    private static final ThreadLocal<XmlPullParser> parsers = new ThreadLocal<>();
+
+    private static final Map<String, Map<String, String>> cache = new LinkedHashMap<String, Map<String, String>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Map<String, String>> eldest) {
+            return size() > CacheSize;
+        }
+    };
+
+    /**
+     * @param metadata - metadata object, its result is cached if it has an id
+     * @param keys - keys to extract, null to extract all keys
+     * @param metadataMap - the map the extracted values are added to
+     */
+    static void extract(@NonNull KalturaMetadata metadata, @Nullable Set<String> keys, @NonNull Map<String, String> metadataMap) {
+        if (metadata.id <= 0) {
+            extract(metadata.xml, keys, metadataMap);
+            return;
+        }
+
+        String cacheKey = metadata.id + ":" + metadata.version + (keys != null ? ":" + getKeysId(keys) : "");
+        Map<String, String> values;
+        synchronized (cache) {
+            values = cache.get(cacheKey);
+        }
+
+        if (values == null) {
+            values = new HashMap<>();
+            extract(metadata.xml, keys, values);
+            values = Collections.unmodifiableMap(values);
+            synchronized (cache) {
+                cache.put(cacheKey, values);
+            }
+        }
+        metadataMap.putAll(values);
+    }
+
+    /**
+     * @param xml - metadata xml
+     * @param keys - keys to extract, null to extract all keys
+     * @param metadataMap - the map the extracted values are added to
+     */
+    static void extract(String xml, @Nullable Set<String> keys, @NonNull Map<String, String> metadataMap) {
+        if (TextUtils.isEmpty(xml) || (keys != null && keys.isEmpty())) {
+            return;
+        }
+
+        XmlPullParser parser = null;
+        try {
+            parser = getParser();
+            parser.setInput(new StringReader(xml));
+
+            boolean metadataParseStarted = false;
+            String key = null;
+            String value = "";
+
+            int eventType = parser.getEventType();
+            while (eventType != XmlPullParser.END_DOCUMENT) {
+                if (eventType == XmlPullParser.START_TAG) {
+                    if (MetadataTag.equals(parser.getName())) {
+                        metadataParseStarted = true;
+                    } else {
+                        key = parser.getName();
+                    }
+                } else if (eventType == XmlPullParser.END_TAG) {
+                    if (MetadataTag.equals(parser.getName())) {
+                        metadataParseStarted = false;
+                    } else if (metadataParseStarted) {
+                        if (!TextUtils.isEmpty(key) && (keys == null || keys.contains(key))) {
+                            metadataMap.put(key, value);
+                        }
+                        key = null;
+                        value = "";
+                    }
+                } else if (eventType == XmlPullParser.TEXT) {
+                    value = parser.getText();
+                }
+                eventType = parser.next();
+            }
+
+        } catch (XmlPullParserException | IOException e) {
+            log.e("extract: XML parsing failed", e);
+        } finally {
+            resetParser(parser);
+        }
+    }
+
+    static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return the sorted key names, identifies the whitelist regardless of the set implementation and order.
+     */
+    private static String getKeysId(Set<String> keys) {
+        StringBuilder keysId = new StringBuilder();
+        for (String key : new TreeSet<>(keys)) {
+            keysId.append(key.length()).append('#').append(key); // length prefixed, key names may contain any character
+        }
+        return keysId.toString();
+    }
+
+    // releases the xml, the parser is kept for the next extraction on this thread
+    private static void resetParser(XmlPullParser parser) {
+        if (parser == null) {
+            return;
+        }
+        try {
+            parser.setInput(null);
+        } catch (XmlPullParserException e) {
+            parsers.remove(); // the next extraction creates a new parser
+        }
+    }
+
+    private static XmlPullParser getParser() throws XmlPullParserException {
+        XmlPullParser parser = parsers.get();
+        if (parser == null) {
+            parser = getParserFactory().newPullParser();
+            parsers.set(parser);
+        }
+        return parser;
+    }
+
+    private static synchronized XmlPullParserFactory getParserFactory() throws XmlPullParserException {
+        if (parserFactory == null) {
+            parserFactory = XmlPullParserFactory.newInstance();
+            parserFactory.setNamespaceAware(true);
+        }
+        return parserFactory;
+    }
+}
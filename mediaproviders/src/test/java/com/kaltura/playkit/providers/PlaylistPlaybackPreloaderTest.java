@@ -0,0 +1,131 @@
+package com.kaltura.playkit.providers;
+
+import com.kaltura.netkit.utils.Accessories;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.playkit.PKMediaEntry;
+import com.kaltura.playkit.PKPlaylist;
+import com.kaltura.playkit.PKPlaylistMedia;
+import com.kaltura.playkit.providers.base.OnMediaLoadCompletion;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PlaylistPlaybackPreloaderTest extends TestCase {
+
+    private static class TestProvider implements MediaEntryProvider {
+        final int index;
+        OnMediaLoadCompletion completion;
+        boolean canceled;
+
+        TestProvider(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void load(OnMediaLoadCompletion completion) {
+            this.completion = completion;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        void succeed() {
+            completion.onComplete(Accessories.buildResult(new PKMediaEntry().setId("entry-" + index), null));
+        }
+
+        void fail() {
+            completion.onComplete(Accessories.<PKMediaEntry>buildResult(null, ErrorElement.LoadError));
+        }
+    }
+
+    private static class TestFactory implements PlaylistPlaybackPreloader.MediaProviderFactory {
+        final List<TestProvider> providers = new ArrayList<>();
+
+        @Override
+        public MediaEntryProvider createProvider(PKPlaylistMedia playlistMedia, int index) {
+            TestProvider provider = new TestProvider(index);
+            providers.add(provider);
+            return provider;
+        }
+
+        TestProvider last() {
+            return providers.get(providers.size() - 1);
+        }
+    }
+
+    private static PKPlaylist newPlaylist(int size) {
+        List<PKPlaylistMedia> medias = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            medias.add(new PKPlaylistMedia().setId("media-" + i));
+        }
+        return new PKPlaylist().setMediaList(medias);
+    }
+
+    @Test
+    public void testNextItemIsPreloaded() {
+        TestFactory factory = new TestFactory();
+        PlaylistPlaybackPreloader preloader = new PlaylistPlaybackPreloader(factory);
+        preloader.setPlaylist(newPlaylist(3), 0);
+
+        assertEquals(1, factory.providers.size());
+        assertEquals(1, factory.last().index);
+        factory.last().succeed();
+
+        assertEquals("entry-1", preloader.getPreloadedMediaEntry(1).getId());
+    }
+
+    @Test
+    public void testMovedWindowCancelsPreloads() {
+        TestFactory factory = new TestFactory();
+        PlaylistPlaybackPreloader preloader = new PlaylistPlaybackPreloader(factory);
+        preloader.setPlaylist(newPlaylist(5), 0);
+        TestProvider first = factory.last();
+
+        preloader.setCurrentIndex(2);
+
+        assertTrue(first.canceled);
+        assertEquals(3, factory.last().index);
+    }
+
+    @Test
+    public void testFailedItemIsRetriedUpToMaxAttempts() {
+        TestFactory factory = new TestFactory();
+        PlaylistPlaybackPreloader preloader = new PlaylistPlaybackPreloader(factory);
+        preloader.setPlaylist(newPlaylist(3), 0);
+
+        for (int attempt = 1; attempt <= PlaylistPlaybackPreloader.MaxPreloadAttempts; attempt++) {
+            assertEquals(attempt, factory.providers.size());
+            factory.last().fail();
+            preloader.setCurrentIndex(0); // window move
+        }
+        assertEquals(PlaylistPlaybackPreloader.MaxPreloadAttempts, factory.providers.size());
+
+        // an explicit request still loads the item
+        final List<PKMediaEntry> entries = new ArrayList<>();
+        preloader.getMediaEntry(1, result -> entries.add(result.getResponse()));
+        assertEquals(PlaylistPlaybackPreloader.MaxPreloadAttempts + 1, factory.providers.size());
+        factory.last().succeed();
+        assertEquals("entry-1", entries.get(0).getId());
+    }
+
+    @Test
+    public void testNewPlaylistResetsFailedAttempts() {
+        TestFactory factory = new TestFactory();
+        PlaylistPlaybackPreloader preloader = new PlaylistPlaybackPreloader(factory);
+        PKPlaylist playlist = newPlaylist(3);
+        preloader.setPlaylist(playlist, 0);
+        for (int attempt = 1; attempt <= PlaylistPlaybackPreloader.MaxPreloadAttempts; attempt++) {
+            factory.last().fail();
+            preloader.setCurrentIndex(0);
+        }
+
+        preloader.setPlaylist(playlist, 0);
+        assertEquals(PlaylistPlaybackPreloader.MaxPreloadAttempts + 1, factory.providers.size());
+    }
+}
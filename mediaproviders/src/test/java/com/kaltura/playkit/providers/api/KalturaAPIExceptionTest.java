@@ -0,0 +1,66 @@
+package com.kaltura.playkit.providers.api;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.kaltura.netkit.connect.response.BaseResult;
+import com.kaltura.playkit.providers.api.ovp.KalturaOvpParser;
+import com.kaltura.playkit.providers.api.ovp.model.KalturaStartWidgetSessionResponse;
+import com.kaltura.playkit.providers.api.phoenix.PhoenixParser;
+import com.kaltura.playkit.providers.api.phoenix.model.KalturaLoginSession;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class KalturaAPIExceptionTest extends TestCase {
+
+    private static final String PhoenixException = "{\"objectType\":\"KalturaAPIException\",\"code\":\"500016\",\"message\":\"KS expired\"}";
+    private static final String OvpException = "{\"objectType\":\"KalturaAPIException\",\"code\":\"ENTRY_ID_NOT_FOUND\",\"message\":\"Entry id not found\"}";
+
+    private static void assertException(Object result, String code, String message, String name) {
+        assertTrue(result instanceof KalturaAPIException);
+        BaseResult exception = (BaseResult) result;
+        assertNotNull(exception.error);
+        assertEquals(code, exception.error.getCode());
+        assertEquals(message, exception.error.getMessage());
+        assertEquals(name, exception.error.getName());
+    }
+
+    @Test
+    public void testFromJson() {
+        JsonObject json = new Gson().fromJson("{\"objectType\":\"KalturaAPIException\",\"code\":500016,\"message\":\"KS expired\",\"args\":[]}", JsonObject.class);
+        assertException(KalturaAPIException.fromJson(json, "OTTError"), "500016", "KS expired", "OTTError");
+
+        KalturaAPIException noMessage = KalturaAPIException.fromJson(new Gson().fromJson("{\"code\":\"1\"}", JsonObject.class), "OVPError");
+        assertEquals("1", noMessage.error.getCode());
+        assertNull(noMessage.error.getMessage());
+    }
+
+    @Test
+    public void testPhoenixMultiRequestFailedResult() {
+        List<BaseResult> results = PhoenixParser.parse("{\"executionTime\":0.1,\"result\":[{\"objectType\":\"KalturaLoginSession\",\"ks\":\"anonymous-ks\"},"
+                + PhoenixException + "]}");
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0) instanceof KalturaLoginSession);
+        assertEquals("anonymous-ks", ((KalturaLoginSession) results.get(0)).getKs());
+        assertException(results.get(1), "500016", "KS expired", "OTTError");
+    }
+
+    @Test
+    public void testPhoenixErrorResponse() {
+        BaseResult result = PhoenixParser.parse("{\"executionTime\":0.1,\"result\":{\"error\":" + PhoenixException + "}}");
+        assertException(result, "500016", "KS expired", "OTTError");
+    }
+
+    @Test
+    public void testOvpMultiRequestFailedResult() {
+        List<BaseResult> results = KalturaOvpParser.parse("[{\"objectType\":\"KalturaStartWidgetSessionResponse\",\"ks\":\"widget-ks\"}," + OvpException + "]");
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0) instanceof KalturaStartWidgetSessionResponse);
+        assertException(results.get(1), "ENTRY_ID_NOT_FOUND", "Entry id not found", "OVPError");
+    }
+}
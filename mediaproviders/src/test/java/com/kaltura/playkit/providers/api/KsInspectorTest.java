@@ -0,0 +1,120 @@
+package com.kaltura.playkit.providers.api;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class KsInspectorTest extends TestCase {
+
+    private static final int PartnerId = 1234;
+    private static final String Privileges = "sview:*,disableentitlement,setrole:PLAYBACK_BASE_ROLE";
+
+    private KsInspector.Decoder androidDecoder;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        androidDecoder = KsInspector.decoder;
+        // android.util.Base64 is stubbed in unit tests, as is TextUtils.isEmpty, so null is passed to the decoder
+        KsInspector.decoder = (ks, urlSafe) -> ks == null ? null : (urlSafe ? Base64.getUrlDecoder() : Base64.getDecoder()).decode(ks);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        KsInspector.decoder = androidDecoder;
+        super.tearDown();
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static String v1Ks(long expiry) {
+        String fields = PartnerId + ";" + PartnerId + ";" + expiry + ";0;1699999999.123;user@test;" + Privileges + ";;";
+        return Base64.getEncoder().encodeToString(("0123456789abcdef0123456789abcdef01234567|" + fields).getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static String encode(String decoded) {
+        return Base64.getEncoder().encodeToString(decoded.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void testV1Fields() {
+        long expiry = nowSeconds() + 3600;
+        KsInspector inspector = KsInspector.inspect(v1Ks(expiry));
+
+        assertNotNull(inspector);
+        assertEquals(KsInspector.Version1, inspector.getVersion());
+        assertEquals(PartnerId, inspector.getPartnerId());
+        assertEquals(expiry, inspector.getExpiry());
+        assertEquals(0, inspector.getType());
+        assertEquals("user@test", inspector.getUserId());
+        assertEquals(3, inspector.getPrivileges().size());
+        assertEquals("*", inspector.getPrivileges().get("sview"));
+        assertEquals("PLAYBACK_BASE_ROLE", inspector.getPrivileges().get("setrole"));
+        assertTrue(inspector.hasPrivilege("disableentitlement"));
+        assertEquals("", inspector.getPrivileges().get("disableentitlement"));
+        assertEquals(expiry * 1000, KsInspector.getExpiryTime(v1Ks(expiry)));
+    }
+
+    @Test
+    public void testUrlSafeKs() {
+        byte[] signature = {(byte) 0xfb, (byte) 0xff, (byte) 0xbf};
+        byte[] fields = ("|" + PartnerId + ";" + PartnerId + ";" + (nowSeconds() + 3600) + ";2").getBytes(StandardCharsets.ISO_8859_1);
+        byte[] data = new byte[signature.length + fields.length];
+        System.arraycopy(signature, 0, data, 0, signature.length);
+        System.arraycopy(fields, 0, data, signature.length, fields.length);
+        String ks = Base64.getUrlEncoder().encodeToString(data);
+        assertTrue(ks.contains("-") || ks.contains("_"));
+
+        KsInspector inspector = KsInspector.inspect(ks);
+        assertNotNull(inspector);
+        assertEquals(PartnerId, inspector.getPartnerId());
+        assertEquals(2, inspector.getType());
+    }
+
+    @Test
+    public void testV2PartnerId() {
+        byte[] encrypted = {0x01, (byte) 0x9c, 0x7f, 0x00, (byte) 0xe4};
+        byte[] prefix = ("v2|" + PartnerId + "|").getBytes(StandardCharsets.ISO_8859_1);
+        byte[] data = new byte[prefix.length + encrypted.length];
+        System.arraycopy(prefix, 0, data, 0, prefix.length);
+        System.arraycopy(encrypted, 0, data, prefix.length, encrypted.length);
+        String ks = Base64.getEncoder().encodeToString(data);
+
+        KsInspector inspector = KsInspector.inspect(ks);
+        assertNotNull(inspector);
+        assertEquals(KsInspector.Version2, inspector.getVersion());
+        assertEquals(PartnerId, inspector.getPartnerId());
+        assertEquals(0, inspector.getExpiry());
+        assertFalse(KsInspector.isExpired(ks)); // expiry unknown
+    }
+
+    @Test
+    public void testExpiry() {
+        long skewSeconds = KsInspector.ClockSkewAllowanceMs / 1000;
+
+        assertFalse(KsInspector.isExpired(v1Ks(nowSeconds() + 3600)));
+        assertTrue(KsInspector.isExpired(v1Ks(nowSeconds() - 3600)));
+        assertFalse(KsInspector.isExpired(v1Ks(nowSeconds() - skewSeconds / 2))); // within the clock skew allowance
+        assertTrue(KsInspector.isExpired(v1Ks(nowSeconds() - skewSeconds - 10)));
+    }
+
+    @Test
+    public void testMalformedKs() {
+        assertNull(KsInspector.inspect("not base64 %%%"));
+        assertNull(KsInspector.inspect(encode("no separator")));
+        assertNull(KsInspector.inspect(encode("signature|1234;1234"))); // missing expiry
+        assertNull(KsInspector.inspect(encode("signature|1234;1234;tomorrow;0")));
+        assertNull(KsInspector.inspect(encode("v2|partner|data")));
+        assertNull(KsInspector.inspect(encode("v2|1234")));
+        assertNull(KsInspector.inspect(null));
+
+        assertEquals(0, KsInspector.getExpiryTime(encode("no separator")));
+        assertFalse(KsInspector.isExpired("not base64 %%%"));
+        assertFalse(KsInspector.isExpired(null));
+    }
+}
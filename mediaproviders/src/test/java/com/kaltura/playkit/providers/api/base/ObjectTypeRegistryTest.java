@@ -0,0 +1,92 @@
+package com.kaltura.playkit.providers.api.base;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.kaltura.netkit.connect.response.BaseResult;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class ObjectTypeRegistryTest extends TestCase {
+
+    static class TestAsset extends BaseResult {
+        String name;
+    }
+
+    static class OtherAsset extends BaseResult {
+        String title;
+    }
+
+    static class FixedAdapter extends TypeAdapter<TestAsset> {
+        @Override
+        public void write(JsonWriter out, TestAsset value) throws IOException {
+            out.nullValue();
+        }
+
+        @Override
+        public TestAsset read(JsonReader in) throws IOException {
+            in.skipValue();
+            TestAsset asset = new TestAsset();
+            asset.name = "fixed";
+            return asset;
+        }
+    }
+
+    @Test
+    public void testRegisterBySimpleName() {
+        ObjectTypeRegistry registry = new ObjectTypeRegistry(new Gson()).register(TestAsset.class);
+
+        assertSame(TestAsset.class, registry.getType("TestAsset"));
+        assertNull(registry.getType("OtherAsset"));
+        assertNull(registry.getType(null));
+    }
+
+    @Test
+    public void testAdapterIsCreatedOnceAndParses() throws IOException {
+        ObjectTypeRegistry registry = new ObjectTypeRegistry(new Gson()).register("KalturaTestAsset", TestAsset.class);
+
+        TypeAdapter<? extends BaseResult> adapter = registry.getAdapter("KalturaTestAsset");
+        assertNotNull(adapter);
+        assertSame(adapter, registry.getAdapter("KalturaTestAsset"));
+
+        BaseResult result = adapter.fromJson("{\"objectType\":\"KalturaTestAsset\",\"name\":\"asset\"}");
+        assertTrue(result instanceof TestAsset);
+        assertEquals("asset", ((TestAsset) result).name);
+    }
+
+    @Test
+    public void testUnknownTypeHasNoAdapter() {
+        ObjectTypeRegistry registry = new ObjectTypeRegistry(new Gson()).register(TestAsset.class);
+
+        assertNull(registry.getAdapter("KalturaUnknown"));
+        assertNull(registry.getAdapter(null));
+    }
+
+    @Test
+    public void testReRegisterReplacesTheCachedAdapter() throws IOException {
+        ObjectTypeRegistry registry = new ObjectTypeRegistry(new Gson()).register("KalturaAsset", TestAsset.class);
+        TypeAdapter<? extends BaseResult> first = registry.getAdapter("KalturaAsset");
+
+        registry.register("KalturaAsset", OtherAsset.class);
+        TypeAdapter<? extends BaseResult> second = registry.getAdapter("KalturaAsset");
+
+        assertNotSame(first, second);
+        assertSame(OtherAsset.class, registry.getType("KalturaAsset"));
+        BaseResult result = second.fromJson("{\"title\":\"other\"}");
+        assertEquals("other", ((OtherAsset) result).title);
+    }
+
+    @Test
+    public void testCustomAdapter() throws IOException {
+        FixedAdapter adapter = new FixedAdapter();
+        ObjectTypeRegistry registry = new ObjectTypeRegistry(new Gson()).register("KalturaCustomAsset", TestAsset.class, adapter);
+
+        assertSame(adapter, registry.getAdapter("KalturaCustomAsset"));
+        assertEquals("fixed", ((TestAsset) registry.getAdapter("KalturaCustomAsset").fromJson("{\"name\":\"asset\"}")).name);
+    }
+}
@@ -0,0 +1,122 @@
+package com.kaltura.playkit.providers.api.base;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.kaltura.netkit.connect.response.BaseResult;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ResponseStreamParserTest extends TestCase {
+
+    static class TestResult extends BaseResult {
+        final String id;
+
+        TestResult(String id) {
+            this.id = id;
+        }
+    }
+
+    private static final Gson gson = new GsonBuilder().registerTypeHierarchyAdapter(BaseResult.class,
+            (JsonDeserializer<BaseResult>) (json, typeOfT, context) -> {
+                JsonObject object = json.getAsJsonObject();
+                return new TestResult(object.has("id") ? object.get("id").getAsString() : null);
+            }).create();
+
+    private static JsonReader reader(String json) {
+        JsonReader reader = new JsonReader(new StringReader(json));
+        reader.setLenient(true);
+        return reader;
+    }
+
+    private static String results(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append(i > 0 ? "," : "").append("{\"id\":\"").append(i).append("\"}");
+        }
+        return json.append("]").toString();
+    }
+
+    private static String id(Object result) {
+        return ((TestResult) result).id;
+    }
+
+    @Test
+    public void testValues() {
+        assertEquals("1", id(ResponseStreamParser.parseValue(reader("{\"id\":\"1\"}"), gson)));
+        assertEquals("text", ResponseStreamParser.parseValue(reader("\"text\""), gson));
+        assertEquals("true", ResponseStreamParser.parseValue(reader("true"), gson));
+        assertNull(ResponseStreamParser.parseValue(reader("null"), gson));
+        assertNull(ResponseStreamParser.parseValue(reader(""), gson));
+    }
+
+    @Test
+    public void testEnvelopeResultMember() {
+        Object result = ResponseStreamParser.parseEnvelope(reader("{\"executionTime\":0.1,\"result\":" + results(3) + ",\"extra\":{\"id\":\"x\"}}"), gson, "result");
+
+        List<?> list = (List<?>) result;
+        assertEquals(3, list.size());
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals(String.valueOf(i), id(list.get(i)));
+        }
+    }
+
+    @Test
+    public void testEnvelopeWithNoResultMemberIsTheResult() {
+        Object result = ResponseStreamParser.parseEnvelope(reader("{\"executionTime\":0.1,\"id\":\"single\"}"), gson, "result");
+        assertEquals("single", id(result));
+
+        List<?> list = (List<?>) ResponseStreamParser.parseEnvelope(reader(results(2)), gson, "result");
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    public void testListenerGetsResultsInOrder() {
+        List<Integer> indexes = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        ResponseStreamParser.parseEnvelope(reader("{\"result\":" + results(4) + "}"), gson, "result", null, (index, result) -> {
+            indexes.add(index);
+            ids.add(id(result));
+        });
+
+        assertEquals(4, indexes.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, (int) indexes.get(i));
+            assertEquals(String.valueOf(i), ids.get(i));
+        }
+    }
+
+    @Test
+    public void testParallelResultsKeepTheArrayOrder() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Integer> indexes = Collections.synchronizedList(new ArrayList<>());
+            List<?> list = (List<?>) ResponseStreamParser.parseEnvelope(reader("{\"result\":" + results(50) + "}"), gson, "result", executor,
+                    (index, result) -> {
+                        assertEquals(String.valueOf(index), id(result));
+                        indexes.add(index);
+                    });
+
+            assertEquals(50, list.size());
+            for (int i = 0; i < list.size(); i++) {
+                assertEquals(String.valueOf(i), id(list.get(i)));
+            }
+            assertEquals(50, indexes.size());
+            assertEquals(50, new HashSet<>(indexes).size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
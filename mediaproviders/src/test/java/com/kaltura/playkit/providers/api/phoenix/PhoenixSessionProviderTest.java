@@ -0,0 +1,260 @@
+package com.kaltura.playkit.providers.api.phoenix;
+
+import com.kaltura.netkit.connect.executor.RequestQueue;
+import com.kaltura.netkit.connect.request.RequestConfiguration;
+import com.kaltura.netkit.connect.request.RequestElement;
+import com.kaltura.netkit.connect.response.PrimitiveResult;
+import com.kaltura.netkit.connect.response.ResponseElement;
+import com.kaltura.netkit.utils.Accessories;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.netkit.utils.NetworkErrorEventListener;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PhoenixSessionProviderTest extends TestCase {
+
+    /**
+     * Keeps the queued requests, the test responds to them by index. Requests may be queued by the refresh scheduler.
+     */
+    private static class TestQueue implements RequestQueue {
+        private final List<RequestElement> requests = new ArrayList<>();
+
+        @Override
+        public synchronized String queue(RequestElement request) {
+            requests.add(request);
+            notifyAll();
+            return "request-" + requests.size();
+        }
+
+        synchronized int size() {
+            return requests.size();
+        }
+
+        synchronized String tag(int index) {
+            return requests.get(index).getTag();
+        }
+
+        synchronized void awaitSize(int size) throws InterruptedException {
+            long end = System.currentTimeMillis() + 5000;
+            while (requests.size() < size && System.currentTimeMillis() < end) {
+                wait(100);
+            }
+        }
+
+        void respond(int index, ResponseElement response) {
+            RequestElement request;
+            synchronized (this) {
+                request = requests.get(index);
+            }
+            request.onComplete(response);
+        }
+
+        @Override
+        public String queue(RequestElement request, int retryCount) {
+            return queue(request);
+        }
+
+        @Override
+        public ResponseElement execute(RequestElement request) {
+            return null;
+        }
+
+        @Override
+        public void setRequestConfiguration(RequestConfiguration config) {
+        }
+
+        @Override
+        public void cancelRequest(String reqId) {
+        }
+
+        @Override
+        public void clearRequests() {
+        }
+
+        @Override
+        public synchronized boolean isEmpty() {
+            return requests.isEmpty();
+        }
+
+        @Override
+        public void setNetworkErrorEventListener(NetworkErrorEventListener networkErrorEventListener) {
+        }
+    }
+
+    private static final String AnonymousLogin = "ottuser-anonymous-login";
+    private static final String UserLogin = "ottuser-login";
+    private static final String RefreshSession = "ottuser-refresh-session";
+
+    private TestQueue queue;
+    private PhoenixSessionProvider provider;
+
+    @Override
+    protected void setUp() {
+        queue = new TestQueue();
+        provider = new PhoenixSessionProvider("https://test.kaltura.com/api_v3/", 1234);
+        provider.setRequestExecutor(queue);
+    }
+
+    @Override
+    protected void tearDown() {
+        provider.close();
+    }
+
+    private static long inOneHourSeconds() {
+        return System.currentTimeMillis() / 1000 + 3600;
+    }
+
+    private static String loginSession(String ks, String refreshToken, long expirySeconds) {
+        return "{\"objectType\":\"KalturaLoginSession\",\"ks\":\"" + ks + "\",\"refreshToken\":\"" + refreshToken + "\",\"expiry\":" + expirySeconds + "}";
+    }
+
+    private static ResponseElement anonymousResponse(String ks) {
+        return Accessories.buildResponse("{\"executionTime\":0.1,\"result\":" + loginSession(ks, "anonymous-refresh", inOneHourSeconds()) + "}", null);
+    }
+
+    private static ResponseElement loginResponse(String ks) {
+        return Accessories.buildResponse("{\"executionTime\":0.1,\"result\":{\"objectType\":\"KalturaLoginResponse\",\"loginSession\":"
+                + loginSession(ks, "user-refresh", inOneHourSeconds()) + "}}", null);
+    }
+
+    private String currentKs() {
+        List<PrimitiveResult> results = new ArrayList<>();
+        provider.getSessionToken(results::add);
+        assertEquals(1, results.size());
+        return results.get(0).getResult();
+    }
+
+    @Test
+    public void testConcurrentCallsShareRenewal() {
+        List<PrimitiveResult> results = new ArrayList<>();
+        provider.getSessionToken(results::add);
+        provider.getSessionToken(results::add);
+        provider.getSessionToken(results::add);
+
+        assertEquals(1, queue.size());
+        assertEquals(AnonymousLogin, queue.tag(0));
+        assertTrue(results.isEmpty());
+
+        queue.respond(0, anonymousResponse("anonymous-ks"));
+
+        assertEquals(3, results.size());
+        for (PrimitiveResult result : results) {
+            assertEquals("anonymous-ks", result.getResult());
+        }
+
+        // the session is valid for an hour, no renewal until the refresh ahead time
+        assertEquals("anonymous-ks", currentKs());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void testLoginSupersedesRunningRenewal() {
+        List<PrimitiveResult> loadResults = new ArrayList<>();
+        List<PrimitiveResult> loginResults = new ArrayList<>();
+
+        provider.getSessionToken(loadResults::add);
+        provider.login("user", "pass", loginResults::add);
+
+        assertEquals(2, queue.size());
+        assertEquals(AnonymousLogin, queue.tag(0));
+        assertEquals(UserLogin, queue.tag(1));
+
+        // the anonymous session was requested before the login, it is dropped
+        queue.respond(0, anonymousResponse("anonymous-ks"));
+        assertTrue(loadResults.isEmpty());
+        assertTrue(loginResults.isEmpty());
+
+        queue.respond(1, loginResponse("user-ks"));
+        assertEquals(1, loginResults.size());
+        assertEquals("user-ks", loginResults.get(0).getResult());
+        assertEquals(1, loadResults.size());
+        assertEquals("user-ks", loadResults.get(0).getResult());
+        assertEquals("user-ks", currentKs());
+    }
+
+    @Test
+    public void testLateSupersededResponseIsDropped() {
+        List<PrimitiveResult> loginResults = new ArrayList<>();
+
+        provider.getSessionToken(null);
+        provider.login("user", "pass", loginResults::add);
+        queue.respond(1, loginResponse("user-ks"));
+        queue.respond(0, anonymousResponse("anonymous-ks"));
+
+        assertEquals(1, loginResults.size());
+        assertEquals("user-ks", loginResults.get(0).getResult());
+        assertEquals("user-ks", currentKs());
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void testSupersededFailureIsDropped() {
+        List<PrimitiveResult> loginResults = new ArrayList<>();
+
+        provider.getSessionToken(null);
+        provider.login("user", "pass", loginResults::add);
+        queue.respond(0, Accessories.buildResponse(null, ErrorElement.ConnectionError));
+        assertTrue(loginResults.isEmpty());
+
+        queue.respond(1, loginResponse("user-ks"));
+        assertEquals(1, loginResults.size());
+        assertEquals("user-ks", loginResults.get(0).getResult());
+    }
+
+    @Test
+    public void testFailedRefreshFallsBackToLogin() throws InterruptedException {
+        provider.login("user", "pass", null);
+        queue.respond(0, loginResponse("user-ks"));
+
+        // the session expires within the refresh ahead time, so it is refreshed right away
+        provider.setRefreshAhead(2 * 3600 * 1000);
+        provider.setSession("user-ks", "user-refresh", System.currentTimeMillis() + 3600 * 1000);
+        queue.awaitSize(2);
+        assertEquals(RefreshSession, queue.tag(1));
+
+        // the session is still valid, loads get it while the refresh is running
+        assertEquals("user-ks", currentKs());
+        assertEquals(2, queue.size());
+
+        queue.respond(1, Accessories.buildResponse(null, ErrorElement.ConnectionError));
+        assertEquals(3, queue.size());
+        assertEquals(UserLogin, queue.tag(2));
+
+        provider.setRefreshAhead(0);
+        queue.respond(2, loginResponse("new-user-ks"));
+        assertEquals("new-user-ks", currentKs());
+    }
+
+    @Test
+    public void testSetSessionExpiryIsMs() {
+        provider.setSession("ks", "refresh", System.currentTimeMillis() + 3600 * 1000);
+        assertEquals("ks", currentKs());
+        assertEquals(0, queue.size());
+
+        // an expired session is renewed, when the expiry was taken as seconds it would have been valid for ages
+        provider.setSession("expired-ks", null, System.currentTimeMillis() - 1000);
+        List<PrimitiveResult> results = new ArrayList<>();
+        provider.getSessionToken(results::add);
+        assertTrue(results.isEmpty());
+        assertEquals(1, queue.size());
+        assertEquals(AnonymousLogin, queue.tag(0));
+    }
+
+    @Test
+    public void testSetSessionSupersedesRunningRenewal() {
+        List<PrimitiveResult> results = new ArrayList<>();
+        provider.getSessionToken(results::add);
+        provider.setSession("app-ks", null, System.currentTimeMillis() + 3600 * 1000);
+
+        assertEquals(1, results.size());
+        assertEquals("app-ks", results.get(0).getResult());
+
+        queue.respond(0, anonymousResponse("anonymous-ks"));
+        assertEquals("app-ks", currentKs());
+    }
+}
@@ -0,0 +1,160 @@
+package com.kaltura.playkit.providers.api.phoenix.model;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.kaltura.playkit.providers.api.phoenix.PhoenixParser;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class AssetValuesTest extends TestCase {
+
+    // asset.get response, trimmed to the members the adapters read
+    private static final String AssetGetResponse = "{\"executionTime\":0.0231,\"result\":{"
+            + "\"objectType\":\"KalturaMediaAsset\",\"id\":480097,\"type\":424,\"name\":\"Sintel\","
+            + "\"metas\":{"
+            + "\"Short title\":{\"objectType\":\"KalturaStringValue\",\"value\":\"sintel\"},"
+            + "\"Free\":{\"objectType\":\"KalturaBooleanValue\",\"value\":true},"
+            + "\"Year\":{\"objectType\":\"KalturaIntegerValue\",\"value\":2010},"
+            + "\"Rating\":{\"objectType\":\"KalturaDoubleValue\",\"value\":4.5},"
+            + "\"Release date\":{\"objectType\":\"KalturaLongValue\",\"value\":1285891200},"
+            + "\"Title\":{\"objectType\":\"KalturaMultilingualStringValue\",\"value\":\"Sintel\",\"multilingualValue\":["
+            + "{\"objectType\":\"KalturaTranslationToken\",\"language\":\"eng\",\"value\":\"Sintel\"},"
+            + "{\"objectType\":\"KalturaTranslationToken\",\"language\":\"spa\",\"value\":\"Sintel, la pel\\u00edcula\"}]},"
+            + "\"No value\":{\"objectType\":\"KalturaStringValue\"},"
+            + "\"Null value\":{\"objectType\":\"KalturaStringValue\",\"value\":null},"
+            + "\"Null meta\":null},"
+            + "\"tags\":{"
+            + "\"Genre\":{\"objectType\":\"KalturaMultilingualStringValueArray\",\"objects\":["
+            + "{\"objectType\":\"KalturaMultilingualStringValue\",\"value\":\"Animation\",\"multilingualValue\":["
+            + "{\"objectType\":\"KalturaTranslationToken\",\"language\":\"spa\",\"value\":\"Animaci\\u00f3n\"}]},"
+            + "{\"objectType\":\"KalturaMultilingualStringValue\",\"value\":\"Fantasy\"}]},"
+            + "\"Director\":{\"objectType\":\"KalturaMultilingualStringValueArray\",\"objects\":["
+            + "{\"objectType\":\"KalturaMultilingualStringValue\",\"value\":\"Colin Levy\"}]},"
+            + "\"Country\":{\"objectType\":\"KalturaMultilingualStringValueArray\",\"objects\":[]},"
+            + "\"Null tag\":null},"
+            + "\"mediaFiles\":[]}}";
+
+    private static KalturaMediaAsset parseAsset(String response) {
+        return PhoenixParser.parse(response);
+    }
+
+    @Test
+    public void testMultiValueTags() {
+        AssetValues tags = parseAsset(AssetGetResponse).getTagValues();
+
+        assertEquals(4, tags.size());
+        assertEquals(Arrays.asList("Animation", "Fantasy"), tags.getValues("Genre"));
+        assertEquals("Fantasy", tags.getValue("Genre")); // the last value
+        assertEquals(Collections.singletonList("Colin Levy"), tags.getValues("Director"));
+
+        assertTrue(tags.has("Country"));
+        assertTrue(tags.getValues("Country").isEmpty());
+        assertNull(tags.getValue("Country"));
+        assertFalse(tags.hasValuesAt(2));
+
+        assertTrue(tags.has("Null tag"));
+        assertTrue(tags.getValues("Null tag").isEmpty());
+
+        assertFalse(tags.has("Actors"));
+        assertTrue(tags.getValues("Actors").isEmpty());
+        assertNull(tags.getValue(null));
+    }
+
+    @Test
+    public void testMetaValueTypes() {
+        AssetValues metas = parseAsset(AssetGetResponse).getMetaValues();
+
+        assertEquals(9, metas.size());
+        assertEquals("sintel", metas.getValue("Short title"));
+        assertEquals("true", metas.getValue("Free"));
+        assertEquals("2010", metas.getValue("Year"));
+        assertEquals("4.5", metas.getValue("Rating"));
+        assertEquals("1285891200", metas.getValue("Release date"));
+        // the default language value, the translations are not kept
+        assertEquals("Sintel", metas.getValue("Title"));
+        assertEquals(Collections.singletonList("Sintel"), metas.getValues("Title"));
+    }
+
+    @Test
+    public void testMissingAndNullMetaValues() {
+        AssetValues metas = parseAsset(AssetGetResponse).getMetaValues();
+
+        assertTrue(metas.has("No value"));
+        assertNull(metas.getValue("No value"));
+        assertTrue(metas.has("Null value"));
+        assertNull(metas.getValue("Null value"));
+        assertTrue(metas.has("Null meta"));
+        assertNull(metas.getValue("Null meta"));
+        assertFalse(metas.has("Rating "));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testMissingAndNullMembers() {
+        KalturaMediaAsset missing = parseAsset("{\"executionTime\":0.01,\"result\":{\"objectType\":\"KalturaMediaAsset\",\"id\":1}}");
+        assertNull(missing.getTagValues());
+        assertNull(missing.getMetaValues());
+        assertNull(missing.getTags());
+        assertNull(missing.getMetas());
+
+        KalturaMediaAsset nulls = parseAsset("{\"executionTime\":0.01,\"result\":{\"objectType\":\"KalturaMediaAsset\",\"id\":1,\"tags\":null,\"metas\":null}}");
+        assertNull(nulls.getTagValues());
+        assertNull(nulls.getMetaValues());
+
+        KalturaMediaAsset empty = parseAsset("{\"executionTime\":0.01,\"result\":{\"objectType\":\"KalturaMediaAsset\",\"id\":1,\"tags\":{},\"metas\":{}}}");
+        assertEquals(0, empty.getTagValues().size());
+        assertEquals(0, empty.getMetaValues().size());
+        assertEquals(new JsonObject(), empty.getTags());
+
+        // a member that is not an object is ignored, and the members after it are still read
+        KalturaMediaAsset invalid = parseAsset("{\"executionTime\":0.01,\"result\":{\"objectType\":\"KalturaMediaAsset\",\"id\":1,"
+                + "\"tags\":[\"Genre\"],\"metas\":\"Year\",\"name\":\"after\"}}");
+        assertNull(invalid.getTagValues());
+        assertNull(invalid.getMetaValues());
+        assertEquals("after", invalid.getName());
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testDeprecatedJsonObjects() {
+        KalturaMediaAsset asset = parseAsset(AssetGetResponse);
+
+        JsonObject expectedTags = new Gson().fromJson("{"
+                + "\"Genre\":{\"objects\":[{\"value\":\"Animation\"},{\"value\":\"Fantasy\"}]},"
+                + "\"Director\":{\"objects\":[{\"value\":\"Colin Levy\"}]},"
+                + "\"Country\":{\"objects\":[]},"
+                + "\"Null tag\":{\"objects\":[]}}", JsonObject.class);
+        assertEquals(expectedTags, asset.getTags());
+
+        JsonObject metas = asset.getMetas();
+        assertEquals(9, metas.entrySet().size());
+        assertEquals("Sintel", metas.getAsJsonObject("Title").get("value").getAsString());
+        assertEquals("2010", metas.getAsJsonObject("Year").get("value").getAsString());
+        assertEquals("true", metas.getAsJsonObject("Free").get("value").getAsString());
+        assertTrue(metas.getAsJsonObject("No value").get("value").isJsonNull());
+
+        // the rebuilt objects are read back into the same values
+        assertEquals(asset.getTags(), new AssetValues.TagsAdapter().fromJsonTree(asset.getTags()).toJsonObject());
+        assertEquals(asset.getMetas(), new AssetValues.MetasAdapter().fromJsonTree(asset.getMetas()).toJsonObject());
+    }
+
+    @Test
+    public void testWriteRoundTrip() {
+        KalturaMediaAsset asset = parseAsset(AssetGetResponse);
+        Gson gson = new Gson();
+
+        KalturaMediaAsset copy = gson.fromJson(gson.toJson(asset), KalturaMediaAsset.class);
+
+        assertEquals(Arrays.asList("Animation", "Fantasy"), copy.getTagValues().getValues("Genre"));
+        assertTrue(copy.getTagValues().getValues("Country").isEmpty());
+        assertEquals("4.5", copy.getMetaValues().getValue("Rating"));
+        assertEquals("Sintel", copy.getMetaValues().getValue("Title"));
+        assertNull(copy.getMetaValues().getValue("Null meta"));
+        assertEquals(asset.getMetaValues().size(), copy.getMetaValues().size());
+    }
+}
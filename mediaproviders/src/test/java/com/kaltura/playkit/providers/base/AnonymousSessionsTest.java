@@ -0,0 +1,160 @@
+package com.kaltura.playkit.providers.base;
+
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.playkit.providers.api.SimpleSessionProvider;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AnonymousSessionsTest extends TestCase {
+
+    private static final int PartnerId = 1234;
+    private static final String SessionErrorCode = "INVALID_KS";
+
+    // explicit expiry, the test KS can not be inspected
+    private static long validExpiry() {
+        return System.currentTimeMillis() + 60 * 60 * 1000;
+    }
+
+    private static class Acquired {
+        final List<String> sessions = new ArrayList<>();
+        int calls;
+
+        void add(String ks) {
+            sessions.add(ks);
+            calls++;
+        }
+
+        String last() {
+            return sessions.get(sessions.size() - 1);
+        }
+    }
+
+    private static class TestLoader extends BEAsyncLoader<String> {
+
+        TestLoader(String baseUrl) {
+            super("TestLoader", null, new SimpleSessionProvider(baseUrl, PartnerId, null), null);
+        }
+
+        @Override
+        protected void requestRemote(String ks) {
+        }
+
+        @Override
+        protected ErrorElement validateKs(String ks) {
+            return null;
+        }
+
+        @Override
+        protected boolean isSessionError(ErrorElement error) {
+            return SessionErrorCode.equals(error.getCode());
+        }
+    }
+
+    @Test
+    public void testOnlyOneLoadCreatesTheSession() {
+        String baseUrl = "https://create.kaltura.com";
+        Object creator = new Object();
+        Acquired creatorSession = new Acquired();
+        Acquired waiterSession = new Acquired();
+
+        AnonymousSessions.acquire(baseUrl, PartnerId, creator, creatorSession::add);
+        AnonymousSessions.acquire(baseUrl, PartnerId, new Object(), waiterSession::add);
+
+        assertEquals(1, creatorSession.calls);
+        assertNull(creatorSession.last()); // should create the session
+        assertEquals(0, waiterSession.calls); // waits for the created session
+
+        AnonymousSessions.update(baseUrl, PartnerId, creator, "anonymous-ks", validExpiry());
+        assertEquals(1, waiterSession.calls);
+        assertEquals("anonymous-ks", waiterSession.last());
+
+        Acquired laterSession = new Acquired();
+        AnonymousSessions.acquire(baseUrl, PartnerId, new Object(), laterSession::add);
+        assertEquals("anonymous-ks", laterSession.last());
+    }
+
+    @Test
+    public void testSessionsArePerPartner() {
+        String baseUrl = "https://partners.kaltura.com";
+        Object creator = new Object();
+        AnonymousSessions.acquire(baseUrl, PartnerId, creator, ks -> {});
+        AnonymousSessions.update(baseUrl, PartnerId, creator, "anonymous-ks", validExpiry());
+
+        Acquired otherPartner = new Acquired();
+        AnonymousSessions.acquire(baseUrl, PartnerId + 1, new Object(), otherPartner::add);
+        assertNull(otherPartner.last());
+    }
+
+    @Test
+    public void testReleasedCreatorPassesNoSessionToWaiters() {
+        String baseUrl = "https://release.kaltura.com";
+        Object creator = new Object();
+        Acquired waiterSession = new Acquired();
+        AnonymousSessions.acquire(baseUrl, PartnerId, creator, ks -> {});
+        AnonymousSessions.acquire(baseUrl, PartnerId, new Object(), waiterSession::add);
+
+        AnonymousSessions.release(baseUrl, PartnerId, creator);
+
+        assertEquals(1, waiterSession.calls);
+        assertNull(waiterSession.last());
+    }
+
+    @Test
+    public void testSessionAboutToExpireIsRenewed() {
+        String baseUrl = "https://expiry.kaltura.com";
+        Object creator = new Object();
+        AnonymousSessions.acquire(baseUrl, PartnerId, creator, ks -> {});
+        long expiry = System.currentTimeMillis() + AnonymousSessions.RenewMarginMs / 2;
+        AnonymousSessions.update(baseUrl, PartnerId, creator, "anonymous-ks", expiry);
+
+        Acquired next = new Acquired();
+        AnonymousSessions.acquire(baseUrl, PartnerId, new Object(), next::add);
+        assertNull(next.last());
+    }
+
+    @Test
+    public void testInvalidateDropsOnlyTheRejectedSession() {
+        String baseUrl = "https://invalidate.kaltura.com";
+        Object creator = new Object();
+        AnonymousSessions.acquire(baseUrl, PartnerId, creator, ks -> {});
+        AnonymousSessions.update(baseUrl, PartnerId, creator, "anonymous-ks", validExpiry());
+
+        AnonymousSessions.invalidate(baseUrl, PartnerId, "older-ks");
+        Acquired kept = new Acquired();
+        AnonymousSessions.acquire(baseUrl, PartnerId, new Object(), kept::add);
+        assertEquals("anonymous-ks", kept.last());
+
+        AnonymousSessions.invalidate(baseUrl, PartnerId, "anonymous-ks");
+        Acquired dropped = new Acquired();
+        AnonymousSessions.acquire(baseUrl, PartnerId, new Object(), dropped::add);
+        assertNull(dropped.last());
+    }
+
+    @Test
+    public void testLoaderInvalidatesTheSessionOnlyOnSessionErrors() {
+        String baseUrl = "https://loader.kaltura.com";
+        Object creator = new Object();
+        AnonymousSessions.acquire(baseUrl, PartnerId, creator, ks -> {});
+        AnonymousSessions.update(baseUrl, PartnerId, creator, "anonymous-ks", validExpiry());
+
+        TestLoader loader = new TestLoader(baseUrl);
+        Acquired loaderSession = new Acquired();
+        loader.getAnonymousSession(loaderSession::add);
+        assertEquals("anonymous-ks", loaderSession.last());
+
+        loader.invalidateAnonymousSession(ErrorElement.LoadError);
+        Acquired afterLoadError = new Acquired();
+        AnonymousSessions.acquire(baseUrl, PartnerId, new Object(), afterLoadError::add);
+        assertEquals("anonymous-ks", afterLoadError.last());
+
+        loader.invalidateAnonymousSession(new ErrorElement("Invalid KS", SessionErrorCode));
+        Acquired afterSessionError = new Acquired();
+        AnonymousSessions.acquire(baseUrl, PartnerId, new Object(), afterSessionError::add);
+        assertNull(afterSessionError.last());
+    }
+}
@@ -0,0 +1,180 @@
+package com.kaltura.playkit.providers.base;
+
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.Accessories;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.netkit.utils.OnCompletion;
+import com.kaltura.playkit.providers.api.SimpleSessionProvider;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InFlightLoadsTest extends TestCase {
+
+    private static class TestLoader extends BEAsyncLoader<String> {
+
+        private final String key;
+        int remoteRequests;
+
+        TestLoader(String key, OnCompletion<ResultElement<String>> completion) {
+            super("TestLoader", null, new SimpleSessionProvider("https://test.kaltura.com", 1234, "ks"), completion);
+            this.key = key;
+        }
+
+        @Override
+        protected void requestRemote(String ks) {
+            remoteRequests++;
+        }
+
+        @Override
+        protected ErrorElement validateKs(String ks) {
+            return null;
+        }
+
+        @Override
+        protected String getRequestKey(String ks) {
+            return key;
+        }
+
+        void respond(ResultElement<String> result) {
+            if (completion != null) {
+                completion.onComplete(result);
+            }
+            notifyCompletion();
+        }
+    }
+
+    private static class Results implements OnCompletion<ResultElement<String>> {
+        final List<ResultElement<String>> results = new ArrayList<>();
+
+        @Override
+        public void onComplete(ResultElement<String> result) {
+            results.add(result);
+        }
+    }
+
+    @Test
+    public void testJoinedLoadSharesTheRemoteRequest() {
+        Results leaderResults = new Results();
+        Results joinedResults = new Results();
+        TestLoader leader = new TestLoader("shared", leaderResults);
+        TestLoader joined = new TestLoader("shared", joinedResults);
+
+        leader.start();
+        joined.start();
+        assertEquals(1, leader.remoteRequests);
+        assertEquals(0, joined.remoteRequests);
+
+        ResultElement<String> result = Accessories.buildResult("entry", null);
+        leader.respond(result);
+
+        assertEquals(1, leaderResults.results.size());
+        assertEquals(1, joinedResults.results.size());
+        assertSame(result, leaderResults.results.get(0));
+        assertEquals("entry", joinedResults.results.get(0).getResponse());
+        assertTrue(joined.isDone());
+    }
+
+    @Test
+    public void testCompletedFlightIsRemoved() {
+        TestLoader first = new TestLoader("completed", new Results());
+        first.start();
+        first.respond(Accessories.buildResult("entry", null));
+
+        TestLoader second = new TestLoader("completed", new Results());
+        second.start();
+        assertEquals(1, second.remoteRequests);
+    }
+
+    @Test
+    public void testLoadsWithDifferentKeysAreNotShared() {
+        TestLoader first = new TestLoader("key-1", new Results());
+        TestLoader second = new TestLoader("key-2", new Results());
+        first.start();
+        second.start();
+
+        assertEquals(1, first.remoteRequests);
+        assertEquals(1, second.remoteRequests);
+        first.respond(Accessories.buildResult("entry", null));
+        second.respond(Accessories.buildResult("entry", null));
+    }
+
+    @Test
+    public void testLeaderDoneWithNoResultFailsJoinedLoads() {
+        Results joinedResults = new Results();
+        TestLoader leader = new TestLoader("no-result", new Results());
+        TestLoader joined = new TestLoader("no-result", joinedResults);
+        leader.start();
+        joined.start();
+
+        leader.notifyCompletion(); // response handling ended with no result
+
+        assertEquals(1, joinedResults.results.size());
+        assertFalse(joinedResults.results.get(0).isSuccess());
+        assertEquals(ErrorElement.LoadError.getCode(), joinedResults.results.get(0).getError().getCode());
+        assertTrue(joined.isDone());
+
+        TestLoader next = new TestLoader("no-result", new Results());
+        next.start();
+        assertEquals(1, next.remoteRequests);
+    }
+
+    @Test
+    public void testFailingCompletionDoesNotBlockOtherLoads() {
+        Results lastResults = new Results();
+        TestLoader leader = new TestLoader("throwing", new Results());
+        TestLoader throwing = new TestLoader("throwing", result -> {
+            throw new IllegalStateException("completion failed");
+        });
+        TestLoader last = new TestLoader("throwing", lastResults);
+        leader.start();
+        throwing.start();
+        last.start();
+
+        leader.respond(Accessories.buildResult("entry", null));
+
+        assertEquals(1, lastResults.results.size());
+        assertTrue(throwing.isDone());
+        assertTrue(last.isDone());
+    }
+
+    @Test
+    public void testCanceledJoinedLoadIsNotCompleted() {
+        Results leaderResults = new Results();
+        Results canceledResults = new Results();
+        TestLoader leader = new TestLoader("canceled-joined", leaderResults);
+        TestLoader canceled = new TestLoader("canceled-joined", canceledResults);
+        leader.start();
+        canceled.start();
+
+        canceled.cancel();
+        leader.respond(Accessories.buildResult("entry", null));
+
+        assertEquals(1, leaderResults.results.size());
+        assertTrue(canceledResults.results.isEmpty());
+    }
+
+    @Test
+    public void testCanceledLeaderKeepsTheRequestForJoinedLoads() {
+        Results leaderResults = new Results();
+        Results joinedResults = new Results();
+        TestLoader leader = new TestLoader("canceled-leader", leaderResults);
+        TestLoader joined = new TestLoader("canceled-leader", joinedResults);
+        leader.start();
+        joined.start();
+
+        leader.cancel();
+        assertTrue(leader.isDetached());
+        assertFalse(leader.isCanceled());
+
+        leader.respond(Accessories.buildResult("entry", null));
+
+        assertTrue(leaderResults.results.isEmpty());
+        assertEquals(1, joinedResults.results.size());
+        assertTrue(joinedResults.results.get(0).isSuccess());
+    }
+}
@@ -0,0 +1,137 @@
+package com.kaltura.playkit.providers.base;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class LazyMetadataMapTest extends TestCase {
+
+    /**
+     * Source with a repeated key, later values override earlier ones, same as the metadata xml.
+     */
+    private static class TestSource implements LazyMetadataMap.Source {
+        final String[][] pairs;
+        int reads;
+        int populates;
+
+        TestSource(String[]... pairs) {
+            this.pairs = pairs;
+        }
+
+        @Override
+        public void read(String key, Map<String, String> metadata, Set<String> keys) {
+            reads++;
+            for (String[] pair : pairs) {
+                if (pair[0].equals(key)) {
+                    metadata.put(pair[0], pair[1]);
+                }
+            }
+        }
+
+        @Override
+        public void populate(Map<String, String> metadata, Set<String> keys) {
+            populates++;
+            for (String[] pair : pairs) {
+                if (keys == null || keys.contains(pair[0])) {
+                    metadata.put(pair[0], pair[1]);
+                }
+            }
+        }
+    }
+
+    private static TestSource newSource() {
+        return new TestSource(new String[]{"genre", "drama"}, new String[]{"rating", null}, new String[]{"genre", "comedy"});
+    }
+
+    @Test
+    public void testLookupDoesNotBuildTheMap() {
+        TestSource source = newSource();
+        LazyMetadataMap metadata = new LazyMetadataMap(source, null);
+
+        assertEquals("comedy", metadata.get("genre"));
+        assertEquals("comedy", metadata.get("genre"));
+        assertEquals(1, source.reads);
+        assertEquals(0, source.populates);
+        assertTrue(metadata.isLazy());
+    }
+
+    @Test
+    public void testLookupMatchesTheBuiltMap() {
+        LazyMetadataMap metadata = new LazyMetadataMap(newSource(), null);
+        String lookedUp = metadata.get("genre");
+
+        Map<String, String> built = new HashMap<>(metadata);
+        assertFalse(metadata.isLazy());
+        assertEquals(built.get("genre"), lookedUp);
+        assertEquals(2, built.size());
+    }
+
+    @Test
+    public void testContainsKeyWithNullValue() {
+        LazyMetadataMap metadata = new LazyMetadataMap(newSource(), null);
+
+        assertTrue(metadata.containsKey("rating"));
+        assertNull(metadata.get("rating"));
+        assertFalse(metadata.containsKey("missing"));
+        assertTrue(metadata.isLazy());
+    }
+
+    @Test
+    public void testWhitelistedKeysOnly() {
+        Set<String> keys = new HashSet<>(Arrays.asList("genre"));
+        TestSource source = newSource();
+        LazyMetadataMap metadata = new LazyMetadataMap(source, keys);
+
+        assertFalse(metadata.containsKey("rating"));
+        assertEquals(0, source.reads);
+        assertEquals(1, metadata.size());
+    }
+
+    @Test
+    public void testPutValuesTakePrecedence() {
+        LazyMetadataMap metadata = new LazyMetadataMap(newSource(), null);
+        metadata.put("genre", "news");
+        metadata.put("entryId", "1_abc");
+
+        assertEquals("news", metadata.get("genre"));
+        Map<String, String> built = new LinkedHashMap<>(metadata);
+        assertEquals("news", built.get("genre"));
+        assertEquals("1_abc", built.get("entryId"));
+        assertEquals(3, built.size());
+    }
+
+    @Test
+    public void testCopyIsLazyAndIndependent() {
+        TestSource source = newSource();
+        LazyMetadataMap metadata = new LazyMetadataMap(source, null);
+        metadata.put("entryId", "1_abc");
+        metadata.get("genre");
+
+        Map<String, String> copy = metadata.copy();
+        assertTrue(copy instanceof LazyMetadataMap);
+        assertTrue(((LazyMetadataMap) copy).isLazy());
+        assertEquals(0, source.populates);
+
+        copy.put("entryId", "1_xyz");
+        assertEquals("1_abc", metadata.get("entryId"));
+        assertEquals("comedy", copy.get("genre"));
+        assertEquals(1, source.reads); // the looked up value was copied
+    }
+
+    @Test
+    public void testCopyOfBuiltMap() {
+        LazyMetadataMap metadata = new LazyMetadataMap(newSource(), null);
+        metadata.size();
+
+        Map<String, String> copy = metadata.copy();
+        assertFalse(copy instanceof LazyMetadataMap);
+        assertEquals(new HashMap<>(metadata), copy);
+    }
+}
@@ -0,0 +1,100 @@
+package com.kaltura.playkit.providers.base;
+
+import com.kaltura.playkit.PKMediaEntry;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class MediaEntryCacheTest extends TestCase {
+
+    private static final long MaxAgeMs = 1000;
+    private static final long MaxStaleMs = 5000;
+
+    private static class TestCache extends MediaEntryCache {
+        long now = 100000;
+
+        TestCache(int maxEntries) {
+            super(maxEntries, MaxAgeMs, MaxStaleMs);
+        }
+
+        @Override
+        long elapsedRealtime() {
+            return now;
+        }
+    }
+
+    private static PKMediaEntry newEntry(String id) {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("name", id);
+        return new PKMediaEntry().setId(id).setMetadata(metadata);
+    }
+
+    @Test
+    public void testEntriesAreCopied() {
+        TestCache cache = new TestCache(2);
+        PKMediaEntry entry = newEntry("1_abc");
+        cache.put("key", entry, null);
+        entry.getMetadata().put("name", "changed");
+
+        PKMediaEntry cached = cache.get("key");
+        assertNotSame(entry, cached);
+        assertEquals("1_abc", cached.getId());
+        assertEquals("1_abc", cached.getMetadata().get("name"));
+
+        cached.getMetadata().put("name", "changed");
+        assertEquals("1_abc", cache.get("key").getMetadata().get("name"));
+    }
+
+    @Test
+    public void testStaleEntryIsReturnedOnlyIfAllowed() {
+        TestCache cache = new TestCache(2);
+        cache.put("key", newEntry("1_abc"), null);
+
+        ProviderResult<PKMediaEntry> fresh = cache.get("key", false);
+        assertNotNull(fresh);
+        assertFalse(fresh.isStale());
+
+        cache.now += MaxAgeMs;
+        assertNull(cache.get("key"));
+        ProviderResult<PKMediaEntry> stale = cache.get("key", true);
+        assertNotNull(stale);
+        assertTrue(stale.isStale());
+        assertEquals("1_abc", stale.getResponse().getId());
+
+        cache.now += MaxStaleMs;
+        assertNull(cache.get("key", true));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        TestCache cache = new TestCache(2);
+        cache.put("first", newEntry("first"), null);
+        cache.put("second", newEntry("second"), null);
+        cache.get("first");
+
+        cache.put("third", newEntry("third"), null);
+
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertNotNull(cache.get("third"));
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        TestCache cache = new TestCache(3);
+        cache.put("first", newEntry("first"), null);
+        cache.put("second", newEntry("second"), null);
+        cache.put(null, newEntry("ignored"), null);
+
+        cache.remove("first");
+        assertNull(cache.get("first"));
+        assertNotNull(cache.get("second"));
+
+        cache.clear();
+        assertNull(cache.get("second"));
+    }
+}
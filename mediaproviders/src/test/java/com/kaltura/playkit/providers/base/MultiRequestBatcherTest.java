@@ -0,0 +1,289 @@
+package com.kaltura.playkit.providers.base;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.internal.bind.JsonTreeReader;
+import com.google.gson.stream.JsonReader;
+import com.kaltura.netkit.connect.executor.RequestQueue;
+import com.kaltura.netkit.connect.request.RequestBuilder;
+import com.kaltura.netkit.connect.request.RequestConfiguration;
+import com.kaltura.netkit.connect.request.RequestElement;
+import com.kaltura.netkit.connect.response.ResponseElement;
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.Accessories;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.netkit.utils.NetworkErrorEventListener;
+import com.kaltura.netkit.utils.OnCompletion;
+import com.kaltura.playkit.providers.api.SimpleSessionProvider;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public class MultiRequestBatcherTest extends TestCase {
+
+    private static final String MultiRequestUrl = "https://test.kaltura.com/api_v3/service/multirequest";
+    private static final long WindowMs = 50;
+
+    private static class TestQueue implements RequestQueue {
+        final List<RequestElement> requests = new ArrayList<>();
+        final Semaphore queued = new Semaphore(0);
+
+        @Override
+        public String queue(RequestElement request) {
+            synchronized (requests) {
+                requests.add(request);
+            }
+            queued.release();
+            return "request-" + requests.size();
+        }
+
+        RequestElement await(int index) throws InterruptedException {
+            assertTrue(queued.tryAcquire(5, TimeUnit.SECONDS));
+            synchronized (requests) {
+                return requests.get(index);
+            }
+        }
+
+        @Override
+        public String queue(RequestElement request, int retryCount) {
+            return queue(request);
+        }
+
+        @Override
+        public ResponseElement execute(RequestElement request) {
+            return null;
+        }
+
+        @Override
+        public void setRequestConfiguration(RequestConfiguration config) {
+        }
+
+        @Override
+        public void cancelRequest(String reqId) {
+        }
+
+        @Override
+        public void clearRequests() {
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return requests.isEmpty();
+        }
+
+        @Override
+        public void setNetworkErrorEventListener(NetworkErrorEventListener networkErrorEventListener) {
+        }
+    }
+
+    private static class Responses {
+        final List<ResponseElement> responses = new ArrayList<>();
+
+        void add(ResponseElement response) {
+            responses.add(response);
+        }
+    }
+
+    private static RequestElement newMultiRequest(String entryId, Responses responses) {
+        return newMultiRequest(entryId, responses, null, null);
+    }
+
+    // session start and an entry request that uses the session ks
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static RequestElement newMultiRequest(String entryId, Responses responses, HashMap<String, String> headers, RequestConfiguration config) {
+        JsonObject params = new JsonObject();
+        params.addProperty("format", 1);
+        JsonObject session = new JsonObject();
+        session.addProperty("service", "session");
+        session.addProperty("action", "startWidgetSession");
+        params.add("1", session);
+        JsonObject entry = new JsonObject();
+        entry.addProperty("service", "baseEntry");
+        entry.addProperty("action", "get");
+        entry.addProperty("entryId", entryId);
+        entry.addProperty("ks", "{1:result:ks}");
+        params.add("2", entry);
+
+        return new RequestBuilder().method("POST").url(MultiRequestUrl).tag("test").params(params)
+                .headers(headers).setConfiguration(config).completion(responses::add).build();
+    }
+
+    /**
+     * Loads an entry with a multirequest, through {@link BEAsyncLoader#queueRequest}.
+     */
+    private static class TestLoader extends BEAsyncLoader<String> {
+        private final String entryId;
+        JsonReader reader;
+
+        TestLoader(String entryId, RequestQueue requestQueue, OnCompletion<ResultElement<String>> completion) {
+            super("TestLoader", requestQueue, new SimpleSessionProvider("https://test.kaltura.com", 1234, "ks"), completion);
+            this.entryId = entryId;
+        }
+
+        @Override
+        protected void requestRemote(String ks) {
+            RequestElement request = newMultiRequest(entryId, new Responses());
+            RequestBuilder<?> requestBuilder = new RequestBuilder<>().method(request.getMethod()).url(request.getUrl()).tag("test")
+                    .params(body(request));
+            queueRequest(requestBuilder, reader -> {
+                this.reader = reader;
+                return new Gson().fromJson(reader, JsonObject.class);
+            }, (response, parser) -> {
+                JsonObject body = (JsonObject) parser.parse();
+                String id = body.getAsJsonArray("result").get(1).getAsJsonObject().get("id").getAsString();
+                completion.onComplete(Accessories.buildResult(id, null));
+                notifyCompletion();
+            });
+        }
+
+        @Override
+        protected ErrorElement validateKs(String ks) {
+            return null;
+        }
+    }
+
+    private static JsonObject body(RequestElement request) {
+        return new Gson().fromJson(request.getBody(), JsonObject.class);
+    }
+
+    @Test
+    public void testRequestsAreCombinedAndRenumbered() throws InterruptedException {
+        TestQueue queue = new TestQueue();
+        MultiRequestBatcher batcher = new MultiRequestBatcher(queue, WindowMs, MultiRequestBatcher.DefaultMaxBatchRequests);
+        Responses first = new Responses();
+        Responses second = new Responses();
+
+        batcher.queue(newMultiRequest("1_first", first));
+        batcher.queue(newMultiRequest("1_second", second));
+
+        JsonObject combined = body(queue.await(0));
+        assertEquals(1, queue.requests.size());
+        assertEquals(1, combined.get("format").getAsInt());
+        assertEquals("{1:result:ks}", combined.getAsJsonObject("2").get("ks").getAsString());
+        assertEquals("1_second", combined.getAsJsonObject("4").get("entryId").getAsString());
+        assertEquals("{3:result:ks}", combined.getAsJsonObject("4").get("ks").getAsString());
+        assertFalse(combined.has("5"));
+    }
+
+    @Test
+    public void testCombinedResponseIsSplit() throws InterruptedException {
+        TestQueue queue = new TestQueue();
+        MultiRequestBatcher batcher = new MultiRequestBatcher(queue, WindowMs, MultiRequestBatcher.DefaultMaxBatchRequests);
+        Responses first = new Responses();
+        Responses second = new Responses();
+        batcher.queue(newMultiRequest("1_first", first));
+        batcher.queue(newMultiRequest("1_second", second));
+
+        queue.await(0).onComplete(Accessories.buildResponse("{\"executionTime\":1,\"result\":[\"ks-1\",{\"id\":\"1_first\"},\"ks-2\",{\"id\":\"1_second\"}]}", null));
+
+        assertEquals(1, first.responses.size());
+        assertEquals(1, second.responses.size());
+        JsonObject secondResponse = new Gson().fromJson(second.responses.get(0).getResponse(), JsonObject.class);
+        JsonArray results = secondResponse.getAsJsonArray("result");
+        assertEquals(2, results.size());
+        assertEquals("ks-2", results.get(0).getAsString());
+        assertEquals("1_second", results.get(1).getAsJsonObject().get("id").getAsString());
+        assertEquals(1, secondResponse.get("executionTime").getAsInt());
+    }
+
+    private static HashMap<String, String> headers(String userAgent) {
+        HashMap<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        headers.put("User-Agent", userAgent);
+        return headers;
+    }
+
+    @Test
+    public void testHeadersAndConfigurationAreKept() throws InterruptedException {
+        TestQueue queue = new TestQueue();
+        MultiRequestBatcher batcher = new MultiRequestBatcher(queue, WindowMs, MultiRequestBatcher.DefaultMaxBatchRequests);
+        RequestConfiguration config = new RequestConfiguration().setReadTimeout(5000).setMaxRetries(0);
+        batcher.queue(newMultiRequest("1_first", new Responses(), headers("player"), config));
+        batcher.queue(newMultiRequest("1_second", new Responses(), headers("player"), new RequestConfiguration().setReadTimeout(5000).setMaxRetries(0)));
+
+        RequestElement combined = queue.await(0);
+        assertTrue(body(combined).has("4"));
+        assertEquals(headers("player"), combined.getHeaders());
+        assertEquals(5000, combined.config().getReadTimeout());
+        assertEquals(0, combined.config().getMaxRetries());
+    }
+
+    @Test
+    public void testRequestsWithDifferentHeadersOrConfigurationAreNotCombined() throws InterruptedException {
+        TestQueue queue = new TestQueue();
+        MultiRequestBatcher batcher = new MultiRequestBatcher(queue, WindowMs, MultiRequestBatcher.DefaultMaxBatchRequests);
+        RequestElement first = newMultiRequest("1_first", new Responses(), headers("player"), null);
+        RequestElement second = newMultiRequest("1_second", new Responses(), headers("other"), null);
+        RequestElement third = newMultiRequest("1_third", new Responses(), headers("player"), new RequestConfiguration().setMaxRetries(0));
+        batcher.queue(first);
+        batcher.queue(second);
+        batcher.queue(third);
+
+        List<RequestElement> sent = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            sent.add(queue.await(i));
+        }
+        assertEquals(3, queue.requests.size());
+        assertTrue(sent.contains(first));
+        assertTrue(sent.contains(second));
+        assertTrue(sent.contains(third));
+    }
+
+    @Test
+    public void testLoadersReadTheParsedResults() throws InterruptedException {
+        TestQueue queue = new TestQueue();
+        MultiRequestBatcher batcher = new MultiRequestBatcher(queue, WindowMs, MultiRequestBatcher.DefaultMaxBatchRequests);
+        List<ResultElement<String>> results = new ArrayList<>();
+        TestLoader first = new TestLoader("1_first", batcher, results::add);
+        TestLoader second = new TestLoader("1_second", batcher, results::add);
+        first.start();
+        second.start();
+
+        queue.await(0).onComplete(Accessories.buildResponse("{\"executionTime\":1,\"result\":[\"ks-1\",{\"id\":\"1_first\"},\"ks-2\",{\"id\":\"1_second\"}]}", null));
+
+        assertEquals(2, results.size());
+        assertEquals("1_first", results.get(0).getResponse());
+        assertEquals("1_second", results.get(1).getResponse());
+        // the split results are read from the parsed tree, not serialized and parsed again
+        assertTrue(first.reader instanceof JsonTreeReader);
+        assertTrue(second.reader instanceof JsonTreeReader);
+    }
+
+    @Test
+    public void testFailedBatchIsSentSeparately() throws InterruptedException {
+        TestQueue queue = new TestQueue();
+        MultiRequestBatcher batcher = new MultiRequestBatcher(queue, WindowMs, MultiRequestBatcher.DefaultMaxBatchRequests);
+        RequestElement first = newMultiRequest("1_first", new Responses());
+        RequestElement second = newMultiRequest("1_second", new Responses());
+        batcher.queue(first);
+        batcher.queue(second);
+
+        queue.await(0).onComplete(Accessories.buildResponse(null, ErrorElement.ConnectionError));
+
+        assertSame(first, queue.await(1));
+        assertSame(second, queue.await(2));
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testSingleRequestIsSentAsIs() throws InterruptedException {
+        TestQueue queue = new TestQueue();
+        MultiRequestBatcher batcher = new MultiRequestBatcher(queue, WindowMs, MultiRequestBatcher.DefaultMaxBatchRequests);
+        RequestElement request = newMultiRequest("1_single", new Responses());
+        RequestElement notMultiRequest = new RequestBuilder().method("GET").url("https://test.kaltura.com/api_v3/service/baseEntry").build();
+
+        batcher.queue(notMultiRequest);
+        assertSame(notMultiRequest, queue.await(0));
+
+        batcher.queue(request);
+        assertSame(request, queue.await(1));
+    }
+}
@@ -0,0 +1,83 @@
+package com.kaltura.playkit.providers.base;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelChunksTest extends TestCase {
+
+    @Test
+    public void testAllIndexesAreHandledOnce() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            int count = ParallelChunks.ChunkSize * 5 + 3;
+            final AtomicInteger[] handled = new AtomicInteger[count];
+            for (int i = 0; i < count; i++) {
+                handled[i] = new AtomicInteger();
+            }
+
+            ParallelChunks.run(count, executor, (from, to) -> {
+                assertTrue(to - from <= ParallelChunks.ChunkSize);
+                for (int i = from; i < to; i++) {
+                    handled[i].incrementAndGet();
+                }
+            });
+
+            for (int i = 0; i < count; i++) {
+                assertEquals("index " + i, 1, handled[i].get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSmallRangeRunsOnTheCallingThread() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Thread caller = Thread.currentThread();
+            final int[] runs = new int[1];
+            ParallelChunks.run(ParallelChunks.ChunkSize, executor, (from, to) -> {
+                assertSame(caller, Thread.currentThread());
+                assertEquals(0, from);
+                assertEquals(ParallelChunks.ChunkSize, to);
+                runs[0]++;
+            });
+            assertEquals(1, runs[0]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNoExecutorRunsASingleChunk() {
+        final int[] runs = new int[1];
+        ParallelChunks.run(ParallelChunks.ChunkSize * 3, null, (from, to) -> {
+            assertEquals(0, from);
+            assertEquals(ParallelChunks.ChunkSize * 3, to);
+            runs[0]++;
+        });
+        assertEquals(1, runs[0]);
+    }
+
+    @Test
+    public void testChunkFailureIsRethrown() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ParallelChunks.run(ParallelChunks.ChunkSize * 3, executor, (from, to) -> {
+                if (from == ParallelChunks.ChunkSize * 2) {
+                    throw new IllegalStateException("chunk failed");
+                }
+            });
+            fail("chunk failure was not rethrown");
+        } catch (IllegalStateException e) {
+            assertEquals("chunk failed", e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.kaltura.playkit.providers.base;
+
+import com.kaltura.playkit.PKPlaylistMedia;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PlaylistItemsEmitterTest extends TestCase {
+
+    private static class Windows implements OnPlaylistItemsListener {
+        final List<Integer> fromIndexes = new ArrayList<>();
+        final List<List<PKPlaylistMedia>> windows = new ArrayList<>();
+
+        @Override
+        public void onPlaylistItems(int fromIndex, List<PKPlaylistMedia> medias) {
+            fromIndexes.add(fromIndex);
+            windows.add(medias);
+        }
+    }
+
+    private static PKPlaylistMedia media(int index) {
+        return new PKPlaylistMedia().setId("media-" + index);
+    }
+
+    @Test
+    public void testWindowsArePassedInOrder() {
+        int count = PlaylistItemsEmitter.WindowSize * 2 + 5;
+        Windows windows = new Windows();
+        PlaylistItemsEmitter emitter = new PlaylistItemsEmitter(windows, count);
+
+        for (int i = count - 1; i > 0; i--) {
+            emitter.set(i, media(i));
+        }
+        assertTrue(windows.windows.isEmpty()); // first media is missing
+
+        emitter.set(0, media(0));
+        assertEquals(3, windows.windows.size());
+        assertEquals(0, (int) windows.fromIndexes.get(0));
+        assertEquals(PlaylistItemsEmitter.WindowSize, (int) windows.fromIndexes.get(1));
+        assertEquals(PlaylistItemsEmitter.WindowSize * 2, (int) windows.fromIndexes.get(2));
+        assertEquals(5, windows.windows.get(2).size());
+        assertEquals("media-" + PlaylistItemsEmitter.WindowSize, windows.windows.get(1).get(0).getId());
+    }
+
+    @Test
+    public void testFullWindowIsPassedBeforeTheRest() {
+        Windows windows = new Windows();
+        PlaylistItemsEmitter emitter = new PlaylistItemsEmitter(windows, PlaylistItemsEmitter.WindowSize + 1);
+
+        for (int i = 0; i < PlaylistItemsEmitter.WindowSize; i++) {
+            emitter.set(i, media(i));
+        }
+        assertEquals(1, windows.windows.size());
+
+        emitter.set(PlaylistItemsEmitter.WindowSize, null); // failed media
+        assertEquals(2, windows.windows.size());
+        assertNull(windows.windows.get(1).get(0));
+    }
+
+    @Test
+    public void testMediaIsSetOnlyOnce() {
+        Windows windows = new Windows();
+        PlaylistItemsEmitter emitter = new PlaylistItemsEmitter(windows, 2);
+
+        emitter.set(0, media(0));
+        emitter.set(0, media(1));
+        emitter.set(5, media(5));
+
+        assertTrue(emitter.isSet(0));
+        assertFalse(emitter.isSet(1));
+        assertEquals("media-0", emitter.get(0).getId());
+        assertTrue(windows.windows.isEmpty());
+    }
+
+    @Test
+    public void testListenerDoesNotBlockOtherThreads() throws InterruptedException {
+        final boolean[] otherThreadDone = new boolean[1];
+        final PlaylistItemsEmitter[] emitter = new PlaylistItemsEmitter[1];
+        emitter[0] = new PlaylistItemsEmitter((fromIndex, medias) -> {
+            Thread other = new Thread(() -> otherThreadDone[0] = emitter[0].isSet(0));
+            other.start();
+            try {
+                other.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1);
+
+        emitter[0].set(0, media(0));
+        assertTrue(otherThreadDone[0]);
+    }
+}
@@ -0,0 +1,91 @@
+package com.kaltura.playkit.providers.base;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ResponseDiskCacheTest extends TestCase {
+
+    private File cacheDir;
+
+    @Override
+    protected void setUp() throws IOException {
+        cacheDir = Files.createTempDirectory("response-cache").toFile();
+    }
+
+    @Override
+    protected void tearDown() {
+        File[] files = cacheDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        cacheDir.delete();
+    }
+
+    private static String get(ResponseDiskCache cache, String requestKey) throws InterruptedException {
+        final String[] response = new String[1];
+        final CountDownLatch latch = new CountDownLatch(1);
+        cache.get(requestKey, cachedResponse -> {
+            response[0] = cachedResponse;
+            latch.countDown();
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        return response[0];
+    }
+
+    @Test
+    public void testStoredResponseIsRead() throws InterruptedException {
+        ResponseDiskCache cache = new ResponseDiskCache(cacheDir);
+        cache.put("key", "{\"id\":\"1_abc\"}\nsecond line", null);
+
+        assertEquals("{\"id\":\"1_abc\"}\nsecond line", get(cache, "key"));
+        assertNull(get(cache, "missing"));
+    }
+
+    @Test
+    public void testExpiredResponseIsDeleted() throws InterruptedException {
+        ResponseDiskCache cache = new ResponseDiskCache(cacheDir, ResponseDiskCache.DefaultMaxSizeBytes, 50);
+        cache.put("key", "response", null);
+        get(cache, "key"); // waits for the write
+        assertEquals(1, cacheDir.listFiles().length);
+
+        Thread.sleep(100);
+        assertNull(get(cache, "key"));
+        assertEquals(0, cacheDir.listFiles().length);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResponseIsEvicted() throws InterruptedException {
+        ResponseDiskCache cache = new ResponseDiskCache(cacheDir, 100, ResponseDiskCache.DefaultMaxAgeMs);
+        cache.put("first", "first response, long enough for two responses to exceed the max size", null);
+        get(cache, "first");
+        assertTrue(cacheDir.listFiles()[0].setLastModified(System.currentTimeMillis() - 60 * 1000));
+
+        cache.put("second", "second response, long enough for two responses to exceed the max size", null);
+
+        assertNotNull(get(cache, "second"));
+        assertNull(get(cache, "first"));
+    }
+
+    @Test
+    public void testRemoveAndClear() throws InterruptedException {
+        ResponseDiskCache cache = new ResponseDiskCache(cacheDir);
+        cache.put("first", "first", null);
+        cache.put("second", "second", null);
+
+        cache.remove("first");
+        assertNull(get(cache, "first"));
+        assertEquals("second", get(cache, "second"));
+
+        cache.clear();
+        assertNull(get(cache, "second"));
+    }
+}
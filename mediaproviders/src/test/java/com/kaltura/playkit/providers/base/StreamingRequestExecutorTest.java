@@ -0,0 +1,145 @@
+package com.kaltura.playkit.providers.base;
+
+import com.kaltura.netkit.connect.executor.RequestQueue;
+import com.kaltura.netkit.connect.request.RequestBuilder;
+import com.kaltura.netkit.connect.request.RequestConfiguration;
+import com.kaltura.netkit.connect.request.RequestElement;
+import com.kaltura.netkit.connect.response.ResponseElement;
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.Accessories;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.netkit.utils.NetworkErrorEventListener;
+import com.kaltura.netkit.utils.OnCompletion;
+import com.kaltura.playkit.providers.api.SimpleSessionProvider;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+public class StreamingRequestExecutorTest extends TestCase {
+
+    private static class NoQueue implements RequestQueue {
+        @Override
+        public String queue(RequestElement request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String queue(RequestElement request, int retryCount) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseElement execute(RequestElement request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setRequestConfiguration(RequestConfiguration config) {
+        }
+
+        @Override
+        public void cancelRequest(String reqId) {
+        }
+
+        @Override
+        public void clearRequests() {
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public void setNetworkErrorEventListener(NetworkErrorEventListener networkErrorEventListener) {
+        }
+    }
+
+    private static class TestLoader extends BEAsyncLoader<String> {
+
+        final AtomicInteger handled = new AtomicInteger();
+
+        TestLoader(RequestQueue requestQueue, OnCompletion<ResultElement<String>> completion) {
+            super("TestLoader", requestQueue, new SimpleSessionProvider("https://test.kaltura.com", 1234, "ks"), completion);
+        }
+
+        @Override
+        protected void requestRemote(String ks) {
+            RequestBuilder<?> requestBuilder = new RequestBuilder<>().method("POST").url("https://test.kaltura.com/api_v3/service/multirequest").tag("test");
+            queueRequest(requestBuilder, reader -> reader.toString(), (response, parser) -> {
+                handled.incrementAndGet();
+                ErrorElement error = response.isSuccess() ? null : response.getError();
+                completion.onComplete(Accessories.buildResult(error == null ? "entry" : null, error));
+                notifyCompletion();
+            });
+        }
+
+        @Override
+        protected ErrorElement validateKs(String ks) {
+            return null;
+        }
+    }
+
+    private static OkHttpClient newClient(int code) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(chain -> new Response.Builder()
+                        .request(chain.request())
+                        .protocol(Protocol.HTTP_1_1)
+                        .code(code)
+                        .message("test")
+                        .body(ResponseBody.create("{\"result\":{}}", MediaType.get("application/json")))
+                        .build())
+                .build();
+    }
+
+    private static void awaitResponses(OkHttpClient client) throws InterruptedException {
+        client.dispatcher().executorService().shutdown();
+        assertTrue(client.dispatcher().executorService().awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testThrowingCompletionIsCalledOnce() throws InterruptedException {
+        OkHttpClient client = newClient(200);
+        AtomicInteger completions = new AtomicInteger();
+        TestLoader loader = new TestLoader(new StreamingRequestExecutor(new NoQueue(), client), result -> {
+            completions.incrementAndGet();
+            throw new IllegalStateException("application completion failed");
+        });
+
+        loader.start();
+        awaitResponses(client);
+
+        assertEquals(1, loader.handled.get());
+        assertEquals(1, completions.get());
+        assertTrue(loader.isDone());
+    }
+
+    @Test
+    public void testFailedResponseIsReportedOnce() throws InterruptedException {
+        OkHttpClient client = newClient(500);
+        AtomicInteger completions = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        TestLoader loader = new TestLoader(new StreamingRequestExecutor(new NoQueue(), client), result -> {
+            completions.incrementAndGet();
+            if (!result.isSuccess()) {
+                failures.incrementAndGet();
+            }
+        });
+
+        loader.start();
+        awaitResponses(client);
+
+        assertEquals(1, completions.get());
+        assertEquals(1, failures.get());
+    }
+}
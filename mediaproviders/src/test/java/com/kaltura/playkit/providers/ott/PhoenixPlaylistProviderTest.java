@@ -0,0 +1,141 @@
+package com.kaltura.playkit.providers.ott;
+
+import com.kaltura.netkit.connect.executor.RequestQueue;
+import com.kaltura.netkit.connect.request.RequestConfiguration;
+import com.kaltura.netkit.connect.request.RequestElement;
+import com.kaltura.netkit.connect.response.ResponseElement;
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.Accessories;
+import com.kaltura.netkit.utils.ErrorElement;
+import com.kaltura.netkit.utils.NetworkErrorEventListener;
+import com.kaltura.playkit.PKPlaylist;
+import com.kaltura.playkit.providers.PlaylistMetadata;
+import com.kaltura.playkit.providers.api.SimpleSessionProvider;
+import com.kaltura.playkit.providers.base.PlaylistLoadResult;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PhoenixPlaylistProviderTest extends TestCase {
+
+    /**
+     * Keeps the queued requests, the test responds to them in the queueing order.
+     */
+    private static class TestQueue implements RequestQueue {
+        final List<RequestElement> requests = new ArrayList<>();
+
+        @Override
+        public String queue(RequestElement request) {
+            requests.add(request);
+            return "request-" + requests.size();
+        }
+
+        void respond(int index, ResponseElement response) {
+            requests.get(index).onComplete(response);
+        }
+
+        @Override
+        public String queue(RequestElement request, int retryCount) {
+            return queue(request);
+        }
+
+        @Override
+        public ResponseElement execute(RequestElement request) {
+            return null;
+        }
+
+        @Override
+        public void setRequestConfiguration(RequestConfiguration config) {
+        }
+
+        @Override
+        public void cancelRequest(String reqId) {
+        }
+
+        @Override
+        public void clearRequests() {
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return requests.isEmpty();
+        }
+
+        @Override
+        public void setNetworkErrorEventListener(NetworkErrorEventListener networkErrorEventListener) {
+        }
+    }
+
+    private static String asset(int id) {
+        return "{\"objectType\":\"KalturaMediaAsset\",\"id\":" + id + ",\"name\":\"asset " + id + "\","
+                + "\"mediaFiles\":[{\"objectType\":\"KalturaMediaFile\",\"id\":" + (id * 10) + ",\"duration\":60}]}";
+    }
+
+    private static String assetNoFiles(int id) {
+        return "{\"objectType\":\"KalturaMediaAsset\",\"id\":" + id + ",\"name\":\"asset " + id + "\",\"mediaFiles\":[]}";
+    }
+
+    private static final String AssetNotFound = "{\"objectType\":\"KalturaAPIException\",\"code\":\"500007\",\"message\":\"Asset not found\"}";
+
+    private static ResponseElement multiResponse(String... results) {
+        return Accessories.buildResponse("{\"executionTime\":0.1,\"result\":[" + String.join(",", results) + "]}", null);
+    }
+
+    private static PhoenixPlaylistProvider newProvider(TestQueue queue, int assets) {
+        List<OTTMediaAsset> mediaAssets = new ArrayList<>();
+        for (int i = 0; i < assets; i++) {
+            mediaAssets.add(new OTTMediaAsset().setAssetId(String.valueOf(i + 1)));
+        }
+        return new PhoenixPlaylistProvider()
+                .setSessionProvider(new SimpleSessionProvider("https://test.kaltura.com/api_v3/", 1234, "ks"))
+                .setPlaylistParams(new PlaylistMetadata(), mediaAssets)
+                .setRequestExecutor(queue)
+                .setRequestChunking(2, 1);
+    }
+
+    @Test
+    public void testFailedChunkErrorsArePerItem() {
+        TestQueue queue = new TestQueue();
+        List<ResultElement<PKPlaylist>> results = new ArrayList<>();
+        newProvider(queue, 6).load(results::add);
+
+        queue.respond(0, multiResponse(asset(1), assetNoFiles(2)));
+        queue.respond(1, Accessories.buildResponse(null, ErrorElement.ConnectionError));
+        queue.respond(2, multiResponse(AssetNotFound, asset(6)));
+
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(0) instanceof PlaylistLoadResult);
+        PlaylistLoadResult result = (PlaylistLoadResult) results.get(0);
+
+        assertEquals(6, result.getResponse().getMediaList().size());
+        assertNotNull(result.getResponse().getMediaList().get(0));
+        assertNull(result.getResponse().getMediaList().get(1));
+        assertNull(result.getItemError(1)); // no media files, nothing to retry
+
+        assertEquals(3, result.getItemErrors().size());
+        assertEquals(ErrorElement.ConnectionError.getCode(), result.getItemError(2).getCode());
+        assertEquals(ErrorElement.ConnectionError.getCode(), result.getItemError(3).getCode());
+        assertEquals("500007", result.getItemError(4).getCode());
+        assertNull(result.getItemError(5));
+    }
+
+    @Test
+    public void testNoItemErrorsWhenAllItemsLoad() {
+        TestQueue queue = new TestQueue();
+        List<ResultElement<PKPlaylist>> results = new ArrayList<>();
+        newProvider(queue, 4).load(results::add);
+
+        queue.respond(0, multiResponse(asset(1), asset(2)));
+        queue.respond(1, multiResponse(asset(3), asset(4)));
+
+        assertEquals(1, results.size());
+        PlaylistLoadResult result = (PlaylistLoadResult) results.get(0);
+        assertTrue(result.isSuccess());
+        assertTrue(result.getItemErrors().isEmpty());
+    }
+}
@@ -0,0 +1,146 @@
+package com.kaltura.playkit.providers.ovp;
+
+import androidx.annotation.NonNull;
+
+import com.kaltura.netkit.connect.response.ResultElement;
+import com.kaltura.netkit.utils.Accessories;
+import com.kaltura.netkit.utils.OnCompletion;
+import com.kaltura.playkit.PKPlaylist;
+import com.kaltura.playkit.PKPlaylistMedia;
+import com.kaltura.playkit.providers.base.LoadHandle;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class KalturaOvpPlaylistPagerTest extends TestCase {
+
+    private static final int PageSize = 3;
+
+    private static class TestProvider extends KalturaOvpPlaylistProvider {
+        final Map<Integer, OnCompletion<ResultElement<PKPlaylist>>> pageLoads = new LinkedHashMap<>();
+        int loadsCount;
+
+        @Override
+        LoadHandle<PKPlaylist> loadPage(@NonNull KalturaOvpPlaylistPager pager, int pageIndex, OnCompletion<ResultElement<PKPlaylist>> completion) {
+            pageLoads.put(pageIndex, completion);
+            loadsCount++;
+            return null;
+        }
+
+        void completePage(int pageIndex, int entriesCount) {
+            List<PKPlaylistMedia> medias = new ArrayList<>();
+            for (int i = 0; i < entriesCount; i++) {
+                medias.add(new PKPlaylistMedia().setId(pageIndex + "_" + i));
+            }
+            pageLoads.remove(pageIndex).onComplete(Accessories.buildResult(new PKPlaylist().setMediaList(medias), null));
+        }
+    }
+
+    private static class Pages {
+        final List<PKPlaylist> pages = new ArrayList<>();
+
+        void add(ResultElement<PKPlaylist> result) {
+            pages.add(result.getResponse());
+        }
+    }
+
+    private static TestProvider newProvider() {
+        TestProvider provider = new TestProvider();
+        provider.setPlaylistId("0_playlist");
+        return provider;
+    }
+
+    @Test
+    public void testNextPageIsPrefetched() {
+        TestProvider provider = newProvider();
+        KalturaOvpPlaylistPager pager = provider.createPager(PageSize);
+        Pages pages = new Pages();
+
+        pager.loadNextPage(pages::add);
+        assertEquals(1, provider.loadsCount);
+        provider.completePage(1, PageSize);
+
+        assertEquals(1, pages.pages.size());
+        assertEquals(1, pager.getPageIndex());
+        assertTrue(provider.pageLoads.containsKey(2)); // prefetch
+    }
+
+    @Test
+    public void testPrefetchingPageIsJoined() {
+        TestProvider provider = newProvider();
+        KalturaOvpPlaylistPager pager = provider.createPager(PageSize);
+        Pages pages = new Pages();
+        pager.loadNextPage(pages::add);
+        provider.completePage(1, PageSize);
+
+        pager.loadNextPage(pages::add);
+        assertEquals(2, provider.loadsCount); // no additional request for page 2
+        provider.completePage(2, PageSize);
+
+        assertEquals(2, pages.pages.size());
+        assertEquals("2_0", pages.pages.get(1).getMediaList().get(0).getId());
+        assertEquals(3, provider.loadsCount); // page 3 prefetched once page 2 was passed
+    }
+
+    @Test
+    public void testPrefetchedPageIsPassedFromMemory() {
+        TestProvider provider = newProvider();
+        KalturaOvpPlaylistPager pager = provider.createPager(PageSize);
+        Pages pages = new Pages();
+        pager.loadNextPage(pages::add);
+        provider.completePage(1, PageSize);
+        provider.completePage(2, PageSize); // prefetch completed
+        assertEquals(1, pages.pages.size()); // prefetched pages are not passed
+
+        pager.loadNextPage(pages::add);
+        assertEquals(2, pages.pages.size());
+        assertEquals("2_0", pages.pages.get(1).getMediaList().get(0).getId());
+    }
+
+    @Test
+    public void testShortPageIsTheLastPage() {
+        TestProvider provider = newProvider();
+        KalturaOvpPlaylistPager pager = provider.createPager(PageSize);
+        Pages pages = new Pages();
+        pager.loadNextPage(pages::add);
+        assertTrue(pager.hasNextPage());
+
+        provider.completePage(1, PageSize - 1);
+
+        assertFalse(pager.hasNextPage());
+        assertTrue(provider.pageLoads.isEmpty()); // nothing to prefetch
+    }
+
+    @Test
+    public void testCanceledLoadIsNotPassed() {
+        TestProvider provider = newProvider();
+        KalturaOvpPlaylistPager pager = provider.createPager(PageSize);
+        Pages pages = new Pages();
+        pager.loadNextPage(pages::add);
+
+        pager.cancel();
+        provider.completePage(1, PageSize);
+
+        assertTrue(pages.pages.isEmpty());
+        assertEquals(1, pager.getPageIndex());
+    }
+
+    @Test
+    public void testInvalidPageIndex() {
+        TestProvider provider = newProvider();
+        KalturaOvpPlaylistPager pager = provider.createPager(PageSize);
+        final List<ResultElement<PKPlaylist>> results = new ArrayList<>();
+
+        pager.loadPage(0, results::add);
+
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).isSuccess());
+        assertEquals(0, provider.loadsCount);
+    }
+}